@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.assets;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.Null;
+
+/** Files can't be written, so nothing is cached. */
+public class AssetCache {
+	final FileHandle directory;
+
+	public AssetCache (FileHandle directory) {
+		this.directory = directory;
+	}
+
+	public FileHandle getDirectory () {
+		return directory;
+	}
+
+	public void setLazyArraySize (int lazyArraySize) {
+	}
+
+	public String getKey (FileHandle file, String variant) {
+		return file.path() + ":" + variant;
+	}
+
+	public @Null Pixmap getPixmap (FileHandle file, String variant) {
+		return null;
+	}
+
+	public void putPixmap (FileHandle file, String variant, Pixmap pixmap) {
+	}
+
+	public @Null JsonValue getJson (FileHandle file, String variant) {
+		return null;
+	}
+
+	public void putJson (FileHandle file, String variant, JsonValue json) {
+	}
+
+	public void clear () {
+	}
+}
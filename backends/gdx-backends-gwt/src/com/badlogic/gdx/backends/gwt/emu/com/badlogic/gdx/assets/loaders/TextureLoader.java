@@ -94,5 +94,7 @@ public class TextureLoader extends AsynchronousAssetLoader<Texture, TextureLoade
 		public TextureFilter magFilter = TextureFilter.Nearest;
 		public TextureWrap wrapU = TextureWrap.ClampToEdge;
 		public TextureWrap wrapV = TextureWrap.ClampToEdge;
+		/** Not used on GWT, textures are uploaded at once. **/
+		public int uploadChunkSize = 0;
 	}
 }
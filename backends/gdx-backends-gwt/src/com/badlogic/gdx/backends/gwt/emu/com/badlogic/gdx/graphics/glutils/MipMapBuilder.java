@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Null;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+/** Pixmap pixels are not in a ByteBuffer, so no format is supported and {@link MipMapGenerator} scales each level with
+ * {@link Pixmap#drawPixmap(Pixmap, int, int, int, int, int, int, int, int)}. */
+public class MipMapBuilder {
+	private Filter filter = Filter.Box;
+	private boolean gammaCorrect = true;
+	private @Null AsyncExecutor executor;
+
+	public void setFilter (Filter filter) {
+		this.filter = filter;
+	}
+
+	public Filter getFilter () {
+		return filter;
+	}
+
+	public void setGammaCorrect (boolean gammaCorrect) {
+		this.gammaCorrect = gammaCorrect;
+	}
+
+	public boolean getGammaCorrect () {
+		return gammaCorrect;
+	}
+
+	public void setExecutor (@Null AsyncExecutor executor) {
+		this.executor = executor;
+	}
+
+	public @Null AsyncExecutor getExecutor () {
+		return executor;
+	}
+
+	public void setBandSize (int pixels) {
+	}
+
+	static public boolean supports (Format format) {
+		return false;
+	}
+
+	public int build (Pixmap pixmap) {
+		throw new GdxRuntimeException("Not supported on GWT.");
+	}
+
+	public int build (ByteBuffer pixels, int width, int height, Format format) {
+		throw new GdxRuntimeException("Not supported on GWT.");
+	}
+
+	public int getLevels () {
+		return 0;
+	}
+
+	public ByteBuffer getLevel (int level) {
+		throw new GdxRuntimeException("Not supported on GWT.");
+	}
+
+	public int getLevelWidth (int level) {
+		return 0;
+	}
+
+	public int getLevelHeight (int level) {
+		return 0;
+	}
+
+	public void upload (int target, Pixmap pixmap) {
+		throw new GdxRuntimeException("Not supported on GWT.");
+	}
+
+	public void clear () {
+	}
+
+	static public enum Filter {
+		Box, Kaiser
+	}
+}
@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.assets;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.ChannelOutputStream;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.Null;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.UBJsonReader;
+import com.badlogic.gdx.utils.UBJsonWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/** Stores decoded asset data in a directory, so it doesn't have to be decoded again the next time the application is started.
+ * Set it with {@link AssetManager#setCache(AssetCache)} to cache the pixels of textures and with
+ * {@link com.badlogic.gdx.graphics.g3d.loader.G3dModelLoader#setCache(AssetCache)} to cache g3dj models.
+ * <p>
+ * An entry is keyed by the path, length and last modified time of the source file and a variant string describing the loader
+ * parameters that affect the decoded data, so it is not used anymore when any of those change. Entries are stored uncompressed
+ * after a small header, so they can be memory mapped: pixels are copied directly into a new {@link Pixmap} and JSON is stored as
+ * UBJSON, which is parsed from the mapped file with large number arrays decoded only when accessed. Entries are written to a
+ * temporary file first, so an entry is never read partially written. Methods can be called from multiple threads, as long as
+ * they don't use the same entry at the same time, which {@link AssetManager} ensures.
+ * <p>
+ * Internal files on some backends don't have a last modified time, so entries for them only change with the file length. The
+ * cache directory should then be cleared when the application is updated. */
+public class AssetCache {
+	static private final int magic = 0x67647863; // gdxc
+	static private final int version = 1;
+	static private final int typePixmap = 1, typeJson = 2;
+	static private final int headerSize = 24;
+
+	final FileHandle directory;
+	/** Parses cached JSON. Arrays of at least this many numbers are decoded lazily. */
+	private int lazyArraySize = 64;
+
+	/** @param directory A writable directory, which is created if it doesn't exist. Must not be {@link FileType#Internal} or
+	 *           {@link FileType#Classpath}. */
+	public AssetCache (FileHandle directory) {
+		if (directory.type() == FileType.Internal || directory.type() == FileType.Classpath)
+			throw new IllegalArgumentException("The cache directory must be writable: " + directory);
+		this.directory = directory;
+	}
+
+	public FileHandle getDirectory () {
+		return directory;
+	}
+
+	/** Sets the minimum number of numbers in an array of cached JSON for it to be decoded only when accessed. 0 decodes all
+	 * numbers when the entry is read. Default is 64. */
+	public void setLazyArraySize (int lazyArraySize) {
+		this.lazyArraySize = lazyArraySize;
+	}
+
+	/** Returns the file name of the entry for the file and variant. */
+	public String getKey (FileHandle file, String variant) {
+		String key = file.type() + ":" + file.path() + ":" + file.length() + ":" + file.lastModified() + ":" + variant;
+		// 64 bit FNV-1a.
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0, n = key.length(); i < n; i++) {
+			hash ^= key.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		String hex = Long.toHexString(hash);
+		return "0000000000000000".substring(hex.length()) + hex;
+	}
+
+	/** Returns a new pixmap with the cached pixels, or null if there is no entry or it is invalid. */
+	public @Null Pixmap getPixmap (FileHandle file, String variant) {
+		FileHandle entry = directory.child(getKey(file, variant));
+		ByteBuffer buffer = read(entry, typePixmap);
+		if (buffer == null) return null;
+		int width = buffer.getInt(), height = buffer.getInt(), format = buffer.getInt();
+		Pixmap pixmap;
+		try {
+			pixmap = new Pixmap(width, height, Format.fromGdx2DPixmapFormat(format));
+		} catch (GdxRuntimeException ex) {
+			entry.delete();
+			return null;
+		}
+		ByteBuffer pixels = pixmap.getPixels();
+		if (buffer.remaining() != pixels.capacity()) {
+			pixmap.dispose();
+			entry.delete();
+			return null;
+		}
+		pixels.clear();
+		pixels.put(buffer);
+		pixels.clear();
+		return pixmap;
+	}
+
+	/** Stores the pixels of the pixmap for the file and variant.
+	 * @throws GdxRuntimeException if the entry could not be written. */
+	public void putPixmap (FileHandle file, String variant, Pixmap pixmap) {
+		ByteBuffer header = header(typePixmap);
+		header.putInt(pixmap.getWidth());
+		header.putInt(pixmap.getHeight());
+		header.putInt(Format.toGdx2DPixmapFormat(pixmap.getFormat()));
+		header.flip();
+		ByteBuffer pixels = pixmap.getPixels().duplicate();
+		pixels.clear();
+
+		FileHandle entry = directory.child(getKey(file, variant));
+		FileHandle temp = entry.sibling(entry.name() + ".tmp");
+		ChannelOutputStream output = new ChannelOutputStream(ByteBuffer.allocate(4));
+		try {
+			output.open(temp);
+			WritableByteChannel channel = output.getChannel();
+			while (header.hasRemaining())
+				channel.write(header);
+			while (pixels.hasRemaining())
+				channel.write(pixels);
+			output.close();
+		} catch (IOException ex) {
+			StreamUtils.closeQuietly(output);
+			temp.delete();
+			throw new GdxRuntimeException("Error writing cache entry for: " + file, ex);
+		}
+		commit(temp, entry);
+	}
+
+	/** Returns the cached JSON, or null if there is no entry or it is invalid. The returned value may reference the mapped entry
+	 * until its number arrays are accessed. */
+	public @Null JsonValue getJson (FileHandle file, String variant) {
+		FileHandle entry = directory.child(getKey(file, variant));
+		ByteBuffer buffer = read(entry, typeJson);
+		if (buffer == null) return null;
+		buffer.position(headerSize);
+		UBJsonReader reader = new UBJsonReader();
+		reader.lazyArraySize = lazyArraySize;
+		try {
+			return reader.parse(buffer.slice());
+		} catch (RuntimeException ex) {
+			entry.delete();
+			return null;
+		}
+	}
+
+	/** Stores the JSON for the file and variant.
+	 * @throws GdxRuntimeException if the entry could not be written. */
+	public void putJson (FileHandle file, String variant, JsonValue json) {
+		ByteBuffer header = header(typeJson);
+		FileHandle entry = directory.child(getKey(file, variant));
+		FileHandle temp = entry.sibling(entry.name() + ".tmp");
+		ChannelOutputStream output = new ChannelOutputStream(ByteBuffer.allocate(8192));
+		try {
+			output.open(temp);
+			output.write(header.array(), 0, headerSize);
+			UBJsonWriter writer = new UBJsonWriter(output);
+			write(writer, json);
+			writer.close();
+		} catch (IOException ex) {
+			StreamUtils.closeQuietly(output);
+			temp.delete();
+			throw new GdxRuntimeException("Error writing cache entry for: " + file, ex);
+		}
+		commit(temp, entry);
+	}
+
+	/** Writes the value like {@link UBJsonWriter#value(JsonValue)}, except that arrays of numbers that would be parsed lazily are
+	 * written with a single type, which is required to parse them lazily. The narrowest type that doesn't change the values is
+	 * used. */
+	private void write (UBJsonWriter writer, JsonValue value) throws IOException {
+		boolean array = value.isArray();
+		if (!array && !value.isObject()) {
+			writer.value(value);
+			return;
+		}
+		if (array && lazyArraySize > 0 && value.size >= lazyArraySize && writeNumbers(writer, value)) return;
+		if (value.name != null) writer.name(value.name);
+		if (array)
+			writer.array();
+		else
+			writer.object();
+		for (JsonValue child = value.child(); child != null; child = child.next)
+			write(writer, child);
+		writer.pop();
+	}
+
+	/** Returns false if the array has values that are not numbers. */
+	private boolean writeNumbers (UBJsonWriter writer, JsonValue array) throws IOException {
+		// Longs in an array with decimals are written as decimals, so they must fit in a float too.
+		boolean decimal = false, narrowInt = true, narrowFloat = true;
+		for (JsonValue child = array.child(); child != null; child = child.next) {
+			if (child.isDouble()) {
+				double value = child.asDouble();
+				decimal = true;
+				if ((float)value != value) narrowFloat = false;
+			} else if (child.isLong()) {
+				long value = child.asLong();
+				if ((int)value != value) narrowInt = false;
+				if ((long)(float)value != value) narrowFloat = false;
+				if ((long)(double)value != value) return false;
+			} else
+				return false;
+		}
+		if (array.name != null) writer.name(array.name);
+		if (decimal) {
+			if (narrowFloat)
+				writer.value(array.asFloatArray());
+			else
+				writer.value(array.asDoubleArray());
+		} else {
+			if (narrowInt)
+				writer.value(array.asIntArray());
+			else
+				writer.value(array.asLongArray());
+		}
+		return true;
+	}
+
+	/** Deletes all entries. */
+	public void clear () {
+		directory.deleteDirectory();
+	}
+
+	private ByteBuffer header (int type) {
+		ByteBuffer header = ByteBuffer.allocate(headerSize);
+		header.order(ByteOrder.BIG_ENDIAN);
+		header.putInt(magic);
+		header.putInt(version);
+		header.putInt(type);
+		return header;
+	}
+
+	/** Returns the entry's contents positioned after the type, or null if the entry doesn't exist or has the wrong header. */
+	private @Null ByteBuffer read (FileHandle entry, int type) {
+		if (!entry.exists()) return null;
+		ByteBuffer buffer;
+		try {
+			buffer = entry.map();
+		} catch (GdxRuntimeException ex) {
+			try {
+				buffer = ByteBuffer.wrap(entry.readBytes());
+			} catch (GdxRuntimeException ex2) {
+				return null;
+			}
+		}
+		buffer.order(ByteOrder.BIG_ENDIAN);
+		if (buffer.remaining() < headerSize || buffer.getInt() != magic || buffer.getInt() != version
+			|| buffer.getInt() != type) {
+			entry.delete();
+			return null;
+		}
+		return buffer;
+	}
+
+	private void commit (FileHandle temp, FileHandle entry) {
+		entry.delete();
+		if (!temp.file().renameTo(entry.file())) {
+			temp.delete();
+			throw new GdxRuntimeException("Error writing cache entry: " + entry);
+		}
+	}
+}
@@ -27,6 +27,8 @@ public class AssetDescriptor<T> {
 	public final AssetLoaderParameters params;
 	/** The resolved file. May be null if the fileName has not been resolved yet. */
 	public FileHandle file;
+	/** Queued assets with a higher priority are loaded first, see {@link AssetManager#load(AssetDescriptor)}. Default is 0. */
+	public int priority;
 
 	public AssetDescriptor (String fileName, Class<T> assetType) {
 		this(fileName, assetType, null);
@@ -16,6 +16,8 @@
 
 package com.badlogic.gdx.assets;
 
+import com.badlogic.gdx.assets.AssetProfiler.AssetTiming;
+import com.badlogic.gdx.assets.AssetProfiler.Phase;
 import com.badlogic.gdx.assets.loaders.AssetLoader;
 import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
 import com.badlogic.gdx.assets.loaders.SynchronousAssetLoader;
@@ -23,6 +25,7 @@ import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.Logger;
+import com.badlogic.gdx.utils.Null;
 import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.async.AsyncExecutor;
 import com.badlogic.gdx.utils.async.AsyncResult;
@@ -48,6 +51,13 @@ class AssetLoadingTask implements AsyncTask<Void> {
 
 	volatile boolean cancel;
 
+	/** The lane of the {@link AssetManager} that loads this task and the tasks it depends on. */
+	int lane;
+	/** If not null, this task waits for the asset to be loaded by a task in another lane. */
+	@Null AssetLoadingTask waitFor;
+	/** If not null, the times of the loader calls are recorded. */
+	@Null AssetTiming timing;
+
 	public AssetLoadingTask (AssetManager manager, AssetDescriptor assetDesc, AssetLoader loader, AsyncExecutor threadPool) {
 		this.manager = manager;
 		this.assetDesc = assetDesc;
@@ -62,22 +72,28 @@ class AssetLoadingTask implements AsyncTask<Void> {
 		if (cancel) return null;
 		AsynchronousAssetLoader asyncLoader = (AsynchronousAssetLoader)loader;
 		if (!dependenciesLoaded) {
+			if (timing != null) timing.begin(Phase.resolve);
 			dependencies = asyncLoader.getDependencies(assetDesc.fileName, resolve(loader, assetDesc), assetDesc.params);
+			if (timing != null) timing.end(Phase.resolve);
 			if (dependencies != null) {
 				removeDuplicates(dependencies);
 				manager.injectDependencies(assetDesc.fileName, dependencies);
 			} else {
 				// if we have no dependencies, we load the async part of the task immediately.
-				asyncLoader.loadAsync(manager, assetDesc.fileName, resolve(loader, assetDesc), assetDesc.params);
-				asyncDone = true;
+				loadAsync(asyncLoader);
 			}
-		} else {
-			asyncLoader.loadAsync(manager, assetDesc.fileName, resolve(loader, assetDesc), assetDesc.params);
-			asyncDone = true;
-		}
+		} else
+			loadAsync(asyncLoader);
 		return null;
 	}
 
+	private void loadAsync (AsynchronousAssetLoader asyncLoader) {
+		if (timing != null) timing.begin(Phase.loadAsync);
+		asyncLoader.loadAsync(manager, assetDesc.fileName, resolve(loader, assetDesc), assetDesc.params);
+		if (timing != null) timing.end(Phase.loadAsync);
+		asyncDone = true;
+	}
+
 	/** Updates the loading of the asset. In case the asset is loaded with an {@link AsynchronousAssetLoader}, the loaders
 	 * {@link AsynchronousAssetLoader#loadAsync(AssetManager, String, FileHandle, AssetLoaderParameters)} method is first called on
 	 * a worker thread. Once this method returns, the rest of the asset is loaded on the rendering thread via
@@ -92,19 +108,35 @@ class AssetLoadingTask implements AsyncTask<Void> {
 		return asset != null;
 	}
 
+	/** Returns true if the next {@link #update()} calls the loader on the rendering thread, rather than only submitting work to
+	 * the executor or checking if it is done. */
+	boolean isSyncNext () {
+		if (loader instanceof SynchronousAssetLoader) return true;
+		if (!dependenciesLoaded) return asyncDone && depsFuture != null && depsFuture.isDone();
+		return asyncDone || (loadFuture != null && loadFuture.isDone());
+	}
+
 	private void handleSyncLoader () {
 		SynchronousAssetLoader syncLoader = (SynchronousAssetLoader)loader;
 		if (!dependenciesLoaded) {
 			dependenciesLoaded = true;
+			if (timing != null) timing.begin(Phase.resolve);
 			dependencies = syncLoader.getDependencies(assetDesc.fileName, resolve(loader, assetDesc), assetDesc.params);
+			if (timing != null) timing.end(Phase.resolve);
 			if (dependencies == null) {
-				asset = syncLoader.load(manager, assetDesc.fileName, resolve(loader, assetDesc), assetDesc.params);
+				load(syncLoader);
 				return;
 			}
 			removeDuplicates(dependencies);
 			manager.injectDependencies(assetDesc.fileName, dependencies);
 		} else
-			asset = syncLoader.load(manager, assetDesc.fileName, resolve(loader, assetDesc), assetDesc.params);
+			load(syncLoader);
+	}
+
+	private void load (SynchronousAssetLoader syncLoader) {
+		if (timing != null) timing.begin(Phase.loadSync);
+		asset = syncLoader.load(manager, assetDesc.fileName, resolve(loader, assetDesc), assetDesc.params);
+		if (timing != null) timing.end(Phase.loadSync);
 	}
 
 	private void handleAsyncLoader () {
@@ -120,22 +152,28 @@ class AssetLoadingTask implements AsyncTask<Void> {
 				}
 				dependenciesLoaded = true;
 				if (asyncDone)
-					asset = asyncLoader.loadSync(manager, assetDesc.fileName, resolve(loader, assetDesc), assetDesc.params);
+					loadSync(asyncLoader);
 			}
 		} else if (loadFuture == null && !asyncDone)
 			loadFuture = executor.submit(this);
 		else if (asyncDone)
-			asset = asyncLoader.loadSync(manager, assetDesc.fileName, resolve(loader, assetDesc), assetDesc.params);
+			loadSync(asyncLoader);
 		else if (loadFuture.isDone()) {
 			try {
 				loadFuture.get();
 			} catch (Exception e) {
 				throw new GdxRuntimeException("Couldn't load asset: " + assetDesc.fileName, e);
 			}
-			asset = asyncLoader.loadSync(manager, assetDesc.fileName, resolve(loader, assetDesc), assetDesc.params);
+			loadSync(asyncLoader);
 		}
 	}
 
+	private void loadSync (AsynchronousAssetLoader asyncLoader) {
+		if (timing != null) timing.begin(Phase.loadSync);
+		asset = asyncLoader.loadSync(manager, assetDesc.fileName, resolve(loader, assetDesc), assetDesc.params);
+		if (timing != null) timing.end(Phase.loadSync);
+	}
+
 	/** Called when this task is the task that is currently being processed and it is unloaded. */
 	public void unload () {
 		if (loader instanceof AsynchronousAssetLoader)
@@ -18,6 +18,7 @@ package com.badlogic.gdx.assets;
 
 import com.badlogic.gdx.Application;
 import com.badlogic.gdx.assets.loaders.AssetLoader;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
 import com.badlogic.gdx.assets.loaders.BitmapFontLoader;
 import com.badlogic.gdx.assets.loaders.CubemapLoader;
 import com.badlogic.gdx.assets.loaders.FileHandleResolver;
@@ -33,6 +34,7 @@ import com.badlogic.gdx.assets.loaders.TextureLoader;
 import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Cubemap;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
@@ -54,12 +56,14 @@ import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.Logger;
 import com.badlogic.gdx.utils.Null;
 import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectLongMap;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.ObjectMap.Entry;
 import com.badlogic.gdx.utils.ObjectSet;
 import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.UBJsonReader;
 import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
 import com.badlogic.gdx.utils.async.ThreadUtils;
 import com.badlogic.gdx.utils.reflect.ClassReflection;
 
@@ -72,11 +76,24 @@ public class AssetManager implements Disposable {
 	final ObjectSet<String> injected = new ObjectSet();
 
 	final ObjectMap<Class, ObjectMap<String, AssetLoader>> loaders = new ObjectMap();
+	/** Sorted by descending priority, then by the order the assets were queued. */
 	final Array<AssetDescriptor> loadQueue = new Array();
+	private final Array<AssetDescriptor> moved = new Array();
 	final AsyncExecutor executor;
 
 	final Array<AssetLoadingTask> tasks = new Array();
+	/** The task for the queued asset each lane is loading, or null if the lane is free. Only used with more than one lane. */
+	final AssetLoadingTask[] laneRoots;
+	final int[] laneTasks;
 	AssetErrorListener listener;
+	@Null AssetProfiler profiler;
+	@Null AssetCache cache;
+
+	/** The learned time in nanoseconds of a call on the rendering thread, per loader class. */
+	final ObjectLongMap<Class> syncCosts = new ObjectLongMap();
+	/** The {@link TimeUtils#nanoTime()} by which work on the rendering thread must be done, or 0. */
+	long deadline;
+	boolean syncStepped, overBudget;
 	int loaded;
 	int toLoad;
 	int peakTasks;
@@ -99,6 +116,20 @@ public class AssetManager implements Disposable {
 	 * manually add the loaders you need, including any loaders they might depend on.
 	 * @param defaultLoaders whether to add the default loaders */
 	public AssetManager (FileHandleResolver resolver, boolean defaultLoaders) {
+		this(resolver, defaultLoaders, 1);
+	}
+
+	/** Creates a new AssetManager with optionally all default loaders. If you don't add the default loaders then you do have to
+	 * manually add the loaders you need, including any loaders they might depend on.
+	 * <p>
+	 * With more than one thread, up to that many assets from the load queue are loaded at the same time, each in its own lane
+	 * together with its dependencies. Dependencies are still loaded before the assets that need them. A dependency shared by
+	 * assets in different lanes is loaded once. Assets using a loader that can't
+	 * {@link AssetLoader#canLoadConcurrently() load concurrently} are loaded one at a time.
+	 * @param defaultLoaders whether to add the default loaders
+	 * @param threads the number of threads used to load assets, and the number of lanes. */
+	public AssetManager (FileHandleResolver resolver, boolean defaultLoaders, int threads) {
+		if (threads < 1) throw new IllegalArgumentException("threads must be >= 1: " + threads);
 		this.resolver = resolver;
 		if (defaultLoaders) {
 			setLoader(BitmapFont.class, new BitmapFontLoader(resolver));
@@ -114,12 +145,17 @@ public class AssetManager implements Disposable {
 			setLoader(PolygonRegion.class, new PolygonRegionLoader(resolver));
 			setLoader(I18NBundle.class, new I18NBundleLoader(resolver));
 			setLoader(Model.class, ".g3dj", new G3dModelLoader(new JsonReader(), resolver));
-			setLoader(Model.class, ".g3db", new G3dModelLoader(new UBJsonReader(), resolver));
+			UBJsonReader ubjsonReader = new UBJsonReader();
+			ubjsonReader.mapFiles = true;
+			ubjsonReader.lazyArraySize = 32;
+			setLoader(Model.class, ".g3db", new G3dModelLoader(ubjsonReader, resolver));
 			setLoader(Model.class, ".obj", new ObjLoader(resolver));
 			setLoader(ShaderProgram.class, new ShaderProgramLoader(resolver));
 			setLoader(Cubemap.class, new CubemapLoader(resolver));
 		}
-		executor = new AsyncExecutor(1, "AssetManager");
+		executor = new AsyncExecutor(threads, "AssetManager");
+		laneRoots = new AssetLoadingTask[threads];
+		laneTasks = new int[threads];
 	}
 
 	/** Returns the {@link FileHandleResolver} for which this AssetManager was loaded with.
@@ -193,7 +229,7 @@ public class AssetManager implements Disposable {
 
 	/** Returns true if an asset with the specified name is loading, queued to be loaded, or has been loaded. */
 	public synchronized boolean contains (String fileName) {
-		if (tasks.size > 0 && tasks.first().assetDesc.fileName.equals(fileName)) return true;
+		if (findRootTask(fileName) != null) return true;
 
 		for (int i = 0; i < loadQueue.size; i++)
 			if (loadQueue.get(i).fileName.equals(fileName)) return true;
@@ -203,10 +239,8 @@ public class AssetManager implements Disposable {
 
 	/** Returns true if an asset with the specified name and type is loading, queued to be loaded, or has been loaded. */
 	public synchronized boolean contains (String fileName, Class type) {
-		if (tasks.size > 0) {
-			AssetDescriptor assetDesc = tasks.first().assetDesc;
-			if (assetDesc.type == type && assetDesc.fileName.equals(fileName)) return true;
-		}
+		AssetLoadingTask task = findRootTask(fileName);
+		if (task != null && task.assetDesc.type == type) return true;
 
 		for (int i = 0; i < loadQueue.size; i++) {
 			AssetDescriptor assetDesc = loadQueue.get(i);
@@ -220,36 +254,24 @@ public class AssetManager implements Disposable {
 	 * @param fileName the file name */
 	public synchronized void unload (String fileName) {
 		// check if it's currently processed (and the first element in the stack, thus not a dependency) and cancel if necessary
-		if (tasks.size > 0) {
-			AssetLoadingTask currentTask = tasks.first();
-			if (currentTask.assetDesc.fileName.equals(fileName)) {
-				log.info("Unload (from tasks): " + fileName);
-				currentTask.cancel = true;
-				currentTask.unload();
-				return;
-			}
+		AssetLoadingTask currentTask = findRootTask(fileName);
+		if (currentTask != null) {
+			log.info("Unload (from tasks): " + fileName);
+			currentTask.cancel = true;
+			currentTask.unload();
+			return;
 		}
 
 		Class type = assetTypes.get(fileName);
 
 		// check if it's in the queue
-		int foundIndex = -1;
 		for (int i = 0; i < loadQueue.size; i++) {
 			if (loadQueue.get(i).fileName.equals(fileName)) {
-				foundIndex = i;
-				break;
+				log.info("Unload (from queue): " + fileName);
+				removeQueued(i);
+				return;
 			}
 		}
-		if (foundIndex != -1) {
-			toLoad--;
-			AssetDescriptor desc = loadQueue.removeIndex(foundIndex);
-			log.info("Unload (from queue): " + fileName);
-
-			// if the queued asset was already loaded, let the callback know it is available.
-			if (type != null && desc.params != null && desc.params.loadedCallback != null)
-				desc.params.loadedCallback.finishedLoading(this, desc.fileName, desc.type);
-			return;
-		}
 
 		if (type == null) throw new GdxRuntimeException("Asset not loaded: " + fileName);
 
@@ -279,6 +301,92 @@ public class AssetManager implements Disposable {
 		if (assetRef.refCount <= 0) assetDependencies.remove(fileName);
 	}
 
+	/** Removes the queued asset at the index. If it was already loaded, lets the callback know it is available. */
+	private void removeQueued (int index) {
+		toLoad--;
+		AssetDescriptor desc = loadQueue.removeIndex(index);
+		if (profiler != null) profiler.dequeued(desc);
+		if (assetTypes.containsKey(desc.fileName) && desc.params != null && desc.params.loadedCallback != null)
+			desc.params.loadedCallback.finishedLoading(this, desc.fileName, desc.type);
+	}
+
+	/** Stops loading the asset if it is queued or loading, without unloading it if it is already loaded. Unlike
+	 * {@link #unload(String)}, all queued loads of the asset are removed.
+	 * @return true if the asset was queued or loading. */
+	public synchronized boolean cancel (String fileName) {
+		boolean cancelled = false;
+		AssetLoadingTask task = findRootTask(fileName);
+		if (task != null && !task.cancel) {
+			log.info("Cancel (from tasks): " + fileName);
+			task.cancel = true;
+			task.unload();
+			cancelled = true;
+		}
+		for (int i = loadQueue.size - 1; i >= 0; i--) {
+			if (loadQueue.get(i).fileName.equals(fileName)) {
+				log.info("Cancel (from queue): " + fileName);
+				removeQueued(i);
+				cancelled = true;
+			}
+		}
+		return cancelled;
+	}
+
+	/** Removes all queued assets with a priority lower than the specified priority. Assets that are already loading are not
+	 * cancelled.
+	 * @return the number of queued loads removed. */
+	public synchronized int cancelBelow (int priority) {
+		int count = 0;
+		for (int i = loadQueue.size - 1; i >= 0; i--) {
+			AssetDescriptor desc = loadQueue.get(i);
+			if (desc.priority < priority) {
+				log.info("Cancel (from queue): " + desc.fileName);
+				removeQueued(i);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/** Changes the priority of the queued loads of the asset and moves them in the queue accordingly. Has no effect on an asset
+	 * that is already loading.
+	 * @return true if the asset is queued. */
+	public synchronized boolean setPriority (String fileName, int priority) {
+		Array<AssetDescriptor> loadQueue = this.loadQueue, moved = this.moved;
+		boolean queued = false;
+		for (int i = 0; i < loadQueue.size; i++) {
+			AssetDescriptor desc = loadQueue.get(i);
+			if (!desc.fileName.equals(fileName)) continue;
+			queued = true;
+			if (desc.priority != priority) {
+				moved.add(loadQueue.removeIndex(i--));
+				desc.priority = priority;
+			}
+		}
+		for (int i = 0; i < moved.size; i++)
+			enqueue(moved.get(i));
+		moved.clear();
+		return queued;
+	}
+
+	/** Returns the priority of the first queued load of the asset, or the default value if it isn't queued. */
+	public synchronized int getPriority (String fileName, int defaultValue) {
+		for (int i = 0; i < loadQueue.size; i++) {
+			AssetDescriptor desc = loadQueue.get(i);
+			if (desc.fileName.equals(fileName)) return desc.priority;
+		}
+		return defaultValue;
+	}
+
+	/** Inserts the asset into the queue after all assets with the same or a higher priority. */
+	private void enqueue (AssetDescriptor desc) {
+		Array<AssetDescriptor> loadQueue = this.loadQueue;
+		int index = loadQueue.size;
+		while (index > 0 && loadQueue.get(index - 1).priority < desc.priority)
+			index--;
+		loadQueue.insert(index, desc);
+	}
+
 	/** @param asset the asset
 	 * @return whether the asset is contained in this manager */
 	public synchronized <T> boolean containsAsset (T asset) {
@@ -362,6 +470,17 @@ public class AssetManager implements Disposable {
 	 * @param type the type of the asset.
 	 * @param parameter parameters for the AssetLoader. */
 	public synchronized <T> void load (String fileName, Class<T> type, AssetLoaderParameters<T> parameter) {
+		load(fileName, type, parameter, 0);
+	}
+
+	/** Adds the given asset to the loading queue of the AssetManager, before all queued assets with a lower priority. An asset
+	 * that is already loading is not interrupted. The dependencies of an asset are loaded right after it starts loading, so they
+	 * don't wait in the queue.
+	 * @param fileName the file name (interpretation depends on {@link AssetLoader})
+	 * @param type the type of the asset.
+	 * @param parameter parameters for the AssetLoader.
+	 * @param priority Higher priorities are loaded first, the default is 0. See {@link #setPriority(String, int)}. */
+	public synchronized <T> void load (String fileName, Class<T> type, @Null AssetLoaderParameters<T> parameter, int priority) {
 		AssetLoader loader = getLoader(type, fileName);
 		if (loader == null) throw new GdxRuntimeException("No loader for type: " + ClassReflection.getSimpleName(type));
 
@@ -398,25 +517,29 @@ public class AssetManager implements Disposable {
 
 		toLoad++;
 		AssetDescriptor assetDesc = new AssetDescriptor(fileName, type, parameter);
-		loadQueue.add(assetDesc);
+		assetDesc.priority = priority;
+		enqueue(assetDesc);
+		if (profiler != null) profiler.queued(assetDesc);
 		log.debug("Queued: " + assetDesc);
 	}
 
-	/** Adds the given asset to the loading queue of the AssetManager.
+	/** Adds the given asset to the loading queue of the AssetManager, with the priority of the descriptor, see
+	 * {@link AssetDescriptor#priority}.
 	 * @param desc the {@link AssetDescriptor} */
 	public synchronized void load (AssetDescriptor desc) {
-		load(desc.fileName, desc.type, desc.params);
+		load(desc.fileName, desc.type, desc.params, desc.priority);
 	}
 
 	/** Updates the AssetManager for a single task. Returns if the current task is still being processed or there are no tasks,
 	 * otherwise it finishes the current task and starts the next task.
 	 * @return true if all loading is finished. */
 	public synchronized boolean update () {
+		if (laneRoots.length > 1) return updateLanes();
 		try {
 			if (tasks.size == 0) {
 				// loop until we have a new task ready to be processed
 				while (loadQueue.size != 0 && tasks.size == 0)
-					nextTask();
+					nextTask(0, 0);
 				// have we not found a task? We are done!
 				if (tasks.size == 0) return true;
 			}
@@ -427,19 +550,125 @@ public class AssetManager implements Disposable {
 		}
 	}
 
-	/** Updates the AssetManager continuously for the specified number of milliseconds, yielding the CPU to the loading thread
-	 * between updates. This may block for less time if all loading tasks are complete. This may block for more time if the portion
-	 * of a single task that happens in the GL thread takes a long time.
+	/** Starts tasks for queued assets in free lanes, then updates the top task of each lane.
 	 * @return true if all loading is finished. */
+	private boolean updateLanes () {
+		for (int lane = 0, n = laneRoots.length; lane < n; lane++) {
+			// An asset already loading in another lane stays queued until it is loaded, then its reference count is increased. The
+			// assets queued after it are started first.
+			for (int i = 0; laneRoots[lane] == null && i < loadQueue.size;) {
+				if (findTask(loadQueue.get(i).fileName) != null)
+					i++;
+				else
+					nextTask(lane, i);
+			}
+		}
+		for (int lane = 0, n = laneRoots.length; lane < n; lane++) {
+			if (laneRoots[lane] == null) continue;
+			AssetLoadingTask task = peekTask(lane);
+			if (isBlocked(task)) continue;
+			try {
+				updateTask(task);
+			} catch (Throwable t) {
+				handleTaskError(t, task);
+			}
+		}
+		return loadQueue.size == 0 && tasks.size == 0;
+	}
+
+	/** Returns the top task of the lane, which is the one being loaded. */
+	private AssetLoadingTask peekTask (int lane) {
+		for (int i = tasks.size - 1; i >= 0; i--) {
+			AssetLoadingTask task = tasks.get(i);
+			if (task.lane == lane) return task;
+		}
+		throw new IllegalStateException("Lane has no tasks: " + lane);
+	}
+
+	/** Returns the task that loads the asset with the specified file name, or null. */
+	private @Null AssetLoadingTask findTask (String fileName) {
+		for (int i = 0; i < tasks.size; i++) {
+			AssetLoadingTask task = tasks.get(i);
+			if (task.waitFor == null && task.assetDesc.fileName.equals(fileName)) return task;
+		}
+		return null;
+	}
+
+	/** Returns the task for the queued asset with the specified file name, which is not a dependency, or null. */
+	private @Null AssetLoadingTask findRootTask (String fileName) {
+		if (laneRoots.length == 1) {
+			if (tasks.size > 0 && tasks.first().assetDesc.fileName.equals(fileName)) return tasks.first();
+			return null;
+		}
+		for (AssetLoadingTask task : laneRoots)
+			if (task != null && task.assetDesc.fileName.equals(fileName)) return task;
+		return null;
+	}
+
+	/** Returns true if the task would call its loader, which can't load concurrently and is in use by a task in another lane. */
+	private boolean isBlocked (AssetLoadingTask task) {
+		if (task.waitFor != null || isLoading(task) || task.loader.canLoadConcurrently()) return false;
+		for (int i = 0; i < tasks.size; i++) {
+			AssetLoadingTask other = tasks.get(i);
+			if (other.loader == task.loader && other.lane != task.lane && isLoading(other)) return true;
+		}
+		return false;
+	}
+
+	/** Returns true if the loader is getting the dependencies of the task or is loading its asset. A task waiting for its
+	 * dependencies is not loading, so it doesn't block tasks in other lanes that its dependencies may wait for. */
+	private boolean isLoading (AssetLoadingTask task) {
+		if (task.asyncDone || task.loadFuture != null) return true;
+		AsyncResult depsFuture = task.depsFuture;
+		return depsFuture != null && !task.dependenciesLoaded && !depsFuture.isDone();
+	}
+
+	/** Updates the AssetManager continuously for the specified number of milliseconds, yielding the CPU to the loading thread
+	 * between updates. This may block for less time if all loading tasks are complete.
+	 * @return true if all loading is finished.
+	 * @see #updateMicros(int) */
 	public boolean update (int millis) {
-		long endTime = TimeUtils.millis() + millis;
-		while (true) {
-			boolean done = update();
-			if (done || TimeUtils.millis() > endTime) return done;
-			ThreadUtils.yield();
+		return updateMicros((int)Math.min((long)millis * 1000, Integer.MAX_VALUE));
+	}
+
+	/** Updates the AssetManager continuously for the specified number of microseconds, yielding the CPU to the loading thread
+	 * between updates. This may block for less time if all loading tasks are complete.
+	 * <p>
+	 * Work on the rendering thread is only started if the time it is expected to take fits in the remaining time, except for the
+	 * first, so loading always progresses. The expected time is learned from previous calls to the same loader, see
+	 * {@link #getSyncCost(Class)}. This returns early when work doesn't fit. It may block for more time if the first call to a
+	 * loader takes a long time. Loaders that split their work on the rendering thread into steps, such as {@link TextureLoader}
+	 * with {@link TextureLoader.TextureParameter#uploadChunkSize}, keep each step short.
+	 * @return true if all loading is finished. */
+	public boolean updateMicros (int micros) {
+		long endTime = TimeUtils.nanoTime() + micros * 1000L;
+		synchronized (this) {
+			deadline = endTime;
+			syncStepped = false;
+			overBudget = false;
+		}
+		try {
+			while (true) {
+				boolean done = update();
+				if (done || overBudget || TimeUtils.nanoTime() > endTime) return done;
+				ThreadUtils.yield();
+			}
+		} finally {
+			synchronized (this) {
+				deadline = 0;
+			}
 		}
 	}
 
+	/** Returns the learned time in nanoseconds that a call to the loader on the rendering thread takes, or 0 if the loader has not
+	 * been called yet. This is the time of a single step for loaders that return null from
+	 * {@link AsynchronousAssetLoader#loadSync(AssetManager, String, FileHandle, AssetLoaderParameters) loadSync} to continue in a
+	 * later update.
+	 * @param loaderType The class of the loader. */
+	public synchronized long getSyncCost (Class<? extends AssetLoader> loaderType) {
+		return syncCosts.get(loaderType, 0);
+	}
+
 	/** Returns true when all assets are loaded. Can be called from any thread but note {@link #update()} or related methods must
 	 * be called to process tasks. */
 	public synchronized boolean isFinished () {
@@ -485,15 +714,21 @@ public class AssetManager implements Disposable {
 
 	synchronized void injectDependencies (String parentAssetFilename, Array<AssetDescriptor> dependendAssetDescs) {
 		ObjectSet<String> injected = this.injected;
+		int lane = 0;
+		if (laneRoots.length > 1) {
+			AssetLoadingTask parent = findTask(parentAssetFilename);
+			if (parent == null) return; // The parent failed or was cancelled.
+			lane = parent.lane;
+		}
 		for (AssetDescriptor desc : dependendAssetDescs) {
 			if (injected.contains(desc.fileName)) continue; // Ignore subsequent dependencies if there are duplicates.
 			injected.add(desc.fileName);
-			injectDependency(parentAssetFilename, desc);
+			injectDependency(parentAssetFilename, desc, lane);
 		}
 		injected.clear(32);
 	}
 
-	private synchronized void injectDependency (String parentAssetFilename, AssetDescriptor dependendAssetDesc) {
+	private synchronized void injectDependency (String parentAssetFilename, AssetDescriptor dependendAssetDesc, int lane) {
 		// add the asset as a dependency of the parent asset
 		Array<String> dependencies = assetDependencies.get(parentAssetFilename);
 		if (dependencies == null) {
@@ -501,6 +736,7 @@ public class AssetManager implements Disposable {
 			assetDependencies.put(parentAssetFilename, dependencies);
 		}
 		dependencies.add(dependendAssetDesc.fileName);
+		if (profiler != null) profiler.dependency(parentAssetFilename, dependendAssetDesc.fileName);
 
 		// if the asset is already loaded, increase its reference count.
 		if (isLoaded(dependendAssetDesc.fileName)) {
@@ -510,20 +746,28 @@ public class AssetManager implements Disposable {
 			assetRef.refCount++;
 			incrementRefCountedDependencies(dependendAssetDesc.fileName);
 		} else {
-			// else add a new task for the asset.
-			log.info("Loading dependency: " + dependendAssetDesc);
-			addTask(dependendAssetDesc);
+			// if another lane is loading the asset, wait for it, else add a new task for the asset.
+			AssetLoadingTask loading = laneRoots.length > 1 ? findTask(dependendAssetDesc.fileName) : null;
+			if (loading != null && loading.lane != lane) {
+				log.info("Waiting for dependency: " + dependendAssetDesc);
+				addTask(dependendAssetDesc, lane).waitFor = loading;
+			} else {
+				log.info("Loading dependency: " + dependendAssetDesc);
+				AssetLoadingTask task = addTask(dependendAssetDesc, lane);
+				if (profiler != null) task.timing = profiler.started(dependendAssetDesc, task.loader, lane, true);
+			}
 		}
 	}
 
-	/** Removes a task from the loadQueue and adds it to the task stack. If the asset is already loaded (which can happen if it was
-	 * a dependency of a previously loaded asset) its reference count will be increased. */
-	private void nextTask () {
-		AssetDescriptor assetDesc = loadQueue.removeIndex(0);
+	/** Removes the asset at the index from the loadQueue and adds a task to the task stack. If the asset is already loaded (which
+	 * can happen if it was a dependency of a previously loaded asset) its reference count will be increased. */
+	private void nextTask (int lane, int index) {
+		AssetDescriptor assetDesc = loadQueue.removeIndex(index);
 
 		// if the asset not meant to be reloaded and is already loaded, increase its reference count
 		if (isLoaded(assetDesc.fileName)) {
 			log.debug("Already loaded: " + assetDesc);
+			if (profiler != null) profiler.dequeued(assetDesc);
 			Class type = assetTypes.get(assetDesc.fileName);
 			RefCountedContainer assetRef = assets.get(type).get(assetDesc.fileName);
 			assetRef.refCount++;
@@ -534,16 +778,34 @@ public class AssetManager implements Disposable {
 		} else {
 			// else add a new task for the asset.
 			log.info("Loading: " + assetDesc);
-			addTask(assetDesc);
+			AssetLoadingTask task = addTask(assetDesc, lane);
+			if (laneRoots.length > 1) laneRoots[lane] = task;
+			if (profiler != null) task.timing = profiler.started(assetDesc, task.loader, lane, false);
 		}
 	}
 
 	/** Adds a {@link AssetLoadingTask} to the task stack for the given asset. */
-	private void addTask (AssetDescriptor assetDesc) {
+	private AssetLoadingTask addTask (AssetDescriptor assetDesc, int lane) {
 		AssetLoader loader = getLoader(assetDesc.type, assetDesc.fileName);
 		if (loader == null) throw new GdxRuntimeException("No loader for type: " + ClassReflection.getSimpleName(assetDesc.type));
-		tasks.add(new AssetLoadingTask(this, assetDesc, loader, executor));
+		AssetLoadingTask task = new AssetLoadingTask(this, assetDesc, loader, executor);
+		task.lane = lane;
+		tasks.add(task);
 		peakTasks++;
+		laneTasks[lane]++;
+		return task;
+	}
+
+	/** Removes a completed task from its lane, freeing the lane if the task was for a queued asset. */
+	private void removeTask (AssetLoadingTask task) {
+		tasks.removeValue(task, true);
+		int lane = task.lane;
+		if (laneRoots[lane] == task) {
+			laneRoots[lane] = null;
+			loaded++;
+			peakTasks -= laneTasks[lane];
+			laneTasks[lane] = 0;
+		}
 	}
 
 	/** Adds an asset to this AssetManager */
@@ -565,7 +827,24 @@ public class AssetManager implements Disposable {
 	/** Updates the current task on the top of the task stack.
 	 * @return true if the asset is loaded or the task was cancelled. */
 	private boolean updateTask () {
-		AssetLoadingTask task = tasks.peek();
+		return updateTask(tasks.peek());
+	}
+
+	/** Updates a task, which must be on the top of its lane's task stack.
+	 * @return true if the asset is loaded or the task was cancelled. */
+	private boolean updateTask (AssetLoadingTask task) {
+		if (task.waitFor != null) return updateWaitingTask(task);
+
+		boolean sync = !task.cancel && task.isSyncNext();
+		long startTime = 0;
+		if (sync) {
+			Class loaderType = task.loader.getClass();
+			startTime = TimeUtils.nanoTime();
+			if (deadline != 0 && syncStepped && startTime + syncCosts.get(loaderType, 0) > deadline) {
+				overBudget = true;
+				return false;
+			}
+		}
 
 		boolean complete = true;
 		try {
@@ -574,17 +853,37 @@ public class AssetManager implements Disposable {
 			task.cancel = true;
 			taskFailed(task.assetDesc, ex);
 		}
+		if (sync) {
+			syncStepped = true;
+			long time = TimeUtils.nanoTime() - startTime;
+			Class loaderType = task.loader.getClass();
+			long cost = syncCosts.get(loaderType, -1);
+			syncCosts.put(loaderType, cost == -1 ? time : cost + (time - cost) / 4);
+		}
 
 		// if the task has been cancelled or has finished loading
 		if (complete) {
 			// increase the number of loaded assets and pop the task from the stack
-			if (tasks.size == 1) {
-				loaded++;
-				peakTasks = 0;
+			if (laneRoots.length > 1)
+				removeTask(task);
+			else {
+				if (tasks.size == 1) {
+					loaded++;
+					peakTasks = 0;
+				}
+				tasks.pop();
 			}
-			tasks.pop();
+			if (task.timing != null) task.timing.ended(task.cancel);
 
-			if (task.cancel) return true;
+			if (task.cancel) {
+				// release the dependencies that were loaded for the cancelled asset, as unload would
+				Array<String> dependencies = assetDependencies.remove(task.assetDesc.fileName);
+				if (dependencies != null) {
+					for (String dependency : dependencies)
+						if (isLoaded(dependency)) unload(dependency);
+				}
+				return true;
+			}
 
 			addAsset(task.assetDesc.fileName, task.assetDesc.type, task.asset);
 
@@ -600,6 +899,20 @@ public class AssetManager implements Disposable {
 		return false;
 	}
 
+	/** Completes a task waiting for its asset to be loaded in another lane, by increasing the reference count of the asset.
+	 * @return true if the task is complete. */
+	private boolean updateWaitingTask (AssetLoadingTask task) {
+		if (tasks.contains(task.waitFor, true)) return false;
+		task.waitFor = null;
+		String fileName = task.assetDesc.fileName;
+		if (!isLoaded(fileName)) return false; // The other lane failed or was cancelled, so load the asset in this lane.
+		log.debug("Dependency loaded in another lane: " + task.assetDesc);
+		assets.get(assetTypes.get(fileName)).get(fileName).refCount++;
+		incrementRefCountedDependencies(fileName);
+		removeTask(task);
+		return true;
+	}
+
 	/** Called when a task throws an exception during loading. The default implementation rethrows the exception. A subclass may
 	 * supress the default implementation when loading assets where loading failure is recoverable. */
 	protected void taskFailed (AssetDescriptor assetDesc, RuntimeException ex) {
@@ -636,7 +949,45 @@ public class AssetManager implements Disposable {
 		}
 
 		// clear the rest of the stack
+		if (task.timing != null) task.timing.ended(true);
+		for (AssetLoadingTask other : tasks)
+			if (other.timing != null) other.timing.ended(true);
 		tasks.clear();
+		for (int i = 0; i < laneRoots.length; i++) {
+			laneRoots[i] = null;
+			laneTasks[i] = 0;
+		}
+
+		// inform the listener that something bad happened
+		if (listener != null)
+			listener.error(assetDesc, t);
+		else
+			throw new GdxRuntimeException(t);
+	}
+
+	/** Handles an error in a lane like {@link #handleTaskError(Throwable)}, but only clears the lane of the faulty task. */
+	private void handleTaskError (Throwable t, AssetLoadingTask task) {
+		log.error("Error loading asset.", t);
+
+		AssetDescriptor assetDesc = task.assetDesc;
+
+		// remove all dependencies
+		if (task.dependenciesLoaded && task.dependencies != null) {
+			for (AssetDescriptor desc : task.dependencies)
+				unload(desc.fileName);
+		}
+
+		// clear the rest of the lane
+		int lane = task.lane;
+		for (int i = tasks.size - 1; i >= 0; i--) {
+			AssetLoadingTask other = tasks.get(i);
+			if (other.lane != lane) continue;
+			if (other.timing != null) other.timing.ended(true);
+			tasks.removeIndex(i);
+		}
+		laneRoots[lane] = null;
+		peakTasks -= laneTasks[lane];
+		laneTasks[lane] = 0;
 
 		// inform the listener that something bad happened
 		if (listener != null)
@@ -703,6 +1054,10 @@ public class AssetManager implements Disposable {
 	/** Clears and disposes all assets and the preloading queue. */
 	public void clear () {
 		synchronized (this) {
+			if (profiler != null) {
+				for (AssetDescriptor desc : loadQueue)
+					profiler.dequeued(desc);
+			}
 			loadQueue.clear();
 		}
 
@@ -737,9 +1092,33 @@ public class AssetManager implements Disposable {
 			this.peakTasks = 0;
 			this.loadQueue.clear();
 			this.tasks.clear();
+			for (int i = 0; i < laneRoots.length; i++) {
+				laneRoots[i] = null;
+				laneTasks[i] = 0;
+			}
 		}
 	}
 
+	/** Sets the profiler that records the timings of assets loaded from now on.
+	 * @param profiler May be null to stop recording. */
+	public synchronized void setProfiler (@Null AssetProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	public synchronized @Null AssetProfiler getProfiler () {
+		return profiler;
+	}
+
+	/** Sets the cache loaders use to store decoded data between runs of the application, see {@link AssetCache}.
+	 * @param cache May be null to not use a cache. */
+	public synchronized void setCache (@Null AssetCache cache) {
+		this.cache = cache;
+	}
+
+	public synchronized @Null AssetCache getCache () {
+		return cache;
+	}
+
 	/** @return the {@link Logger} used by the {@link AssetManager} */
 	public Logger getLogger () {
 		return log;
@@ -0,0 +1,372 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.assets;
+
+import com.badlogic.gdx.assets.loaders.AssetLoader;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.Null;
+import com.badlogic.gdx.utils.ObjectLongMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/** Records how long each asset loaded by an {@link AssetManager} spends in the load queue, resolving its dependencies, waiting for
+ * them, in the asynchronous part of its loader on the executor and in the synchronous part on the rendering thread. See
+ * {@link Phase}. Set with {@link AssetManager#setProfiler(AssetProfiler)}.
+ * <p>
+ * The timings can be exported as a Chrome trace with {@link #toChromeTrace(Writer)}, to be viewed in chrome://tracing or
+ * Perfetto, and as JSON with the dependency graph with {@link #toJson(Writer)}. {@link #getCriticalPath()} returns the chain of
+ * assets that determined when loading finished.
+ * <p>
+ * An asset that was already loaded when it was queued or depended on only has its reference count increased and is not
+ * recorded. */
+public class AssetProfiler {
+	final Array<AssetTiming> timings = new Array();
+	final ObjectMap<String, AssetTiming> latest = new ObjectMap();
+	final ObjectLongMap<AssetDescriptor> queued = new ObjectLongMap();
+
+	/** Called by the manager when an asset is added to the load queue. */
+	synchronized void queued (AssetDescriptor assetDesc) {
+		queued.put(assetDesc, TimeUtils.nanoTime());
+	}
+
+	/** Called by the manager when an asset is removed from the load queue without a task being started for it. */
+	synchronized void dequeued (AssetDescriptor assetDesc) {
+		queued.remove(assetDesc, 0);
+	}
+
+	/** Called by the manager when a task is created for an asset.
+	 * @param dependency True if the asset is a dependency of another asset, false if it is from the load queue. */
+	synchronized AssetTiming started (AssetDescriptor assetDesc, AssetLoader loader, int lane, boolean dependency) {
+		long startTime = TimeUtils.nanoTime();
+		long queuedTime = queued.remove(assetDesc, startTime);
+		AssetTiming timing = new AssetTiming(assetDesc.fileName, assetDesc.type, loader instanceof AsynchronousAssetLoader, lane,
+			dependency, queuedTime, startTime);
+		timings.add(timing);
+		latest.put(timing.fileName, timing);
+		return timing;
+	}
+
+	/** Called by the manager when the asset with the parent file name depends on another asset. */
+	synchronized void dependency (String parentFileName, String fileName) {
+		AssetTiming parent = latest.get(parentFileName);
+		if (parent == null) return;
+		synchronized (parent) {
+			if (!parent.dependencies.contains(fileName, false)) parent.dependencies.add(fileName);
+		}
+	}
+
+	/** Returns a copy of the timings in the order the assets started loading. This may be called while the manager is loading on
+	 * another thread. */
+	public synchronized Array<AssetTiming> getTimings () {
+		return new Array(timings);
+	}
+
+	/** Returns the timing of the most recent load of the asset, or null. */
+	public synchronized @Null AssetTiming getTiming (String fileName) {
+		return latest.get(fileName);
+	}
+
+	/** Returns the assets that determined when loading finished, starting with the first one loaded. Beginning with the asset that
+	 * finished last, each asset's predecessor is whichever finished last of its dependencies and, for an asset that was queued, the
+	 * asset that freed its lane. Speeding up assets that are not on this path does not make loading finish sooner. */
+	public synchronized Array<AssetTiming> getCriticalPath () {
+		Array<AssetTiming> path = new Array();
+		AssetTiming timing = null;
+		for (AssetTiming other : timings)
+			if (other.endTime != 0 && (timing == null || other.endTime > timing.endTime)) timing = other;
+		while (timing != null) {
+			path.add(timing);
+			AssetTiming previous = null;
+			for (String fileName : timing.dependencies) {
+				AssetTiming dependency = latest.get(fileName);
+				if (dependency != null && dependency.endTime != 0 && dependency.endTime <= timing.endTime
+					&& (previous == null || dependency.endTime > previous.endTime)) previous = dependency;
+			}
+			if (!timing.dependency) {
+				for (AssetTiming other : timings) {
+					if (other.dependency || other.lane != timing.lane || other.endTime == 0) continue;
+					if (other.endTime <= timing.startTime && (previous == null || other.endTime > previous.endTime)) previous = other;
+				}
+			}
+			timing = previous;
+		}
+		path.reverse();
+		return path;
+	}
+
+	/** Forgets all timings. */
+	public synchronized void clear () {
+		timings.clear();
+		latest.clear();
+		queued.clear();
+	}
+
+	/** Writes the timings in the Chrome trace event format. Each lane of the manager is shown as a thread, with a span for each
+	 * asset from when its task started until it was loaded and its phases nested inside. The work done on the rendering thread is
+	 * repeated on a separate thread. Times are in microseconds since the first asset was queued. */
+	public synchronized void toChromeTrace (Writer writer) throws IOException {
+		long origin = getOrigin();
+		int renderTid = 0;
+		for (AssetTiming timing : timings)
+			renderTid = Math.max(renderTid, timing.lane + 2);
+
+		JsonWriter json = new JsonWriter(writer);
+		json.object();
+		json.set("displayTimeUnit", "ms");
+		json.array("traceEvents");
+		for (int lane = 1; lane < renderTid; lane++)
+			threadName(json, lane, "Lane " + (lane - 1));
+		threadName(json, renderTid, "Rendering thread");
+		for (AssetTiming timing : timings) {
+			if (timing.endTime == 0) continue;
+			int tid = timing.lane + 1;
+			json.object();
+			json.set("name", timing.fileName);
+			json.set("cat", "asset");
+			json.set("ph", "X");
+			json.set("pid", 1);
+			json.set("tid", tid);
+			json.set("ts", micros(timing.startTime - origin));
+			json.set("dur", micros(timing.endTime - timing.startTime));
+			json.object("args");
+			json.set("type", ClassReflection.getSimpleName(timing.type));
+			json.set("queueMs", millis(timing.getQueueTime()));
+			json.set("dependencyWaitMs", millis(timing.getDependencyWaitTime()));
+			if (timing.failed) json.set("failed", true);
+			json.pop();
+			json.pop();
+			for (Phase phase : Phase.values()) {
+				if (timing.getTime(phase) == 0) continue;
+				phase(json, timing, phase, tid, origin);
+				if (phase == Phase.loadSync || !timing.async) phase(json, timing, phase, renderTid, origin);
+			}
+		}
+		json.pop();
+		json.pop();
+		json.flush();
+	}
+
+	/** Returns the timings in the Chrome trace event format.
+	 * @see #toChromeTrace(Writer) */
+	public String toChromeTrace () {
+		StringWriter writer = new StringWriter();
+		try {
+			toChromeTrace(writer);
+		} catch (IOException ex) {
+			throw new GdxRuntimeException(ex);
+		}
+		return writer.toString();
+	}
+
+	/** Writes the timings as JSON, with the file names of each asset's dependencies and the {@link #getCriticalPath() critical
+	 * path}. Times are in milliseconds, relative to when the first asset was queued. */
+	public synchronized void toJson (Writer writer) throws IOException {
+		long origin = getOrigin();
+		JsonWriter json = new JsonWriter(writer);
+		json.object();
+		json.array("assets");
+		for (AssetTiming timing : timings) {
+			json.object();
+			json.set("fileName", timing.fileName);
+			json.set("type", ClassReflection.getSimpleName(timing.type));
+			json.set("lane", timing.lane);
+			json.set("dependency", timing.dependency);
+			if (timing.failed) json.set("failed", true);
+			json.set("queued", millis(timing.queuedTime - origin));
+			json.set("started", millis(timing.startTime - origin));
+			if (timing.endTime != 0) json.set("loaded", millis(timing.endTime - origin));
+			json.set("queue", millis(timing.getQueueTime()));
+			json.set("dependencyWait", millis(timing.getDependencyWaitTime()));
+			for (Phase phase : Phase.values())
+				json.set(phase.name(), millis(timing.getTime(phase)));
+			json.set("total", millis(timing.getTotalTime()));
+			json.array("dependencies");
+			for (String fileName : timing.dependencies)
+				json.value(fileName);
+			json.pop();
+			json.pop();
+		}
+		json.pop();
+		json.array("criticalPath");
+		for (AssetTiming timing : getCriticalPath())
+			json.value(timing.fileName);
+		json.pop();
+		json.pop();
+		json.flush();
+	}
+
+	/** Returns the timings as JSON.
+	 * @see #toJson(Writer) */
+	public String toJson () {
+		StringWriter writer = new StringWriter();
+		try {
+			toJson(writer);
+		} catch (IOException ex) {
+			throw new GdxRuntimeException(ex);
+		}
+		return writer.toString();
+	}
+
+	private long getOrigin () {
+		long origin = Long.MAX_VALUE;
+		for (AssetTiming timing : timings)
+			origin = Math.min(origin, timing.queuedTime);
+		return origin == Long.MAX_VALUE ? 0 : origin;
+	}
+
+	static private void threadName (JsonWriter json, int tid, String name) throws IOException {
+		json.object();
+		json.set("name", "thread_name");
+		json.set("ph", "M");
+		json.set("pid", 1);
+		json.set("tid", tid);
+		json.object("args").set("name", name).pop();
+		json.pop();
+	}
+
+	static private void phase (JsonWriter json, AssetTiming timing, Phase phase, int tid, long origin) throws IOException {
+		int index = phase.ordinal();
+		json.object();
+		json.set("name", phase.name());
+		json.set("cat", phase.name());
+		json.set("ph", "X");
+		json.set("pid", 1);
+		json.set("tid", tid);
+		json.set("ts", micros(timing.begin[index] - origin));
+		json.set("dur", micros(timing.getTime(phase)));
+		json.object("args").set("fileName", timing.fileName).pop();
+		json.pop();
+	}
+
+	static private double micros (long nanos) {
+		return nanos / 1000d;
+	}
+
+	static private float millis (long nanos) {
+		return nanos / 1000 / 1000f;
+	}
+
+	/** The parts of loading an asset that call the {@link AssetLoader}. */
+	static public enum Phase {
+		/** {@link AssetLoader#getDependencies(String, com.badlogic.gdx.files.FileHandle, AssetLoaderParameters) getDependencies},
+		 * on the executor for an {@link AsynchronousAssetLoader}, else on the rendering thread. */
+		resolve,
+		/** {@link AsynchronousAssetLoader#loadAsync(AssetManager, String, com.badlogic.gdx.files.FileHandle, AssetLoaderParameters)
+		 * loadAsync}, on the executor. */
+		loadAsync,
+		/** The synchronous part of the loader, on the rendering thread. */
+		loadSync
+	}
+
+	/** The times recorded for loading an asset once, in nanoseconds from {@link TimeUtils#nanoTime()}. Times that have not been
+	 * recorded are 0. The values are complete once the asset has been loaded. */
+	static public class AssetTiming {
+		public final String fileName;
+		public final Class type;
+		/** True if the loader is an {@link AsynchronousAssetLoader}, so the first two phases ran on the executor. */
+		public final boolean async;
+		/** The lane of the manager that loaded the asset. */
+		public final int lane;
+		/** True if the asset was loaded as a dependency rather than queued. */
+		public final boolean dependency;
+		final Array<String> dependencies = new Array();
+		public final long queuedTime, startTime;
+		volatile long endTime;
+		volatile boolean failed;
+		final long[] begin = new long[3], end = new long[3];
+
+		AssetTiming (String fileName, Class type, boolean async, int lane, boolean dependency, long queuedTime, long startTime) {
+			this.fileName = fileName;
+			this.type = type;
+			this.async = async;
+			this.lane = lane;
+			this.dependency = dependency;
+			this.queuedTime = queuedTime;
+			this.startTime = startTime;
+		}
+
+		void begin (Phase phase) {
+			begin[phase.ordinal()] = TimeUtils.nanoTime();
+		}
+
+		void end (Phase phase) {
+			end[phase.ordinal()] = TimeUtils.nanoTime();
+		}
+
+		void ended (boolean failed) {
+			if (endTime != 0) return;
+			this.failed = failed;
+			endTime = TimeUtils.nanoTime();
+		}
+
+		/** Returns a copy of the file names of the assets this asset depends on. This may be called while the asset is loading on
+		 * another thread. */
+		public synchronized Array<String> getDependencies () {
+			return new Array(dependencies);
+		}
+
+		/** Returns when the asset was loaded or failed, or 0. */
+		public long getEndTime () {
+			return endTime;
+		}
+
+		/** Returns true if loading the asset failed or was cancelled because a dependency failed. */
+		public boolean isFailed () {
+			return failed;
+		}
+
+		/** Returns the time spent in the phase, or 0 if it was not run. */
+		public long getTime (Phase phase) {
+			int index = phase.ordinal();
+			long end = this.end[index];
+			return end == 0 ? 0 : end - begin[index];
+		}
+
+		/** Returns the time from when the asset was queued or found as a dependency until its task started. For a queued asset,
+		 * this is how long it waited for a free lane. */
+		public long getQueueTime () {
+			return startTime - queuedTime;
+		}
+
+		/** Returns the time from when the asset's dependencies were resolved until they were loaded and the asset continued
+		 * loading, or 0 if it has no dependencies. */
+		public synchronized long getDependencyWaitTime () {
+			long resolved = end[Phase.resolve.ordinal()];
+			if (dependencies.size == 0 || resolved == 0) return 0;
+			long next = begin[async ? Phase.loadAsync.ordinal() : Phase.loadSync.ordinal()];
+			if (next == 0) next = endTime;
+			return next == 0 ? 0 : next - resolved;
+		}
+
+		/** Returns the time from when the asset was queued until it was loaded, or 0. */
+		public long getTotalTime () {
+			return endTime == 0 ? 0 : endTime - queuedTime;
+		}
+
+		public String toString () {
+			return fileName + ", " + getTotalTime() / 1000000f + "ms";
+		}
+	}
+}
@@ -0,0 +1,343 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.assets;
+
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Null;
+import com.badlogic.gdx.utils.ObjectLongMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+
+import java.util.Comparator;
+
+/** Keeps assets loaded by an {@link AssetManager} resident while they are not used, and unloads the least recently used ones when
+ * their estimated memory exceeds a budget.
+ * <p>
+ * An asset is {@link #acquire(String, Class) acquired} when it is needed and {@link #release(String) released} when it is not.
+ * A released asset stays loaded, so acquiring it again is free, until {@link #update()} finds the resident assets over budget.
+ * Then released assets are unloaded in the order they were last used until the budget is met. {@link #get(String, Class)}
+ * returns an acquired or released asset, loading it again first if it was unloaded.
+ * <p>
+ * Only assets acquired through this class and their dependencies count towards the budget. Each is counted once, even if it is
+ * a dependency of several assets. The size of an asset is estimated when it has been loaded, see
+ * {@link #setEstimator(Class, SizeEstimator)}. The size of a dependency is only freed when no other asset depends on it. Like
+ * the {@link AssetManager}, this class must only be used from the rendering thread. */
+public class AssetResidency {
+	final AssetManager manager;
+	long budget;
+
+	final ObjectMap<String, Resident> residents = new ObjectMap<String, Resident>();
+	/** The estimated size of each loaded asset counted towards the budget. */
+	final ObjectLongMap<String> sizes = new ObjectLongMap<String>();
+	final ObjectMap<Class, SizeEstimator> estimators = new ObjectMap<Class, SizeEstimator>();
+	long residentBytes, clock;
+	int pending;
+	boolean dirty;
+
+	private final ObjectSet<String> counted = new ObjectSet<String>();
+	private final Array<Resident> evictable = new Array<Resident>();
+	private final Comparator<Resident> leastRecentlyUsed = new Comparator<Resident>() {
+		public int compare (Resident o1, Resident o2) {
+			return Long.compare(o1.lastUsed, o2.lastUsed);
+		}
+	};
+
+	/** @param budget The estimated number of bytes resident assets may use before released assets are unloaded. */
+	public AssetResidency (AssetManager manager, long budget) {
+		this.manager = manager;
+		this.budget = budget;
+		setEstimator(Texture.class, new SizeEstimator<Texture>() {
+			public long estimate (Texture texture) {
+				return size(texture);
+			}
+		});
+		setEstimator(Pixmap.class, new SizeEstimator<Pixmap>() {
+			public long estimate (Pixmap pixmap) {
+				return (long)pixmap.getWidth() * pixmap.getHeight() * bytesPerPixel(pixmap.getFormat());
+			}
+		});
+		setEstimator(Model.class, new SizeEstimator<Model>() {
+			public long estimate (Model model) {
+				long size = 0;
+				for (Mesh mesh : model.meshes)
+					size += (long)mesh.getNumVertices() * mesh.getVertexSize() + mesh.getNumIndices() * 2;
+				return size;
+			}
+		});
+		setEstimator(BitmapFont.class, new SizeEstimator<BitmapFont>() {
+			public long estimate (BitmapFont font) {
+				// Textures loaded by an AssetManager are dependencies of the font and estimated separately.
+				if (!font.ownsTexture()) return 0;
+				long size = 0;
+				for (TextureRegion region : font.getRegions())
+					size += size(region.getTexture());
+				return size;
+			}
+		});
+	}
+
+	/** Sets how the size of assets of the type is estimated. Assets of other types have a size of 0. Texture, Pixmap, Model and
+	 * BitmapFont are estimated by default.
+	 * @param estimator May be null to use a size of 0. */
+	public <T> void setEstimator (Class<T> type, @Null SizeEstimator<T> estimator) {
+		if (estimator == null)
+			estimators.remove(type);
+		else
+			estimators.put(type, estimator);
+	}
+
+	/** Queues the asset to be loaded by the manager if it isn't resident, and marks it as used. An asset can be acquired multiple
+	 * times and is only evictable once it has been {@link #release(String) released} as many times. The parameters are used
+	 * whenever the asset is loaded again after it was unloaded. */
+	public <T> void acquire (String fileName, Class<T> type) {
+		acquire(fileName, type, null);
+	}
+
+	/** @see #acquire(String, Class) */
+	public <T> void acquire (String fileName, Class<T> type, @Null AssetLoaderParameters<T> parameters) {
+		Resident resident = residents.get(fileName);
+		if (resident == null) {
+			resident = new Resident(fileName, type, parameters);
+			residents.put(fileName, resident);
+		} else if (resident.type != type) {
+			throw new GdxRuntimeException("Asset with name '" + fileName + "' already acquired with a different type: "
+				+ ClassReflection.getSimpleName(resident.type));
+		}
+		resident.holders++;
+		resident.lastUsed = ++clock;
+		if (!resident.loaded) {
+			if (!resident.queued) {
+				manager.load(fileName, type, resident.parameters);
+				resident.queued = true;
+				pending++;
+			}
+		}
+	}
+
+	/** Marks the asset as no longer needed. It stays resident until it is evicted.
+	 * @throws GdxRuntimeException if the asset was not acquired. */
+	public void release (String fileName) {
+		Resident resident = residents.get(fileName);
+		if (resident == null || resident.holders == 0) throw new GdxRuntimeException("Asset not acquired: " + fileName);
+		resident.holders--;
+		resident.lastUsed = ++clock;
+	}
+
+	/** Returns the asset and marks it as used. If it was evicted or is not loaded yet, blocks until it is loaded.
+	 * @throws GdxRuntimeException if the asset was never acquired. */
+	public <T> T get (String fileName, Class<T> type) {
+		Resident resident = residents.get(fileName);
+		if (resident == null) throw new GdxRuntimeException("Asset not acquired: " + fileName);
+		resident.lastUsed = ++clock;
+		if (!resident.loaded) {
+			if (!resident.queued) {
+				manager.load(fileName, resident.type, resident.parameters);
+				resident.queued = true;
+				pending++;
+			}
+			manager.finishLoadingAsset(fileName);
+			loaded(resident);
+		}
+		return manager.get(fileName, type);
+	}
+
+	/** Returns true if the asset was acquired and is loaded. */
+	public boolean isResident (String fileName) {
+		Resident resident = residents.get(fileName);
+		return resident != null && resident.loaded;
+	}
+
+	/** Marks the asset as used, so it is evicted later than assets used before it. Does nothing if it was not acquired. */
+	public void touch (String fileName) {
+		Resident resident = residents.get(fileName);
+		if (resident != null) resident.lastUsed = ++clock;
+	}
+
+	/** Estimates the size of assets that finished loading and evicts released assets if the resident assets are over budget.
+	 * Should be called after {@link AssetManager#update()}. Assets that failed to load are forgotten.
+	 * @return the number of assets evicted. */
+	public int update () {
+		if (pending > 0) {
+			for (Resident resident : residents.values()) {
+				if (!resident.queued) continue;
+				if (manager.isLoaded(resident.fileName, resident.type))
+					loaded(resident);
+				else if (!manager.contains(resident.fileName)) {
+					// The asset failed to load or was unloaded from the manager directly.
+					resident.queued = false;
+					pending--;
+				}
+			}
+		}
+		if (dirty) count();
+		return residentBytes > budget ? evict(budget) : 0;
+	}
+
+	/** Evicts released assets, least recently used first, until the resident assets are at most the specified size.
+	 * @return the number of assets evicted. */
+	public int evict (long bytes) {
+		if (dirty) count();
+		if (residentBytes <= bytes) return 0;
+		Array<Resident> evictable = this.evictable;
+		for (Resident resident : residents.values())
+			if (resident.loaded && resident.holders == 0) evictable.add(resident);
+		evictable.sort(leastRecentlyUsed);
+		int evicted = 0;
+		for (int i = 0, n = evictable.size; i < n && residentBytes > bytes; i++) {
+			Resident resident = evictable.get(i);
+			manager.unload(resident.fileName);
+			resident.loaded = false;
+			evicted++;
+			count();
+		}
+		evictable.clear();
+		return evicted;
+	}
+
+	/** Unloads all released assets and forgets them. Acquired assets stay resident. */
+	public void clear () {
+		evict(0);
+		for (ObjectMap.Entries<String, Resident> entries = residents.entries(); entries.hasNext();) {
+			Resident resident = entries.next().value;
+			if (resident.holders == 0 && !resident.queued) entries.remove();
+		}
+		count();
+	}
+
+	/** Returns the estimated number of bytes used by the resident assets and their dependencies. */
+	public long getResidentBytes () {
+		if (dirty) count();
+		return residentBytes;
+	}
+
+	/** Returns the estimated size of the loaded asset, excluding its dependencies, or 0 if it is not counted towards the budget. */
+	public long getSize (String fileName) {
+		if (dirty) count();
+		return sizes.get(fileName, 0);
+	}
+
+	public long getBudget () {
+		return budget;
+	}
+
+	/** Sets the budget. Released assets are evicted on the next {@link #update()} if the resident assets exceed it. */
+	public void setBudget (long budget) {
+		this.budget = budget;
+	}
+
+	public AssetManager getManager () {
+		return manager;
+	}
+
+	private void loaded (Resident resident) {
+		if (resident.queued) {
+			resident.queued = false;
+			pending--;
+		}
+		resident.loaded = true;
+		dirty = true;
+	}
+
+	/** Sums the sizes of the loaded residents and their dependencies, estimating the size of assets that were not counted
+	 * before. */
+	private void count () {
+		ObjectSet<String> counted = this.counted;
+		long total = 0;
+		for (Resident resident : residents.values()) {
+			if (!resident.loaded) continue;
+			if (manager.getAssetType(resident.fileName) == null)
+				resident.loaded = false; // Unloaded from the manager directly.
+			else
+				total += sum(resident.fileName);
+		}
+		// Forget the sizes of assets that are no longer counted.
+		for (ObjectLongMap.Keys<String> keys = sizes.keys(); keys.hasNext();)
+			if (!counted.contains(keys.next())) keys.remove();
+		counted.clear();
+		residentBytes = total;
+		dirty = false;
+	}
+
+	private long sum (String fileName) {
+		if (!counted.add(fileName)) return 0;
+		Class type = manager.getAssetType(fileName);
+		if (type == null) return 0;
+		long size = sizes.get(fileName, -1);
+		if (size == -1) {
+			SizeEstimator estimator = estimators.get(type);
+			size = estimator == null ? 0 : estimator.estimate(manager.get(fileName, type));
+			sizes.put(fileName, size);
+		}
+		Array<String> dependencies = manager.getDependencies(fileName);
+		if (dependencies != null) {
+			for (String dependency : dependencies)
+				size += sum(dependency);
+		}
+		return size;
+	}
+
+	/** Returns the estimated number of bytes used by the texture on the GPU, including mipmaps. */
+	static public long size (Texture texture) {
+		long size = (long)texture.getWidth() * texture.getHeight() * bytesPerPixel(texture.getTextureData().getFormat());
+		return texture.getMinFilter().isMipMap() ? size * 4 / 3 : size;
+	}
+
+	static int bytesPerPixel (Format format) {
+		switch (format) {
+		case Alpha:
+		case Intensity:
+			return 1;
+		case LuminanceAlpha:
+		case RGB565:
+		case RGBA4444:
+			return 2;
+		case RGB888:
+			return 3;
+		default:
+			return 4;
+		}
+	}
+
+	/** Estimates the number of bytes used by an asset, excluding its dependencies. */
+	static public interface SizeEstimator<T> {
+		public long estimate (T asset);
+	}
+
+	static class Resident {
+		final String fileName;
+		final Class type;
+		final @Null AssetLoaderParameters parameters;
+		int holders;
+		long lastUsed;
+		boolean queued, loaded;
+
+		Resident (String fileName, Class type, @Null AssetLoaderParameters parameters) {
+			this.fileName = fileName;
+			this.type = type;
+			this.parameters = parameters;
+		}
+	}
+}
@@ -18,6 +18,7 @@ package com.badlogic.gdx.assets.loaders;
 
 import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Array;
 
@@ -48,4 +49,13 @@ public abstract class AssetLoader<T, P extends AssetLoaderParameters<T>> {
 	 * @param parameter parameters for loading the asset
 	 * @return other assets that the asset depends on and need to be loaded first or null if there are no dependencies. */
 	public abstract Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, P parameter);
+
+	/** Returns true if this loader can load more than one asset at the same time. An {@link AssetManager} with more than one
+	 * loading thread calls loaders that return false for one asset at a time, while getting its dependencies or while loading it.
+	 * Loaders that keep the state of an asset in fields while loading it must return false. State kept from
+	 * {@link #getDependencies(String, FileHandle, AssetLoaderParameters) getDependencies} until loading must be kept per file,
+	 * since other assets may use the loader while the dependencies are loaded. The default implementation returns false. */
+	public boolean canLoadConcurrently () {
+		return false;
+	}
 }
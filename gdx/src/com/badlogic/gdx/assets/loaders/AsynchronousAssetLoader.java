@@ -53,6 +53,10 @@ public abstract class AsynchronousAssetLoader<T, P extends AssetLoaderParameters
 	}
 
 	/** Loads the OpenGL part of the asset.
+	 * <p>
+	 * To keep frames short when {@link AssetManager#updateMicros(int)} is used, this may do part of the work and return null. It
+	 * is then called again in a later update, until it returns the asset. {@link #unloadAsync(AssetManager, String, FileHandle,
+	 * AssetLoaderParameters) unloadAsync} may be called between these calls and must then release what they created.
 	 * @param manager
 	 * @param fileName
 	 * @param file the resolved file to load
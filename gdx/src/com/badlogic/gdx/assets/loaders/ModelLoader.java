@@ -26,6 +26,8 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.graphics.g3d.model.data.ModelData;
 import com.badlogic.gdx.graphics.g3d.model.data.ModelMaterial;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMesh;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMeshPart;
 import com.badlogic.gdx.graphics.g3d.model.data.ModelTexture;
 import com.badlogic.gdx.graphics.g3d.utils.TextureProvider;
 import com.badlogic.gdx.utils.Array;
@@ -38,6 +40,8 @@ public abstract class ModelLoader<P extends ModelLoader.ModelParameters> extends
 	}
 
 	protected Array<ObjectMap.Entry<String, ModelData>> items = new Array<ObjectMap.Entry<String, ModelData>>();
+	/** Models being loaded over several calls to loadSync, guarded by {@link #items}. */
+	private final ObjectMap<String, IncrementalModel> models = new ObjectMap<String, IncrementalModel>();
 	protected ModelParameters defaultParameters = new ModelParameters();
 
 	/** Directly load the raw model data on the calling thread. */
@@ -101,6 +105,7 @@ public abstract class ModelLoader<P extends ModelLoader.ModelParameters> extends
 	@Override
 	public Model loadSync (AssetManager manager, String fileName, FileHandle file, P parameters) {
 		ModelData data = null;
+		IncrementalModel incremental;
 		synchronized (items) {
 			for (int i = 0; i < items.size; i++) {
 				if (items.get(i).key.equals(fileName)) {
@@ -108,9 +113,23 @@ public abstract class ModelLoader<P extends ModelLoader.ModelParameters> extends
 					items.removeIndex(i);
 				}
 			}
+			incremental = models.get(fileName);
+			if (incremental == null && data != null && parameters != null && parameters.uploadChunkSize > 0) {
+				incremental = new IncrementalModel(data, new TextureProvider.AssetTextureProvider(manager));
+				models.put(fileName, incremental);
+			}
+		}
+		final Model result;
+		if (incremental != null) {
+			if (!incremental.load(parameters.uploadChunkSize)) return null;
+			synchronized (items) {
+				models.remove(fileName);
+			}
+			result = incremental;
+		} else {
+			if (data == null) return null;
+			result = new Model(data, new TextureProvider.AssetTextureProvider(manager));
 		}
-		if (data == null) return null;
-		final Model result = new Model(data, new TextureProvider.AssetTextureProvider(manager));
 		// need to remove the textures from the managed disposables, or else ref counting
 		// doesn't work!
 		Iterator<Disposable> disposables = result.getManagedDisposables().iterator();
@@ -123,8 +142,21 @@ public abstract class ModelLoader<P extends ModelLoader.ModelParameters> extends
 		return result;
 	}
 
+	@Override
+	public void unloadAsync (AssetManager manager, String fileName, FileHandle file, P parameters) {
+		IncrementalModel incremental;
+		synchronized (items) {
+			incremental = models.remove(fileName);
+		}
+		if (incremental != null) incremental.dispose();
+	}
+
 	static public class ModelParameters extends AssetLoaderParameters<Model> {
 		public TextureLoader.TextureParameter textureParameter;
+		/** If > 0, the meshes are created in chunks of about this many bytes of vertices and indices, one chunk each time the
+		 * {@link AssetManager} is updated, to keep frames short when loading large models with
+		 * {@link AssetManager#updateMicros(int)}. The textures are chunked separately by {@link #textureParameter}. */
+		public int uploadChunkSize = 0;
 
 		public ModelParameters () {
 			textureParameter = new TextureLoader.TextureParameter();
@@ -132,4 +164,35 @@ public abstract class ModelLoader<P extends ModelLoader.ModelParameters> extends
 			textureParameter.wrapU = textureParameter.wrapV = Texture.TextureWrap.Repeat;
 		}
 	}
+
+	/** A model that creates its meshes a chunk at a time. */
+	static private class IncrementalModel extends Model {
+		final ModelData data;
+		final TextureProvider textureProvider;
+		int meshIndex;
+
+		IncrementalModel (ModelData data, TextureProvider textureProvider) {
+			this.data = data;
+			this.textureProvider = textureProvider;
+		}
+
+		/** Creates meshes until about chunkSize bytes have been used, then the rest of the model after the last mesh.
+		 * @return true if the model is complete. */
+		boolean load (int chunkSize) {
+			int bytes = 0;
+			while (meshIndex < data.meshes.size && bytes < chunkSize) {
+				ModelMesh modelMesh = data.meshes.get(meshIndex++);
+				convertMesh(modelMesh);
+				bytes += modelMesh.vertices.length * 4;
+				for (ModelMeshPart part : modelMesh.parts)
+					bytes += part.indices.length * 2;
+			}
+			if (meshIndex < data.meshes.size) return false;
+			loadMaterials(data.materials, textureProvider);
+			loadNodes(data.nodes);
+			loadAnimations(data.animations);
+			calculateTransforms();
+			return true;
+		}
+	}
 }
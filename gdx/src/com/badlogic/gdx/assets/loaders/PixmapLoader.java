@@ -22,6 +22,7 @@ import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
 
 /** {@link AssetLoader} for {@link Pixmap} instances. The Pixmap is loaded asynchronously.
  * @author mzechner */
@@ -30,19 +31,35 @@ public class PixmapLoader extends AsynchronousAssetLoader<Pixmap, PixmapLoader.P
 		super(resolver);
 	}
 
-	Pixmap pixmap;
+	final ObjectMap<String, Pixmap> pixmaps = new ObjectMap<String, Pixmap>();
 
 	@Override
 	public void loadAsync (AssetManager manager, String fileName, FileHandle file, PixmapParameter parameter) {
-		pixmap = null;
-		pixmap = new Pixmap(file);
+		Pixmap pixmap = new Pixmap(file);
+		synchronized (pixmaps) {
+			pixmaps.put(fileName, pixmap);
+		}
+	}
+
+	@Override
+	public void unloadAsync (AssetManager manager, String fileName, FileHandle file, PixmapParameter parameter) {
+		Pixmap pixmap;
+		synchronized (pixmaps) {
+			pixmap = pixmaps.remove(fileName);
+		}
+		if (pixmap != null) pixmap.dispose();
 	}
 
 	@Override
 	public Pixmap loadSync (AssetManager manager, String fileName, FileHandle file, PixmapParameter parameter) {
-		Pixmap pixmap = this.pixmap;
-		this.pixmap = null;
-		return pixmap;
+		synchronized (pixmaps) {
+			return pixmaps.remove(fileName);
+		}
+	}
+
+	@Override
+	public boolean canLoadConcurrently () {
+		return true;
 	}
 
 	@Override
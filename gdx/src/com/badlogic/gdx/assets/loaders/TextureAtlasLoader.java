@@ -26,6 +26,7 @@ import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData.Page;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
 
 /** {@link AssetLoader} to load {@link TextureAtlas} instances. Passing a {@link TextureAtlasParameter} to
  * {@link AssetManager#load(String, Class, AssetLoaderParameters)} allows to specify whether the atlas regions should be flipped
@@ -36,29 +37,35 @@ public class TextureAtlasLoader extends SynchronousAssetLoader<TextureAtlas, Tex
 		super(resolver);
 	}
 
-	TextureAtlasData data;
+	final ObjectMap<String, TextureAtlasData> datas = new ObjectMap<String, TextureAtlasData>();
 
 	@Override
 	public TextureAtlas load (AssetManager assetManager, String fileName, FileHandle file, TextureAtlasParameter parameter) {
+		TextureAtlasData data;
+		synchronized (datas) {
+			data = datas.remove(fileName);
+		}
 		for (Page page : data.getPages()) {
 			Texture texture = assetManager.get(page.textureFile.path().replaceAll("\\\\", "/"), Texture.class);
 			page.texture = texture;
 		}
 
-		TextureAtlas atlas = new TextureAtlas(data);
-		data = null;
-		return atlas;
+		return new TextureAtlas(data);
 	}
 
 	@Override
 	public Array<AssetDescriptor> getDependencies (String fileName, FileHandle atlasFile, TextureAtlasParameter parameter) {
 		FileHandle imgDir = atlasFile.parent();
 
+		TextureAtlasData data;
 		if (parameter != null)
 			data = new TextureAtlasData(atlasFile, imgDir, parameter.flip);
 		else {
 			data = new TextureAtlasData(atlasFile, imgDir, false);
 		}
+		synchronized (datas) {
+			datas.put(fileName, data);
+		}
 
 		Array<AssetDescriptor> dependencies = new Array();
 		for (Page page : data.getPages()) {
@@ -67,14 +74,22 @@ public class TextureAtlasLoader extends SynchronousAssetLoader<TextureAtlas, Tex
 			params.genMipMaps = page.useMipMaps;
 			params.minFilter = page.minFilter;
 			params.magFilter = page.magFilter;
+			if (parameter != null) params.uploadChunkSize = parameter.uploadChunkSize;
 			dependencies.add(new AssetDescriptor(page.textureFile, Texture.class, params));
 		}
 		return dependencies;
 	}
 
+	@Override
+	public boolean canLoadConcurrently () {
+		return true;
+	}
+
 	static public class TextureAtlasParameter extends AssetLoaderParameters<TextureAtlas> {
 		/** whether to flip the texture atlas vertically **/
 		public boolean flip = false;
+		/** If > 0, the page textures are uploaded in chunks, see {@link TextureParameter#uploadChunkSize}. **/
+		public int uploadChunkSize = 0;
 
 		public TextureAtlasParameter () {
 		}
@@ -16,21 +16,33 @@
 
 package com.badlogic.gdx.assets.loaders;
 
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetCache;
 import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetLoaderParameters;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Blending;
 import com.badlogic.gdx.graphics.Pixmap.Format;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.Texture.TextureFilter;
 import com.badlogic.gdx.graphics.Texture.TextureWrap;
 import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.TextureData.TextureDataType;
+import com.badlogic.gdx.graphics.glutils.FileTextureData;
+import com.badlogic.gdx.graphics.glutils.IncrementalTextureData;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Null;
+import com.badlogic.gdx.utils.ObjectMap;
 
 /** {@link AssetLoader} for {@link Texture} instances. The pixel data is loaded asynchronously. The texture is then created on the
  * rendering thread, synchronously. Passing a {@link TextureParameter} to
  * {@link AssetManager#load(String, Class, AssetLoaderParameters)} allows one to specify parameters as can be passed to the
- * various Texture constructors, e.g. filtering, whether to generate mipmaps and so on.
+ * various Texture constructors, e.g. filtering, whether to generate mipmaps and so on. If the manager has an
+ * {@link AssetManager#setCache(AssetCache) cache}, decoded pixels are stored in it and loaded from it instead of decoding the
+ * file again.
  * @author mzechner */
 public class TextureLoader extends AsynchronousAssetLoader<Texture, TextureLoader.TextureParameter> {
 	static public class TextureLoaderInfo {
@@ -39,7 +51,7 @@ public class TextureLoader extends AsynchronousAssetLoader<Texture, TextureLoade
 		Texture texture;
 	};
 
-	TextureLoaderInfo info = new TextureLoaderInfo();
+	final ObjectMap<String, TextureLoaderInfo> infos = new ObjectMap<String, TextureLoaderInfo>();
 
 	public TextureLoader (FileHandleResolver resolver) {
 		super(resolver);
@@ -47,6 +59,7 @@ public class TextureLoader extends AsynchronousAssetLoader<Texture, TextureLoade
 
 	@Override
 	public void loadAsync (AssetManager manager, String fileName, FileHandle file, TextureParameter parameter) {
+		TextureLoaderInfo info = new TextureLoaderInfo();
 		info.filename = fileName;
 		if (parameter == null || parameter.textureData == null) {
 			Format format = null;
@@ -59,23 +72,93 @@ public class TextureLoader extends AsynchronousAssetLoader<Texture, TextureLoade
 				info.texture = parameter.texture;
 			}
 
-			info.data = TextureData.Factory.loadFromFile(file, format, genMipMaps);
+			AssetCache cache = manager.getCache();
+			if (cache != null && isCacheable(file))
+				info.data = loadCached(manager, cache, file, format, genMipMaps);
+			else
+				info.data = TextureData.Factory.loadFromFile(file, format, genMipMaps);
 		} else {
 			info.data = parameter.textureData;
 			info.texture = parameter.texture;
 		}
+		if (parameter != null && parameter.uploadChunkSize > 0 && info.texture == null
+			&& info.data.getType() == TextureDataType.Pixmap && !info.data.useMipMaps()) {
+			info.data = new IncrementalTextureData(info.data);
+		}
 		if (!info.data.isPrepared()) info.data.prepare();
+		synchronized (infos) {
+			infos.put(fileName, info);
+		}
+	}
+
+	/** Returns true for files that are decoded into a pixmap, rather than being uploaded as they are. */
+	static private boolean isCacheable (FileHandle file) {
+		String extension = file.extension();
+		return !extension.equals("cim") && !extension.equals("etc1") && !extension.equals("ktx") && !extension.equals("zktx");
+	}
+
+	/** Loads the pixels from the cache, or decodes them and stores them in the cache. The pixels are converted to the format
+	 * before they are cached, so the conversion is skipped too. The data is managed and reloads the file itself. */
+	static private TextureData loadCached (AssetManager manager, AssetCache cache, FileHandle file, @Null Format format,
+		boolean genMipMaps) {
+		String variant = format == null ? "" : format.name();
+		Pixmap pixmap = cache.getPixmap(file, variant);
+		if (pixmap == null) {
+			pixmap = new Pixmap(file);
+			if (format != null && format != pixmap.getFormat()) {
+				Pixmap converted = new Pixmap(pixmap.getWidth(), pixmap.getHeight(), format);
+				converted.setBlending(Blending.None);
+				converted.drawPixmap(pixmap, 0, 0);
+				pixmap.dispose();
+				pixmap = converted;
+			}
+			try {
+				cache.putPixmap(file, variant, pixmap);
+			} catch (GdxRuntimeException ex) {
+				manager.getLogger().error("Unable to cache: " + file, ex);
+			}
+		}
+		return new FileTextureData(file, pixmap, format, genMipMaps);
+	}
+
+	@Override
+	public void unloadAsync (AssetManager manager, String fileName, FileHandle file, TextureParameter parameter) {
+		TextureLoaderInfo info;
+		synchronized (infos) {
+			info = infos.remove(fileName);
+		}
+		if (info != null && info.data instanceof IncrementalTextureData) {
+			((IncrementalTextureData)info.data).dispose();
+			if (info.texture != null) info.texture.dispose();
+		}
 	}
 
 	@Override
 	public Texture loadSync (AssetManager manager, String fileName, FileHandle file, TextureParameter parameter) {
+		TextureLoaderInfo info;
+		synchronized (infos) {
+			info = infos.get(fileName);
+		}
 		if (info == null) return null;
 		Texture texture = info.texture;
-		if (texture != null) {
+		if (info.data instanceof IncrementalTextureData) {
+			// The first step allocates the texture, each following step uploads a chunk of rows.
+			if (texture == null) {
+				info.texture = new Texture(info.data);
+				return null;
+			}
+			texture.bind();
+			boolean done = ((IncrementalTextureData)info.data).upload(texture.glTarget, parameter.uploadChunkSize);
+			Gdx.gl.glBindTexture(texture.glTarget, 0);
+			if (!done) return null;
+		} else if (texture != null) {
 			texture.load(info.data);
 		} else {
 			texture = new Texture(info.data);
 		}
+		synchronized (infos) {
+			infos.remove(fileName);
+		}
 		if (parameter != null) {
 			texture.setFilter(parameter.minFilter, parameter.magFilter);
 			texture.setWrap(parameter.wrapU, parameter.wrapV);
@@ -83,6 +166,11 @@ public class TextureLoader extends AsynchronousAssetLoader<Texture, TextureLoade
 		return texture;
 	}
 
+	@Override
+	public boolean canLoadConcurrently () {
+		return true;
+	}
+
 	@Override
 	public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, TextureParameter parameter) {
 		return null;
@@ -101,5 +189,10 @@ public class TextureLoader extends AsynchronousAssetLoader<Texture, TextureLoade
 		public TextureFilter magFilter = TextureFilter.Nearest;
 		public TextureWrap wrapU = TextureWrap.ClampToEdge;
 		public TextureWrap wrapV = TextureWrap.ClampToEdge;
+		/** If > 0, the pixels are uploaded in chunks of about this many bytes, one chunk each time the {@link AssetManager} is
+		 * updated, to keep frames short when loading large textures with {@link AssetManager#updateMicros(int)}. The texture's
+		 * {@link Texture#getTextureData() data} is then an {@link IncrementalTextureData}. Ignored for mipmapped textures, when
+		 * {@link #texture} is set or when the data is not pixmap based. **/
+		public int uploadChunkSize = 0;
 	}
 }
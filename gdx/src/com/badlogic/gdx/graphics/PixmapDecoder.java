@@ -0,0 +1,909 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+/** Decodes PNG and baseline JPEG images in Java, reading the file as a stream and writing each row of pixels directly to a buffer
+ * as soon as it is decoded. Unlike {@link Pixmap#Pixmap(FileHandle)}, neither the whole file nor a second copy of the image is
+ * held in memory, so very large images can be decoded into a preallocated buffer or into a region of an existing pixmap, such as
+ * an atlas page. Only a few rows are buffered: two rows for PNG and one row of 8 or 16 pixel high blocks for JPEG.
+ * <p>
+ * A decoder decodes a single image once. Decoders don't share state, so several images can be decoded on multiple threads at
+ * the same time, including into separate regions of the same pixmap. The image is decoded to {@link Format#RGBA8888} or
+ * {@link Format#RGB888}.
+ * <p>
+ * PNGs of all color types and bit depths are supported, including interlaced PNGs. Only baseline and extended sequential Huffman
+ * coded JPEGs with 1 or 3 components in a single scan are supported, which covers what most encoders write by default.
+ * Progressive JPEGs are not supported, their pixels are only known after the last scan. Chroma is upsampled by repeating
+ * samples, so JPEG pixels may differ slightly from other decoders. */
+public abstract class PixmapDecoder implements Disposable {
+	final DataInputStream input;
+	int width, height;
+	private boolean decoded;
+
+	private ByteBuffer target;
+	private int offset, stride;
+	private boolean rgb;
+
+	PixmapDecoder (InputStream input) {
+		this.input = new DataInputStream(input);
+	}
+
+	/** Returns a decoder for the PNG or JPEG file. The file is read when the decoder is created, until the pixels.
+	 * @throws GdxRuntimeException if the file is not a supported image. */
+	static public PixmapDecoder create (FileHandle file) {
+		InputStream input = file.read(8192);
+		try {
+			return create(input);
+		} catch (RuntimeException ex) {
+			StreamUtils.closeQuietly(input);
+			throw new GdxRuntimeException("Error reading image: " + file, ex);
+		}
+	}
+
+	/** Returns a decoder for the PNG or JPEG stream. The stream is read until the pixels when the decoder is created, and closed
+	 * when the decoder is disposed. For best performance, provide a buffered stream.
+	 * @throws GdxRuntimeException if the stream is not a supported image. */
+	static public PixmapDecoder create (InputStream input) {
+		if (!input.markSupported()) input = new BufferedInputStream(input, 8192);
+		int first, second;
+		try {
+			input.mark(2);
+			first = input.read();
+			second = input.read();
+			input.reset();
+		} catch (IOException ex) {
+			throw new GdxRuntimeException("Error reading image.", ex);
+		}
+		if (first == 0x89 && second == 'P') return new PNG(input);
+		if (first == 0xFF && second == 0xD8) return new JPEG(input);
+		throw new GdxRuntimeException("Image is not a PNG or JPEG.");
+	}
+
+	public int getWidth () {
+		return width;
+	}
+
+	public int getHeight () {
+		return height;
+	}
+
+	/** Decodes the image into a new pixmap. */
+	public Pixmap decode (Format format) {
+		Pixmap pixmap = new Pixmap(width, height, format);
+		try {
+			decode(pixmap, 0, 0);
+		} catch (RuntimeException ex) {
+			pixmap.dispose();
+			throw ex;
+		}
+		return pixmap;
+	}
+
+	/** Decodes the image into the pixmap, with its top left corner at the specified pixel.
+	 * @param pixmap Must be {@link Format#RGBA8888} or {@link Format#RGB888}. */
+	public void decode (Pixmap pixmap, int x, int y) {
+		if (x < 0 || y < 0 || x + width > pixmap.getWidth() || y + height > pixmap.getHeight())
+			throw new IllegalArgumentException("The image doesn't fit in the pixmap at: " + x + ", " + y);
+		int bytesPerPixel = bytesPerPixel(pixmap.getFormat());
+		decode(pixmap.getPixels(), (y * pixmap.getWidth() + x) * bytesPerPixel, pixmap.getWidth() * bytesPerPixel,
+			pixmap.getFormat());
+	}
+
+	/** Decodes the image into the buffer, with rows following each other from index 0.
+	 * @param format Must be {@link Format#RGBA8888} or {@link Format#RGB888}. */
+	public void decode (ByteBuffer pixels, Format format) {
+		decode(pixels, 0, width * bytesPerPixel(format), format);
+	}
+
+	/** Decodes the image into the buffer. The buffer's position and limit are not used or changed.
+	 * @param offset The index of the first pixel of the first row.
+	 * @param stride The number of bytes from the start of a row to the start of the next row.
+	 * @param format Must be {@link Format#RGBA8888} or {@link Format#RGB888}.
+	 * @throws GdxRuntimeException if the image is invalid or could not be read. */
+	public void decode (ByteBuffer pixels, int offset, int stride, Format format) {
+		int bytesPerPixel = bytesPerPixel(format);
+		if (stride < width * bytesPerPixel) throw new IllegalArgumentException("stride is too small: " + stride);
+		if (offset < 0 || offset + (long)(height - 1) * stride + width * bytesPerPixel > pixels.capacity())
+			throw new IllegalArgumentException("The image doesn't fit in the buffer.");
+		if (decoded) throw new GdxRuntimeException("The image has already been decoded.");
+		decoded = true;
+		target = pixels.duplicate();
+		this.offset = offset;
+		this.stride = stride;
+		rgb = format == Format.RGB888;
+		try {
+			decodeRows();
+		} catch (IOException ex) {
+			throw new GdxRuntimeException("Error decoding image.", ex);
+		} finally {
+			target = null;
+		}
+	}
+
+	static private int bytesPerPixel (Format format) {
+		if (format == Format.RGBA8888) return 4;
+		if (format == Format.RGB888) return 3;
+		throw new IllegalArgumentException("Unsupported format: " + format);
+	}
+
+	abstract void decodeRows () throws IOException;
+
+	/** Writes RGBA8888 pixels to a row of the target.
+	 * @param x The column of the first pixel.
+	 * @param step The number of columns from a pixel to the next. */
+	void writeRow (byte[] rgba, int y, int x, int step, int count) {
+		ByteBuffer target = this.target;
+		int bytesPerPixel = rgb ? 3 : 4;
+		int position = offset + y * stride + x * bytesPerPixel;
+		if (step == 1 && !rgb) {
+			((Buffer)target).position(position);
+			target.put(rgba, 0, count * 4);
+			return;
+		}
+		int advance = step * bytesPerPixel;
+		for (int i = 0, n = count * 4; i < n; i += 4, position += advance) {
+			target.put(position, rgba[i]);
+			target.put(position + 1, rgba[i + 1]);
+			target.put(position + 2, rgba[i + 2]);
+			if (!rgb) target.put(position + 3, rgba[i + 3]);
+		}
+	}
+
+	/** Closes the stream. */
+	public void dispose () {
+		StreamUtils.closeQuietly(input);
+	}
+
+	/** Decodes PNG images. Interlaced images are decoded a pass at a time, writing the pixels of each pass to their place in the
+	 * target. */
+	static public class PNG extends PixmapDecoder {
+		static private final int IHDR = 0x49484452, PLTE = 0x504C5445, TRNS = 0x74524E53, IDAT = 0x49444154;
+		static private final int GRAY = 0, RGB = 2, PALETTE = 3, GRAY_ALPHA = 4, RGBA = 6;
+		static private final int[] passX = {0, 4, 0, 2, 0, 1, 0}, passY = {0, 0, 4, 0, 2, 0, 1};
+		static private final int[] passStepX = {8, 8, 4, 4, 2, 2, 1}, passStepY = {8, 8, 8, 4, 4, 2, 2};
+
+		private int bitDepth, colorType, channels;
+		private boolean interlaced;
+		private byte[] palette;
+		private boolean transparent;
+		private int transparentRed, transparentGreen, transparentBlue;
+		/** The bytes left in the current IDAT chunk, or -1 after the last IDAT chunk. */
+		int chunkRemaining;
+
+		/** Reads the header and the chunks before the pixels.
+		 * @throws GdxRuntimeException if the stream is not a supported PNG. */
+		public PNG (InputStream input) {
+			super(input);
+			try {
+				readHeader();
+			} catch (IOException ex) {
+				throw new GdxRuntimeException("Error reading PNG.", ex);
+			}
+		}
+
+		private void readHeader () throws IOException {
+			DataInputStream input = this.input;
+			if (input.readInt() != 0x89504E47 || input.readInt() != 0x0D0A1A0A) throw new GdxRuntimeException("Not a PNG.");
+			while (true) {
+				int length = input.readInt(), type = input.readInt();
+				switch (type) {
+				case IHDR:
+					width = input.readInt();
+					height = input.readInt();
+					bitDepth = input.readUnsignedByte();
+					colorType = input.readUnsignedByte();
+					input.readUnsignedByte(); // Compression.
+					input.readUnsignedByte(); // Filter.
+					interlaced = input.readUnsignedByte() == 1;
+					skip(length - 13);
+					switch (colorType) {
+					case GRAY:
+					case PALETTE:
+						channels = 1;
+						break;
+					case GRAY_ALPHA:
+						channels = 2;
+						break;
+					case RGB:
+						channels = 3;
+						break;
+					case RGBA:
+						channels = 4;
+						break;
+					default:
+						throw new GdxRuntimeException("Unsupported PNG color type: " + colorType);
+					}
+					if (width <= 0 || height <= 0) throw new GdxRuntimeException("Invalid PNG size: " + width + "x" + height);
+					break;
+				case PLTE:
+					palette = new byte[256 * 4];
+					for (int i = 0, n = length / 3 * 4; i < n; i += 4) {
+						palette[i] = input.readByte();
+						palette[i + 1] = input.readByte();
+						palette[i + 2] = input.readByte();
+						palette[i + 3] = -1;
+					}
+					skip(length % 3);
+					break;
+				case TRNS:
+					if (colorType == PALETTE) {
+						if (palette == null) throw new GdxRuntimeException("PNG tRNS chunk before PLTE chunk.");
+						for (int i = 0; i < length; i++)
+							palette[i * 4 + 3] = input.readByte();
+					} else {
+						transparent = true;
+						transparentRed = input.readUnsignedShort();
+						if (colorType == RGB) {
+							transparentGreen = input.readUnsignedShort();
+							transparentBlue = input.readUnsignedShort();
+						}
+						skip(length - (colorType == RGB ? 6 : 2));
+					}
+					break;
+				case IDAT:
+					if (colorType == PALETTE && palette == null) throw new GdxRuntimeException("PNG has no palette.");
+					chunkRemaining = length;
+					return;
+				default:
+					skip(length);
+				}
+				input.readInt(); // CRC.
+			}
+		}
+
+		private void skip (int count) throws IOException {
+			while (count > 0) {
+				int skipped = input.skipBytes(count);
+				if (skipped <= 0) throw new EOFException();
+				count -= skipped;
+			}
+		}
+
+		/** Reads the contents of consecutive IDAT chunks. */
+		private final InputStream idat = new InputStream() {
+			private final byte[] single = new byte[1];
+
+			public int read () throws IOException {
+				return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+			}
+
+			public int read (byte[] bytes, int offset, int length) throws IOException {
+				while (chunkRemaining == 0) {
+					input.readInt(); // CRC.
+					int chunkLength = input.readInt();
+					if (input.readInt() != IDAT) {
+						chunkRemaining = -1;
+						break;
+					}
+					chunkRemaining = chunkLength;
+				}
+				if (chunkRemaining == -1) return -1;
+				int count = input.read(bytes, offset, Math.min(length, chunkRemaining));
+				if (count == -1) throw new EOFException();
+				chunkRemaining -= count;
+				return count;
+			}
+		};
+
+		void decodeRows () throws IOException {
+			int bitsPerPixel = channels * bitDepth;
+			int filterOffset = Math.max(1, bitsPerPixel / 8);
+			int maxRowBytes = (width * bitsPerPixel + 7) / 8;
+			byte[] row = new byte[maxRowBytes], previousRow = new byte[maxRowBytes], rgba = new byte[width * 4];
+			Inflater inflater = new Inflater();
+			try {
+				InflaterInputStream data = new InflaterInputStream(idat, inflater, 8192);
+				for (int pass = interlaced ? 0 : 6; pass < 7; pass++) {
+					int x = interlaced ? passX[pass] : 0, y = interlaced ? passY[pass] : 0;
+					int stepX = interlaced ? passStepX[pass] : 1, stepY = interlaced ? passStepY[pass] : 1;
+					int passWidth = (width - x + stepX - 1) / stepX, passHeight = (height - y + stepY - 1) / stepY;
+					if (passWidth <= 0 || passHeight <= 0) continue;
+					int rowBytes = (passWidth * bitsPerPixel + 7) / 8;
+					for (int i = 0; i < rowBytes; i++)
+						previousRow[i] = 0;
+					for (int r = 0; r < passHeight; r++, y += stepY) {
+						int filter = data.read();
+						if (filter == -1) throw new EOFException();
+						readFully(data, row, rowBytes);
+						unfilter(filter, row, previousRow, rowBytes, filterOffset);
+						convert(row, passWidth, rgba);
+						writeRow(rgba, y, x, stepX, passWidth);
+						byte[] temp = row;
+						row = previousRow;
+						previousRow = temp;
+					}
+				}
+			} finally {
+				inflater.end();
+			}
+		}
+
+		static private void readFully (InputStream input, byte[] bytes, int length) throws IOException {
+			for (int offset = 0; offset < length;) {
+				int count = input.read(bytes, offset, length - offset);
+				if (count == -1) throw new EOFException("Unexpected end of PNG data.");
+				offset += count;
+			}
+		}
+
+		static private void unfilter (int filter, byte[] row, byte[] previousRow, int length, int offset) {
+			switch (filter) {
+			case 0: // None.
+				break;
+			case 1: // Sub.
+				for (int i = offset; i < length; i++)
+					row[i] += row[i - offset];
+				break;
+			case 2: // Up.
+				for (int i = 0; i < length; i++)
+					row[i] += previousRow[i];
+				break;
+			case 3: // Average.
+				for (int i = 0; i < offset; i++)
+					row[i] += (previousRow[i] & 0xff) >> 1;
+				for (int i = offset; i < length; i++)
+					row[i] += ((row[i - offset] & 0xff) + (previousRow[i] & 0xff)) >> 1;
+				break;
+			case 4: // Paeth.
+				for (int i = 0; i < offset; i++)
+					row[i] += previousRow[i];
+				for (int i = offset; i < length; i++) {
+					int a = row[i - offset] & 0xff, b = previousRow[i] & 0xff, c = previousRow[i - offset] & 0xff;
+					int p = a + b - c;
+					int pa = p - a;
+					if (pa < 0) pa = -pa;
+					int pb = p - b;
+					if (pb < 0) pb = -pb;
+					int pc = p - c;
+					if (pc < 0) pc = -pc;
+					if (pa <= pb && pa <= pc)
+						c = a;
+					else if (pb <= pc) //
+						c = b;
+					row[i] += c;
+				}
+				break;
+			default:
+				throw new GdxRuntimeException("Invalid PNG filter type: " + filter);
+			}
+		}
+
+		/** Returns a sample at its full bit depth. */
+		private int sample (byte[] row, int index) {
+			switch (bitDepth) {
+			case 8:
+				return row[index] & 0xff;
+			case 16:
+				return ((row[index * 2] & 0xff) << 8) | (row[index * 2 + 1] & 0xff);
+			default:
+				int bit = index * bitDepth;
+				return (row[bit >> 3] >> (8 - bitDepth - (bit & 7))) & ((1 << bitDepth) - 1);
+			}
+		}
+
+		/** Scales a sample to 8 bits. */
+		private int scale (int sample) {
+			switch (bitDepth) {
+			case 8:
+				return sample;
+			case 16:
+				return sample >> 8;
+			default:
+				return sample * 255 / ((1 << bitDepth) - 1);
+			}
+		}
+
+		private void convert (byte[] row, int count, byte[] rgba) {
+			if (bitDepth == 8 && colorType == RGBA) {
+				System.arraycopy(row, 0, rgba, 0, count * 4);
+				return;
+			}
+			for (int i = 0, s = 0, o = 0; i < count; i++, o += 4) {
+				switch (colorType) {
+				case GRAY: {
+					int gray = sample(row, s++);
+					byte value = (byte)scale(gray);
+					rgba[o] = rgba[o + 1] = rgba[o + 2] = value;
+					rgba[o + 3] = (byte)(transparent && gray == transparentRed ? 0 : 255);
+					break;
+				}
+				case GRAY_ALPHA: {
+					byte value = (byte)scale(sample(row, s++));
+					rgba[o] = rgba[o + 1] = rgba[o + 2] = value;
+					rgba[o + 3] = (byte)scale(sample(row, s++));
+					break;
+				}
+				case RGB: {
+					int red = sample(row, s++), green = sample(row, s++), blue = sample(row, s++);
+					rgba[o] = (byte)scale(red);
+					rgba[o + 1] = (byte)scale(green);
+					rgba[o + 2] = (byte)scale(blue);
+					rgba[o + 3] = (byte)(transparent && red == transparentRed && green == transparentGreen
+						&& blue == transparentBlue ? 0 : 255);
+					break;
+				}
+				case PALETTE: {
+					int index = sample(row, s++) * 4;
+					rgba[o] = palette[index];
+					rgba[o + 1] = palette[index + 1];
+					rgba[o + 2] = palette[index + 2];
+					rgba[o + 3] = palette[index + 3];
+					break;
+				}
+				default: // RGBA, 16 bits.
+					rgba[o] = (byte)scale(sample(row, s++));
+					rgba[o + 1] = (byte)scale(sample(row, s++));
+					rgba[o + 2] = (byte)scale(sample(row, s++));
+					rgba[o + 3] = (byte)scale(sample(row, s++));
+				}
+			}
+		}
+	}
+
+	/** Decodes baseline JPEG images a row of blocks at a time. */
+	static public class JPEG extends PixmapDecoder {
+		static private final int[] zigzag = {0, 1, 8, 16, 9, 2, 3, 10, 17, 24, 32, 25, 18, 11, 4, 5, 12, 19, 26, 33, 40, 48, 41,
+			34, 27, 20, 13, 6, 7, 14, 21, 28, 35, 42, 49, 56, 57, 50, 43, 36, 29, 22, 15, 23, 30, 37, 44, 51, 58, 59, 52, 45, 38, 31,
+			39, 46, 53, 60, 61, 54, 47, 55, 62, 63};
+
+		private final int[][] quantization = new int[4][];
+		private final Huffman[] dcTables = new Huffman[4], acTables = new Huffman[4];
+		private Component[] components;
+		private int restartInterval, maxH, maxV, adobeTransform = -1;
+
+		private int bits, bitCount, marker;
+
+		/** Reads the segments before the pixels.
+		 * @throws GdxRuntimeException if the stream is not a supported JPEG. */
+		public JPEG (InputStream input) {
+			super(input);
+			try {
+				readHeader();
+			} catch (IOException ex) {
+				throw new GdxRuntimeException("Error reading JPEG.", ex);
+			}
+		}
+
+		private void readHeader () throws IOException {
+			DataInputStream input = this.input;
+			if (input.readUnsignedShort() != 0xFFD8) throw new GdxRuntimeException("Not a JPEG.");
+			while (true) {
+				int marker = input.readUnsignedByte();
+				if (marker != 0xFF) throw new GdxRuntimeException("Invalid JPEG marker: " + marker);
+				while (marker == 0xFF)
+					marker = input.readUnsignedByte();
+				int length = input.readUnsignedShort() - 2;
+				switch (marker) {
+				case 0xC0: // Baseline.
+				case 0xC1: // Extended sequential, Huffman.
+					readFrame();
+					break;
+				case 0xC4:
+					readHuffmanTables(length);
+					break;
+				case 0xDB:
+					readQuantizationTables(length);
+					break;
+				case 0xDD:
+					restartInterval = input.readUnsignedShort();
+					break;
+				case 0xEE: // APP14, Adobe.
+					if (length >= 12) {
+						byte[] bytes = new byte[12];
+						input.readFully(bytes);
+						if (bytes[0] == 'A' && bytes[1] == 'd' && bytes[2] == 'o' && bytes[3] == 'b' && bytes[4] == 'e')
+							adobeTransform = bytes[11];
+						length -= 12;
+					}
+					input.skipBytes(length);
+					break;
+				case 0xDA:
+					readScan();
+					return;
+				default:
+					if ((marker >= 0xC2 && marker <= 0xCF) || marker == 0xD9)
+						throw new GdxRuntimeException("Unsupported JPEG, only baseline JPEGs are supported: " + marker);
+					input.skipBytes(length);
+				}
+			}
+		}
+
+		private void readFrame () throws IOException {
+			DataInputStream input = this.input;
+			if (input.readUnsignedByte() != 8) throw new GdxRuntimeException("Unsupported JPEG, precision must be 8 bits.");
+			height = input.readUnsignedShort();
+			width = input.readUnsignedShort();
+			if (width == 0 || height == 0) throw new GdxRuntimeException("Invalid JPEG size: " + width + "x" + height);
+			int count = input.readUnsignedByte();
+			if (count != 1 && count != 3) throw new GdxRuntimeException("Unsupported JPEG component count: " + count);
+			components = new Component[count];
+			for (int i = 0; i < count; i++) {
+				Component component = new Component();
+				component.id = input.readUnsignedByte();
+				int sampling = input.readUnsignedByte();
+				component.h = sampling >> 4;
+				component.v = sampling & 15;
+				if (component.h < 1 || component.h > 4 || component.v < 1 || component.v > 4)
+					throw new GdxRuntimeException("Invalid JPEG sampling factors.");
+				component.quantization = input.readUnsignedByte() & 3;
+				maxH = Math.max(maxH, component.h);
+				maxV = Math.max(maxV, component.v);
+				components[i] = component;
+			}
+		}
+
+		private void readHuffmanTables (int length) throws IOException {
+			DataInputStream input = this.input;
+			while (length > 0) {
+				int info = input.readUnsignedByte();
+				int[] counts = new int[16];
+				int total = 0;
+				for (int i = 0; i < 16; i++)
+					total += counts[i] = input.readUnsignedByte();
+				byte[] values = new byte[total];
+				input.readFully(values);
+				Huffman table = new Huffman(counts, values);
+				if (info >> 4 == 0)
+					dcTables[info & 3] = table;
+				else
+					acTables[info & 3] = table;
+				length -= 17 + total;
+			}
+		}
+
+		private void readQuantizationTables (int length) throws IOException {
+			DataInputStream input = this.input;
+			while (length > 0) {
+				int info = input.readUnsignedByte();
+				boolean wide = info >> 4 != 0;
+				int[] table = new int[64];
+				for (int i = 0; i < 64; i++)
+					table[i] = wide ? input.readUnsignedShort() : input.readUnsignedByte();
+				quantization[info & 3] = table;
+				length -= 65 + (wide ? 64 : 0);
+			}
+		}
+
+		private void readScan () throws IOException {
+			DataInputStream input = this.input;
+			if (components == null) throw new GdxRuntimeException("JPEG scan before frame.");
+			int count = input.readUnsignedByte();
+			if (count != components.length)
+				throw new GdxRuntimeException("Unsupported JPEG, all components must be in a single scan.");
+			for (int i = 0; i < count; i++) {
+				int id = input.readUnsignedByte(), tables = input.readUnsignedByte();
+				Component component = null;
+				for (Component c : components)
+					if (c.id == id) component = c;
+				if (component == null) throw new GdxRuntimeException("Invalid JPEG scan component: " + id);
+				component.dc = dcTables[tables >> 4];
+				component.ac = acTables[tables & 3];
+				if (component.dc == null || component.ac == null) throw new GdxRuntimeException("Missing JPEG Huffman table.");
+				if (quantization[component.quantization] == null)
+					throw new GdxRuntimeException("Missing JPEG quantization table.");
+			}
+			input.skipBytes(3); // Spectral selection and successive approximation.
+		}
+
+		void decodeRows () throws IOException {
+			Component[] components = this.components;
+			int maxH = this.maxH, maxV = this.maxV;
+			// A single component is not interleaved, each block is a unit.
+			if (components.length == 1) components[0].h = components[0].v = maxH = maxV = 1;
+			int mcuWidth = maxH * 8, mcuHeight = maxV * 8;
+			int mcusX = (width + mcuWidth - 1) / mcuWidth, mcusY = (height + mcuHeight - 1) / mcuHeight;
+			for (Component component : components) {
+				component.stride = mcusX * component.h * 8;
+				component.samples = new byte[component.stride * component.v * 8];
+			}
+			int[] coefficients = new int[64];
+			byte[] rgba = new byte[width * 4];
+			boolean ycbcr = components.length == 3 && adobeTransform != 0
+				&& !(components[0].id == 'R' && components[1].id == 'G' && components[2].id == 'B');
+
+			for (int mcuY = 0, mcu = 0; mcuY < mcusY; mcuY++) {
+				for (int mcuX = 0; mcuX < mcusX; mcuX++, mcu++) {
+					if (restartInterval != 0 && mcu != 0 && mcu % restartInterval == 0) restart();
+					for (Component component : components) {
+						int[] quantization = this.quantization[component.quantization];
+						for (int blockY = 0; blockY < component.v; blockY++) {
+							for (int blockX = 0; blockX < component.h; blockX++) {
+								decodeBlock(component, quantization, coefficients);
+								idct(coefficients, component.samples,
+									blockY * 8 * component.stride + (mcuX * component.h + blockX) * 8, component.stride);
+							}
+						}
+					}
+				}
+				for (int row = 0, y = mcuY * mcuHeight; row < mcuHeight && y < height; row++, y++) {
+					if (components.length == 1)
+						gray(components[0], row, rgba);
+					else
+						color(components, row, maxH, maxV, ycbcr, rgba);
+					writeRow(rgba, y, 0, 1, width);
+				}
+			}
+		}
+
+		private void gray (Component component, int row, byte[] rgba) {
+			byte[] samples = component.samples;
+			for (int x = 0, s = row * component.stride, o = 0, n = width; x < n; x++, o += 4) {
+				byte value = samples[s + x];
+				rgba[o] = rgba[o + 1] = rgba[o + 2] = value;
+				rgba[o + 3] = -1;
+			}
+		}
+
+		private void color (Component[] components, int row, int maxH, int maxV, boolean ycbcr, byte[] rgba) {
+			Component c0 = components[0], c1 = components[1], c2 = components[2];
+			int s0 = row * c0.v / maxV * c0.stride, s1 = row * c1.v / maxV * c1.stride, s2 = row * c2.v / maxV * c2.stride;
+			byte[] samples0 = c0.samples, samples1 = c1.samples, samples2 = c2.samples;
+			for (int x = 0, o = 0, n = width; x < n; x++, o += 4) {
+				int a = samples0[s0 + x * c0.h / maxH] & 0xff;
+				int b = samples1[s1 + x * c1.h / maxH] & 0xff;
+				int c = samples2[s2 + x * c2.h / maxH] & 0xff;
+				if (ycbcr) {
+					int y = (a << 16) + 32768, cb = b - 128, cr = c - 128;
+					rgba[o] = clamp((y + cr * 91881) >> 16); // 1.402
+					rgba[o + 1] = clamp((y - cb * 22554 - cr * 46802) >> 16); // 0.344136, 0.714136
+					rgba[o + 2] = clamp((y + cb * 116130) >> 16); // 1.772
+				} else {
+					rgba[o] = (byte)a;
+					rgba[o + 1] = (byte)b;
+					rgba[o + 2] = (byte)c;
+				}
+				rgba[o + 3] = -1;
+			}
+		}
+
+		static private byte clamp (int value) {
+			return (byte)(value < 0 ? 0 : value > 255 ? 255 : value);
+		}
+
+		private void restart () throws IOException {
+			bits = 0;
+			bitCount = 0;
+			int marker = this.marker;
+			this.marker = 0;
+			if (marker == 0) {
+				int b;
+				do {
+					b = input.readUnsignedByte();
+				} while (b != 0xFF);
+				do {
+					b = input.readUnsignedByte();
+				} while (b == 0xFF);
+				marker = b;
+			}
+			if (marker < 0xD0 || marker > 0xD7) throw new GdxRuntimeException("Expected a JPEG restart marker: " + marker);
+			for (Component component : components)
+				component.prediction = 0;
+		}
+
+		/** Reads bytes until at least 25 bits are buffered. After a marker, zeros are buffered. */
+		private void fill () throws IOException {
+			while (bitCount <= 24) {
+				int b = 0;
+				if (marker == 0) {
+					b = input.read();
+					if (b == -1) {
+						b = 0;
+						marker = -1;
+					} else if (b == 0xFF) {
+						int next = input.read();
+						while (next == 0xFF)
+							next = input.read();
+						if (next != 0) {
+							b = 0;
+							marker = next;
+						}
+					}
+				}
+				bits |= b << (24 - bitCount);
+				bitCount += 8;
+			}
+		}
+
+		private int decode (Huffman table) throws IOException {
+			if (bitCount < 16) fill();
+			int entry = table.lookup[bits >>> 23];
+			if (entry != 0) {
+				int length = entry >> 8;
+				bits <<= length;
+				bitCount -= length;
+				return entry & 0xff;
+			}
+			for (int length = 10; length <= 16; length++) {
+				int code = bits >>> (32 - length);
+				if (code <= table.maxCode[length]) {
+					bits <<= length;
+					bitCount -= length;
+					return table.values[code + table.valueOffset[length]] & 0xff;
+				}
+			}
+			throw new GdxRuntimeException("Invalid JPEG Huffman code.");
+		}
+
+		/** Reads a value of the specified number of bits and extends its sign. */
+		private int receive (int length) throws IOException {
+			if (length == 0) return 0;
+			if (bitCount < length) fill();
+			int value = bits >>> (32 - length);
+			bits <<= length;
+			bitCount -= length;
+			return value < 1 << (length - 1) ? value - (1 << length) + 1 : value;
+		}
+
+		/** Decodes the dequantized coefficients of a block in natural order. */
+		private void decodeBlock (Component component, int[] quantization, int[] coefficients) throws IOException {
+			for (int i = 0; i < 64; i++)
+				coefficients[i] = 0;
+			component.prediction += receive(decode(component.dc));
+			coefficients[0] = component.prediction * quantization[0];
+			Huffman ac = component.ac;
+			for (int k = 1; k < 64;) {
+				int symbol = decode(ac);
+				int zeros = symbol >> 4, length = symbol & 15;
+				if (length == 0) {
+					if (zeros != 15) break; // End of block.
+					k += 16;
+					continue;
+				}
+				k += zeros;
+				if (k > 63) throw new GdxRuntimeException("Invalid JPEG block.");
+				coefficients[zigzag[k]] = receive(length) * quantization[k];
+				k++;
+			}
+		}
+
+		/** An integer inverse DCT with the accuracy of libjpeg's islow, as used by stb_image. */
+		static private void idct (int[] in, byte[] out, int offset, int stride) {
+			int[] v = in;
+			for (int i = 0; i < 8; i++) {
+				if (v[i + 8] == 0 && v[i + 16] == 0 && v[i + 24] == 0 && v[i + 32] == 0 && v[i + 40] == 0 && v[i + 48] == 0
+					&& v[i + 56] == 0) {
+					int dc = v[i] << 2;
+					v[i] = v[i + 8] = v[i + 16] = v[i + 24] = v[i + 32] = v[i + 40] = v[i + 48] = v[i + 56] = dc;
+					continue;
+				}
+				int p2 = v[i + 16], p3 = v[i + 48];
+				int p1 = (p2 + p3) * 2217; // 0.5411961
+				int t2 = p1 + p3 * -7567; // -1.847759065
+				int t3 = p1 + p2 * 3135; // 0.765366865
+				p2 = v[i];
+				p3 = v[i + 32];
+				int t0 = (p2 + p3) << 12, t1 = (p2 - p3) << 12;
+				int x0 = t0 + t3 + 512, x3 = t0 - t3 + 512, x1 = t1 + t2 + 512, x2 = t1 - t2 + 512;
+				t0 = v[i + 56];
+				t1 = v[i + 40];
+				t2 = v[i + 24];
+				t3 = v[i + 8];
+				p3 = t0 + t2;
+				int p4 = t1 + t3;
+				p1 = t0 + t3;
+				p2 = t1 + t2;
+				int p5 = (p3 + p4) * 4816; // 1.175875602
+				t0 *= 1223; // 0.298631336
+				t1 *= 8410; // 2.053119869
+				t2 *= 12586; // 3.072711026
+				t3 *= 6149; // 1.501321110
+				p1 = p5 + p1 * -3685; // -0.899976223
+				p2 = p5 + p2 * -10497; // -2.562915447
+				p3 *= -8034; // -1.961570560
+				p4 *= -1597; // -0.390180644
+				t3 += p1 + p4;
+				t2 += p2 + p3;
+				t1 += p2 + p4;
+				t0 += p1 + p3;
+				v[i] = (x0 + t3) >> 10;
+				v[i + 56] = (x0 - t3) >> 10;
+				v[i + 8] = (x1 + t2) >> 10;
+				v[i + 48] = (x1 - t2) >> 10;
+				v[i + 16] = (x2 + t1) >> 10;
+				v[i + 40] = (x2 - t1) >> 10;
+				v[i + 24] = (x3 + t0) >> 10;
+				v[i + 32] = (x3 - t0) >> 10;
+			}
+			for (int i = 0; i < 64; i += 8, offset += stride) {
+				int p2 = v[i + 2], p3 = v[i + 6];
+				int p1 = (p2 + p3) * 2217;
+				int t2 = p1 + p3 * -7567;
+				int t3 = p1 + p2 * 3135;
+				p2 = v[i];
+				p3 = v[i + 4];
+				int t0 = (p2 + p3) << 12, t1 = (p2 - p3) << 12;
+				// Round, and add 128 to shift from -128..127 to 0..255.
+				int bias = 65536 + (128 << 17);
+				int x0 = t0 + t3 + bias, x3 = t0 - t3 + bias, x1 = t1 + t2 + bias, x2 = t1 - t2 + bias;
+				t0 = v[i + 7];
+				t1 = v[i + 5];
+				t2 = v[i + 3];
+				t3 = v[i + 1];
+				p3 = t0 + t2;
+				int p4 = t1 + t3;
+				p1 = t0 + t3;
+				p2 = t1 + t2;
+				int p5 = (p3 + p4) * 4816;
+				t0 *= 1223;
+				t1 *= 8410;
+				t2 *= 12586;
+				t3 *= 6149;
+				p1 = p5 + p1 * -3685;
+				p2 = p5 + p2 * -10497;
+				p3 *= -8034;
+				p4 *= -1597;
+				t3 += p1 + p4;
+				t2 += p2 + p3;
+				t1 += p2 + p4;
+				t0 += p1 + p3;
+				out[offset] = clamp((x0 + t3) >> 17);
+				out[offset + 7] = clamp((x0 - t3) >> 17);
+				out[offset + 1] = clamp((x1 + t2) >> 17);
+				out[offset + 6] = clamp((x1 - t2) >> 17);
+				out[offset + 2] = clamp((x2 + t1) >> 17);
+				out[offset + 5] = clamp((x2 - t1) >> 17);
+				out[offset + 3] = clamp((x3 + t0) >> 17);
+				out[offset + 4] = clamp((x3 - t0) >> 17);
+			}
+		}
+
+		static private class Component {
+			int id, h, v, quantization, prediction, stride;
+			Huffman dc, ac;
+			/** The samples of a row of MCUs. */
+			byte[] samples;
+		}
+
+		static private class Huffman {
+			/** For codes of up to 9 bits, indexed by the next 9 bits: the code length << 8 | the value, or 0. */
+			final int[] lookup = new int[512];
+			final int[] maxCode = new int[17], valueOffset = new int[17];
+			final byte[] values;
+
+			Huffman (int[] counts, byte[] values) {
+				this.values = values;
+				for (int length = 1, code = 0, k = 0; length <= 16; length++, code <<= 1) {
+					valueOffset[length] = k - code;
+					int count = counts[length - 1];
+					for (int i = 0; i < count; i++, code++, k++) {
+						if (length > 9) continue;
+						int entry = length << 8 | (values[k] & 0xff);
+						for (int j = code << (9 - length), n = (code + 1) << (9 - length); j < n; j++)
+							lookup[j] = entry;
+					}
+					maxCode[length] = count > 0 ? code - 1 : -1;
+				}
+			}
+		}
+	}
+}
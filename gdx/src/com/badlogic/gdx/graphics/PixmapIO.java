@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.util.zip.Adler32;
 import java.util.zip.CRC32;
 import java.util.zip.CheckedOutputStream;
 import java.util.zip.Deflater;
@@ -32,10 +33,15 @@ import java.util.zip.InflaterInputStream;
 
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ByteArray;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Null;
 import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
 
 /** Writes Pixmaps to various formats.
  * @author mzechner
@@ -189,12 +195,21 @@ public class PixmapIO {
 		static private final byte FILTER_NONE = 0;
 		static private final byte INTERLACE_NONE = 0;
 		static private final byte PAETH = 4;
+		static private final int DICTIONARY_SIZE = 32768;
 
 		private final ChunkBuffer buffer;
 		private final Deflater deflater;
 		private ByteArray lineOutBytes, curLineBytes, prevLineBytes;
 		private boolean flipY = true;
-		private int lastLineLen;
+		private int lastLineLen, compression = Deflater.DEFAULT_COMPRESSION;
+
+		private @Null AsyncExecutor executor;
+		private int blockSize = 256 * 1024;
+		/** Deflaters for the blocks, reused by the executor's threads. */
+		private final Array<Deflater> deflaters = new Array<Deflater>();
+		/** Writes the PNGs for {@link #writeAsync(FileHandle, Pixmap)}, created when first used. */
+		private @Null AsyncExecutor writer;
+		private @Null PNG asyncPNG;
 
 		public PNG () {
 			this(128 * 128);
@@ -213,6 +228,24 @@ public class PixmapIO {
 		/** Sets the deflate compression level. Default is {@link Deflater#DEFAULT_COMPRESSION}. */
 		public void setCompression (int level) {
 			deflater.setLevel(level);
+			compression = level;
+		}
+
+		/** Sets the executor used to deflate blocks of rows in parallel, like pigz. Each block is deflated separately, using the
+		 * end of the previous block as the dictionary, so the output is only slightly larger than when deflating on a single
+		 * thread. The rows are filtered the same as without an executor, so the PNG decompresses to the same bytes. The executor
+		 * must not be the one calling {@link #write(OutputStream, Pixmap)}, because that waits for the blocks. It is not disposed
+		 * by this PNG.
+		 * @param executor May be null to deflate on the calling thread, which is the default. */
+		public void setExecutor (@Null AsyncExecutor executor) {
+			this.executor = executor;
+		}
+
+		/** Sets the number of bytes of filtered rows deflated by each parallel task. At least one row is deflated by each task.
+		 * Smaller blocks use more threads for smaller images, but compress slightly worse. Default is 256 KB. */
+		public void setBlockSize (int blockSize) {
+			if (blockSize < 1) throw new IllegalArgumentException("blockSize must be > 0: " + blockSize);
+			this.blockSize = blockSize;
 		}
 
 		public void write (FileHandle file, Pixmap pixmap) throws IOException {
@@ -226,24 +259,119 @@ public class PixmapIO {
 
 		/** Writes the pixmap to the stream without closing the stream. */
 		public void write (OutputStream output, Pixmap pixmap) throws IOException {
-			DeflaterOutputStream deflaterOutput = new DeflaterOutputStream(buffer, deflater);
-			DataOutputStream dataOutput = new DataOutputStream(output);
+			if (executor != null) {
+				ByteBuffer pixels = pixmap.getFormat() == Format.RGBA8888 ? pixmap.getPixels() : toRGBA8888(pixmap, false);
+				writeParallel(output, pixels, pixmap.getWidth(), pixmap.getHeight());
+			} else
+				writeSerial(output, pixmap, pixmap.getPixels(), pixmap.getWidth(), pixmap.getHeight());
+		}
+
+		/** Writes RGBA8888 pixels, such as read from the frame buffer, to the stream without closing the stream. The buffer's
+		 * position is not changed. */
+		public void write (OutputStream output, ByteBuffer pixels, int width, int height) throws IOException {
+			if (executor != null)
+				writeParallel(output, pixels, width, height);
+			else
+				writeSerial(output, null, pixels, width, height);
+		}
+
+		/** Copies the pixels of the pixmap, then writes them to the file on another thread, which uses the {@link #setExecutor(
+		 * AsyncExecutor) executor} if there is one. The pixmap can be changed or disposed as soon as this method returns. PNGs are
+		 * written one at a time, in the order this method is called. The settings at the time of the call are used.
+		 * @return The result, which throws a {@link GdxRuntimeException} from {@link AsyncResult#get()} if writing failed. */
+		public AsyncResult<Void> writeAsync (FileHandle file, Pixmap pixmap) {
+			return submit(file, toRGBA8888(pixmap, flipY), pixmap.getWidth(), pixmap.getHeight());
+		}
+
+		/** Copies the RGBA8888 pixels, then writes them to the file on another thread.
+		 * @see #writeAsync(FileHandle, Pixmap) */
+		public AsyncResult<Void> writeAsync (FileHandle file, ByteBuffer pixels, int width, int height) {
+			int lineLen = width * 4;
+			ByteBuffer copy = ByteBuffer.allocate(lineLen * height);
+			ByteBuffer source = pixels.duplicate();
+			for (int y = 0; y < height; y++) {
+				((Buffer)source).position((flipY ? height - y - 1 : y) * lineLen);
+				((Buffer)source).limit(source.position() + lineLen);
+				copy.put(source);
+				((Buffer)source).limit(source.capacity());
+			}
+			((Buffer)copy).flip();
+			return submit(file, copy, width, height);
+		}
+
+		private AsyncResult<Void> submit (final FileHandle file, final ByteBuffer pixels, final int width, final int height) {
+			if (writer == null) {
+				writer = new AsyncExecutor(1, "PNG");
+				asyncPNG = new PNG();
+				asyncPNG.setFlipY(false); // The copied pixels are already flipped.
+			}
+			final PNG png = asyncPNG;
+			final AsyncExecutor executor = this.executor;
+			final int compression = this.compression, blockSize = this.blockSize;
+			return writer.submit(new AsyncTask<Void>() {
+				public Void call () throws Exception {
+					png.setExecutor(executor);
+					png.setCompression(compression);
+					png.setBlockSize(blockSize);
+					OutputStream output = file.write(false);
+					try {
+						png.write(output, pixels, width, height);
+					} finally {
+						StreamUtils.closeQuietly(output);
+					}
+					return null;
+				}
+			});
+		}
+
+		/** Returns a copy of the pixmap's pixels as RGBA8888, optionally flipped vertically. */
+		static private ByteBuffer toRGBA8888 (Pixmap pixmap, boolean flipY) {
+			int width = pixmap.getWidth(), height = pixmap.getHeight(), lineLen = width * 4;
+			ByteBuffer copy = ByteBuffer.allocate(lineLen * height);
+			if (pixmap.getFormat() == Format.RGBA8888) {
+				ByteBuffer pixels = pixmap.getPixels().duplicate();
+				for (int y = 0; y < height; y++) {
+					((Buffer)pixels).position((flipY ? height - y - 1 : y) * lineLen);
+					((Buffer)pixels).limit(pixels.position() + lineLen);
+					copy.put(pixels);
+					((Buffer)pixels).limit(pixels.capacity());
+				}
+			} else {
+				for (int y = 0; y < height; y++) {
+					int py = flipY ? height - y - 1 : y;
+					for (int x = 0; x < width; x++)
+						copy.putInt(pixmap.getPixel(x, py));
+				}
+			}
+			((Buffer)copy).flip();
+			return copy;
+		}
+
+		private void writeHeader (DataOutputStream dataOutput, int width, int height) throws IOException {
 			dataOutput.write(SIGNATURE);
 
 			buffer.writeInt(IHDR);
-			buffer.writeInt(pixmap.getWidth());
-			buffer.writeInt(pixmap.getHeight());
+			buffer.writeInt(width);
+			buffer.writeInt(height);
 			buffer.writeByte(8); // 8 bits per component.
 			buffer.writeByte(COLOR_ARGB);
 			buffer.writeByte(COMPRESSION_DEFLATE);
 			buffer.writeByte(FILTER_NONE);
 			buffer.writeByte(INTERLACE_NONE);
 			buffer.endChunk(dataOutput);
+		}
+
+		/** @param pixmap If null, the pixels are RGBA8888. */
+		private void writeSerial (OutputStream output, @Null Pixmap pixmap, ByteBuffer pixels, int width, int height)
+			throws IOException {
+			DeflaterOutputStream deflaterOutput = new DeflaterOutputStream(buffer, deflater);
+			DataOutputStream dataOutput = new DataOutputStream(output);
+			writeHeader(dataOutput, width, height);
 
 			buffer.writeInt(IDAT);
 			deflater.reset();
 
-			int lineLen = pixmap.getWidth() * 4;
+			int lineLen = width * 4;
 			byte[] lineOut, curLine, prevLine;
 			if (lineOutBytes == null) {
 				lineOut = (lineOutBytes = new ByteArray(lineLen)).items;
@@ -258,16 +386,15 @@ public class PixmapIO {
 			}
 			lastLineLen = lineLen;
 
-			ByteBuffer pixels = pixmap.getPixels();
 			int oldPosition = pixels.position();
-			boolean rgba8888 = pixmap.getFormat() == Format.RGBA8888;
-			for (int y = 0, h = pixmap.getHeight(); y < h; y++) {
+			boolean rgba8888 = pixmap == null || pixmap.getFormat() == Format.RGBA8888;
+			for (int y = 0, h = height; y < h; y++) {
 				int py = flipY ? (h - y - 1) : y;
 				if (rgba8888) {
 					((Buffer)pixels).position(py * lineLen);
 					pixels.get(curLine, 0, lineLen);
 				} else {
-					for (int px = 0, x = 0; px < pixmap.getWidth(); px++) {
+					for (int px = 0, x = 0; px < width; px++) {
 						int pixel = pixmap.getPixel(px, py);
 						curLine[x++] = (byte)((pixel >> 24) & 0xff);
 						curLine[x++] = (byte)((pixel >> 16) & 0xff);
@@ -276,29 +403,7 @@ public class PixmapIO {
 					}
 				}
 
-				lineOut[0] = (byte)(curLine[0] - prevLine[0]);
-				lineOut[1] = (byte)(curLine[1] - prevLine[1]);
-				lineOut[2] = (byte)(curLine[2] - prevLine[2]);
-				lineOut[3] = (byte)(curLine[3] - prevLine[3]);
-
-				for (int x = 4; x < lineLen; x++) {
-					int a = curLine[x - 4] & 0xff;
-					int b = prevLine[x] & 0xff;
-					int c = prevLine[x - 4] & 0xff;
-					int p = a + b - c;
-					int pa = p - a;
-					if (pa < 0) pa = -pa;
-					int pb = p - b;
-					if (pb < 0) pb = -pb;
-					int pc = p - c;
-					if (pc < 0) pc = -pc;
-					if (pa <= pb && pa <= pc)
-						c = a;
-					else if (pb <= pc) //
-						c = b;
-					lineOut[x] = (byte)(curLine[x] - c);
-				}
-
+				paeth(curLine, prevLine, lineOut, 0, lineLen);
 				deflaterOutput.write(PAETH);
 				deflaterOutput.write(lineOut, 0, lineLen);
 
@@ -316,10 +421,197 @@ public class PixmapIO {
 			output.flush();
 		}
 
-		/** Disposal will happen automatically in {@link #finalize()} but can be done explicitly if desired. */
+		/** Writes the Paeth filtered line to out. */
+		static private void paeth (byte[] curLine, byte[] prevLine, byte[] out, int offset, int lineLen) {
+			out[offset] = (byte)(curLine[0] - prevLine[0]);
+			out[offset + 1] = (byte)(curLine[1] - prevLine[1]);
+			out[offset + 2] = (byte)(curLine[2] - prevLine[2]);
+			out[offset + 3] = (byte)(curLine[3] - prevLine[3]);
+
+			for (int x = 4; x < lineLen; x++) {
+				int a = curLine[x - 4] & 0xff;
+				int b = prevLine[x] & 0xff;
+				int c = prevLine[x - 4] & 0xff;
+				int p = a + b - c;
+				int pa = p - a;
+				if (pa < 0) pa = -pa;
+				int pb = p - b;
+				if (pb < 0) pb = -pb;
+				int pc = p - c;
+				if (pc < 0) pc = -pc;
+				if (pa <= pb && pa <= pc)
+					c = a;
+				else if (pb <= pc) //
+					c = b;
+				out[offset + x] = (byte)(curLine[x] - c);
+			}
+		}
+
+		/** Deflates blocks of rows on the executor and writes each as an IDAT chunk, in order. The zlib header is written before the
+		 * first block and the Adler-32 checksum, combined from the checksums of the blocks, after the last block. */
+		private void writeParallel (OutputStream output, ByteBuffer pixels, int width, int height) throws IOException {
+			DataOutputStream dataOutput = new DataOutputStream(output);
+			writeHeader(dataOutput, width, height);
+
+			int rowLen = width * 4 + 1;
+			int blockRows = Math.max(1, blockSize / rowLen);
+			Array<AsyncResult<Block>> results = new Array<AsyncResult<Block>>();
+			for (int start = 0; start < height; start += blockRows) {
+				int end = Math.min(height, start + blockRows);
+				results.add(executor.submit(new Block(this, pixels, width, height, start, end)));
+			}
+
+			int level = compression == Deflater.DEFAULT_COMPRESSION ? 6 : compression;
+			int flags = (level < 2 ? 0 : level < 6 ? 1 : level == 6 ? 2 : 3) << 6;
+			flags += (31 - (0x78 * 256 + flags) % 31) % 31;
+			long adler = 1;
+			GdxRuntimeException error = null;
+			for (int i = 0, n = results.size; i < n; i++) {
+				Block block;
+				try {
+					block = results.get(i).get();
+				} catch (GdxRuntimeException ex) {
+					if (error == null) error = ex;
+					continue;
+				}
+				if (error != null) continue;
+				buffer.writeInt(IDAT);
+				if (i == 0) {
+					buffer.writeByte(0x78); // Deflate with a 32K window.
+					buffer.writeByte(flags);
+				}
+				buffer.write(block.output.items, 0, block.output.size);
+				adler = combineAdler32(adler, block.adler, block.length);
+				if (i == n - 1) buffer.writeInt((int)adler);
+				buffer.endChunk(dataOutput);
+			}
+			if (error != null) throw new IOException("Error deflating PNG.", error);
+
+			buffer.writeInt(IEND);
+			buffer.endChunk(dataOutput);
+
+			output.flush();
+		}
+
+		/** Returns the Adler-32 checksum of two sequences of bytes, given their checksums and the length of the second. This is
+		 * zlib's adler32_combine. */
+		static long combineAdler32 (long adler1, long adler2, long length2) {
+			final long base = 65521;
+			long remainder = length2 % base;
+			long sum1 = adler1 & 0xffff;
+			long sum2 = remainder * sum1 % base;
+			sum1 += (adler2 & 0xffff) + base - 1;
+			sum2 += ((adler1 >> 16) & 0xffff) + ((adler2 >> 16) & 0xffff) + base - remainder;
+			if (sum1 >= base) sum1 -= base;
+			if (sum1 >= base) sum1 -= base;
+			if (sum2 >= base << 1) sum2 -= base << 1;
+			if (sum2 >= base) sum2 -= base;
+			return sum1 | (sum2 << 16);
+		}
+
+		private Deflater obtainDeflater () {
+			synchronized (deflaters) {
+				if (deflaters.size > 0) return deflaters.pop();
+			}
+			return new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		}
+
+		private void freeDeflater (Deflater deflater) {
+			deflater.reset();
+			synchronized (deflaters) {
+				deflaters.add(deflater);
+			}
+		}
+
+		/** Disposal will happen automatically in {@link #finalize()} but can be done explicitly if desired. Waits for
+		 * {@link #writeAsync(FileHandle, Pixmap) asynchronous writes} to finish. */
 		@SuppressWarnings("javadoc")
 		public void dispose () {
+			if (writer != null) {
+				writer.dispose();
+				asyncPNG.dispose();
+			}
 			deflater.end();
+			synchronized (deflaters) {
+				for (Deflater deflater : deflaters)
+					deflater.end();
+				deflaters.clear();
+			}
+		}
+
+		/** Filters and deflates a block of rows. The rows before the block that fit in the dictionary are filtered too, to be used
+		 * as the dictionary. */
+		static private class Block implements AsyncTask<Block> {
+			final PNG png;
+			final ByteBuffer pixels;
+			final int width, height, start, end, level;
+			final boolean flipY;
+			final ByteArray output = new ByteArray();
+			int adler, length;
+
+			Block (PNG png, ByteBuffer pixels, int width, int height, int start, int end) {
+				this.png = png;
+				this.pixels = pixels;
+				this.width = width;
+				this.height = height;
+				this.start = start;
+				this.end = end;
+				level = png.compression;
+				flipY = png.flipY;
+			}
+
+			public Block call () {
+				int lineLen = width * 4, rowLen = lineLen + 1;
+				int first = Math.max(0, start - (DICTIONARY_SIZE + rowLen - 1) / rowLen);
+				byte[] data = new byte[(end - first) * rowLen];
+				byte[] curLine = new byte[lineLen], prevLine = new byte[lineLen];
+				ByteBuffer pixels = this.pixels.duplicate();
+				if (first > 0) readLine(pixels, first - 1, prevLine);
+				for (int y = first, offset = 0; y < end; y++, offset += rowLen) {
+					readLine(pixels, y, curLine);
+					data[offset] = PAETH;
+					paeth(curLine, prevLine, data, offset + 1, lineLen);
+					byte[] temp = curLine;
+					curLine = prevLine;
+					prevLine = temp;
+				}
+
+				int dictionaryLength = (start - first) * rowLen;
+				length = data.length - dictionaryLength;
+				Adler32 checksum = new Adler32();
+				checksum.update(data, dictionaryLength, length);
+				adler = (int)checksum.getValue();
+
+				Deflater deflater = png.obtainDeflater();
+				try {
+					deflater.setLevel(level);
+					if (dictionaryLength > 0) {
+						int size = Math.min(DICTIONARY_SIZE, dictionaryLength);
+						deflater.setDictionary(data, dictionaryLength - size, size);
+					}
+					deflater.setInput(data, dictionaryLength, length);
+					// The last block ends the stream, the others end on a byte boundary so the blocks can be concatenated.
+					boolean last = end == height;
+					if (last) deflater.finish();
+					int flush = last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH;
+					ByteArray output = this.output;
+					output.ensureCapacity(length / 2 + 64);
+					while (true) {
+						if (output.size == output.items.length) output.ensureCapacity(output.size / 2 + 64);
+						int count = deflater.deflate(output.items, output.size, output.items.length - output.size, flush);
+						output.size += count;
+						if (last ? deflater.finished() : output.size < output.items.length && deflater.needsInput()) break;
+					}
+				} finally {
+					png.freeDeflater(deflater);
+				}
+				return this;
+			}
+
+			private void readLine (ByteBuffer pixels, int y, byte[] line) {
+				((Buffer)pixels).position((flipY ? height - y - 1 : y) * line.length);
+				pixels.get(line, 0, line.length);
+			}
 		}
 
 		static class ChunkBuffer extends DataOutputStream {
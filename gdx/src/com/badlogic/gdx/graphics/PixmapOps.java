@@ -0,0 +1,463 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Null;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+/** Bulk operations on the pixels of a {@link Pixmap} or a ByteBuffer laid out like one, processing whole rows at a time. With an
+ * {@link #setExecutor(AsyncExecutor) executor}, large images are split into bands of rows which are processed in parallel, the
+ * calling thread processing one of the bands. Without one, everything runs on the calling thread.
+ * <p>
+ * Pixels are converted between formats the same way as the native {@link Pixmap#drawPixmap(Pixmap, int, int)}, so results match
+ * it exactly. Buffers have tightly packed rows starting at index 0, their positions and limits are not used or changed. Different
+ * buffers, or different regions of the same target, can be processed on multiple threads at the same time. The executor must not
+ * be one whose tasks call these methods, as they wait for the bands to finish. */
+public class PixmapOps {
+	static private final int[] lookup4 = new int[16], lookup5 = new int[32], lookup6 = new int[64];
+	static {
+		// The same rounding as gdx2d.
+		for (int i = 0; i < 16; i++)
+			lookup4[i] = (int)(i / 15f * 255);
+		for (int i = 0; i < 32; i++)
+			lookup5[i] = (int)(i / 31f * 255);
+		for (int i = 0; i < 64; i++)
+			lookup6[i] = (int)(i / 63f * 255);
+	}
+	static private final boolean littleEndian = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+	private @Null AsyncExecutor executor;
+	private int bandSize = 64 * 1024;
+
+	/** @param executor Processes bands of rows in parallel. May be null to process all rows on the calling thread. */
+	public void setExecutor (@Null AsyncExecutor executor) {
+		this.executor = executor;
+	}
+
+	public @Null AsyncExecutor getExecutor () {
+		return executor;
+	}
+
+	/** Sets the minimum number of pixels in a band of rows processed in parallel. Smaller images are processed on the calling
+	 * thread. Default is 65536. */
+	public void setBandSize (int pixels) {
+		if (pixels < 1) throw new IllegalArgumentException("pixels must be > 0: " + pixels);
+		bandSize = pixels;
+	}
+
+	public int getBandSize () {
+		return bandSize;
+	}
+
+	/** Returns a new pixmap with the pixels of the pixmap converted to the format. */
+	public Pixmap convert (Pixmap pixmap, Format format) {
+		Pixmap converted = new Pixmap(pixmap.getWidth(), pixmap.getHeight(), format);
+		convert(pixmap.getPixels(), pixmap.getFormat(), converted.getPixels(), format, pixmap.getWidth(), pixmap.getHeight());
+		return converted;
+	}
+
+	/** Converts the pixels to another format. The buffers may be the same if the formats have the same size. */
+	public void convert (final ByteBuffer source, final Format sourceFormat, final ByteBuffer target, final Format targetFormat,
+		final int width, int height) {
+		checkSize(source, sourceFormat, width, height);
+		checkSize(target, targetFormat, width, height);
+		run(width, height, new Rows() {
+			public void run (int start, int end) {
+				ByteBuffer input = source.duplicate(), output = target.duplicate();
+				byte[] sourceRow = new byte[width * bytesPerPixel(sourceFormat)];
+				byte[] targetRow = sourceFormat == targetFormat ? sourceRow : new byte[width * bytesPerPixel(targetFormat)];
+				int[] rgba = new int[width];
+				for (int y = start; y < end; y++) {
+					readRow(input, y, sourceRow);
+					if (sourceFormat != targetFormat) {
+						toRGBA8888(sourceFormat, sourceRow, rgba, width);
+						fromRGBA8888(targetFormat, rgba, targetRow, width);
+					}
+					writeRow(output, y, targetRow);
+				}
+			}
+		});
+	}
+
+	/** Multiplies the color of each pixel by its alpha.
+	 * @param pixmap Must be {@link Format#RGBA8888}. */
+	public void premultiplyAlpha (Pixmap pixmap) {
+		if (pixmap.getFormat() != Format.RGBA8888) throw new IllegalArgumentException("Pixmap must be RGBA8888.");
+		premultiplyAlpha(pixmap.getPixels(), pixmap.getWidth(), pixmap.getHeight());
+	}
+
+	/** Multiplies the color of each RGBA8888 pixel by its alpha. */
+	public void premultiplyAlpha (final ByteBuffer pixels, final int width, int height) {
+		checkSize(pixels, Format.RGBA8888, width, height);
+		run(width, height, new Rows() {
+			public void run (int start, int end) {
+				ByteBuffer buffer = pixels.duplicate();
+				byte[] row = new byte[width * 4];
+				for (int y = start; y < end; y++) {
+					readRow(buffer, y, row);
+					for (int i = 0, n = row.length; i < n; i += 4) {
+						int a = row[i + 3] & 0xff;
+						if (a == 255) continue;
+						row[i] = (byte)(((row[i] & 0xff) * a + 127) / 255);
+						row[i + 1] = (byte)(((row[i + 1] & 0xff) * a + 127) / 255);
+						row[i + 2] = (byte)(((row[i + 2] & 0xff) * a + 127) / 255);
+					}
+					writeRow(buffer, y, row);
+				}
+			}
+		});
+	}
+
+	/** Scales the source pixmap down to the size of the target pixmap, which must have the same format.
+	 * @see #downscale(ByteBuffer, int, int, ByteBuffer, int, int, Format, Filter) */
+	public void downscale (Pixmap source, Pixmap target, Filter filter) {
+		if (source.getFormat() != target.getFormat()) throw new IllegalArgumentException("Pixmaps must have the same format.");
+		downscale(source.getPixels(), source.getWidth(), source.getHeight(), target.getPixels(), target.getWidth(),
+			target.getHeight(), source.getFormat(), filter);
+	}
+
+	/** Scales the source pixels down to the target size. Each channel is filtered separately, so for images with transparency
+	 * {@link #premultiplyAlpha(ByteBuffer, int, int) premultiplied} pixels avoid dark fringes.
+	 * @param format Must be {@link Format#RGBA8888}, {@link Format#RGB888}, {@link Format#LuminanceAlpha}, {@link Format#Alpha}
+	 *           or {@link Format#Intensity}. */
+	public void downscale (final ByteBuffer source, final int sourceWidth, final int sourceHeight, final ByteBuffer target,
+		final int targetWidth, final int targetHeight, Format format, final Filter filter) {
+		if (format == Format.RGB565 || format == Format.RGBA4444)
+			throw new IllegalArgumentException("Unsupported format, convert to RGBA8888 first: " + format);
+		if (targetWidth > sourceWidth || targetHeight > sourceHeight || targetWidth < 1 || targetHeight < 1)
+			throw new IllegalArgumentException("Invalid target size: " + targetWidth + "x" + targetHeight);
+		checkSize(source, format, sourceWidth, sourceHeight);
+		checkSize(target, format, targetWidth, targetHeight);
+		final int channels = bytesPerPixel(format);
+		run(targetWidth, targetHeight, new Rows() {
+			public void run (int start, int end) {
+				if (filter == Filter.Box)
+					box(source.duplicate(), sourceWidth, sourceHeight, target.duplicate(), targetWidth, targetHeight, channels, start,
+						end);
+				else
+					bilinear(source.duplicate(), sourceWidth, sourceHeight, target.duplicate(), targetWidth, targetHeight, channels,
+						start, end);
+			}
+		});
+	}
+
+	static private void box (ByteBuffer source, int sourceWidth, int sourceHeight, ByteBuffer target, int targetWidth,
+		int targetHeight, int channels, int start, int end) {
+		int[] x0 = new int[targetWidth], x1 = new int[targetWidth];
+		for (int x = 0; x < targetWidth; x++) {
+			x0[x] = (int)((long)x * sourceWidth / targetWidth);
+			x1[x] = Math.max(x0[x] + 1, (int)((long)(x + 1) * sourceWidth / targetWidth));
+		}
+		byte[] sourceRow = new byte[sourceWidth * channels], targetRow = new byte[targetWidth * channels];
+		int[] sums = new int[targetWidth * channels];
+		for (int y = start; y < end; y++) {
+			int y0 = (int)((long)y * sourceHeight / targetHeight);
+			int y1 = Math.max(y0 + 1, (int)((long)(y + 1) * sourceHeight / targetHeight));
+			for (int i = 0, n = sums.length; i < n; i++)
+				sums[i] = 0;
+			for (int sy = y0; sy < y1; sy++) {
+				readRow(source, sy, sourceRow);
+				for (int x = 0, s = 0; x < targetWidth; x++, s += channels)
+					for (int i = x0[x] * channels, n = x1[x] * channels; i < n; i += channels)
+						for (int c = 0; c < channels; c++)
+							sums[s + c] += sourceRow[i + c] & 0xff;
+			}
+			for (int x = 0, s = 0; x < targetWidth; x++) {
+				int count = (x1[x] - x0[x]) * (y1 - y0), half = count >> 1;
+				for (int c = 0; c < channels; c++, s++)
+					targetRow[s] = (byte)((sums[s] + half) / count);
+			}
+			writeRow(target, y, targetRow);
+		}
+	}
+
+	static private void bilinear (ByteBuffer source, int sourceWidth, int sourceHeight, ByteBuffer target, int targetWidth,
+		int targetHeight, int channels, int start, int end) {
+		// Samples at the centers of the target pixels, with 8 bits of fraction.
+		int[] x0 = new int[targetWidth], weights = new int[targetWidth];
+		for (int x = 0; x < targetWidth; x++) {
+			int position = sample(x, sourceWidth, targetWidth);
+			x0[x] = position >> 8;
+			weights[x] = position & 255;
+		}
+		byte[] top = new byte[sourceWidth * channels], bottom = new byte[sourceWidth * channels];
+		byte[] targetRow = new byte[targetWidth * channels];
+		int topY = -1, bottomY = -1;
+		for (int y = start; y < end; y++) {
+			int position = sample(y, sourceHeight, targetHeight), sy = position >> 8, fy = position & 255;
+			int nextY = Math.min(sy + 1, sourceHeight - 1);
+			if (sy == bottomY) {
+				byte[] temp = top;
+				top = bottom;
+				bottom = temp;
+				topY = sy;
+				bottomY = -1;
+			}
+			if (topY != sy) readRow(source, topY = sy, top);
+			if (bottomY != nextY) readRow(source, bottomY = nextY, bottom);
+			for (int x = 0, s = 0; x < targetWidth; x++) {
+				int i0 = x0[x] * channels, i1 = Math.min(x0[x] + 1, sourceWidth - 1) * channels, fx = weights[x];
+				for (int c = 0; c < channels; c++, s++) {
+					int upper = (top[i0 + c] & 0xff) * (256 - fx) + (top[i1 + c] & 0xff) * fx;
+					int lower = (bottom[i0 + c] & 0xff) * (256 - fx) + (bottom[i1 + c] & 0xff) * fx;
+					targetRow[s] = (byte)((upper * (256 - fy) + lower * fy + 32768) >> 16);
+				}
+			}
+			writeRow(target, y, targetRow);
+		}
+	}
+
+	/** Returns the source position of the center of the target pixel, as 24.8 fixed point clamped to the source. */
+	static private int sample (int index, int sourceSize, int targetSize) {
+		long position = ((2L * index + 1) * sourceSize * 256 / targetSize - 256) / 2;
+		return (int)Math.max(0, Math.min(position, (sourceSize - 1) * 256L));
+	}
+
+	/** Draws the source pixmap onto the target pixmap, blending like {@link Pixmap#drawPixmap(Pixmap, int, int)} with
+	 * {@link Pixmap.Blending#SourceOver}. */
+	public void blend (Pixmap source, Pixmap target, int x, int y) {
+		blend(source.getPixels(), source.getFormat(), source.getWidth(), source.getHeight(), target.getPixels(),
+			target.getFormat(), target.getWidth(), target.getHeight(), x, y);
+	}
+
+	/** Draws the source pixels onto the target pixels with their top left corner at the specified target pixel, blending with
+	 * source over like {@link Pixmap#drawPixmap(Pixmap, int, int)}. Source pixels outside the target are skipped. */
+	public void blend (final ByteBuffer source, final Format sourceFormat, final int sourceWidth, int sourceHeight,
+		final ByteBuffer target, final Format targetFormat, int targetWidth, int targetHeight, int x, int y) {
+		checkSize(source, sourceFormat, sourceWidth, sourceHeight);
+		checkSize(target, targetFormat, targetWidth, targetHeight);
+		final int sourceX = Math.max(0, -x), sourceY = Math.max(0, -y);
+		final int targetX = Math.max(0, x), targetY = Math.max(0, y);
+		final int width = Math.min(sourceWidth - sourceX, targetWidth - targetX);
+		int height = Math.min(sourceHeight - sourceY, targetHeight - targetY);
+		if (width <= 0 || height <= 0) return;
+		final int sourceBytes = bytesPerPixel(sourceFormat), targetBytes = bytesPerPixel(targetFormat);
+		final int sourceStride = sourceWidth * sourceBytes, targetStride = targetWidth * targetBytes;
+		run(width, height, new Rows() {
+			public void run (int start, int end) {
+				ByteBuffer input = source.duplicate(), output = target.duplicate();
+				byte[] sourceRow = new byte[width * sourceBytes], targetRow = new byte[width * targetBytes];
+				int[] sourceRGBA = new int[width], targetRGBA = new int[width];
+				for (int row = start; row < end; row++) {
+					((Buffer)input).position((sourceY + row) * sourceStride + sourceX * sourceBytes);
+					input.get(sourceRow);
+					int targetPosition = (targetY + row) * targetStride + targetX * targetBytes;
+					((Buffer)output).position(targetPosition);
+					output.get(targetRow);
+					toRGBA8888(sourceFormat, sourceRow, sourceRGBA, width);
+					toRGBA8888(targetFormat, targetRow, targetRGBA, width);
+					for (int i = 0; i < width; i++)
+						targetRGBA[i] = blend(sourceRGBA[i], targetRGBA[i]);
+					fromRGBA8888(targetFormat, targetRGBA, targetRow, width);
+					((Buffer)output).position(targetPosition);
+					output.put(targetRow);
+				}
+			}
+		});
+	}
+
+	/** Blends two RGBA8888 colors with source over, the same as gdx2d. */
+	static private int blend (int source, int target) {
+		int sourceA = source & 0xff;
+		if (sourceA == 0) return target;
+		int targetA = target & 0xff;
+		targetA -= targetA * sourceA / 255;
+		int a = targetA + sourceA;
+		int r = (((target >>> 24) * targetA + (source >>> 24) * sourceA) / a);
+		int g = (((target >>> 16) & 0xff) * targetA + ((source >>> 16) & 0xff) * sourceA) / a;
+		int b = (((target >>> 8) & 0xff) * targetA + ((source >>> 8) & 0xff) * sourceA) / a;
+		return r << 24 | g << 16 | b << 8 | a;
+	}
+
+	/** Decodes a row of pixels to RGBA8888 colors, the same as gdx2d. */
+	static void toRGBA8888 (Format format, byte[] row, int[] rgba, int count) {
+		switch (format) {
+		case Alpha:
+		case Intensity:
+			for (int i = 0; i < count; i++)
+				rgba[i] = 0xffffff00 | (row[i] & 0xff);
+			break;
+		case LuminanceAlpha:
+			for (int i = 0, s = 0; i < count; i++, s += 2) {
+				int l = row[s] & 0xff;
+				rgba[i] = l << 24 | l << 16 | l << 8 | (row[s + 1] & 0xff);
+			}
+			break;
+		case RGB888:
+			for (int i = 0, s = 0; i < count; i++, s += 3)
+				rgba[i] = (row[s] & 0xff) << 24 | (row[s + 1] & 0xff) << 16 | (row[s + 2] & 0xff) << 8 | 0xff;
+			break;
+		case RGBA8888:
+			for (int i = 0, s = 0; i < count; i++, s += 4)
+				rgba[i] = (row[s] & 0xff) << 24 | (row[s + 1] & 0xff) << 16 | (row[s + 2] & 0xff) << 8 | (row[s + 3] & 0xff);
+			break;
+		case RGB565:
+			for (int i = 0, s = 0; i < count; i++, s += 2) {
+				int color = short16(row, s);
+				rgba[i] = lookup5[color >>> 11] << 24 | lookup6[(color >>> 5) & 0x3f] << 16 | lookup5[color & 0x1f] << 8 | 0xff;
+			}
+			break;
+		case RGBA4444:
+			for (int i = 0, s = 0; i < count; i++, s += 2) {
+				int color = short16(row, s);
+				rgba[i] = lookup4[color >>> 12] << 24 | lookup4[(color >>> 8) & 0xf] << 16 | lookup4[(color >>> 4) & 0xf] << 8
+					| lookup4[color & 0xf];
+			}
+			break;
+		}
+	}
+
+	/** Encodes RGBA8888 colors to a row of pixels, the same as gdx2d. */
+	static void fromRGBA8888 (Format format, int[] rgba, byte[] row, int count) {
+		switch (format) {
+		case Alpha:
+		case Intensity:
+			for (int i = 0; i < count; i++)
+				row[i] = (byte)rgba[i];
+			break;
+		case LuminanceAlpha:
+			for (int i = 0, s = 0; i < count; i++, s += 2) {
+				int color = rgba[i];
+				row[s] = (byte)(0.2126f * (color >>> 24) + 0.7152 * ((color >>> 16) & 0xff) + 0.0722 * ((color >>> 8) & 0xff));
+				row[s + 1] = (byte)color;
+			}
+			break;
+		case RGB888:
+			for (int i = 0, s = 0; i < count; i++, s += 3) {
+				int color = rgba[i];
+				row[s] = (byte)(color >>> 24);
+				row[s + 1] = (byte)(color >>> 16);
+				row[s + 2] = (byte)(color >>> 8);
+			}
+			break;
+		case RGBA8888:
+			for (int i = 0, s = 0; i < count; i++, s += 4) {
+				int color = rgba[i];
+				row[s] = (byte)(color >>> 24);
+				row[s + 1] = (byte)(color >>> 16);
+				row[s + 2] = (byte)(color >>> 8);
+				row[s + 3] = (byte)color;
+			}
+			break;
+		case RGB565:
+			for (int i = 0, s = 0; i < count; i++, s += 2) {
+				int color = rgba[i];
+				short16(row, s, (color >>> 27) << 11 | ((color >>> 18) & 0x3f) << 5 | ((color >>> 11) & 0x1f));
+			}
+			break;
+		case RGBA4444:
+			for (int i = 0, s = 0; i < count; i++, s += 2) {
+				int color = rgba[i];
+				short16(row, s,
+					(color >>> 28) << 12 | ((color >>> 20) & 0xf) << 8 | ((color >>> 12) & 0xf) << 4 | ((color >>> 4) & 0xf));
+			}
+			break;
+		}
+	}
+
+	/** Reads a 16 bit pixel, which gdx2d stores in native byte order. */
+	static private int short16 (byte[] row, int index) {
+		int b0 = row[index] & 0xff, b1 = row[index + 1] & 0xff;
+		return littleEndian ? b1 << 8 | b0 : b0 << 8 | b1;
+	}
+
+	static private void short16 (byte[] row, int index, int value) {
+		if (littleEndian) {
+			row[index] = (byte)value;
+			row[index + 1] = (byte)(value >>> 8);
+		} else {
+			row[index] = (byte)(value >>> 8);
+			row[index + 1] = (byte)value;
+		}
+	}
+
+	static int bytesPerPixel (Format format) {
+		switch (format) {
+		case Alpha:
+		case Intensity:
+			return 1;
+		case LuminanceAlpha:
+		case RGB565:
+		case RGBA4444:
+			return 2;
+		case RGB888:
+			return 3;
+		default:
+			return 4;
+		}
+	}
+
+	static private void checkSize (ByteBuffer pixels, Format format, int width, int height) {
+		if (width < 0 || height < 0) throw new IllegalArgumentException("Invalid size: " + width + "x" + height);
+		if ((long)width * height * bytesPerPixel(format) > pixels.capacity())
+			throw new IllegalArgumentException("Buffer is too small for " + width + "x" + height + " " + format);
+	}
+
+	static private void readRow (ByteBuffer buffer, int y, byte[] row) {
+		((Buffer)buffer).position(y * row.length);
+		buffer.get(row);
+	}
+
+	static private void writeRow (ByteBuffer buffer, int y, byte[] row) {
+		((Buffer)buffer).position(y * row.length);
+		buffer.put(row);
+	}
+
+	/** Processes the rows in bands, on the executor if the image is large enough. */
+	private void run (int width, int height, final Rows rows) {
+		AsyncExecutor executor = this.executor;
+		int bands = executor == null ? 1 : (int)Math.min(height, (long)width * height / bandSize);
+		if (bands <= 1) {
+			rows.run(0, height);
+			return;
+		}
+		Array<AsyncResult<Void>> results = new Array<AsyncResult<Void>>(bands - 1);
+		for (int i = 1; i < bands; i++) {
+			final int start = (int)((long)height * i / bands), end = (int)((long)height * (i + 1) / bands);
+			results.add(executor.submit(new AsyncTask<Void>() {
+				public Void call () {
+					rows.run(start, end);
+					return null;
+				}
+			}));
+		}
+		rows.run(0, (int)((long)height / bands));
+		for (int i = 0; i < results.size; i++)
+			results.get(i).get();
+	}
+
+	static private interface Rows {
+		public void run (int start, int end);
+	}
+
+	/** How {@link PixmapOps#downscale(Pixmap, Pixmap, Filter)} filters pixels. */
+	static public enum Filter {
+		/** Averages all source pixels covered by each target pixel. */
+		Box,
+		/** Interpolates the 4 source pixels nearest to the center of each target pixel. Faster than box, but skips source pixels
+		 * when scaling down more than 2x. */
+		Bilinear
+	}
+}
@@ -0,0 +1,677 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.g2d;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.Null;
+
+/** A {@link Batch} that records what is drawn to it, so it can be drawn to another batch many times without computing the
+ * vertices again. Anything that draws to a Batch, such as a scene2d stage or a {@link BitmapFontCache}, can be recorded.
+ * Texture changes, {@link #setShader(ShaderProgram) shaders}, blending and {@link #setTransformMatrix(Matrix4) transforms} are
+ * recorded along with the vertices and applied to the target batch when drawing, so unlike {@link SpriteCache} a recording is
+ * drawn in the middle of the target batch's begin and end and can mix shaders and blend states.
+ * <p>
+ * A recording is made of regions, which are recorded and invalidated separately. To record, call {@link #begin(int)} with a
+ * region index, draw, then call {@link #end()}. Recording a region again replaces it. {@link #draw(Batch)} draws all valid
+ * regions in order, a run of sprites with the same texture being a single {@link Batch#draw(Texture, float[], int, int)}. For
+ * example, a HUD whose panels change independently can use a region per panel and only record a panel again after it was
+ * {@link #invalidate(int) invalidated}.
+ * <p>
+ * When drawing, a transform matrix and tint can be given. The transform is applied after the target batch's transform matrix. The
+ * tint is multiplied with the recorded colors, the tinted vertices are kept until a different tint is used. The shader set with
+ * setShader(null) while recording is the shader the target batch has when the recording is drawn. The target batch's shader,
+ * blending and transform matrix are restored after drawing. The projection matrix is not recorded.
+ * <p>
+ * The recorded textures and shaders are not owned by the recorder. */
+public class BatchRecorder implements Batch {
+	static private final int DRAW = 0, BLENDING = 1, BLEND_FUNCTION = 2, SHADER = 3, TRANSFORM = 4;
+
+	static private final Color tempColor = new Color();
+
+	private final Array<Region> regions = new Array<Region>();
+	private @Null Region region;
+
+	private Texture lastTexture;
+	private float invTexWidth, invTexHeight;
+
+	private final Color color = new Color(1, 1, 1, 1);
+	private float colorPacked = Color.WHITE_FLOAT_BITS;
+
+	private boolean blendingDisabled, blendingSet;
+	private int blendSrcFunc = GL20.GL_SRC_ALPHA;
+	private int blendDstFunc = GL20.GL_ONE_MINUS_SRC_ALPHA;
+	private int blendSrcFuncAlpha = GL20.GL_SRC_ALPHA;
+	private int blendDstFuncAlpha = GL20.GL_ONE_MINUS_SRC_ALPHA;
+	private boolean blendFunctionSet;
+	private @Null ShaderProgram shader;
+	private boolean shaderSet;
+
+	private final Matrix4 transformMatrix = new Matrix4();
+	private final Matrix4 projectionMatrix = new Matrix4();
+
+	private final Matrix4 replayBase = new Matrix4(), replayTransform = new Matrix4(), tempMatrix = new Matrix4();
+
+	/** Records into region 0.
+	 * @see #begin(int) */
+	@Override
+	public void begin () {
+		begin(0);
+	}
+
+	/** Starts recording the region with the specified index, discarding what was recorded for it before. The color is kept from
+	 * the previous recording. Blending, the shader and the transform matrix start out as the target batch's when drawing. */
+	public void begin (int index) {
+		if (region != null) throw new IllegalStateException("BatchRecorder.end must be called before begin.");
+		if (index < 0) throw new IllegalArgumentException("index must be >= 0: " + index);
+		while (regions.size <= index)
+			regions.add(new Region());
+		region = regions.get(index);
+		region.clear();
+
+		lastTexture = null;
+		blendingDisabled = false;
+		blendingSet = false;
+		blendSrcFunc = GL20.GL_SRC_ALPHA;
+		blendDstFunc = GL20.GL_ONE_MINUS_SRC_ALPHA;
+		blendSrcFuncAlpha = GL20.GL_SRC_ALPHA;
+		blendDstFuncAlpha = GL20.GL_ONE_MINUS_SRC_ALPHA;
+		blendFunctionSet = false;
+		shader = null;
+		shaderSet = false;
+		transformMatrix.idt();
+	}
+
+	/** Finishes recording the region, which becomes valid. */
+	@Override
+	public void end () {
+		if (region == null) throw new IllegalStateException("BatchRecorder.begin must be called before end.");
+		region.valid = true;
+		region = null;
+		lastTexture = null;
+	}
+
+	/** Returns true if the region has been recorded and not {@link #invalidate(int) invalidated} since. */
+	public boolean isValid (int index) {
+		return index < regions.size && regions.get(index).valid;
+	}
+
+	/** Discards what was recorded for the region. It is not drawn until it is recorded again. */
+	public void invalidate (int index) {
+		if (index >= regions.size) return;
+		Region region = regions.get(index);
+		if (region == this.region) throw new IllegalStateException("The region being recorded can't be invalidated.");
+		region.clear();
+	}
+
+	/** Discards all regions. */
+	public void invalidateAll () {
+		for (int i = 0, n = regions.size; i < n; i++)
+			invalidate(i);
+	}
+
+	/** Returns the number of regions, valid or not. */
+	public int getRegionCount () {
+		return regions.size;
+	}
+
+	/** Returns the number of sprites recorded for the region. */
+	public int getSpriteCount (int index) {
+		return index < regions.size ? regions.get(index).vertices.size / Sprite.SPRITE_SIZE : 0;
+	}
+
+	/** Draws all valid regions to the batch, which must be between its begin and end. */
+	public void draw (Batch batch) {
+		draw(batch, null, null);
+	}
+
+	/** Draws all valid regions to the batch, which must be between its begin and end.
+	 * @param transform Applied after the batch's transform matrix, may be null.
+	 * @param tint Multiplied with the recorded colors, may be null. */
+	public void draw (Batch batch, @Null Matrix4 transform, @Null Color tint) {
+		draw(batch, 0, regions.size, transform, tint);
+	}
+
+	/** Draws the valid regions from start, inclusive, to end, exclusive, to the batch, which must be between its begin and end.
+	 * @param transform Applied after the batch's transform matrix, may be null.
+	 * @param tint Multiplied with the recorded colors, may be null. */
+	public void draw (Batch batch, int start, int end, @Null Matrix4 transform, @Null Color tint) {
+		if (region != null) throw new IllegalStateException("BatchRecorder.end must be called before drawing the recording.");
+		if (!batch.isDrawing()) throw new IllegalStateException("The batch must be drawing.");
+		end = Math.min(end, regions.size);
+		if (start >= end) return;
+
+		ShaderProgram batchShader = batch.getShader();
+		boolean batchBlending = batch.isBlendingEnabled();
+		int batchSrcFunc = batch.getBlendSrcFunc(), batchDstFunc = batch.getBlendDstFunc();
+		int batchSrcFuncAlpha = batch.getBlendSrcFuncAlpha(), batchDstFuncAlpha = batch.getBlendDstFuncAlpha();
+		Matrix4 replayBase = this.replayBase.set(batch.getTransformMatrix());
+		Matrix4 replayTransform = this.replayTransform.set(replayBase);
+		if (transform != null) {
+			replayTransform.mul(transform);
+			batch.setTransformMatrix(replayTransform);
+		}
+		float tintBits = tint == null ? Color.WHITE_FLOAT_BITS : tint.toFloatBits();
+
+		boolean shaderChanged = false, blendingChanged = false, blendFunctionChanged = false, transformChanged = false;
+		for (int r = start; r < end; r++) {
+			Region region = regions.get(r);
+			if (!region.valid) continue;
+			float[] vertices = tintBits == Color.WHITE_FLOAT_BITS ? region.vertices.items : region.tint(tint, tintBits);
+			int[] commands = region.commands.items;
+			Object[] objects = region.objects.items;
+			for (int i = 0, object = 0, n = region.commands.size; i < n;) {
+				switch (commands[i]) {
+				case DRAW:
+					batch.draw((Texture)objects[object++], vertices, commands[i + 1], commands[i + 2]);
+					i += 3;
+					break;
+				case BLENDING:
+					if (commands[i + 1] != 0)
+						batch.enableBlending();
+					else
+						batch.disableBlending();
+					blendingChanged = true;
+					i += 2;
+					break;
+				case BLEND_FUNCTION:
+					batch.setBlendFunctionSeparate(commands[i + 1], commands[i + 2], commands[i + 3], commands[i + 4]);
+					blendFunctionChanged = true;
+					i += 5;
+					break;
+				case SHADER:
+					ShaderProgram shader = (ShaderProgram)objects[object++];
+					batch.setShader(shader != null ? shader : batchShader);
+					shaderChanged = true;
+					i++;
+					break;
+				case TRANSFORM:
+					batch.setTransformMatrix(tempMatrix.set(replayTransform).mul((Matrix4)objects[object++]));
+					transformChanged = true;
+					i++;
+					break;
+				}
+			}
+			// The next region starts out with the batch's state.
+			if (transformChanged) {
+				batch.setTransformMatrix(replayTransform);
+				transformChanged = false;
+			}
+			if (shaderChanged) {
+				if (batch.getShader() != batchShader) batch.setShader(batchShader);
+				shaderChanged = false;
+			}
+			if (blendingChanged) {
+				if (batchBlending)
+					batch.enableBlending();
+				else
+					batch.disableBlending();
+				blendingChanged = false;
+			}
+			if (blendFunctionChanged) {
+				batch.setBlendFunctionSeparate(batchSrcFunc, batchDstFunc, batchSrcFuncAlpha, batchDstFuncAlpha);
+				blendFunctionChanged = false;
+			}
+		}
+		if (transform != null) batch.setTransformMatrix(replayBase);
+	}
+
+	private void command (int command) {
+		region.commands.add(command);
+		region.lastDraw = -1;
+	}
+
+	private void switchTexture (Texture texture) {
+		lastTexture = texture;
+		invTexWidth = 1.0f / texture.getWidth();
+		invTexHeight = 1.0f / texture.getHeight();
+	}
+
+	/** Adds count floats to the region's draw commands and returns the vertices to write them to, at {@link Region#vertices}
+	 * size. */
+	private float[] vertices (Texture texture, int count) {
+		Region region = this.region;
+		if (region == null) throw new IllegalStateException("BatchRecorder.begin must be called before draw.");
+		if (texture != lastTexture) switchTexture(texture);
+		IntArray commands = region.commands;
+		if (region.lastDraw != -1 && region.objects.peek() == texture)
+			commands.items[region.lastDraw + 2] += count;
+		else {
+			region.lastDraw = commands.size;
+			commands.add(DRAW, region.vertices.size, count);
+			region.objects.add(texture);
+		}
+		return region.vertices.ensureCapacity(count);
+	}
+
+	private void quad (Texture texture, float x1, float y1, float x2, float y2, float x3, float y3, float x4, float y4, float u1,
+		float v1, float u2, float v2, float u3, float v3, float u4, float v4) {
+		float[] vertices = vertices(texture, Sprite.SPRITE_SIZE);
+		float color = this.colorPacked;
+		FloatArray array = region.vertices;
+		int idx = array.size;
+		vertices[idx] = x1;
+		vertices[idx + 1] = y1;
+		vertices[idx + 2] = color;
+		vertices[idx + 3] = u1;
+		vertices[idx + 4] = v1;
+
+		vertices[idx + 5] = x2;
+		vertices[idx + 6] = y2;
+		vertices[idx + 7] = color;
+		vertices[idx + 8] = u2;
+		vertices[idx + 9] = v2;
+
+		vertices[idx + 10] = x3;
+		vertices[idx + 11] = y3;
+		vertices[idx + 12] = color;
+		vertices[idx + 13] = u3;
+		vertices[idx + 14] = v3;
+
+		vertices[idx + 15] = x4;
+		vertices[idx + 16] = y4;
+		vertices[idx + 17] = color;
+		vertices[idx + 18] = u4;
+		vertices[idx + 19] = v4;
+		array.size = idx + Sprite.SPRITE_SIZE;
+	}
+
+	private void quad (Texture texture, float x, float y, float x2, float y2, float u, float v, float u2, float v2) {
+		quad(texture, x, y, x, y2, x2, y2, x2, y, u, v, u, v2, u2, v2, u2, v);
+	}
+
+	/** Computes the corners the same way as {@link SpriteBatch}. */
+	private void quad (Texture texture, float x, float y, float originX, float originY, float width, float height, float scaleX,
+		float scaleY, float rotation, float u1, float v1, float u2, float v2, float u3, float v3, float u4, float v4) {
+		// bottom left and top right corner points relative to origin
+		final float worldOriginX = x + originX;
+		final float worldOriginY = y + originY;
+		float fx = -originX;
+		float fy = -originY;
+		float fx2 = width - originX;
+		float fy2 = height - originY;
+
+		// scale
+		if (scaleX != 1 || scaleY != 1) {
+			fx *= scaleX;
+			fy *= scaleY;
+			fx2 *= scaleX;
+			fy2 *= scaleY;
+		}
+
+		float x1, y1, x2, y2, x3, y3, x4, y4;
+
+		// rotate
+		if (rotation != 0) {
+			final float cos = MathUtils.cosDeg(rotation);
+			final float sin = MathUtils.sinDeg(rotation);
+
+			x1 = cos * fx - sin * fy;
+			y1 = sin * fx + cos * fy;
+
+			x2 = cos * fx - sin * fy2;
+			y2 = sin * fx + cos * fy2;
+
+			x3 = cos * fx2 - sin * fy2;
+			y3 = sin * fx2 + cos * fy2;
+
+			x4 = x1 + (x3 - x2);
+			y4 = y3 - (y2 - y1);
+		} else {
+			x1 = fx;
+			y1 = fy;
+
+			x2 = fx;
+			y2 = fy2;
+
+			x3 = fx2;
+			y3 = fy2;
+
+			x4 = fx2;
+			y4 = fy;
+		}
+
+		quad(texture, x1 + worldOriginX, y1 + worldOriginY, x2 + worldOriginX, y2 + worldOriginY, x3 + worldOriginX,
+			y3 + worldOriginY, x4 + worldOriginX, y4 + worldOriginY, u1, v1, u2, v2, u3, v3, u4, v4);
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y, float originX, float originY, float width, float height, float scaleX,
+		float scaleY, float rotation, int srcX, int srcY, int srcWidth, int srcHeight, boolean flipX, boolean flipY) {
+		if (texture != lastTexture) switchTexture(texture);
+		float u = srcX * invTexWidth;
+		float v = (srcY + srcHeight) * invTexHeight;
+		float u2 = (srcX + srcWidth) * invTexWidth;
+		float v2 = srcY * invTexHeight;
+
+		if (flipX) {
+			float tmp = u;
+			u = u2;
+			u2 = tmp;
+		}
+
+		if (flipY) {
+			float tmp = v;
+			v = v2;
+			v2 = tmp;
+		}
+
+		quad(texture, x, y, originX, originY, width, height, scaleX, scaleY, rotation, u, v, u, v2, u2, v2, u2, v);
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y, float width, float height, int srcX, int srcY, int srcWidth,
+		int srcHeight, boolean flipX, boolean flipY) {
+		if (texture != lastTexture) switchTexture(texture);
+		float u = srcX * invTexWidth;
+		float v = (srcY + srcHeight) * invTexHeight;
+		float u2 = (srcX + srcWidth) * invTexWidth;
+		float v2 = srcY * invTexHeight;
+
+		if (flipX) {
+			float tmp = u;
+			u = u2;
+			u2 = tmp;
+		}
+
+		if (flipY) {
+			float tmp = v;
+			v = v2;
+			v2 = tmp;
+		}
+
+		quad(texture, x, y, x + width, y + height, u, v, u2, v2);
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) {
+		if (texture != lastTexture) switchTexture(texture);
+		quad(texture, x, y, x + srcWidth, y + srcHeight, srcX * invTexWidth, (srcY + srcHeight) * invTexHeight,
+			(srcX + srcWidth) * invTexWidth, srcY * invTexHeight);
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y, float width, float height, float u, float v, float u2, float v2) {
+		quad(texture, x, y, x + width, y + height, u, v, u2, v2);
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y) {
+		draw(texture, x, y, texture.getWidth(), texture.getHeight());
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y, float width, float height) {
+		quad(texture, x, y, x + width, y + height, 0, 1, 1, 0);
+	}
+
+	@Override
+	public void draw (Texture texture, float[] spriteVertices, int offset, int count) {
+		if (region == null) throw new IllegalStateException("BatchRecorder.begin must be called before draw.");
+		if (count <= 0) return;
+		FloatArray vertices = region.vertices;
+		System.arraycopy(spriteVertices, offset, vertices(texture, count), vertices.size, count);
+		vertices.size += count;
+	}
+
+	@Override
+	public void draw (TextureRegion region, float x, float y) {
+		draw(region, x, y, region.getRegionWidth(), region.getRegionHeight());
+	}
+
+	@Override
+	public void draw (TextureRegion region, float x, float y, float width, float height) {
+		quad(region.texture, x, y, x + width, y + height, region.u, region.v2, region.u2, region.v);
+	}
+
+	@Override
+	public void draw (TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+		float scaleX, float scaleY, float rotation) {
+		float u = region.u, v = region.v2, u2 = region.u2, v2 = region.v;
+		quad(region.texture, x, y, originX, originY, width, height, scaleX, scaleY, rotation, u, v, u, v2, u2, v2, u2, v);
+	}
+
+	@Override
+	public void draw (TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+		float scaleX, float scaleY, float rotation, boolean clockwise) {
+		float u = region.u, v = region.v, u2 = region.u2, v2 = region.v2;
+		if (clockwise)
+			quad(region.texture, x, y, originX, originY, width, height, scaleX, scaleY, rotation, u2, v2, u, v2, u, v, u2, v);
+		else
+			quad(region.texture, x, y, originX, originY, width, height, scaleX, scaleY, rotation, u, v, u2, v, u2, v2, u, v2);
+	}
+
+	@Override
+	public void draw (TextureRegion region, float width, float height, Affine2 transform) {
+		float x1 = transform.m02;
+		float y1 = transform.m12;
+		float x2 = transform.m01 * height + transform.m02;
+		float y2 = transform.m11 * height + transform.m12;
+		float x3 = transform.m00 * width + transform.m01 * height + transform.m02;
+		float y3 = transform.m10 * width + transform.m11 * height + transform.m12;
+		float x4 = transform.m00 * width + transform.m02;
+		float y4 = transform.m10 * width + transform.m12;
+		float u = region.u, v = region.v2, u2 = region.u2, v2 = region.v;
+		quad(region.texture, x1, y1, x2, y2, x3, y3, x4, y4, u, v, u, v2, u2, v2, u2, v);
+	}
+
+	/** Does nothing, the recording is drawn with {@link #draw(Batch)}. */
+	@Override
+	public void flush () {
+	}
+
+	@Override
+	public void disableBlending () {
+		if (blendingSet && blendingDisabled) return;
+		blendingDisabled = true;
+		recordBlending();
+	}
+
+	@Override
+	public void enableBlending () {
+		if (blendingSet && !blendingDisabled) return;
+		blendingDisabled = false;
+		recordBlending();
+	}
+
+	private void recordBlending () {
+		if (region == null) return;
+		blendingSet = true;
+		command(BLENDING);
+		region.commands.add(blendingDisabled ? 0 : 1);
+	}
+
+	@Override
+	public void setBlendFunction (int srcFunc, int dstFunc) {
+		setBlendFunctionSeparate(srcFunc, dstFunc, srcFunc, dstFunc);
+	}
+
+	@Override
+	public void setBlendFunctionSeparate (int srcFuncColor, int dstFuncColor, int srcFuncAlpha, int dstFuncAlpha) {
+		if (blendFunctionSet && blendSrcFunc == srcFuncColor && blendDstFunc == dstFuncColor
+			&& blendSrcFuncAlpha == srcFuncAlpha && blendDstFuncAlpha == dstFuncAlpha) return;
+		blendSrcFunc = srcFuncColor;
+		blendDstFunc = dstFuncColor;
+		blendSrcFuncAlpha = srcFuncAlpha;
+		blendDstFuncAlpha = dstFuncAlpha;
+		if (region == null) return;
+		blendFunctionSet = true;
+		command(BLEND_FUNCTION);
+		region.commands.add(srcFuncColor, dstFuncColor, srcFuncAlpha, dstFuncAlpha);
+	}
+
+	@Override
+	public int getBlendSrcFunc () {
+		return blendSrcFunc;
+	}
+
+	@Override
+	public int getBlendDstFunc () {
+		return blendDstFunc;
+	}
+
+	@Override
+	public int getBlendSrcFuncAlpha () {
+		return blendSrcFuncAlpha;
+	}
+
+	@Override
+	public int getBlendDstFuncAlpha () {
+		return blendDstFuncAlpha;
+	}
+
+	@Override
+	public boolean isBlendingEnabled () {
+		return !blendingDisabled;
+	}
+
+	/** @param shader The shader to draw with, or null for the shader the target batch has when the recording is drawn. */
+	@Override
+	public void setShader (@Null ShaderProgram shader) {
+		if (shaderSet && this.shader == shader) return;
+		this.shader = shader;
+		if (region == null) return;
+		shaderSet = true;
+		command(SHADER);
+		region.objects.add(shader);
+	}
+
+	/** Returns the shader set while recording, or null for the target batch's shader. */
+	@Override
+	public @Null ShaderProgram getShader () {
+		return shader;
+	}
+
+	@Override
+	public void setColor (Color tint) {
+		color.set(tint);
+		colorPacked = tint.toFloatBits();
+	}
+
+	@Override
+	public void setColor (float r, float g, float b, float a) {
+		color.set(r, g, b, a);
+		colorPacked = color.toFloatBits();
+	}
+
+	@Override
+	public Color getColor () {
+		return color;
+	}
+
+	@Override
+	public void setPackedColor (float packedColor) {
+		Color.abgr8888ToColor(color, packedColor);
+		this.colorPacked = packedColor;
+	}
+
+	@Override
+	public float getPackedColor () {
+		return colorPacked;
+	}
+
+	/** The projection matrix is not recorded, the target batch's is used when drawing. */
+	@Override
+	public Matrix4 getProjectionMatrix () {
+		return projectionMatrix;
+	}
+
+	@Override
+	public Matrix4 getTransformMatrix () {
+		return transformMatrix;
+	}
+
+	/** The projection matrix is not recorded, the target batch's is used when drawing. */
+	@Override
+	public void setProjectionMatrix (Matrix4 projection) {
+		projectionMatrix.set(projection);
+	}
+
+	/** Records the transform matrix, which is applied after the target batch's transform matrix when drawing. */
+	@Override
+	public void setTransformMatrix (Matrix4 transform) {
+		transformMatrix.set(transform);
+		if (region == null) return;
+		command(TRANSFORM);
+		region.objects.add(new Matrix4(transform));
+	}
+
+	/** Returns true while recording. */
+	@Override
+	public boolean isDrawing () {
+		return region != null;
+	}
+
+	/** Discards all regions. */
+	@Override
+	public void dispose () {
+		region = null;
+		regions.clear();
+	}
+
+	static class Region {
+		final FloatArray vertices = new FloatArray();
+		/** Commands with their int arguments. */
+		final IntArray commands = new IntArray();
+		/** Textures, shaders and transform matrices, in the order of the commands using them. */
+		final Array<Object> objects = new Array<Object>();
+		int lastDraw = -1;
+		boolean valid;
+
+		private @Null float[] tinted;
+		private float tintedBits;
+
+		void clear () {
+			vertices.clear();
+			commands.clear();
+			objects.clear();
+			lastDraw = -1;
+			valid = false;
+			tinted = null;
+		}
+
+		float[] tint (Color tint, float tintBits) {
+			float[] tinted = this.tinted;
+			if (tinted != null && tintedBits == tintBits) return tinted;
+			float[] vertices = this.vertices.items;
+			int size = this.vertices.size;
+			if (tinted == null || tinted.length < size) this.tinted = tinted = new float[size];
+			System.arraycopy(vertices, 0, tinted, 0, size);
+			Color tempColor = BatchRecorder.tempColor;
+			float lastColor = 0, lastTinted = 0;
+			for (int i = Batch.C1; i < size; i += Sprite.VERTEX_SIZE) {
+				float color = vertices[i];
+				if (color != lastColor || i == Batch.C1) {
+					Color.abgr8888ToColor(tempColor, color);
+					lastColor = color;
+					lastTinted = tempColor.mul(tint).toFloatBits();
+				}
+				tinted[i] = lastTinted;
+			}
+			tintedBits = tintBits;
+			return tinted;
+		}
+	}
+}
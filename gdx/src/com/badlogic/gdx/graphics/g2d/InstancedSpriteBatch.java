@@ -0,0 +1,592 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.g2d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Mesh.VertexDataType;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Null;
+
+/** Draws batched sprites using instanced rendering, which requires GL30. Instead of 4 vertices and 6 indices per sprite, one
+ * instance of {@link #INSTANCE_SIZE} floats is stored: the position of the origin, the size, the origin, the rotation, the
+ * texture coordinates and the packed color, all already scaled. The vertex shader expands each instance to a quad using a mesh
+ * of 4 corners which is only uploaded once.
+ * <p>
+ * An instance is 48 bytes, compared to 92 bytes for the vertices and indices of a sprite in SpriteBatch, so about half the data
+ * is uploaded per frame rather than a quarter. The instance buffer holds floats, so the texture coordinates and the geometry are
+ * not packed into shorts: arbitrary 16 bit pairs stored as float bits can form NaN values, which are not preserved on all
+ * backends.
+ * <p>
+ * Sprite vertices given to {@link #draw(Texture, float[], int, int)} and sprites drawn with an {@link Affine2} are converted to
+ * instances, which is slower than the other draw methods. Their quads must be rectangles, as drawn by {@link Sprite} or by
+ * SpriteBatch with any scale, rotation or flip. The quad is drawn with the color of its first vertex and sheared quads are drawn
+ * as rectangles.
+ * <p>
+ * Custom shaders must compute the position and texture coordinates from the instance attributes, see
+ * {@link #createDefaultShader()}.
+ * @see Batch */
+public class InstancedSpriteBatch implements Batch {
+	/** The per vertex corner of the quad, from 0,0 for the bottom left to 1,1 for the top right. */
+	static public final String CORNER_ATTRIBUTE = "a_corner";
+	/** The size of the quad, already scaled. */
+	static public final String SIZE_ATTRIBUTE = "a_size";
+	/** The origin relative to the bottom left corner, already scaled. The position attribute is the world position of the origin,
+	 * which the quad is rotated around. */
+	static public final String ORIGIN_ATTRIBUTE = "a_origin";
+	/** The rotation in degrees counter clockwise around the origin. */
+	static public final String ROTATION_ATTRIBUTE = "a_rotation";
+	/** The texture coordinates of corner 0,0 in xy and of corner 1,1 in zw. */
+	static public final String REGION_ATTRIBUTE = "a_region";
+
+	/** The number of floats per sprite. */
+	static public final int INSTANCE_SIZE = 2 + 2 + 2 + 1 + 4 + 1;
+
+	private Mesh mesh;
+
+	final float[] instances;
+	int idx = 0;
+	Texture lastTexture = null;
+	float invTexWidth = 0, invTexHeight = 0;
+
+	boolean drawing = false;
+
+	private final Matrix4 transformMatrix = new Matrix4();
+	private final Matrix4 projectionMatrix = new Matrix4();
+	private final Matrix4 combinedMatrix = new Matrix4();
+
+	private boolean blendingDisabled = false;
+	private int blendSrcFunc = GL20.GL_SRC_ALPHA;
+	private int blendDstFunc = GL20.GL_ONE_MINUS_SRC_ALPHA;
+	private int blendSrcFuncAlpha = GL20.GL_SRC_ALPHA;
+	private int blendDstFuncAlpha = GL20.GL_ONE_MINUS_SRC_ALPHA;
+
+	private final ShaderProgram shader;
+	private ShaderProgram customShader = null;
+	private boolean ownsShader;
+
+	private final Color color = new Color(1, 1, 1, 1);
+	float colorPacked = Color.WHITE_FLOAT_BITS;
+
+	/** Number of render calls since the last {@link #begin()}. **/
+	public int renderCalls = 0;
+
+	/** Number of rendering calls, ever. Will not be reset unless set manually. **/
+	public int totalRenderCalls = 0;
+
+	/** The maximum number of sprites rendered in one batch so far. **/
+	public int maxSpritesInBatch = 0;
+
+	/** Constructs a new InstancedSpriteBatch with a size of 1000 and the default shader.
+	 * @see #InstancedSpriteBatch(int, ShaderProgram) */
+	public InstancedSpriteBatch () {
+		this(1000, null);
+	}
+
+	/** Constructs an InstancedSpriteBatch with the default shader.
+	 * @see #InstancedSpriteBatch(int, ShaderProgram) */
+	public InstancedSpriteBatch (int size) {
+		this(size, null);
+	}
+
+	/** Constructs a new InstancedSpriteBatch. Sets the projection matrix to an orthographic projection with y-axis point upwards,
+	 * x-axis point to the right and the origin being in the bottom left corner of the screen.
+	 * @param size The max number of sprites in a single batch. Unlike SpriteBatch this is not limited by 16 bit indices.
+	 * @param defaultShader The default shader to use. This is not owned by the InstancedSpriteBatch and must be disposed
+	 *           separately. May be null to use the default shader.
+	 * @throws GdxRuntimeException if GL30 is not available. */
+	public InstancedSpriteBatch (int size, @Null ShaderProgram defaultShader) {
+		if (Gdx.gl30 == null) throw new GdxRuntimeException("InstancedSpriteBatch requires GL30.");
+		if (size < 1) throw new IllegalArgumentException("size must be > 0: " + size);
+
+		mesh = new Mesh(VertexDataType.VertexBufferObjectWithVAO, true, 4, 6,
+			new VertexAttribute(Usage.Generic, 2, CORNER_ATTRIBUTE));
+		mesh.setVertices(new float[] {0, 0, 0, 1, 1, 1, 1, 0});
+		mesh.setIndices(new short[] {0, 1, 2, 2, 3, 0});
+		mesh.enableInstancedRendering(false, size, //
+			new VertexAttribute(Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+			new VertexAttribute(Usage.Generic, 2, SIZE_ATTRIBUTE), //
+			new VertexAttribute(Usage.Generic, 2, ORIGIN_ATTRIBUTE), //
+			new VertexAttribute(Usage.Generic, 1, ROTATION_ATTRIBUTE), //
+			new VertexAttribute(Usage.TextureCoordinates, 4, REGION_ATTRIBUTE),
+			new VertexAttribute(Usage.ColorPacked, 4, ShaderProgram.COLOR_ATTRIBUTE));
+
+		projectionMatrix.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+
+		instances = new float[size * INSTANCE_SIZE];
+
+		if (defaultShader == null) {
+			shader = createDefaultShader();
+			ownsShader = true;
+		} else
+			shader = defaultShader;
+	}
+
+	/** Returns a new instance of the default shader used by InstancedSpriteBatch when no shader is specified. */
+	static public ShaderProgram createDefaultShader () {
+		String vertexShader = "attribute vec2 " + CORNER_ATTRIBUTE + ";\n" //
+			+ "attribute vec2 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" //
+			+ "attribute vec2 " + SIZE_ATTRIBUTE + ";\n" //
+			+ "attribute vec2 " + ORIGIN_ATTRIBUTE + ";\n" //
+			+ "attribute float " + ROTATION_ATTRIBUTE + ";\n" //
+			+ "attribute vec4 " + REGION_ATTRIBUTE + ";\n" //
+			+ "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" //
+			+ "uniform mat4 u_projTrans;\n" //
+			+ "varying vec4 v_color;\n" //
+			+ "varying vec2 v_texCoords;\n" //
+			+ "\n" //
+			+ "void main()\n" //
+			+ "{\n" //
+			+ "   v_color = " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" //
+			+ "   v_color.a = v_color.a * (255.0/254.0);\n" //
+			+ "   v_texCoords = mix(" + REGION_ATTRIBUTE + ".xy, " + REGION_ATTRIBUTE + ".zw, " + CORNER_ATTRIBUTE + ");\n" //
+			+ "   vec2 local = " + CORNER_ATTRIBUTE + " * " + SIZE_ATTRIBUTE + " - " + ORIGIN_ATTRIBUTE + ";\n" //
+			+ "   float angle = radians(" + ROTATION_ATTRIBUTE + ");\n" //
+			+ "   float c = cos(angle);\n" //
+			+ "   float s = sin(angle);\n" //
+			+ "   vec2 position = " + ShaderProgram.POSITION_ATTRIBUTE
+			+ " + vec2(c * local.x - s * local.y, s * local.x + c * local.y);\n" //
+			+ "   gl_Position =  u_projTrans * vec4(position, 0.0, 1.0);\n" //
+			+ "}\n";
+		String fragmentShader = "#ifdef GL_ES\n" //
+			+ "#define LOWP lowp\n" //
+			+ "precision mediump float;\n" //
+			+ "#else\n" //
+			+ "#define LOWP \n" //
+			+ "#endif\n" //
+			+ "varying LOWP vec4 v_color;\n" //
+			+ "varying vec2 v_texCoords;\n" //
+			+ "uniform sampler2D u_texture;\n" //
+			+ "void main()\n"//
+			+ "{\n" //
+			+ "  gl_FragColor = v_color * texture2D(u_texture, v_texCoords);\n" //
+			+ "}";
+
+		ShaderProgram shader = new ShaderProgram(vertexShader, fragmentShader);
+		if (!shader.isCompiled()) throw new IllegalArgumentException("Error compiling shader: " + shader.getLog());
+		return shader;
+	}
+
+	@Override
+	public void begin () {
+		if (drawing) throw new IllegalStateException("InstancedSpriteBatch.end must be called before begin.");
+		renderCalls = 0;
+
+		Gdx.gl.glDepthMask(false);
+		if (customShader != null)
+			customShader.bind();
+		else
+			shader.bind();
+		setupMatrices();
+
+		drawing = true;
+	}
+
+	@Override
+	public void end () {
+		if (!drawing) throw new IllegalStateException("InstancedSpriteBatch.begin must be called before end.");
+		if (idx > 0) flush();
+		lastTexture = null;
+		drawing = false;
+
+		GL20 gl = Gdx.gl;
+		gl.glDepthMask(true);
+		if (isBlendingEnabled()) gl.glDisable(GL20.GL_BLEND);
+	}
+
+	@Override
+	public void setColor (Color tint) {
+		color.set(tint);
+		colorPacked = tint.toFloatBits();
+	}
+
+	@Override
+	public void setColor (float r, float g, float b, float a) {
+		color.set(r, g, b, a);
+		colorPacked = color.toFloatBits();
+	}
+
+	@Override
+	public Color getColor () {
+		return color;
+	}
+
+	@Override
+	public void setPackedColor (float packedColor) {
+		Color.abgr8888ToColor(color, packedColor);
+		this.colorPacked = packedColor;
+	}
+
+	@Override
+	public float getPackedColor () {
+		return colorPacked;
+	}
+
+	/** Prepares for one more instance, switching the texture or flushing if needed. */
+	private void instance (Texture texture) {
+		if (!drawing) throw new IllegalStateException("InstancedSpriteBatch.begin must be called before draw.");
+		if (texture != lastTexture)
+			switchTexture(texture);
+		else if (idx == instances.length) //
+			flush();
+	}
+
+	/** Stores an instance, after {@link #instance(Texture)}. */
+	private void put (float x, float y, float width, float height, float originX, float originY, float rotation, float u,
+		float v, float u2, float v2) {
+		float[] instances = this.instances;
+		int idx = this.idx;
+		instances[idx] = x;
+		instances[idx + 1] = y;
+		instances[idx + 2] = width;
+		instances[idx + 3] = height;
+		instances[idx + 4] = originX;
+		instances[idx + 5] = originY;
+		instances[idx + 6] = rotation;
+		instances[idx + 7] = u;
+		instances[idx + 8] = v;
+		instances[idx + 9] = u2;
+		instances[idx + 10] = v2;
+		instances[idx + 11] = colorPacked;
+		this.idx = idx + INSTANCE_SIZE;
+	}
+
+	/** Stores a rectangular quad given by its bottom left (1), top left (2) and bottom right (4) corners and the texture
+	 * coordinates of its bottom left and top right corners. If the texture is rotated 90 degrees on the quad, u changes from
+	 * corner 1 to 2 instead of from 1 to 4. */
+	private void putQuad (float x1, float y1, float x2, float y2, float x4, float y4, float u1, float v1, float u3, float v3,
+		boolean rotated) {
+		float ex, ey, fx, fy;
+		if (rotated) {
+			ex = x2 - x1;
+			ey = y2 - y1;
+			fx = x4 - x1;
+			fy = y4 - y1;
+		} else {
+			ex = x4 - x1;
+			ey = y4 - y1;
+			fx = x2 - x1;
+			fy = y2 - y1;
+		}
+		float width = (float)Math.sqrt(ex * ex + ey * ey);
+		float height = (float)Math.sqrt(fx * fx + fy * fy);
+		if (ex * fy - ey * fx < 0) height = -height;
+		float rotation = width == 0 ? 0 : (float)Math.atan2(ey, ex) * MathUtils.radiansToDegrees;
+		put(x1, y1, width, height, 0, 0, rotation, u1, v1, u3, v3);
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y, float originX, float originY, float width, float height, float scaleX,
+		float scaleY, float rotation, int srcX, int srcY, int srcWidth, int srcHeight, boolean flipX, boolean flipY) {
+		instance(texture);
+
+		float u = srcX * invTexWidth;
+		float v = (srcY + srcHeight) * invTexHeight;
+		float u2 = (srcX + srcWidth) * invTexWidth;
+		float v2 = srcY * invTexHeight;
+
+		if (flipX) {
+			float tmp = u;
+			u = u2;
+			u2 = tmp;
+		}
+
+		if (flipY) {
+			float tmp = v;
+			v = v2;
+			v2 = tmp;
+		}
+
+		put(x + originX, y + originY, width * scaleX, height * scaleY, originX * scaleX, originY * scaleY, rotation, u, v, u2, v2);
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y, float width, float height, int srcX, int srcY, int srcWidth,
+		int srcHeight, boolean flipX, boolean flipY) {
+		instance(texture);
+
+		float u = srcX * invTexWidth;
+		float v = (srcY + srcHeight) * invTexHeight;
+		float u2 = (srcX + srcWidth) * invTexWidth;
+		float v2 = srcY * invTexHeight;
+
+		if (flipX) {
+			float tmp = u;
+			u = u2;
+			u2 = tmp;
+		}
+
+		if (flipY) {
+			float tmp = v;
+			v = v2;
+			v2 = tmp;
+		}
+
+		put(x, y, width, height, 0, 0, 0, u, v, u2, v2);
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) {
+		instance(texture);
+
+		final float u = srcX * invTexWidth;
+		final float v = (srcY + srcHeight) * invTexHeight;
+		final float u2 = (srcX + srcWidth) * invTexWidth;
+		final float v2 = srcY * invTexHeight;
+
+		put(x, y, srcWidth, srcHeight, 0, 0, 0, u, v, u2, v2);
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y, float width, float height, float u, float v, float u2, float v2) {
+		instance(texture);
+		put(x, y, width, height, 0, 0, 0, u, v, u2, v2);
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y) {
+		draw(texture, x, y, texture.getWidth(), texture.getHeight());
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y, float width, float height) {
+		instance(texture);
+		put(x, y, width, height, 0, 0, 0, 0, 1, 1, 0);
+	}
+
+	/** Converts each quad of 4 vertices to an instance, see {@link InstancedSpriteBatch}. */
+	@Override
+	public void draw (Texture texture, float[] spriteVertices, int offset, int count) {
+		float colorPacked = this.colorPacked;
+		for (int n = offset + count; offset < n; offset += Sprite.SPRITE_SIZE) {
+			instance(texture);
+			float u1 = spriteVertices[offset + Batch.U1], v1 = spriteVertices[offset + Batch.V1];
+			this.colorPacked = spriteVertices[offset + Batch.C1];
+			putQuad(spriteVertices[offset + Batch.X1], spriteVertices[offset + Batch.Y1], //
+				spriteVertices[offset + Batch.X2], spriteVertices[offset + Batch.Y2], //
+				spriteVertices[offset + Batch.X4], spriteVertices[offset + Batch.Y4], //
+				u1, v1, spriteVertices[offset + Batch.U3], spriteVertices[offset + Batch.V3],
+				u1 == spriteVertices[offset + Batch.U4] && v1 != spriteVertices[offset + Batch.V4]);
+		}
+		this.colorPacked = colorPacked;
+	}
+
+	@Override
+	public void draw (TextureRegion region, float x, float y) {
+		draw(region, x, y, region.getRegionWidth(), region.getRegionHeight());
+	}
+
+	@Override
+	public void draw (TextureRegion region, float x, float y, float width, float height) {
+		instance(region.texture);
+		put(x, y, width, height, 0, 0, 0, region.u, region.v2, region.u2, region.v);
+	}
+
+	@Override
+	public void draw (TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+		float scaleX, float scaleY, float rotation) {
+		instance(region.texture);
+		put(x + originX, y + originY, width * scaleX, height * scaleY, originX * scaleX, originY * scaleY, rotation, region.u,
+			region.v2, region.u2, region.v);
+	}
+
+	@Override
+	public void draw (TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+		float scaleX, float scaleY, float rotation, boolean clockwise) {
+		instance(region.texture);
+
+		// The texture is rotated 90 degrees on the quad, so the quad is stored rotated by another 90 degrees, with its width along
+		// the height of the sprite.
+		if (clockwise) {
+			put(x + originX, y + originY, height * scaleY, -width * scaleX, originY * scaleY, -originX * scaleX, rotation + 90,
+				region.u2, region.v2, region.u, region.v);
+		} else {
+			put(x + originX, y + originY, height * scaleY, -width * scaleX, originY * scaleY, -originX * scaleX, rotation + 90,
+				region.u, region.v, region.u2, region.v2);
+		}
+	}
+
+	/** Converts the transformed quad to an instance, see {@link InstancedSpriteBatch}. */
+	@Override
+	public void draw (TextureRegion region, float width, float height, Affine2 transform) {
+		instance(region.texture);
+		float x1 = transform.m02;
+		float y1 = transform.m12;
+		putQuad(x1, y1, transform.m01 * height + x1, transform.m11 * height + y1, transform.m00 * width + x1,
+			transform.m10 * width + y1, region.u, region.v2, region.u2, region.v, false);
+	}
+
+	@Override
+	public void flush () {
+		if (idx == 0) return;
+
+		renderCalls++;
+		totalRenderCalls++;
+		int spritesInBatch = idx / INSTANCE_SIZE;
+		if (spritesInBatch > maxSpritesInBatch) maxSpritesInBatch = spritesInBatch;
+
+		lastTexture.bind();
+		Mesh mesh = this.mesh;
+		mesh.setInstanceData(instances, 0, idx);
+
+		if (blendingDisabled) {
+			Gdx.gl.glDisable(GL20.GL_BLEND);
+		} else {
+			Gdx.gl.glEnable(GL20.GL_BLEND);
+			if (blendSrcFunc != -1) Gdx.gl.glBlendFuncSeparate(blendSrcFunc, blendDstFunc, blendSrcFuncAlpha, blendDstFuncAlpha);
+		}
+
+		mesh.render(customShader != null ? customShader : shader, GL20.GL_TRIANGLES, 0, 6);
+
+		idx = 0;
+	}
+
+	@Override
+	public void disableBlending () {
+		if (blendingDisabled) return;
+		flush();
+		blendingDisabled = true;
+	}
+
+	@Override
+	public void enableBlending () {
+		if (!blendingDisabled) return;
+		flush();
+		blendingDisabled = false;
+	}
+
+	@Override
+	public void setBlendFunction (int srcFunc, int dstFunc) {
+		setBlendFunctionSeparate(srcFunc, dstFunc, srcFunc, dstFunc);
+	}
+
+	@Override
+	public void setBlendFunctionSeparate (int srcFuncColor, int dstFuncColor, int srcFuncAlpha, int dstFuncAlpha) {
+		if (blendSrcFunc == srcFuncColor && blendDstFunc == dstFuncColor && blendSrcFuncAlpha == srcFuncAlpha
+			&& blendDstFuncAlpha == dstFuncAlpha) return;
+		flush();
+		blendSrcFunc = srcFuncColor;
+		blendDstFunc = dstFuncColor;
+		blendSrcFuncAlpha = srcFuncAlpha;
+		blendDstFuncAlpha = dstFuncAlpha;
+	}
+
+	@Override
+	public int getBlendSrcFunc () {
+		return blendSrcFunc;
+	}
+
+	@Override
+	public int getBlendDstFunc () {
+		return blendDstFunc;
+	}
+
+	@Override
+	public int getBlendSrcFuncAlpha () {
+		return blendSrcFuncAlpha;
+	}
+
+	@Override
+	public int getBlendDstFuncAlpha () {
+		return blendDstFuncAlpha;
+	}
+
+	@Override
+	public void dispose () {
+		mesh.dispose();
+		if (ownsShader && shader != null) shader.dispose();
+	}
+
+	@Override
+	public Matrix4 getProjectionMatrix () {
+		return projectionMatrix;
+	}
+
+	@Override
+	public Matrix4 getTransformMatrix () {
+		return transformMatrix;
+	}
+
+	@Override
+	public void setProjectionMatrix (Matrix4 projection) {
+		if (drawing) flush();
+		projectionMatrix.set(projection);
+		if (drawing) setupMatrices();
+	}
+
+	@Override
+	public void setTransformMatrix (Matrix4 transform) {
+		if (drawing) flush();
+		transformMatrix.set(transform);
+		if (drawing) setupMatrices();
+	}
+
+	protected void setupMatrices () {
+		combinedMatrix.set(projectionMatrix).mul(transformMatrix);
+		ShaderProgram shader = customShader != null ? customShader : this.shader;
+		shader.setUniformMatrix("u_projTrans", combinedMatrix);
+		shader.setUniformi("u_texture", 0);
+	}
+
+	protected void switchTexture (Texture texture) {
+		flush();
+		lastTexture = texture;
+		invTexWidth = 1.0f / texture.getWidth();
+		invTexHeight = 1.0f / texture.getHeight();
+	}
+
+	@Override
+	public void setShader (@Null ShaderProgram shader) {
+		if (drawing) {
+			flush();
+		}
+		customShader = shader;
+		if (drawing) {
+			if (customShader != null)
+				customShader.bind();
+			else
+				this.shader.bind();
+			setupMatrices();
+		}
+	}
+
+	@Override
+	public ShaderProgram getShader () {
+		if (customShader == null) {
+			return shader;
+		}
+		return customShader;
+	}
+
+	@Override
+	public boolean isBlendingEnabled () {
+		return !blendingDisabled;
+	}
+
+	public boolean isDrawing () {
+		return drawing;
+	}
+}
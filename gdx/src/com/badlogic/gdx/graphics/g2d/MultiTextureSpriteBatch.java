@@ -0,0 +1,1227 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.g2d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Mesh.VertexDataType;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.BufferUtils;
+
+import java.nio.Buffer;
+import java.nio.IntBuffer;
+
+/** A {@link Batch} that binds up to {@link #getMaxTextures()} textures to separate texture units at once, instead of flushing
+ * every time the texture changes like {@link SpriteBatch}. Each vertex stores the index of the texture unit it samples from, so
+ * sprites from several atlas pages end up in the same draw call. The batch is only flushed when all texture units are in use
+ * and another texture is drawn, when the vertex buffer is full, or when state like the blend function or shader changes.
+ * <p>
+ * A vertex is 6 floats, {@link SpriteBatch}'s 5 plus the texture index. {@link #draw(Texture, float[], int, int)} takes
+ * vertices in the same 20 float per sprite layout as the other batches and adds the index. A custom shader set with
+ * {@link #setShader(ShaderProgram)} must declare the {@link #TEXTURE_INDEX_ATTRIBUTE} attribute and a
+ * <code>uniform sampler2D u_textures[n]</code> array, see {@link #createDefaultShader(int)}.
+ * @see Batch */
+public class MultiTextureSpriteBatch implements Batch {
+	/** The name of the attribute holding the texture unit index of a vertex. */
+	static public final String TEXTURE_INDEX_ATTRIBUTE = "a_texIndex";
+
+	/** The number of floats per vertex. */
+	static public final int VERTEX_SIZE = 2 + 1 + 2 + 1;
+	/** The number of floats per sprite. */
+	static public final int SPRITE_SIZE = 4 * VERTEX_SIZE;
+
+	/** The largest number of texture units used when none is given to the constructor, to keep the sampler selection in the
+	 * default shader short. */
+	static public final int DEFAULT_MAX_TEXTURES = 16;
+
+	private Mesh mesh;
+
+	final float[] vertices;
+	int idx = 0;
+	Texture lastTexture = null;
+	float invTexWidth = 0, invTexHeight = 0;
+
+	private final Texture[] textures;
+	private int textureCount;
+	float textureIndex;
+	private final String[] samplerNames;
+
+	boolean drawing = false;
+
+	private final Matrix4 transformMatrix = new Matrix4();
+	private final Matrix4 projectionMatrix = new Matrix4();
+	private final Matrix4 combinedMatrix = new Matrix4();
+
+	private boolean blendingDisabled = false;
+	private int blendSrcFunc = GL20.GL_SRC_ALPHA;
+	private int blendDstFunc = GL20.GL_ONE_MINUS_SRC_ALPHA;
+	private int blendSrcFuncAlpha = GL20.GL_SRC_ALPHA;
+	private int blendDstFuncAlpha = GL20.GL_ONE_MINUS_SRC_ALPHA;
+
+	private final ShaderProgram shader;
+	private ShaderProgram customShader = null;
+	private boolean ownsShader;
+
+	private final Color color = new Color(1, 1, 1, 1);
+	float colorPacked = Color.WHITE_FLOAT_BITS;
+
+	/** Number of render calls since the last {@link #begin()}. **/
+	public int renderCalls = 0;
+
+	/** Number of rendering calls, ever. Will not be reset unless set manually. **/
+	public int totalRenderCalls = 0;
+
+	/** Number of render calls since the last {@link #begin()} that were needed because all texture units were in use. A
+	 * {@link SpriteBatch} would have flushed on every texture change instead. **/
+	public int textureFlushes = 0;
+
+	/** The maximum number of sprites rendered in one batch so far. **/
+	public int maxSpritesInBatch = 0;
+
+	/** The maximum number of textures used in one batch so far. **/
+	public int maxTexturesInBatch = 0;
+
+	/** Constructs a new MultiTextureSpriteBatch with a size of 1000 and the default shader.
+	 * @see MultiTextureSpriteBatch#MultiTextureSpriteBatch(int, int, ShaderProgram) */
+	public MultiTextureSpriteBatch () {
+		this(1000, 0, null);
+	}
+
+	/** Constructs a MultiTextureSpriteBatch with the default shader.
+	 * @see MultiTextureSpriteBatch#MultiTextureSpriteBatch(int, int, ShaderProgram) */
+	public MultiTextureSpriteBatch (int size) {
+		this(size, 0, null);
+	}
+
+	/** Constructs a new MultiTextureSpriteBatch. Sets the projection matrix to an orthographic projection with y-axis point
+	 * upwards, x-axis point to the right and the origin being in the bottom left corner of the screen.
+	 * @param size The max number of sprites in a single batch. Max of 8191.
+	 * @param maxTextures The max number of textures in a single batch, limited to GL_MAX_TEXTURE_IMAGE_UNITS. If 0 or less, the
+	 *           smaller of GL_MAX_TEXTURE_IMAGE_UNITS and {@link #DEFAULT_MAX_TEXTURES} is used.
+	 * @param defaultShader The default shader to use, which must sample from at least maxTextures textures. If null,
+	 *           {@link #createDefaultShader(int)} is used. This is not owned by the MultiTextureSpriteBatch and must be disposed
+	 *           separately. */
+	public MultiTextureSpriteBatch (int size, int maxTextures, ShaderProgram defaultShader) {
+		// 32767 is max vertex index, so 32767 / 4 vertices per sprite = 8191 sprites max.
+		if (size > 8191) throw new IllegalArgumentException("Can't have more than 8191 sprites per batch: " + size);
+
+		int maxUnits = getMaxTextureUnits();
+		if (maxTextures <= 0)
+			maxTextures = Math.min(maxUnits, DEFAULT_MAX_TEXTURES);
+		else
+			maxTextures = Math.min(maxTextures, maxUnits);
+		if (maxTextures < 1) throw new IllegalArgumentException("At least one texture unit is required: " + maxTextures);
+		textures = new Texture[maxTextures];
+		samplerNames = new String[maxTextures];
+		for (int i = 0; i < maxTextures; i++)
+			samplerNames[i] = "u_textures[" + i + "]";
+
+		VertexDataType vertexDataType = (Gdx.gl30 != null) ? VertexDataType.VertexBufferObjectWithVAO : VertexDataType.VertexArray;
+
+		mesh = new Mesh(vertexDataType, false, size * 4, size * 6,
+			new VertexAttribute(Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+			new VertexAttribute(Usage.ColorPacked, 4, ShaderProgram.COLOR_ATTRIBUTE),
+			new VertexAttribute(Usage.TextureCoordinates, 2, ShaderProgram.TEXCOORD_ATTRIBUTE + "0"),
+			new VertexAttribute(Usage.Generic, 1, TEXTURE_INDEX_ATTRIBUTE));
+
+		projectionMatrix.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+
+		vertices = new float[size * SPRITE_SIZE];
+
+		int len = size * 6;
+		short[] indices = new short[len];
+		short j = 0;
+		for (int i = 0; i < len; i += 6, j += 4) {
+			indices[i] = j;
+			indices[i + 1] = (short)(j + 1);
+			indices[i + 2] = (short)(j + 2);
+			indices[i + 3] = (short)(j + 2);
+			indices[i + 4] = (short)(j + 3);
+			indices[i + 5] = j;
+		}
+		mesh.setIndices(indices);
+
+		if (defaultShader == null) {
+			shader = createDefaultShader(maxTextures);
+			ownsShader = true;
+		} else
+			shader = defaultShader;
+	}
+
+	static private int getMaxTextureUnits () {
+		IntBuffer buffer = BufferUtils.newIntBuffer(16);
+		Gdx.gl.glGetIntegerv(GL20.GL_MAX_TEXTURE_IMAGE_UNITS, buffer);
+		return buffer.get(0);
+	}
+
+	/** Returns a new instance of the default shader used by MultiTextureSpriteBatch when no shader is specified. GLSL ES 2.0 can
+	 * only index sampler arrays with constants, so the fragment shader picks the sampler with a chain of comparisons.
+	 * @param maxTextures the number of samplers in the <code>u_textures</code> array. */
+	static public ShaderProgram createDefaultShader (int maxTextures) {
+		String vertexShader = "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" //
+			+ "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" //
+			+ "attribute vec2 " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" //
+			+ "attribute float " + TEXTURE_INDEX_ATTRIBUTE + ";\n" //
+			+ "uniform mat4 u_projTrans;\n" //
+			+ "varying vec4 v_color;\n" //
+			+ "varying vec2 v_texCoords;\n" //
+			+ "varying float v_texIndex;\n" //
+			+ "\n" //
+			+ "void main()\n" //
+			+ "{\n" //
+			+ "   v_color = " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" //
+			+ "   v_color.a = v_color.a * (255.0/254.0);\n" //
+			+ "   v_texCoords = " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" //
+			+ "   v_texIndex = " + TEXTURE_INDEX_ATTRIBUTE + ";\n" //
+			+ "   gl_Position =  u_projTrans * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" //
+			+ "}\n";
+		StringBuilder fragmentShader = new StringBuilder("#ifdef GL_ES\n" //
+			+ "#define LOWP lowp\n" //
+			+ "precision mediump float;\n" //
+			+ "#else\n" //
+			+ "#define LOWP \n" //
+			+ "#endif\n" //
+			+ "varying LOWP vec4 v_color;\n" //
+			+ "varying vec2 v_texCoords;\n" //
+			+ "varying float v_texIndex;\n" //
+			+ "uniform sampler2D u_textures[" + maxTextures + "];\n" //
+			+ "void main()\n"//
+			+ "{\n" //
+			+ "  vec4 texel;\n");
+		for (int i = 0; i < maxTextures - 1; i++) {
+			fragmentShader.append(i == 0 ? "  if" : "  else if");
+			fragmentShader.append(" (v_texIndex < ").append(i).append(".5) texel = texture2D(u_textures[").append(i)
+				.append("], v_texCoords);\n");
+		}
+		fragmentShader.append(maxTextures == 1 ? "  " : "  else ");
+		fragmentShader.append("texel = texture2D(u_textures[").append(maxTextures - 1).append("], v_texCoords);\n");
+		fragmentShader.append("  gl_FragColor = v_color * texel;\n" //
+			+ "}");
+
+		ShaderProgram shader = new ShaderProgram(vertexShader, fragmentShader.toString());
+		if (!shader.isCompiled()) throw new IllegalArgumentException("Error compiling shader: " + shader.getLog());
+		return shader;
+	}
+
+	/** Returns the number of textures that can be drawn without flushing. */
+	public int getMaxTextures () {
+		return textures.length;
+	}
+
+	@Override
+	public void begin () {
+		if (drawing) throw new IllegalStateException("MultiTextureSpriteBatch.end must be called before begin.");
+		renderCalls = 0;
+		textureFlushes = 0;
+
+		Gdx.gl.glDepthMask(false);
+		if (customShader != null)
+			customShader.bind();
+		else
+			shader.bind();
+		setupMatrices();
+
+		drawing = true;
+	}
+
+	@Override
+	public void end () {
+		if (!drawing) throw new IllegalStateException("MultiTextureSpriteBatch.begin must be called before end.");
+		if (idx > 0) flush();
+		lastTexture = null;
+		clearTextures();
+		drawing = false;
+
+		GL20 gl = Gdx.gl;
+		gl.glDepthMask(true);
+		if (isBlendingEnabled()) gl.glDisable(GL20.GL_BLEND);
+	}
+
+	@Override
+	public void setColor (Color tint) {
+		color.set(tint);
+		colorPacked = tint.toFloatBits();
+	}
+
+	@Override
+	public void setColor (float r, float g, float b, float a) {
+		color.set(r, g, b, a);
+		colorPacked = color.toFloatBits();
+	}
+
+	@Override
+	public Color getColor () {
+		return color;
+	}
+
+	@Override
+	public void setPackedColor (float packedColor) {
+		Color.abgr8888ToColor(color, packedColor);
+		this.colorPacked = packedColor;
+	}
+
+	@Override
+	public float getPackedColor () {
+		return colorPacked;
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y, float originX, float originY, float width, float height, float scaleX,
+		float scaleY, float rotation, int srcX, int srcY, int srcWidth, int srcHeight, boolean flipX, boolean flipY) {
+		if (!drawing) throw new IllegalStateException("MultiTextureSpriteBatch.begin must be called before draw.");
+
+		float[] vertices = this.vertices;
+
+		if (texture != lastTexture) switchTexture(texture);
+		if (idx == vertices.length) flush();
+
+		// bottom left and top right corner points relative to origin
+		final float worldOriginX = x + originX;
+		final float worldOriginY = y + originY;
+		float fx = -originX;
+		float fy = -originY;
+		float fx2 = width - originX;
+		float fy2 = height - originY;
+
+		// scale
+		if (scaleX != 1 || scaleY != 1) {
+			fx *= scaleX;
+			fy *= scaleY;
+			fx2 *= scaleX;
+			fy2 *= scaleY;
+		}
+
+		// construct corner points, start from top left and go counter clockwise
+		final float p1x = fx;
+		final float p1y = fy;
+		final float p2x = fx;
+		final float p2y = fy2;
+		final float p3x = fx2;
+		final float p3y = fy2;
+		final float p4x = fx2;
+		final float p4y = fy;
+
+		float x1;
+		float y1;
+		float x2;
+		float y2;
+		float x3;
+		float y3;
+		float x4;
+		float y4;
+
+		// rotate
+		if (rotation != 0) {
+			final float cos = MathUtils.cosDeg(rotation);
+			final float sin = MathUtils.sinDeg(rotation);
+
+			x1 = cos * p1x - sin * p1y;
+			y1 = sin * p1x + cos * p1y;
+
+			x2 = cos * p2x - sin * p2y;
+			y2 = sin * p2x + cos * p2y;
+
+			x3 = cos * p3x - sin * p3y;
+			y3 = sin * p3x + cos * p3y;
+
+			x4 = x1 + (x3 - x2);
+			y4 = y3 - (y2 - y1);
+		} else {
+			x1 = p1x;
+			y1 = p1y;
+
+			x2 = p2x;
+			y2 = p2y;
+
+			x3 = p3x;
+			y3 = p3y;
+
+			x4 = p4x;
+			y4 = p4y;
+		}
+
+		x1 += worldOriginX;
+		y1 += worldOriginY;
+		x2 += worldOriginX;
+		y2 += worldOriginY;
+		x3 += worldOriginX;
+		y3 += worldOriginY;
+		x4 += worldOriginX;
+		y4 += worldOriginY;
+
+		float u = srcX * invTexWidth;
+		float v = (srcY + srcHeight) * invTexHeight;
+		float u2 = (srcX + srcWidth) * invTexWidth;
+		float v2 = srcY * invTexHeight;
+
+		if (flipX) {
+			float tmp = u;
+			u = u2;
+			u2 = tmp;
+		}
+
+		if (flipY) {
+			float tmp = v;
+			v = v2;
+			v2 = tmp;
+		}
+
+		float color = this.colorPacked;
+		float textureIndex = this.textureIndex;
+		int idx = this.idx;
+		vertices[idx] = x1;
+		vertices[idx + 1] = y1;
+		vertices[idx + 2] = color;
+		vertices[idx + 3] = u;
+		vertices[idx + 4] = v;
+		vertices[idx + 5] = textureIndex;
+
+		vertices[idx + 6] = x2;
+		vertices[idx + 7] = y2;
+		vertices[idx + 8] = color;
+		vertices[idx + 9] = u;
+		vertices[idx + 10] = v2;
+		vertices[idx + 11] = textureIndex;
+
+		vertices[idx + 12] = x3;
+		vertices[idx + 13] = y3;
+		vertices[idx + 14] = color;
+		vertices[idx + 15] = u2;
+		vertices[idx + 16] = v2;
+		vertices[idx + 17] = textureIndex;
+
+		vertices[idx + 18] = x4;
+		vertices[idx + 19] = y4;
+		vertices[idx + 20] = color;
+		vertices[idx + 21] = u2;
+		vertices[idx + 22] = v;
+		vertices[idx + 23] = textureIndex;
+		this.idx = idx + SPRITE_SIZE;
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y, float width, float height, int srcX, int srcY, int srcWidth,
+		int srcHeight, boolean flipX, boolean flipY) {
+		if (!drawing) throw new IllegalStateException("MultiTextureSpriteBatch.begin must be called before draw.");
+
+		float[] vertices = this.vertices;
+
+		if (texture != lastTexture) switchTexture(texture);
+		if (idx == vertices.length) flush();
+
+		float u = srcX * invTexWidth;
+		float v = (srcY + srcHeight) * invTexHeight;
+		float u2 = (srcX + srcWidth) * invTexWidth;
+		float v2 = srcY * invTexHeight;
+		final float fx2 = x + width;
+		final float fy2 = y + height;
+
+		if (flipX) {
+			float tmp = u;
+			u = u2;
+			u2 = tmp;
+		}
+
+		if (flipY) {
+			float tmp = v;
+			v = v2;
+			v2 = tmp;
+		}
+
+		float color = this.colorPacked;
+		float textureIndex = this.textureIndex;
+		int idx = this.idx;
+		vertices[idx] = x;
+		vertices[idx + 1] = y;
+		vertices[idx + 2] = color;
+		vertices[idx + 3] = u;
+		vertices[idx + 4] = v;
+		vertices[idx + 5] = textureIndex;
+
+		vertices[idx + 6] = x;
+		vertices[idx + 7] = fy2;
+		vertices[idx + 8] = color;
+		vertices[idx + 9] = u;
+		vertices[idx + 10] = v2;
+		vertices[idx + 11] = textureIndex;
+
+		vertices[idx + 12] = fx2;
+		vertices[idx + 13] = fy2;
+		vertices[idx + 14] = color;
+		vertices[idx + 15] = u2;
+		vertices[idx + 16] = v2;
+		vertices[idx + 17] = textureIndex;
+
+		vertices[idx + 18] = fx2;
+		vertices[idx + 19] = y;
+		vertices[idx + 20] = color;
+		vertices[idx + 21] = u2;
+		vertices[idx + 22] = v;
+		vertices[idx + 23] = textureIndex;
+		this.idx = idx + SPRITE_SIZE;
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) {
+		if (!drawing) throw new IllegalStateException("MultiTextureSpriteBatch.begin must be called before draw.");
+
+		float[] vertices = this.vertices;
+
+		if (texture != lastTexture) switchTexture(texture);
+		if (idx == vertices.length) flush();
+
+		final float u = srcX * invTexWidth;
+		final float v = (srcY + srcHeight) * invTexHeight;
+		final float u2 = (srcX + srcWidth) * invTexWidth;
+		final float v2 = srcY * invTexHeight;
+		final float fx2 = x + srcWidth;
+		final float fy2 = y + srcHeight;
+
+		float color = this.colorPacked;
+		float textureIndex = this.textureIndex;
+		int idx = this.idx;
+		vertices[idx] = x;
+		vertices[idx + 1] = y;
+		vertices[idx + 2] = color;
+		vertices[idx + 3] = u;
+		vertices[idx + 4] = v;
+		vertices[idx + 5] = textureIndex;
+
+		vertices[idx + 6] = x;
+		vertices[idx + 7] = fy2;
+		vertices[idx + 8] = color;
+		vertices[idx + 9] = u;
+		vertices[idx + 10] = v2;
+		vertices[idx + 11] = textureIndex;
+
+		vertices[idx + 12] = fx2;
+		vertices[idx + 13] = fy2;
+		vertices[idx + 14] = color;
+		vertices[idx + 15] = u2;
+		vertices[idx + 16] = v2;
+		vertices[idx + 17] = textureIndex;
+
+		vertices[idx + 18] = fx2;
+		vertices[idx + 19] = y;
+		vertices[idx + 20] = color;
+		vertices[idx + 21] = u2;
+		vertices[idx + 22] = v;
+		vertices[idx + 23] = textureIndex;
+		this.idx = idx + SPRITE_SIZE;
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y, float width, float height, float u, float v, float u2, float v2) {
+		if (!drawing) throw new IllegalStateException("MultiTextureSpriteBatch.begin must be called before draw.");
+
+		float[] vertices = this.vertices;
+
+		if (texture != lastTexture) switchTexture(texture);
+		if (idx == vertices.length) flush();
+
+		final float fx2 = x + width;
+		final float fy2 = y + height;
+
+		float color = this.colorPacked;
+		float textureIndex = this.textureIndex;
+		int idx = this.idx;
+		vertices[idx] = x;
+		vertices[idx + 1] = y;
+		vertices[idx + 2] = color;
+		vertices[idx + 3] = u;
+		vertices[idx + 4] = v;
+		vertices[idx + 5] = textureIndex;
+
+		vertices[idx + 6] = x;
+		vertices[idx + 7] = fy2;
+		vertices[idx + 8] = color;
+		vertices[idx + 9] = u;
+		vertices[idx + 10] = v2;
+		vertices[idx + 11] = textureIndex;
+
+		vertices[idx + 12] = fx2;
+		vertices[idx + 13] = fy2;
+		vertices[idx + 14] = color;
+		vertices[idx + 15] = u2;
+		vertices[idx + 16] = v2;
+		vertices[idx + 17] = textureIndex;
+
+		vertices[idx + 18] = fx2;
+		vertices[idx + 19] = y;
+		vertices[idx + 20] = color;
+		vertices[idx + 21] = u2;
+		vertices[idx + 22] = v;
+		vertices[idx + 23] = textureIndex;
+		this.idx = idx + SPRITE_SIZE;
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y) {
+		draw(texture, x, y, texture.getWidth(), texture.getHeight());
+	}
+
+	@Override
+	public void draw (Texture texture, float x, float y, float width, float height) {
+		if (!drawing) throw new IllegalStateException("MultiTextureSpriteBatch.begin must be called before draw.");
+
+		float[] vertices = this.vertices;
+
+		if (texture != lastTexture) switchTexture(texture);
+		if (idx == vertices.length) flush();
+
+		final float fx2 = x + width;
+		final float fy2 = y + height;
+		final float u = 0;
+		final float v = 1;
+		final float u2 = 1;
+		final float v2 = 0;
+
+		float color = this.colorPacked;
+		float textureIndex = this.textureIndex;
+		int idx = this.idx;
+		vertices[idx] = x;
+		vertices[idx + 1] = y;
+		vertices[idx + 2] = color;
+		vertices[idx + 3] = u;
+		vertices[idx + 4] = v;
+		vertices[idx + 5] = textureIndex;
+
+		vertices[idx + 6] = x;
+		vertices[idx + 7] = fy2;
+		vertices[idx + 8] = color;
+		vertices[idx + 9] = u;
+		vertices[idx + 10] = v2;
+		vertices[idx + 11] = textureIndex;
+
+		vertices[idx + 12] = fx2;
+		vertices[idx + 13] = fy2;
+		vertices[idx + 14] = color;
+		vertices[idx + 15] = u2;
+		vertices[idx + 16] = v2;
+		vertices[idx + 17] = textureIndex;
+
+		vertices[idx + 18] = fx2;
+		vertices[idx + 19] = y;
+		vertices[idx + 20] = color;
+		vertices[idx + 21] = u2;
+		vertices[idx + 22] = v;
+		vertices[idx + 23] = textureIndex;
+		this.idx = idx + SPRITE_SIZE;
+	}
+
+	@Override
+	public void draw (Texture texture, float[] spriteVertices, int offset, int count) {
+		if (!drawing) throw new IllegalStateException("MultiTextureSpriteBatch.begin must be called before draw.");
+
+		// The vertices have the 20 float per sprite layout of the other batches, the texture index is added to each vertex.
+		if (texture != lastTexture) switchTexture(texture);
+		float[] vertices = this.vertices;
+		int verticesLength = vertices.length;
+		for (int end = offset + count; offset < end; offset += Sprite.VERTEX_SIZE) {
+			if (idx == verticesLength) flush();
+			float textureIndex = this.textureIndex;
+			int idx = this.idx;
+			vertices[idx] = spriteVertices[offset];
+			vertices[idx + 1] = spriteVertices[offset + 1];
+			vertices[idx + 2] = spriteVertices[offset + 2];
+			vertices[idx + 3] = spriteVertices[offset + 3];
+			vertices[idx + 4] = spriteVertices[offset + 4];
+			vertices[idx + 5] = textureIndex;
+			this.idx = idx + VERTEX_SIZE;
+		}
+	}
+
+	@Override
+	public void draw (TextureRegion region, float x, float y) {
+		draw(region, x, y, region.getRegionWidth(), region.getRegionHeight());
+	}
+
+	@Override
+	public void draw (TextureRegion region, float x, float y, float width, float height) {
+		if (!drawing) throw new IllegalStateException("MultiTextureSpriteBatch.begin must be called before draw.");
+
+		float[] vertices = this.vertices;
+
+		Texture texture = region.texture;
+		if (texture != lastTexture) switchTexture(texture);
+		if (idx == vertices.length) flush();
+
+		final float fx2 = x + width;
+		final float fy2 = y + height;
+		final float u = region.u;
+		final float v = region.v2;
+		final float u2 = region.u2;
+		final float v2 = region.v;
+
+		float color = this.colorPacked;
+		float textureIndex = this.textureIndex;
+		int idx = this.idx;
+		vertices[idx] = x;
+		vertices[idx + 1] = y;
+		vertices[idx + 2] = color;
+		vertices[idx + 3] = u;
+		vertices[idx + 4] = v;
+		vertices[idx + 5] = textureIndex;
+
+		vertices[idx + 6] = x;
+		vertices[idx + 7] = fy2;
+		vertices[idx + 8] = color;
+		vertices[idx + 9] = u;
+		vertices[idx + 10] = v2;
+		vertices[idx + 11] = textureIndex;
+
+		vertices[idx + 12] = fx2;
+		vertices[idx + 13] = fy2;
+		vertices[idx + 14] = color;
+		vertices[idx + 15] = u2;
+		vertices[idx + 16] = v2;
+		vertices[idx + 17] = textureIndex;
+
+		vertices[idx + 18] = fx2;
+		vertices[idx + 19] = y;
+		vertices[idx + 20] = color;
+		vertices[idx + 21] = u2;
+		vertices[idx + 22] = v;
+		vertices[idx + 23] = textureIndex;
+		this.idx = idx + SPRITE_SIZE;
+	}
+
+	@Override
+	public void draw (TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+		float scaleX, float scaleY, float rotation) {
+		if (!drawing) throw new IllegalStateException("MultiTextureSpriteBatch.begin must be called before draw.");
+
+		float[] vertices = this.vertices;
+
+		Texture texture = region.texture;
+		if (texture != lastTexture) switchTexture(texture);
+		if (idx == vertices.length) flush();
+
+		// bottom left and top right corner points relative to origin
+		final float worldOriginX = x + originX;
+		final float worldOriginY = y + originY;
+		float fx = -originX;
+		float fy = -originY;
+		float fx2 = width - originX;
+		float fy2 = height - originY;
+
+		// scale
+		if (scaleX != 1 || scaleY != 1) {
+			fx *= scaleX;
+			fy *= scaleY;
+			fx2 *= scaleX;
+			fy2 *= scaleY;
+		}
+
+		// construct corner points, start from top left and go counter clockwise
+		final float p1x = fx;
+		final float p1y = fy;
+		final float p2x = fx;
+		final float p2y = fy2;
+		final float p3x = fx2;
+		final float p3y = fy2;
+		final float p4x = fx2;
+		final float p4y = fy;
+
+		float x1;
+		float y1;
+		float x2;
+		float y2;
+		float x3;
+		float y3;
+		float x4;
+		float y4;
+
+		// rotate
+		if (rotation != 0) {
+			final float cos = MathUtils.cosDeg(rotation);
+			final float sin = MathUtils.sinDeg(rotation);
+
+			x1 = cos * p1x - sin * p1y;
+			y1 = sin * p1x + cos * p1y;
+
+			x2 = cos * p2x - sin * p2y;
+			y2 = sin * p2x + cos * p2y;
+
+			x3 = cos * p3x - sin * p3y;
+			y3 = sin * p3x + cos * p3y;
+
+			x4 = x1 + (x3 - x2);
+			y4 = y3 - (y2 - y1);
+		} else {
+			x1 = p1x;
+			y1 = p1y;
+
+			x2 = p2x;
+			y2 = p2y;
+
+			x3 = p3x;
+			y3 = p3y;
+
+			x4 = p4x;
+			y4 = p4y;
+		}
+
+		x1 += worldOriginX;
+		y1 += worldOriginY;
+		x2 += worldOriginX;
+		y2 += worldOriginY;
+		x3 += worldOriginX;
+		y3 += worldOriginY;
+		x4 += worldOriginX;
+		y4 += worldOriginY;
+
+		final float u = region.u;
+		final float v = region.v2;
+		final float u2 = region.u2;
+		final float v2 = region.v;
+
+		float color = this.colorPacked;
+		float textureIndex = this.textureIndex;
+		int idx = this.idx;
+		vertices[idx] = x1;
+		vertices[idx + 1] = y1;
+		vertices[idx + 2] = color;
+		vertices[idx + 3] = u;
+		vertices[idx + 4] = v;
+		vertices[idx + 5] = textureIndex;
+
+		vertices[idx + 6] = x2;
+		vertices[idx + 7] = y2;
+		vertices[idx + 8] = color;
+		vertices[idx + 9] = u;
+		vertices[idx + 10] = v2;
+		vertices[idx + 11] = textureIndex;
+
+		vertices[idx + 12] = x3;
+		vertices[idx + 13] = y3;
+		vertices[idx + 14] = color;
+		vertices[idx + 15] = u2;
+		vertices[idx + 16] = v2;
+		vertices[idx + 17] = textureIndex;
+
+		vertices[idx + 18] = x4;
+		vertices[idx + 19] = y4;
+		vertices[idx + 20] = color;
+		vertices[idx + 21] = u2;
+		vertices[idx + 22] = v;
+		vertices[idx + 23] = textureIndex;
+		this.idx = idx + SPRITE_SIZE;
+	}
+
+	@Override
+	public void draw (TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+		float scaleX, float scaleY, float rotation, boolean clockwise) {
+		if (!drawing) throw new IllegalStateException("MultiTextureSpriteBatch.begin must be called before draw.");
+
+		float[] vertices = this.vertices;
+
+		Texture texture = region.texture;
+		if (texture != lastTexture) switchTexture(texture);
+		if (idx == vertices.length) flush();
+
+		// bottom left and top right corner points relative to origin
+		final float worldOriginX = x + originX;
+		final float worldOriginY = y + originY;
+		float fx = -originX;
+		float fy = -originY;
+		float fx2 = width - originX;
+		float fy2 = height - originY;
+
+		// scale
+		if (scaleX != 1 || scaleY != 1) {
+			fx *= scaleX;
+			fy *= scaleY;
+			fx2 *= scaleX;
+			fy2 *= scaleY;
+		}
+
+		// construct corner points, start from top left and go counter clockwise
+		final float p1x = fx;
+		final float p1y = fy;
+		final float p2x = fx;
+		final float p2y = fy2;
+		final float p3x = fx2;
+		final float p3y = fy2;
+		final float p4x = fx2;
+		final float p4y = fy;
+
+		float x1;
+		float y1;
+		float x2;
+		float y2;
+		float x3;
+		float y3;
+		float x4;
+		float y4;
+
+		// rotate
+		if (rotation != 0) {
+			final float cos = MathUtils.cosDeg(rotation);
+			final float sin = MathUtils.sinDeg(rotation);
+
+			x1 = cos * p1x - sin * p1y;
+			y1 = sin * p1x + cos * p1y;
+
+			x2 = cos * p2x - sin * p2y;
+			y2 = sin * p2x + cos * p2y;
+
+			x3 = cos * p3x - sin * p3y;
+			y3 = sin * p3x + cos * p3y;
+
+			x4 = x1 + (x3 - x2);
+			y4 = y3 - (y2 - y1);
+		} else {
+			x1 = p1x;
+			y1 = p1y;
+
+			x2 = p2x;
+			y2 = p2y;
+
+			x3 = p3x;
+			y3 = p3y;
+
+			x4 = p4x;
+			y4 = p4y;
+		}
+
+		x1 += worldOriginX;
+		y1 += worldOriginY;
+		x2 += worldOriginX;
+		y2 += worldOriginY;
+		x3 += worldOriginX;
+		y3 += worldOriginY;
+		x4 += worldOriginX;
+		y4 += worldOriginY;
+
+		float u1, v1, u2, v2, u3, v3, u4, v4;
+		if (clockwise) {
+			u1 = region.u2;
+			v1 = region.v2;
+			u2 = region.u;
+			v2 = region.v2;
+			u3 = region.u;
+			v3 = region.v;
+			u4 = region.u2;
+			v4 = region.v;
+		} else {
+			u1 = region.u;
+			v1 = region.v;
+			u2 = region.u2;
+			v2 = region.v;
+			u3 = region.u2;
+			v3 = region.v2;
+			u4 = region.u;
+			v4 = region.v2;
+		}
+
+		float color = this.colorPacked;
+		float textureIndex = this.textureIndex;
+		int idx = this.idx;
+		vertices[idx] = x1;
+		vertices[idx + 1] = y1;
+		vertices[idx + 2] = color;
+		vertices[idx + 3] = u1;
+		vertices[idx + 4] = v1;
+		vertices[idx + 5] = textureIndex;
+
+		vertices[idx + 6] = x2;
+		vertices[idx + 7] = y2;
+		vertices[idx + 8] = color;
+		vertices[idx + 9] = u2;
+		vertices[idx + 10] = v2;
+		vertices[idx + 11] = textureIndex;
+
+		vertices[idx + 12] = x3;
+		vertices[idx + 13] = y3;
+		vertices[idx + 14] = color;
+		vertices[idx + 15] = u3;
+		vertices[idx + 16] = v3;
+		vertices[idx + 17] = textureIndex;
+
+		vertices[idx + 18] = x4;
+		vertices[idx + 19] = y4;
+		vertices[idx + 20] = color;
+		vertices[idx + 21] = u4;
+		vertices[idx + 22] = v4;
+		vertices[idx + 23] = textureIndex;
+		this.idx = idx + SPRITE_SIZE;
+	}
+
+	@Override
+	public void draw (TextureRegion region, float width, float height, Affine2 transform) {
+		if (!drawing) throw new IllegalStateException("MultiTextureSpriteBatch.begin must be called before draw.");
+
+		float[] vertices = this.vertices;
+
+		Texture texture = region.texture;
+		if (texture != lastTexture) switchTexture(texture);
+		if (idx == vertices.length) flush();
+
+		// construct corner points
+		float x1 = transform.m02;
+		float y1 = transform.m12;
+		float x2 = transform.m01 * height + transform.m02;
+		float y2 = transform.m11 * height + transform.m12;
+		float x3 = transform.m00 * width + transform.m01 * height + transform.m02;
+		float y3 = transform.m10 * width + transform.m11 * height + transform.m12;
+		float x4 = transform.m00 * width + transform.m02;
+		float y4 = transform.m10 * width + transform.m12;
+
+		float u = region.u;
+		float v = region.v2;
+		float u2 = region.u2;
+		float v2 = region.v;
+
+		float color = this.colorPacked;
+		float textureIndex = this.textureIndex;
+		int idx = this.idx;
+		vertices[idx] = x1;
+		vertices[idx + 1] = y1;
+		vertices[idx + 2] = color;
+		vertices[idx + 3] = u;
+		vertices[idx + 4] = v;
+		vertices[idx + 5] = textureIndex;
+
+		vertices[idx + 6] = x2;
+		vertices[idx + 7] = y2;
+		vertices[idx + 8] = color;
+		vertices[idx + 9] = u;
+		vertices[idx + 10] = v2;
+		vertices[idx + 11] = textureIndex;
+
+		vertices[idx + 12] = x3;
+		vertices[idx + 13] = y3;
+		vertices[idx + 14] = color;
+		vertices[idx + 15] = u2;
+		vertices[idx + 16] = v2;
+		vertices[idx + 17] = textureIndex;
+
+		vertices[idx + 18] = x4;
+		vertices[idx + 19] = y4;
+		vertices[idx + 20] = color;
+		vertices[idx + 21] = u2;
+		vertices[idx + 22] = v;
+		vertices[idx + 23] = textureIndex;
+		this.idx = idx + SPRITE_SIZE;
+	}
+
+	@Override
+	public void flush () {
+		if (idx == 0) return;
+
+		renderCalls++;
+		totalRenderCalls++;
+		int spritesInBatch = idx / SPRITE_SIZE;
+		if (spritesInBatch > maxSpritesInBatch) maxSpritesInBatch = spritesInBatch;
+		int count = spritesInBatch * 6;
+
+		// Bind in reverse so texture unit 0 is active afterward, as other code expects.
+		Texture[] textures = this.textures;
+		int textureCount = this.textureCount;
+		if (textureCount > maxTexturesInBatch) maxTexturesInBatch = textureCount;
+		for (int i = textureCount - 1; i >= 0; i--)
+			textures[i].bind(i);
+		Mesh mesh = this.mesh;
+		mesh.setVertices(vertices, 0, idx);
+		((Buffer)mesh.getIndicesBuffer()).position(0);
+		((Buffer)mesh.getIndicesBuffer()).limit(count);
+
+		if (blendingDisabled) {
+			Gdx.gl.glDisable(GL20.GL_BLEND);
+		} else {
+			Gdx.gl.glEnable(GL20.GL_BLEND);
+			if (blendSrcFunc != -1) Gdx.gl.glBlendFuncSeparate(blendSrcFunc, blendDstFunc, blendSrcFuncAlpha, blendDstFuncAlpha);
+		}
+
+		mesh.render(customShader != null ? customShader : shader, GL20.GL_TRIANGLES, 0, count);
+
+		idx = 0;
+
+		// The texture being drawn stays bound, in the first texture unit.
+		clearTextures();
+		if (lastTexture != null) {
+			textures[0] = lastTexture;
+			this.textureCount = 1;
+		}
+	}
+
+	@Override
+	public void disableBlending () {
+		if (blendingDisabled) return;
+		flush();
+		blendingDisabled = true;
+	}
+
+	@Override
+	public void enableBlending () {
+		if (!blendingDisabled) return;
+		flush();
+		blendingDisabled = false;
+	}
+
+	@Override
+	public void setBlendFunction (int srcFunc, int dstFunc) {
+		setBlendFunctionSeparate(srcFunc, dstFunc, srcFunc, dstFunc);
+	}
+
+	@Override
+	public void setBlendFunctionSeparate (int srcFuncColor, int dstFuncColor, int srcFuncAlpha, int dstFuncAlpha) {
+		if (blendSrcFunc == srcFuncColor && blendDstFunc == dstFuncColor && blendSrcFuncAlpha == srcFuncAlpha
+			&& blendDstFuncAlpha == dstFuncAlpha) return;
+		flush();
+		blendSrcFunc = srcFuncColor;
+		blendDstFunc = dstFuncColor;
+		blendSrcFuncAlpha = srcFuncAlpha;
+		blendDstFuncAlpha = dstFuncAlpha;
+	}
+
+	@Override
+	public int getBlendSrcFunc () {
+		return blendSrcFunc;
+	}
+
+	@Override
+	public int getBlendDstFunc () {
+		return blendDstFunc;
+	}
+
+	@Override
+	public int getBlendSrcFuncAlpha () {
+		return blendSrcFuncAlpha;
+	}
+
+	@Override
+	public int getBlendDstFuncAlpha () {
+		return blendDstFuncAlpha;
+	}
+
+	@Override
+	public void dispose () {
+		mesh.dispose();
+		if (ownsShader && shader != null) shader.dispose();
+	}
+
+	@Override
+	public Matrix4 getProjectionMatrix () {
+		return projectionMatrix;
+	}
+
+	@Override
+	public Matrix4 getTransformMatrix () {
+		return transformMatrix;
+	}
+
+	@Override
+	public void setProjectionMatrix (Matrix4 projection) {
+		if (drawing) flush();
+		projectionMatrix.set(projection);
+		if (drawing) setupMatrices();
+	}
+
+	@Override
+	public void setTransformMatrix (Matrix4 transform) {
+		if (drawing) flush();
+		transformMatrix.set(transform);
+		if (drawing) setupMatrices();
+	}
+
+	protected void setupMatrices () {
+		combinedMatrix.set(projectionMatrix).mul(transformMatrix);
+		ShaderProgram shader = customShader != null ? customShader : this.shader;
+		shader.setUniformMatrix("u_projTrans", combinedMatrix);
+		String[] samplerNames = this.samplerNames;
+		for (int i = 0, n = samplerNames.length; i < n; i++) {
+			int location = shader.fetchUniformLocation(samplerNames[i], false);
+			if (location != -1) shader.setUniformi(location, i);
+		}
+	}
+
+	/** Makes the texture current. If it is not yet bound to one of the texture units, it is added. Only if all units are in use
+	 * the batch is flushed, the caller still has to flush when the vertices are full. */
+	protected void switchTexture (Texture texture) {
+		lastTexture = texture;
+		invTexWidth = 1.0f / texture.getWidth();
+		invTexHeight = 1.0f / texture.getHeight();
+
+		Texture[] textures = this.textures;
+		int textureCount = this.textureCount;
+		for (int i = 0; i < textureCount; i++) {
+			if (textures[i] == texture) {
+				textureIndex = i;
+				return;
+			}
+		}
+		if (textureCount == textures.length) {
+			if (idx > 0) textureFlushes++;
+			flush();
+			clearTextures();
+			textureCount = 0;
+		}
+		textures[textureCount] = texture;
+		this.textureCount = textureCount + 1;
+		textureIndex = textureCount;
+	}
+
+	private void clearTextures () {
+		Texture[] textures = this.textures;
+		for (int i = 0, n = textureCount; i < n; i++)
+			textures[i] = null;
+		textureCount = 0;
+		textureIndex = 0;
+	}
+
+	@Override
+	public void setShader (ShaderProgram shader) {
+		if (drawing) {
+			flush();
+		}
+		customShader = shader;
+		if (drawing) {
+			if (customShader != null)
+				customShader.bind();
+			else
+				this.shader.bind();
+			setupMatrices();
+		}
+	}
+
+	@Override
+	public ShaderProgram getShader () {
+		if (customShader == null) {
+			return shader;
+		}
+		return customShader;
+	}
+
+	@Override
+	public boolean isBlendingEnabled () {
+		return !blendingDisabled;
+	}
+
+	public boolean isDrawing () {
+		return drawing;
+	}
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.g2d;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Null;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+/** Computes the vertices of many sprites on several threads. The sprites are split into segments, each drawn by a
+ * {@link SegmentDrawer} to its own {@link BatchRecorder}. With an {@link #setExecutor(AsyncExecutor) executor}, segments are
+ * recorded in parallel, the calling thread recording the first one. The recordings are then drawn to the batch in segment order
+ * on the calling thread, which only copies the vertices, so draw order and texture changes are the same as drawing all segments
+ * to the batch one after another.
+ * <p>
+ * A SegmentDrawer is called on several threads at the same time and must only read shared state. What it draws to the
+ * BatchRecorder, including shader, blending and transform changes, is applied to the batch in order. The recorders keep their
+ * vertex arrays, so drawing the same number of sprites every frame does not allocate. The executor must not be one whose tasks
+ * call these methods, as they wait for the segments to finish.
+ * @see BatchRecorder */
+public class ParallelBatchRecorder {
+	private @Null AsyncExecutor executor;
+	private final Array<BatchRecorder> recorders = new Array<BatchRecorder>();
+	private final Array<SegmentTask> tasks = new Array<SegmentTask>();
+	private final Array<AsyncResult<Void>> results = new Array<AsyncResult<Void>>();
+	private int segments;
+
+	public ParallelBatchRecorder () {
+	}
+
+	/** @param executor Records segments in parallel. May be null to record all segments on the calling thread. */
+	public ParallelBatchRecorder (@Null AsyncExecutor executor) {
+		this.executor = executor;
+	}
+
+	/** @param executor Records segments in parallel. May be null to record all segments on the calling thread. */
+	public void setExecutor (@Null AsyncExecutor executor) {
+		this.executor = executor;
+	}
+
+	public @Null AsyncExecutor getExecutor () {
+		return executor;
+	}
+
+	/** Records the segments, then draws them to the batch, which must be between its begin and end. The segments start out with
+	 * the batch's color. */
+	public void draw (Batch batch, int segments, SegmentDrawer drawer) {
+		record(segments, drawer, batch.getPackedColor());
+		draw(batch);
+	}
+
+	/** Records the segments, replacing the previous recording. The segments start out with a white color. This may be called on
+	 * any thread, then {@link #draw(Batch)} on the rendering thread. */
+	public void record (int segments, SegmentDrawer drawer) {
+		record(segments, drawer, Color.WHITE_FLOAT_BITS);
+	}
+
+	private void record (int segments, SegmentDrawer drawer, float color) {
+		if (segments < 0) throw new IllegalArgumentException("segments must be >= 0: " + segments);
+		while (recorders.size < segments) {
+			recorders.add(new BatchRecorder());
+			tasks.add(new SegmentTask());
+		}
+		this.segments = segments;
+		if (segments == 0) return;
+
+		AsyncExecutor executor = this.executor;
+		if (executor == null || segments == 1) {
+			for (int i = 0; i < segments; i++)
+				record(recorders.get(i), drawer, i, color);
+			return;
+		}
+		Array<AsyncResult<Void>> results = this.results;
+		for (int i = 1; i < segments; i++) {
+			SegmentTask task = tasks.get(i);
+			task.recorder = recorders.get(i);
+			task.drawer = drawer;
+			task.segment = i;
+			task.color = color;
+			results.add(executor.submit(task));
+		}
+		// Wait for all segments, even if one failed, so none is still being recorded when record is called again.
+		RuntimeException failure = null;
+		try {
+			record(recorders.get(0), drawer, 0, color);
+		} catch (RuntimeException ex) {
+			failure = ex;
+		}
+		for (int i = 0; i < results.size; i++) {
+			try {
+				results.get(i).get();
+			} catch (RuntimeException ex) {
+				if (failure == null) failure = ex;
+			}
+		}
+		results.clear();
+		for (int i = 1; i < segments; i++)
+			tasks.get(i).drawer = null;
+		if (failure != null) throw failure;
+	}
+
+	static void record (BatchRecorder recorder, SegmentDrawer drawer, int segment, float color) {
+		recorder.setPackedColor(color);
+		recorder.begin();
+		try {
+			drawer.draw(recorder, segment);
+		} finally {
+			recorder.end();
+		}
+	}
+
+	/** Draws the last recording to the batch, which must be between its begin and end. */
+	public void draw (Batch batch) {
+		for (int i = 0, n = segments; i < n; i++)
+			recorders.get(i).draw(batch);
+	}
+
+	/** Returns the number of sprites in the last recording. */
+	public int getSpriteCount () {
+		int count = 0;
+		for (int i = 0, n = segments; i < n; i++)
+			count += recorders.get(i).getSpriteCount(0);
+		return count;
+	}
+
+	/** Draws the sprites of a segment.
+	 * @see ParallelBatchRecorder */
+	static public interface SegmentDrawer {
+		/** Called on any thread, at the same time as for other segments.
+		 * @param batch Records what is drawn, it is already between begin and end.
+		 * @param segment From 0 to the number of segments - 1. */
+		public void draw (Batch batch, int segment);
+	}
+
+	static class SegmentTask implements AsyncTask<Void> {
+		BatchRecorder recorder;
+		SegmentDrawer drawer;
+		int segment;
+		float color;
+
+		public Void call () {
+			record(recorder, drawer, segment, color);
+			return null;
+		}
+	}
+}
@@ -21,8 +21,13 @@ import java.util.Comparator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import java.nio.Buffer;
+
+import com.badlogic.gdx.Application.ApplicationType;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Pixmap.Blending;
 import com.badlogic.gdx.graphics.Pixmap.Format;
@@ -34,6 +39,7 @@ import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.OrderedMap;
 
 /** Packs {@link Pixmap pixmaps} into one or more {@link Page pages} to generate an atlas of pixmap instances. Provides means to
@@ -109,6 +115,8 @@ public class PixmapPacker implements Disposable {
 	Color transparentColor = new Color(0f, 0f, 0f, 0f);
 	final Array<Page> pages = new Array();
 	PackStrategy packStrategy;
+	int uploads;
+	long uploadedBytes;
 
 	static Pattern indexPattern = Pattern.compile("(.+)_(\\d+)$");
 
@@ -259,8 +267,14 @@ public class PixmapPacker implements Disposable {
 			page.texture.bind();
 			Gdx.gl.glTexSubImage2D(page.texture.glTarget, 0, rectX, rectY, rectWidth, rectHeight, image.getGLFormat(),
 				image.getGLType(), image.getPixels());
-		} else
+			uploaded(rectWidth * rectHeight);
+		} else {
 			page.dirty = true;
+			if (page.texture != null) {
+				int border = duplicateBorder ? 1 : 0;
+				page.dirtyRects.add(rectX - border, rectY - border, rectWidth + border * 2, rectHeight + border * 2);
+			}
+		}
 
 		page.image.drawPixmap(image, rectX, rectY);
 
@@ -454,6 +468,71 @@ public class PixmapPacker implements Disposable {
 		return packToTexture;
 	}
 
+	/** Returns the number of texture uploads since the counters were last {@link #resetUploadCounters() reset}. */
+	public int getUploads () {
+		return uploads;
+	}
+
+	/** Returns the number of bytes uploaded to page textures since the counters were last {@link #resetUploadCounters() reset}.
+	 * Resetting once a frame gives the bytes uploaded per frame. */
+	public long getUploadedBytes () {
+		return uploadedBytes;
+	}
+
+	public void resetUploadCounters () {
+		uploads = 0;
+		uploadedBytes = 0;
+	}
+
+	void uploaded (int pixels) {
+		uploads++;
+		uploadedBytes += (long)pixels * bytesPerPixel(pageFormat);
+	}
+
+	static int bytesPerPixel (Format format) {
+		switch (format) {
+		case Alpha:
+		case Intensity:
+			return 1;
+		case LuminanceAlpha:
+		case RGB565:
+		case RGBA4444:
+			return 2;
+		case RGB888:
+			return 3;
+		default:
+			return 4;
+		}
+	}
+
+	/** Merges rectangles, stored as x, y, width and height, when the area of their union is at most their combined area plus the
+	 * slack. Uploading a few more pixels is cheaper than a separate upload for each small rectangle. */
+	static void coalesce (IntArray rects, int slack) {
+		boolean merged;
+		do {
+			merged = false;
+			for (int i = 0; i < rects.size; i += 4) {
+				for (int j = i + 4; j < rects.size;) {
+					int[] items = rects.items;
+					int x = Math.min(items[i], items[j]), y = Math.min(items[i + 1], items[j + 1]);
+					int right = Math.max(items[i] + items[i + 2], items[j] + items[j + 2]);
+					int top = Math.max(items[i + 1] + items[i + 3], items[j + 1] + items[j + 3]);
+					long area = (long)items[i + 2] * items[i + 3] + (long)items[j + 2] * items[j + 3];
+					if ((long)(right - x) * (top - y) > area + slack) {
+						j += 4;
+						continue;
+					}
+					items[i] = x;
+					items[i + 1] = y;
+					items[i + 2] = right - x;
+					items[i + 3] = top - y;
+					rects.removeRange(j, j + 3);
+					merged = true;
+				}
+			}
+		} while (merged);
+	}
+
 	/** If true, when a pixmap is packed to a page that has a texture, the portion of the texture where the pixmap was packed is
 	 * updated using glTexSubImage2D. Note if packing many pixmaps, this may be slower than reuploading the whole texture. This
 	 * setting is ignored if {@link #getDuplicateBorder()} is true. */
@@ -470,9 +549,13 @@ public class PixmapPacker implements Disposable {
 		Texture texture;
 		final Array<String> addedRects = new Array();
 		boolean dirty;
+		/** The regions packed since the texture was last updated, as x, y, width and height. */
+		final IntArray dirtyRects = new IntArray();
+		final PixmapPacker packer;
 
 		/** Creates a new page filled with the color provided by the {@link PixmapPacker#getTransparentColor()} */
 		public Page (PixmapPacker packer) {
+			this.packer = packer;
 			image = new Pixmap(packer.pageWidth, packer.pageHeight, packer.pageFormat);
 			image.setBlending(Blending.None);
 			image.setColor(packer.getTransparentColor());
@@ -493,13 +576,16 @@ public class PixmapPacker implements Disposable {
 			return texture;
 		}
 
-		/** Creates the texture if it has not been created, else reuploads the entire page pixmap to the texture if the pixmap has
-		 * changed since this method was last called.
-		 * @return true if the texture was created or reuploaded. */
+		/** Creates the texture if it has not been created, else uploads the regions of the page pixmap packed since this method was
+		 * last called. The whole pixmap is uploaded if the texture has mipmaps, or if the regions cover most of the page.
+		 * @return true if the texture was created or uploaded to. */
 		public boolean updateTexture (TextureFilter minFilter, TextureFilter magFilter, boolean useMipMaps) {
 			if (texture != null) {
 				if (!dirty) return false;
-				texture.load(texture.getTextureData());
+				if (!uploadDirtyRects()) {
+					texture.load(texture.getTextureData());
+					packer.uploaded(image.getWidth() * image.getHeight());
+				}
 			} else {
 				texture = new Texture(new PixmapTextureData(image, image.getFormat(), useMipMaps, false, true)) {
 					@Override
@@ -509,8 +595,62 @@ public class PixmapPacker implements Disposable {
 					}
 				};
 				texture.setFilter(minFilter, magFilter);
+				packer.uploaded(image.getWidth() * image.getHeight());
 			}
 			dirty = false;
+			dirtyRects.clear();
+			return true;
+		}
+
+		/** Uploads the dirty rectangles with glTexSubImage2D. With GL30 the rectangles are read from the pixmap using the unpack
+		 * row length, else whole rows of the pixmap are uploaded, which doesn't need a copy of the pixels.
+		 * @return false if the whole pixmap should be uploaded instead. */
+		private boolean uploadDirtyRects () {
+			IntArray rects = dirtyRects;
+			if (rects.size == 0 || texture.getTextureData().useMipMaps() || Gdx.app.getType() == ApplicationType.WebGL)
+				return false;
+			int width = image.getWidth(), height = image.getHeight();
+			GL30 gl30 = Gdx.gl30;
+			int[] items = rects.items;
+			for (int i = 0; i < rects.size; i += 4) {
+				// Clip the duplicated border to the page.
+				int x = Math.max(0, items[i]), y = Math.max(0, items[i + 1]);
+				items[i + 2] = Math.min(width, items[i] + items[i + 2]) - x;
+				items[i + 3] = Math.min(height, items[i + 1] + items[i + 3]) - y;
+				items[i] = x;
+				items[i + 1] = y;
+				if (gl30 == null) {
+					items[i] = 0;
+					items[i + 2] = width;
+				}
+			}
+			coalesce(rects, 4096);
+			long area = 0;
+			for (int i = 0; i < rects.size; i += 4)
+				area += (long)items[i + 2] * items[i + 3];
+			if (area * 2 > (long)width * height) return false;
+
+			texture.bind();
+			Buffer pixels = image.getPixels();
+			int format = image.getGLFormat(), type = image.getGLType(), bytesPerPixel = bytesPerPixel(image.getFormat());
+			Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 1);
+			if (gl30 != null) gl30.glPixelStorei(GL30.GL_UNPACK_ROW_LENGTH, width);
+			for (int i = 0; i < rects.size; i += 4) {
+				int x = items[i], y = items[i + 1], rectWidth = items[i + 2], rectHeight = items[i + 3];
+				if (gl30 != null) {
+					gl30.glPixelStorei(GL30.GL_UNPACK_SKIP_PIXELS, x);
+					gl30.glPixelStorei(GL30.GL_UNPACK_SKIP_ROWS, y);
+				} else
+					pixels.position(y * width * bytesPerPixel);
+				Gdx.gl.glTexSubImage2D(texture.glTarget, 0, x, y, rectWidth, rectHeight, format, type, pixels);
+				packer.uploaded(rectWidth * rectHeight);
+			}
+			if (gl30 != null) {
+				gl30.glPixelStorei(GL30.GL_UNPACK_ROW_LENGTH, 0);
+				gl30.glPixelStorei(GL30.GL_UNPACK_SKIP_PIXELS, 0);
+				gl30.glPixelStorei(GL30.GL_UNPACK_SKIP_ROWS, 0);
+			} else
+				pixels.position(0);
 			return true;
 		}
 	}
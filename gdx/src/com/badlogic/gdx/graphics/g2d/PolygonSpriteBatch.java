@@ -30,6 +30,7 @@ import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.math.Affine2;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Null;
 
 /** A PolygonSpriteBatch is used to draw 2D polygons that reference a texture (region). The class will batch the drawing commands
  * and optimize them for processing by the GPU.
@@ -122,13 +123,26 @@ public class PolygonSpriteBatch implements PolygonBatch {
 	 * @param defaultShader The default shader to use. This is not owned by the PolygonSpriteBatch and must be disposed separately.
 	 *           May be null to use the default shader. */
 	public PolygonSpriteBatch (int maxVertices, int maxTriangles, ShaderProgram defaultShader) {
+		this(maxVertices, maxTriangles, defaultShader, null);
+	}
+
+	/** Constructs a new PolygonSpriteBatch with the specified {@link VertexDataType}, eg
+	 * {@link VertexDataType#VertexBufferObjectStreaming} to write the vertices of each flush to a new range of a ring buffer
+	 * instead of replacing the whole buffer.
+	 * @param vertexDataType May be null to use {@link VertexDataType#VertexBufferObjectWithVAO} when gles 3 is available,
+	 *           else {@link VertexDataType#VertexArray}.
+	 * @see #PolygonSpriteBatch(int, int, ShaderProgram) */
+	public PolygonSpriteBatch (int maxVertices, int maxTriangles, ShaderProgram defaultShader,
+		@Null VertexDataType vertexDataType) {
 		// 32767 is max vertex index.
 		if (maxVertices > 32767)
 			throw new IllegalArgumentException("Can't have more than 32767 vertices per batch: " + maxVertices);
 
-		Mesh.VertexDataType vertexDataType = Mesh.VertexDataType.VertexArray;
-		if (Gdx.gl30 != null) {
-			vertexDataType = VertexDataType.VertexBufferObjectWithVAO;
+		if (vertexDataType == null) {
+			vertexDataType = Mesh.VertexDataType.VertexArray;
+			if (Gdx.gl30 != null) {
+				vertexDataType = VertexDataType.VertexBufferObjectWithVAO;
+			}
 		}
 		mesh = new Mesh(vertexDataType, false, maxVertices, maxTriangles * 3,
 			new VertexAttribute(Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
@@ -28,6 +28,7 @@ import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.math.Affine2;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Null;
 
 import java.nio.Buffer;
 
@@ -96,10 +97,23 @@ public class SpriteBatch implements Batch {
 	 * @param size The max number of sprites in a single batch. Max of 8191.
 	 * @param defaultShader The default shader to use. This is not owned by the SpriteBatch and must be disposed separately. */
 	public SpriteBatch (int size, ShaderProgram defaultShader) {
+		this(size, defaultShader, null);
+	}
+
+	/** Constructs a new SpriteBatch with the specified {@link VertexDataType}, eg
+	 * {@link VertexDataType#VertexBufferObjectStreaming} to write the vertices of each flush to a new range of a ring buffer
+	 * instead of replacing the whole buffer.
+	 * @param size The max number of sprites in a single batch. Max of 8191.
+	 * @param defaultShader The default shader to use. This is not owned by the SpriteBatch and must be disposed separately.
+	 * @param vertexDataType May be null to use {@link VertexDataType#VertexBufferObjectWithVAO} when gles 3 is available,
+	 *           else {@link VertexDataType#VertexArray}.
+	 * @see #SpriteBatch(int, ShaderProgram) */
+	public SpriteBatch (int size, ShaderProgram defaultShader, @Null VertexDataType vertexDataType) {
 		// 32767 is max vertex index, so 32767 / 4 vertices per sprite = 8191 sprites max.
 		if (size > 8191) throw new IllegalArgumentException("Can't have more than 8191 sprites per batch: " + size);
 
-		VertexDataType vertexDataType = (Gdx.gl30 != null) ? VertexDataType.VertexBufferObjectWithVAO : defaultVertexDataType;
+		if (vertexDataType == null)
+			vertexDataType = (Gdx.gl30 != null) ? VertexDataType.VertexBufferObjectWithVAO : defaultVertexDataType;
 
 		mesh = new Mesh(vertexDataType, false, size * 4, size * 6,
 			new VertexAttribute(Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
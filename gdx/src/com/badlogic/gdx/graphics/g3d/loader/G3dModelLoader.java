@@ -16,6 +16,9 @@
 
 package com.badlogic.gdx.graphics.g3d.loader;
 
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetCache;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.assets.loaders.FileHandleResolver;
 import com.badlogic.gdx.assets.loaders.ModelLoader;
 import com.badlogic.gdx.files.FileHandle;
@@ -41,11 +44,13 @@ import com.badlogic.gdx.utils.ArrayMap;
 import com.badlogic.gdx.utils.BaseJsonReader;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.Null;
 
 public class G3dModelLoader extends ModelLoader<ModelLoader.ModelParameters> {
 	public static final short VERSION_HI = 0;
 	public static final short VERSION_LO = 1;
 	protected final BaseJsonReader reader;
+	@Null AssetCache cache;
 
 	public G3dModelLoader (final BaseJsonReader reader) {
 		this(reader, null);
@@ -61,8 +66,19 @@ public class G3dModelLoader extends ModelLoader<ModelLoader.ModelParameters> {
 		return parseModel(fileHandle);
 	}
 
+	/** Sets the cache used to store parsed g3dj files as UBJSON, which is faster to parse. Binary g3db files are not cached.
+	 * Unlike textures, models are parsed before the {@link AssetManager} is known, so the cache is set on the loader.
+	 * @param cache May be null to not use a cache. */
+	public void setCache (@Null AssetCache cache) {
+		this.cache = cache;
+	}
+
+	public @Null AssetCache getCache () {
+		return cache;
+	}
+
 	public ModelData parseModel (FileHandle handle) {
-		JsonValue json = reader.parse(handle);
+		JsonValue json = parse(handle);
 		ModelData model = new ModelData();
 		JsonValue version = json.require("version");
 		model.version[0] = version.getShort(0);
@@ -78,6 +94,21 @@ public class G3dModelLoader extends ModelLoader<ModelLoader.ModelParameters> {
 		return model;
 	}
 
+	private JsonValue parse (FileHandle handle) {
+		AssetCache cache = this.cache;
+		if (cache == null || handle.extension().equals("g3db")) return reader.parse(handle);
+		JsonValue json = cache.getJson(handle, "");
+		if (json == null) {
+			json = reader.parse(handle);
+			try {
+				cache.putJson(handle, "", json);
+			} catch (GdxRuntimeException ex) {
+				Gdx.app.error("G3dModelLoader", "Unable to cache: " + handle, ex);
+			}
+		}
+		return json;
+	}
+
 	protected void parseMeshes (ModelData model, JsonValue json) {
 		JsonValue meshes = json.get("meshes");
 		if (meshes != null) {
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.glutils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Blending;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Null;
+
+import java.nio.ByteBuffer;
+
+/** A {@link TextureData} that uploads the pixels of another, {@link TextureDataType#Pixmap} based, TextureData in chunks of rows,
+ * so a large texture can be uploaded over several frames. Creating the {@link Texture} only allocates its storage. Then
+ * {@link #upload(int, int)} is called with the texture bound until it returns true.
+ * <p>
+ * {@link #prepare()} converts the pixmap to the data's format, so it can be called on another thread. Mipmaps are not supported.
+ * If the OpenGL context is lost, the wrapped data is used to upload the whole texture at once. */
+public class IncrementalTextureData implements TextureData {
+	final TextureData data;
+	@Null Pixmap pixmap;
+	boolean disposePixmap, allocated;
+	int width, height, uploadedRows;
+
+	/** @param data Must be of type {@link TextureDataType#Pixmap} and must not use mipmaps. */
+	public IncrementalTextureData (TextureData data) {
+		if (data.getType() != TextureDataType.Pixmap) throw new IllegalArgumentException("data must be of type Pixmap.");
+		if (data.useMipMaps()) throw new IllegalArgumentException("data must not use mipmaps.");
+		this.data = data;
+	}
+
+	@Override
+	public TextureDataType getType () {
+		return TextureDataType.Custom;
+	}
+
+	@Override
+	public boolean isPrepared () {
+		return pixmap != null;
+	}
+
+	@Override
+	public void prepare () {
+		if (pixmap != null) throw new GdxRuntimeException("Already prepared");
+		if (!data.isPrepared()) data.prepare();
+		Pixmap pixmap = data.consumePixmap();
+		disposePixmap = data.disposePixmap();
+		if (data.getFormat() != pixmap.getFormat()) {
+			Pixmap converted = new Pixmap(pixmap.getWidth(), pixmap.getHeight(), data.getFormat());
+			converted.setBlending(Blending.None);
+			converted.drawPixmap(pixmap, 0, 0, 0, 0, pixmap.getWidth(), pixmap.getHeight());
+			if (disposePixmap) pixmap.dispose();
+			pixmap = converted;
+			disposePixmap = true;
+		}
+		this.pixmap = pixmap;
+		width = pixmap.getWidth();
+		height = pixmap.getHeight();
+		uploadedRows = 0;
+	}
+
+	/** The first time, allocates the texture storage. When the texture is reloaded, uploads all the pixels. */
+	@Override
+	public void consumeCustomData (int target) {
+		Pixmap pixmap = this.pixmap;
+		if (pixmap == null) throw new GdxRuntimeException("Call prepare() before calling consumeCustomData()");
+		Gdx.gl.glTexImage2D(target, 0, pixmap.getGLInternalFormat(), width, height, 0, pixmap.getGLFormat(), pixmap.getGLType(),
+			null);
+		if (!allocated) {
+			allocated = true;
+			return;
+		}
+		uploadedRows = 0;
+		upload(target, Integer.MAX_VALUE);
+	}
+
+	/** Uploads the next rows of pixels. The texture must be bound. When all rows are uploaded, the pixmap is released.
+	 * @param chunkSize The number of bytes to upload. At least one row is uploaded.
+	 * @return true if all rows have been uploaded. */
+	public boolean upload (int target, int chunkSize) {
+		Pixmap pixmap = this.pixmap;
+		if (pixmap == null) throw new GdxRuntimeException("Call prepare() before calling upload()");
+		ByteBuffer pixels = pixmap.getPixels();
+		int rowBytes = pixels.capacity() / height;
+		int rows = Math.min(height - uploadedRows, Math.max(1, chunkSize / rowBytes));
+		Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 1);
+		pixels.position(uploadedRows * rowBytes);
+		Gdx.gl.glTexSubImage2D(target, 0, 0, uploadedRows, width, rows, pixmap.getGLFormat(), pixmap.getGLType(), pixels);
+		pixels.position(0);
+		uploadedRows += rows;
+		if (uploadedRows < height) return false;
+		if (disposePixmap) pixmap.dispose();
+		this.pixmap = null;
+		return true;
+	}
+
+	/** Returns the number of rows uploaded so far. */
+	public int getUploadedRows () {
+		return uploadedRows;
+	}
+
+	/** Releases the pixmap if the upload was not completed. */
+	public void dispose () {
+		if (pixmap == null) return;
+		if (disposePixmap) pixmap.dispose();
+		pixmap = null;
+	}
+
+	@Override
+	public Pixmap consumePixmap () {
+		throw new GdxRuntimeException("This TextureData implementation does not return a Pixmap");
+	}
+
+	@Override
+	public boolean disposePixmap () {
+		throw new GdxRuntimeException("This TextureData implementation does not return a Pixmap");
+	}
+
+	@Override
+	public int getWidth () {
+		return width;
+	}
+
+	@Override
+	public int getHeight () {
+		return height;
+	}
+
+	@Override
+	public Format getFormat () {
+		return data.getFormat();
+	}
+
+	@Override
+	public boolean useMipMaps () {
+		return false;
+	}
+
+	@Override
+	public boolean isManaged () {
+		return data.isManaged();
+	}
+}
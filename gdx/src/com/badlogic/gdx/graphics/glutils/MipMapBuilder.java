@@ -0,0 +1,370 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Null;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+/** Computes the mipmap levels of an image on the CPU. Each level is half the size of the previous one, rounded down, until the
+ * last level is 1x1. All levels are written to one scratch buffer, which is reused by the next {@link #build(Pixmap) build}, so
+ * building mipmaps for many textures doesn't allocate a pixmap per level like {@link Pixmap#drawPixmap(Pixmap, int, int, int,
+ * int, int, int, int, int)} does.
+ * <p>
+ * By default colors are averaged in linear space, decoding and encoding sRGB, which keeps the brightness of high contrast
+ * textures as they get smaller. Alpha is always averaged linearly. Data textures, such as normal maps, should disable
+ * {@link #setGammaCorrect(boolean) gamma correction}. With an {@link #setExecutor(AsyncExecutor) executor}, bands
+ * of rows of large levels are computed in parallel.
+ * <p>
+ * Supports the {@link Format#RGBA8888}, {@link Format#RGB888}, {@link Format#LuminanceAlpha}, {@link Format#Alpha} and
+ * {@link Format#Intensity} formats. {@link MipMapGenerator} can use a builder for CPU mipmaps, see
+ * {@link MipMapGenerator#setBuilder(MipMapBuilder)}. */
+public class MipMapBuilder {
+	static private final int encodeSize = 16384;
+	static private final float[] srgbToLinear = new float[256], byteToLinear = new float[256];
+	static private final byte[] linearToSrgb = new byte[encodeSize + 1], linearToByte = new byte[encodeSize + 1];
+	static {
+		for (int i = 0; i < 256; i++) {
+			float value = i / 255f;
+			srgbToLinear[i] = value <= 0.04045f ? value / 12.92f : (float)Math.pow((value + 0.055f) / 1.055f, 2.4f);
+			byteToLinear[i] = value;
+		}
+		for (int i = 0; i <= encodeSize; i++) {
+			float value = i / (float)encodeSize;
+			float srgb = value <= 0.0031308f ? value * 12.92f : 1.055f * (float)Math.pow(value, 1 / 2.4f) - 0.055f;
+			linearToSrgb[i] = (byte)Math.round(srgb * 255);
+			linearToByte[i] = (byte)Math.round(value * 255);
+		}
+	}
+
+	private Filter filter = Filter.Box;
+	private boolean gammaCorrect = true;
+	private @Null AsyncExecutor executor;
+	private int bandSize = 64 * 1024;
+	private int retainedSize = 1024 * 1024;
+
+	private @Null ByteBuffer scratch;
+	private final Array<ByteBuffer> levels = new Array<ByteBuffer>();
+	private int width, height;
+
+	public void setFilter (Filter filter) {
+		if (filter == null) throw new IllegalArgumentException("filter cannot be null.");
+		this.filter = filter;
+	}
+
+	public Filter getFilter () {
+		return filter;
+	}
+
+	/** @param gammaCorrect If true, colors are averaged in linear space. Default is true. */
+	public void setGammaCorrect (boolean gammaCorrect) {
+		this.gammaCorrect = gammaCorrect;
+	}
+
+	public boolean getGammaCorrect () {
+		return gammaCorrect;
+	}
+
+	/** @param executor Computes bands of rows in parallel. May be null to compute all rows on the calling thread. It must not be
+	 *           an executor whose tasks build mipmaps, as building waits for the bands to finish. */
+	public void setExecutor (@Null AsyncExecutor executor) {
+		this.executor = executor;
+	}
+
+	public @Null AsyncExecutor getExecutor () {
+		return executor;
+	}
+
+	/** Sets the minimum number of pixels in a band of rows computed in parallel. Default is 65536. */
+	public void setBandSize (int pixels) {
+		if (pixels < 1) throw new IllegalArgumentException("pixels must be > 0: " + pixels);
+		bandSize = pixels;
+	}
+
+	/** @param bytes The largest scratch buffer kept after {@link #upload(int, Pixmap) upload}, so the memory for a large texture is
+	 *           not held until the next build. Default is 1 MB. */
+	public void setRetainedSize (int bytes) {
+		retainedSize = bytes;
+	}
+
+	static public boolean supports (Format format) {
+		return format != Format.RGB565 && format != Format.RGBA4444;
+	}
+
+	/** Computes the mipmap levels of the pixmap, replacing the levels of the previous build.
+	 * @return The number of levels, not counting the pixmap. */
+	public int build (Pixmap pixmap) {
+		return build(pixmap.getPixels(), pixmap.getWidth(), pixmap.getHeight(), pixmap.getFormat());
+	}
+
+	/** Computes the mipmap levels of the pixels, which have tightly packed rows starting at index 0. The buffer's position and
+	 * limit are not used or changed.
+	 * @return The number of levels, not counting the pixels. */
+	public int build (ByteBuffer pixels, int width, int height, Format format) {
+		if (!supports(format)) throw new GdxRuntimeException("Unsupported format: " + format);
+		int channels = channels(format);
+		if ((long)width * height * channels > pixels.capacity())
+			throw new IllegalArgumentException("Buffer is too small for " + width + "x" + height + " " + format);
+		this.width = width;
+		this.height = height;
+
+		int size = 0;
+		for (int w = width, h = height; w > 1 || h > 1;) {
+			w = Math.max(1, w / 2);
+			h = Math.max(1, h / 2);
+			size += w * h * channels;
+		}
+		if (scratch == null || scratch.capacity() < size) scratch = BufferUtils.newByteBuffer(Math.max(size, 16));
+
+		levels.clear();
+		ByteBuffer source = pixels;
+		int offset = 0;
+		for (int w = width, h = height; w > 1 || h > 1;) {
+			int targetWidth = Math.max(1, w / 2), targetHeight = Math.max(1, h / 2), length = targetWidth * targetHeight * channels;
+			ByteBuffer level = scratch.duplicate();
+			((Buffer)level).limit(offset + length);
+			((Buffer)level).position(offset);
+			level = level.slice();
+			downscale(source, w, h, level, targetWidth, targetHeight, format);
+			levels.add(level);
+			source = level;
+			offset += length;
+			w = targetWidth;
+			h = targetHeight;
+		}
+		return levels.size;
+	}
+
+	/** Returns the number of levels computed by the last build, not counting the base level. */
+	public int getLevels () {
+		return levels.size;
+	}
+
+	/** Returns the pixels of a level computed by the last build. They are overwritten by the next build.
+	 * @param level 1 for the first level smaller than the base level. */
+	public ByteBuffer getLevel (int level) {
+		return levels.get(level - 1);
+	}
+
+	public int getLevelWidth (int level) {
+		return Math.max(1, width >> level);
+	}
+
+	public int getLevelHeight (int level) {
+		return Math.max(1, height >> level);
+	}
+
+	/** Builds the mipmap levels of the pixmap and uploads the pixmap and all levels to the bound texture. Afterward the scratch
+	 * buffer is freed if it is larger than {@link #setRetainedSize(int) retained size}. */
+	public void upload (int target, Pixmap pixmap) {
+		build(pixmap);
+		int internalFormat = pixmap.getGLInternalFormat(), glFormat = pixmap.getGLFormat(), type = pixmap.getGLType();
+		Gdx.gl.glTexImage2D(target, 0, internalFormat, pixmap.getWidth(), pixmap.getHeight(), 0, glFormat, type,
+			pixmap.getPixels());
+		for (int level = 1; level <= levels.size; level++) {
+			Gdx.gl.glTexImage2D(target, level, internalFormat, getLevelWidth(level), getLevelHeight(level), 0, glFormat, type,
+				getLevel(level));
+		}
+		if (scratch != null && scratch.capacity() > retainedSize) clear();
+	}
+
+	/** Frees the scratch buffer. It is allocated again by the next build. */
+	public void clear () {
+		scratch = null;
+		levels.clear();
+	}
+
+	static private int channels (Format format) {
+		switch (format) {
+		case RGBA8888:
+			return 4;
+		case RGB888:
+			return 3;
+		case LuminanceAlpha:
+			return 2;
+		default:
+			return 1;
+		}
+	}
+
+	private void downscale (final ByteBuffer source, final int sourceWidth, int sourceHeight, final ByteBuffer target,
+		final int targetWidth, int targetHeight, Format format) {
+		final int channels = channels(format);
+		final Weights columns = weights(sourceWidth, targetWidth), rows = weights(sourceHeight, targetHeight);
+		// Color channels are decoded from sRGB, alpha is linear.
+		final boolean[] color = new boolean[channels];
+		if (gammaCorrect && format != Format.Alpha) {
+			color[0] = true;
+			if (channels >= 3) color[1] = color[2] = true;
+		}
+		int bands = executor == null ? 1 : (int)Math.min(targetHeight, (long)targetWidth * targetHeight / bandSize);
+		if (bands <= 1) {
+			rows(source, sourceWidth, target, targetWidth, channels, color, columns, rows, 0, targetHeight);
+			return;
+		}
+		Array<AsyncResult<Void>> results = new Array<AsyncResult<Void>>(bands - 1);
+		for (int i = 1; i < bands; i++) {
+			final int start = (int)((long)targetHeight * i / bands), end = (int)((long)targetHeight * (i + 1) / bands);
+			results.add(executor.submit(new AsyncTask<Void>() {
+				public Void call () {
+					rows(source, sourceWidth, target, targetWidth, channels, color, columns, rows, start, end);
+					return null;
+				}
+			}));
+		}
+		rows(source, sourceWidth, target, targetWidth, channels, color, columns, rows, 0, targetHeight / bands);
+		for (int i = 0; i < results.size; i++)
+			results.get(i).get();
+	}
+
+	/** Computes target rows from start to end: each source row they use is decoded and filtered horizontally once, then the rows
+	 * are filtered vertically. */
+	static private void rows (ByteBuffer source, int sourceWidth, ByteBuffer target, int targetWidth, int channels, boolean[] color,
+		Weights columns, Weights rows, int start, int end) {
+		source = source.duplicate();
+		target = target.duplicate();
+		int firstRow = Integer.MAX_VALUE, lastRow = 0;
+		for (int i = start * rows.taps, n = end * rows.taps; i < n; i++) {
+			if (rows.weights[i] == 0) continue;
+			firstRow = Math.min(firstRow, rows.indices[i]);
+			lastRow = Math.max(lastRow, rows.indices[i]);
+		}
+		int rowLength = targetWidth * channels;
+		float[][] filtered = new float[lastRow - firstRow + 1][rowLength];
+		byte[] sourceRow = new byte[sourceWidth * channels], targetRow = new byte[rowLength];
+		float[] linear = new float[sourceWidth * channels];
+		int taps = columns.taps;
+		for (int y = firstRow; y <= lastRow; y++) {
+			((Buffer)source).position(y * sourceRow.length);
+			source.get(sourceRow);
+			for (int i = 0, n = sourceRow.length; i < n; i += channels)
+				for (int c = 0; c < channels; c++)
+					linear[i + c] = (color[c] ? srgbToLinear : byteToLinear)[sourceRow[i + c] & 0xff];
+			float[] row = filtered[y - firstRow];
+			for (int x = 0, o = 0; x < targetWidth; x++) {
+				for (int c = 0; c < channels; c++, o++) {
+					float sum = 0;
+					for (int t = x * taps, n = t + taps; t < n; t++)
+						sum += columns.weights[t] * linear[columns.indices[t] * channels + c];
+					row[o] = sum;
+				}
+			}
+		}
+		for (int y = start; y < end; y++) {
+			for (int o = 0; o < rowLength; o++) {
+				float sum = 0;
+				for (int t = y * rows.taps, n = t + rows.taps; t < n; t++)
+					if (rows.weights[t] != 0) sum += rows.weights[t] * filtered[rows.indices[t] - firstRow][o];
+				int index = (int)(sum * encodeSize + 0.5f);
+				if (index < 0)
+					index = 0;
+				else if (index > encodeSize) //
+					index = encodeSize;
+				targetRow[o] = (color[o % channels] ? linearToSrgb : linearToByte)[index];
+			}
+			((Buffer)target).position(y * rowLength);
+			target.put(targetRow);
+		}
+	}
+
+	private Weights weights (int sourceSize, int targetSize) {
+		if (filter == Filter.Box || sourceSize == targetSize) {
+			// Each target pixel averages the source pixels it covers, 1 for a size of 1, 2 for even sizes, 2 or 3 for odd sizes.
+			int taps = (sourceSize + targetSize - 1) / targetSize;
+			Weights weights = new Weights(targetSize, taps);
+			for (int i = 0; i < targetSize; i++) {
+				int start = (int)((long)i * sourceSize / targetSize);
+				int end = Math.max(start + 1, (int)((long)(i + 1) * sourceSize / targetSize));
+				for (int t = 0; t < end - start; t++) {
+					weights.indices[i * taps + t] = start + t;
+					weights.weights[i * taps + t] = 1f / (end - start);
+				}
+			}
+			return weights;
+		}
+		// A Kaiser windowed sinc, 3 target pixels wide.
+		float scale = sourceSize / (float)targetSize, radius = 1.5f * scale;
+		int taps = (int)Math.ceil(radius * 2) + 1;
+		Weights weights = new Weights(targetSize, taps);
+		for (int i = 0; i < targetSize; i++) {
+			float center = (i + 0.5f) * scale;
+			int first = (int)Math.floor(center - radius);
+			float total = 0;
+			for (int t = 0; t < taps; t++) {
+				float distance = (first + t + 0.5f - center) / scale;
+				float weight = Math.abs(distance) >= 1.5f ? 0 : sinc(distance) * kaiser(distance / 1.5f, 4);
+				weights.indices[i * taps + t] = Math.max(0, Math.min(first + t, sourceSize - 1));
+				weights.weights[i * taps + t] = weight;
+				total += weight;
+			}
+			for (int t = 0; t < taps; t++)
+				weights.weights[i * taps + t] /= total;
+		}
+		return weights;
+	}
+
+	static private float sinc (float x) {
+		if (x == 0) return 1;
+		double px = Math.PI * x;
+		return (float)(Math.sin(px) / px);
+	}
+
+	static private float kaiser (float x, float alpha) {
+		return (float)(bessel0(alpha * Math.sqrt(1 - x * x)) / bessel0(alpha));
+	}
+
+	/** The zeroth order modified Bessel function of the first kind. */
+	static private double bessel0 (double x) {
+		double sum = 1, term = 1, half = x / 2;
+		for (int k = 1; k < 32; k++) {
+			term *= half / k;
+			sum += term * term;
+		}
+		return sum;
+	}
+
+	/** For each target pixel, the indices and weights of a fixed number of source pixels. */
+	static private class Weights {
+		final int taps;
+		final int[] indices;
+		final float[] weights;
+
+		Weights (int size, int taps) {
+			this.taps = taps;
+			indices = new int[size * taps];
+			weights = new float[size * taps];
+		}
+	}
+
+	/** How each level is computed from the previous one. */
+	static public enum Filter {
+		/** Averages the pixels covered by each pixel of the level. */
+		Box,
+		/** A Kaiser windowed sinc filter, which is sharper than a box filter but takes about 3 times longer. */
+		Kaiser
+	}
+}
@@ -23,6 +23,7 @@ import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Pixmap.Blending;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Null;
 
 public class MipMapGenerator {
 
@@ -31,11 +32,25 @@ public class MipMapGenerator {
 	}
 
 	private static boolean useHWMipMap = true;
+	private static @Null MipMapBuilder builder;
 
 	static public void setUseHardwareMipMap (boolean useHWMipMap) {
 		MipMapGenerator.useHWMipMap = useHWMipMap;
 	}
 
+	/** Sets the builder used to compute mipmaps on the CPU, for formats it {@link MipMapBuilder#supports(Pixmap.Format) supports},
+	 * when hardware mipmaps are disabled or not available. Its scratch buffer is reused for every texture. A gamma correct builder
+	 * is used for all textures, including data textures such as normal maps.
+	 * @param builder May be null to scale each level with
+	 *           {@link Pixmap#drawPixmap(Pixmap, int, int, int, int, int, int, int, int)}, which is the default. */
+	static public void setBuilder (@Null MipMapBuilder builder) {
+		MipMapGenerator.builder = builder;
+	}
+
+	static public @Null MipMapBuilder getBuilder () {
+		return builder;
+	}
+
 	/** Sets the image data of the {@link Texture} based on the {@link Pixmap}. The texture must be bound for this to work. If
 	 * <code>disposePixmap</code> is true, the pixmap will be disposed at the end of the method.
 	 * @param pixmap the Pixmap */
@@ -77,10 +92,14 @@ public class MipMapGenerator {
 	}
 
 	private static void generateMipMapCPU (int target, Pixmap pixmap, int textureWidth, int textureHeight) {
-		Gdx.gl.glTexImage2D(target, 0, pixmap.getGLInternalFormat(), pixmap.getWidth(), pixmap.getHeight(), 0, pixmap.getGLFormat(),
-			pixmap.getGLType(), pixmap.getPixels());
 		if ((Gdx.gl20 == null) && textureWidth != textureHeight)
 			throw new GdxRuntimeException("texture width and height must be square when using mipmapping.");
+		if (builder != null && MipMapBuilder.supports(pixmap.getFormat())) {
+			builder.upload(target, pixmap);
+			return;
+		}
+		Gdx.gl.glTexImage2D(target, 0, pixmap.getGLInternalFormat(), pixmap.getWidth(), pixmap.getHeight(), 0, pixmap.getGLFormat(),
+			pixmap.getGLType(), pixmap.getPixels());
 		int width = pixmap.getWidth() / 2;
 		int height = pixmap.getHeight() / 2;
 		int level = 1;
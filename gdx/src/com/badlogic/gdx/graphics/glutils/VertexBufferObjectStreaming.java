@@ -0,0 +1,352 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.Application.ApplicationType;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.Null;
+
+/** A {@link VertexData} implementation for vertices that change every time they are drawn, such as those of a batch. The OpenGL
+ * buffer is a ring which holds several sets of vertices. Each time the vertices change they are written to the next free range
+ * of the buffer and the attributes are bound at that offset, so the GPU can still read the ranges written before.
+ * {@link VertexBufferObject} instead replaces the whole buffer with glBufferData each time, which can make the driver wait for
+ * the previous draw or copy the buffer.
+ * <p>
+ * When the ring is full the buffer is orphaned with glBufferData and a null pointer, so the driver provides new storage and
+ * writing starts over at the beginning. With OpenGL ES 3.0 the ranges are written with glMapBufferRange and
+ * GL_MAP_UNSYNCHRONIZED_BIT, otherwise with glBufferSubData. With OpenGL ES 3.0 a vertex array object is used, as required by
+ * core profiles.
+ * <p>
+ * Use {@link com.badlogic.gdx.graphics.Mesh.VertexDataType#VertexBufferObjectStreaming} to create a mesh with streaming vertices.
+ * See {@link #getUploadedBytes()} and {@link #getStallsAvoided()} for the uploads done by all instances.
+ * <p>
+ * If the OpenGL ES context was lost you can call {@link #invalidate()} to recreate a new OpenGL vertex buffer object.
+ * VertexBufferObjectStreaming must be disposed via the {@link #dispose()} method when no longer needed. */
+public class VertexBufferObjectStreaming implements VertexData {
+	/** The default number of times the maximum number of vertices fits in the OpenGL buffer. */
+	static public final int DEFAULT_RANGES = 4;
+
+	final static IntBuffer tmpHandle = BufferUtils.newIntBuffer(1);
+
+	static private int uploads, orphans, stallsAvoided;
+	static private long uploadedBytes;
+
+	final VertexAttributes attributes;
+	final FloatBuffer buffer;
+	final ByteBuffer byteBuffer;
+	final int capacity;
+	final boolean mapped;
+	int bufferHandle;
+	int vaoHandle = -1;
+	int writeOffset, baseOffset;
+	boolean isDirty = false;
+	boolean isBound = false;
+	private @Null ShaderProgram boundShader;
+	private @Null int[] boundLocations;
+	/** The locations of the arrays enabled in the VAO. */
+	final IntArray cachedLocations = new IntArray();
+
+	/** Constructs a new interleaved VertexBufferObjectStreaming with {@link #DEFAULT_RANGES} ranges.
+	 *
+	 * @param numVertices the maximum number of vertices
+	 * @param attributes the {@link VertexAttribute}s. */
+	public VertexBufferObjectStreaming (int numVertices, VertexAttribute... attributes) {
+		this(numVertices, DEFAULT_RANGES, new VertexAttributes(attributes));
+	}
+
+	/** Constructs a new interleaved VertexBufferObjectStreaming with {@link #DEFAULT_RANGES} ranges.
+	 *
+	 * @param numVertices the maximum number of vertices
+	 * @param attributes the {@link VertexAttributes}. */
+	public VertexBufferObjectStreaming (int numVertices, VertexAttributes attributes) {
+		this(numVertices, DEFAULT_RANGES, attributes);
+	}
+
+	/** Constructs a new interleaved VertexBufferObjectStreaming.
+	 *
+	 * @param numVertices the maximum number of vertices
+	 * @param ranges the number of times the maximum number of vertices fits in the OpenGL buffer. Batches usually draw fewer
+	 *           vertices than the maximum, so more sets of vertices fit before the buffer is orphaned.
+	 * @param attributes the {@link VertexAttributes}. */
+	public VertexBufferObjectStreaming (int numVertices, int ranges, VertexAttributes attributes) {
+		if (ranges < 1) throw new IllegalArgumentException("ranges must be > 0: " + ranges);
+		this.attributes = attributes;
+		byteBuffer = BufferUtils.newByteBuffer(attributes.vertexSize * numVertices);
+		buffer = byteBuffer.asFloatBuffer();
+		((Buffer)buffer).flip();
+		((Buffer)byteBuffer).flip();
+		capacity = attributes.vertexSize * numVertices * ranges;
+		mapped = Gdx.gl30 != null && Gdx.app.getType() != ApplicationType.WebGL;
+		bufferHandle = createBufferObject();
+		if (Gdx.gl30 != null) createVAO();
+	}
+
+	private int createBufferObject () {
+		int result = Gdx.gl20.glGenBuffer();
+		Gdx.gl20.glBindBuffer(GL20.GL_ARRAY_BUFFER, result);
+		Gdx.gl20.glBufferData(GL20.GL_ARRAY_BUFFER, capacity, null, GL20.GL_STREAM_DRAW);
+		Gdx.gl20.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+		writeOffset = 0;
+		return result;
+	}
+
+	@Override
+	public VertexAttributes getAttributes () {
+		return attributes;
+	}
+
+	@Override
+	public int getNumVertices () {
+		return buffer.limit() * 4 / attributes.vertexSize;
+	}
+
+	@Override
+	public int getNumMaxVertices () {
+		return byteBuffer.capacity() / attributes.vertexSize;
+	}
+
+	@Override
+	public FloatBuffer getBuffer () {
+		isDirty = true;
+		return buffer;
+	}
+
+	private void bufferChanged () {
+		if (isBound) {
+			upload(Gdx.gl20);
+			setAttributes(boundShader, boundLocations);
+		}
+	}
+
+	@Override
+	public void setVertices (float[] vertices, int offset, int count) {
+		isDirty = true;
+		BufferUtils.copy(vertices, byteBuffer, count, offset);
+		((Buffer)buffer).position(0);
+		((Buffer)buffer).limit(count);
+		bufferChanged();
+	}
+
+	/** Updates a portion of the vertices. All vertices are then written to a new range of the OpenGL buffer. */
+	@Override
+	public void updateVertices (int targetOffset, float[] vertices, int sourceOffset, int count) {
+		isDirty = true;
+		final int pos = byteBuffer.position();
+		((Buffer)byteBuffer).position(targetOffset * 4);
+		BufferUtils.copy(vertices, sourceOffset, count, byteBuffer);
+		((Buffer)byteBuffer).position(pos);
+		((Buffer)buffer).position(0);
+		bufferChanged();
+	}
+
+	/** Writes the vertices to the next free range of the OpenGL buffer, which must be bound, orphaning the buffer if the rest of
+	 * the ring is too small. */
+	private void upload (GL20 gl) {
+		int bytes = buffer.limit() * 4;
+		((Buffer)byteBuffer).position(0);
+		((Buffer)byteBuffer).limit(bytes);
+		isDirty = false;
+		if (bytes == 0) return;
+
+		if (writeOffset + bytes > capacity) {
+			gl.glBufferData(GL20.GL_ARRAY_BUFFER, capacity, null, GL20.GL_STREAM_DRAW);
+			writeOffset = 0;
+			orphans++;
+		} else if (writeOffset > 0) //
+			stallsAvoided++;
+
+		if (mapped) {
+			GL30 gl30 = Gdx.gl30;
+			ByteBuffer range = (ByteBuffer)gl30.glMapBufferRange(GL20.GL_ARRAY_BUFFER, writeOffset, bytes,
+				GL30.GL_MAP_WRITE_BIT | GL30.GL_MAP_INVALIDATE_RANGE_BIT | GL30.GL_MAP_UNSYNCHRONIZED_BIT);
+			if (range == null) throw new GdxRuntimeException("Unable to map vertex buffer range.");
+			range.put(byteBuffer);
+			((Buffer)byteBuffer).position(0);
+			gl30.glUnmapBuffer(GL20.GL_ARRAY_BUFFER);
+		} else
+			gl.glBufferSubData(GL20.GL_ARRAY_BUFFER, writeOffset, bytes, byteBuffer);
+
+		baseOffset = writeOffset;
+		writeOffset += bytes;
+		uploads++;
+		uploadedBytes += bytes;
+	}
+
+	/** Binds this VertexBufferObjectStreaming for rendering via glDrawArrays or glDrawElements
+	 *
+	 * @param shader the shader */
+	@Override
+	public void bind (ShaderProgram shader) {
+		bind(shader, null);
+	}
+
+	@Override
+	public void bind (ShaderProgram shader, int[] locations) {
+		final GL20 gl = Gdx.gl20;
+		if (vaoHandle != -1) Gdx.gl30.glBindVertexArray(vaoHandle);
+		gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, bufferHandle);
+		if (isDirty) upload(gl);
+		setAttributes(shader, locations);
+		boundShader = shader;
+		boundLocations = locations;
+		isBound = true;
+	}
+
+	/** Points the attributes at the range of the last upload. The arrays enabled in the VAO stay enabled, those of other
+	 * locations are disabled when the locations change. */
+	private void setAttributes (ShaderProgram shader, @Null int[] locations) {
+		final int numAttributes = attributes.size();
+		boolean enable = true;
+		if (vaoHandle != -1) {
+			enable = !cachedLocationsValid(shader, locations);
+			if (enable) {
+				disableCachedLocations(shader);
+				for (int i = 0; i < numAttributes; i++)
+					cachedLocations.add(locations == null ? shader.getAttributeLocation(attributes.get(i).alias) : locations[i]);
+			}
+		}
+		for (int i = 0; i < numAttributes; i++) {
+			final VertexAttribute attribute = attributes.get(i);
+			final int location = locations == null ? shader.getAttributeLocation(attribute.alias) : locations[i];
+			if (location < 0) continue;
+			if (enable) shader.enableVertexAttribute(location);
+			shader.setVertexAttribute(location, attribute.numComponents, attribute.type, attribute.normalized,
+				attributes.vertexSize, baseOffset + attribute.offset);
+		}
+	}
+
+	private boolean cachedLocationsValid (ShaderProgram shader, @Null int[] locations) {
+		final int numAttributes = attributes.size();
+		if (cachedLocations.size != numAttributes) return false;
+		for (int i = 0; i < numAttributes; i++) {
+			int location = locations == null ? shader.getAttributeLocation(attributes.get(i).alias) : locations[i];
+			if (location != cachedLocations.get(i)) return false;
+		}
+		return true;
+	}
+
+	private void disableCachedLocations (ShaderProgram shader) {
+		for (int i = 0, n = cachedLocations.size; i < n; i++) {
+			int location = cachedLocations.get(i);
+			if (location >= 0) shader.disableVertexAttribute(location);
+		}
+		cachedLocations.clear();
+	}
+
+	/** Unbinds this VertexBufferObjectStreaming.
+	 *
+	 * @param shader the shader */
+	@Override
+	public void unbind (final ShaderProgram shader) {
+		unbind(shader, null);
+	}
+
+	@Override
+	public void unbind (final ShaderProgram shader, final int[] locations) {
+		final GL20 gl = Gdx.gl20;
+		if (vaoHandle != -1)
+			Gdx.gl30.glBindVertexArray(0);
+		else {
+			final int numAttributes = attributes.size();
+			for (int i = 0; i < numAttributes; i++) {
+				final int location = locations == null ? shader.getAttributeLocation(attributes.get(i).alias) : locations[i];
+				if (location >= 0) shader.disableVertexAttribute(location);
+			}
+		}
+		gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+		boundShader = null;
+		boundLocations = null;
+		isBound = false;
+	}
+
+	/** Invalidates the VertexBufferObjectStreaming so a new OpenGL buffer handle is created. Use this in case of a context loss. */
+	@Override
+	public void invalidate () {
+		bufferHandle = createBufferObject();
+		if (Gdx.gl30 != null) createVAO();
+		cachedLocations.clear();
+		isDirty = true;
+	}
+
+	/** Disposes of all resources this VertexBufferObjectStreaming uses. */
+	@Override
+	public void dispose () {
+		GL20 gl = Gdx.gl20;
+		gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+		gl.glDeleteBuffer(bufferHandle);
+		bufferHandle = 0;
+		deleteVAO();
+	}
+
+	private void createVAO () {
+		((Buffer)tmpHandle).clear();
+		Gdx.gl30.glGenVertexArrays(1, tmpHandle);
+		vaoHandle = tmpHandle.get();
+	}
+
+	private void deleteVAO () {
+		if (vaoHandle != -1) {
+			((Buffer)tmpHandle).clear();
+			tmpHandle.put(vaoHandle);
+			((Buffer)tmpHandle).flip();
+			Gdx.gl30.glDeleteVertexArrays(1, tmpHandle);
+			vaoHandle = -1;
+		}
+		cachedLocations.clear();
+	}
+
+	/** Returns the number of times vertices were written to an OpenGL buffer by all instances. */
+	static public int getUploads () {
+		return uploads;
+	}
+
+	/** Returns the number of bytes of vertices written to OpenGL buffers by all instances. */
+	static public long getUploadedBytes () {
+		return uploadedBytes;
+	}
+
+	/** Returns the number of uploads by all instances that were written after the vertices of a previous draw in the same buffer.
+	 * Replacing the whole buffer instead, as {@link VertexBufferObject} does, can make the driver wait for the previous draw to
+	 * finish or copy the buffer. */
+	static public int getStallsAvoided () {
+		return stallsAvoided;
+	}
+
+	/** Returns the number of times the buffer of an instance was full and was orphaned. */
+	static public int getOrphans () {
+		return orphans;
+	}
+
+	static public void resetCounters () {
+		uploads = 0;
+		orphans = 0;
+		stallsAvoided = 0;
+		uploadedBytes = 0;
+	}
+}
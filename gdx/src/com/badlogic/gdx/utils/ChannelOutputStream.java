@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/** An output stream that collects bytes in a ByteBuffer and writes them to a channel when the buffer is full. The buffer is kept
+ * when the stream is closed, so a single instance can be {@link #open(FileHandle) opened} again for each file and writing does
+ * not allocate.
+ * <p>
+ * {@link #getWriter()} returns a writer that encodes characters as UTF-8 directly into the same buffer. It can be passed to
+ * {@link Json#toJson(Object, Writer)} or {@link JsonWriter}, while the stream itself can be passed to {@link UBJsonWriter}:
+ *
+ * <pre>
+ * ChannelOutputStream output = new ChannelOutputStream(64 * 1024); // Keep and reuse.
+ * json.toJson(world, output.open(file).getWriter());
+ * </pre>
+ *
+ * This class is not thread safe. */
+public class ChannelOutputStream extends OutputStream {
+	private final ByteBuffer buffer;
+	private @Null WritableByteChannel channel;
+	private long total;
+	private @Null Utf8Writer writer;
+
+	/** Creates a stream with a direct buffer of the specified size. */
+	public ChannelOutputStream (int bufferSize) {
+		this(ByteBuffer.allocateDirect(bufferSize));
+	}
+
+	/** @param buffer Must have a capacity of at least 4. */
+	public ChannelOutputStream (ByteBuffer buffer) {
+		if (buffer.capacity() < 4) throw new IllegalArgumentException("buffer capacity must be >= 4: " + buffer.capacity());
+		this.buffer = buffer;
+		buffer.clear();
+	}
+
+	/** Closes the current channel, if any, and opens the file for writing, overwriting it if it exists. Parent directories will
+	 * be created if necessary.
+	 * @return This stream, for chaining.
+	 * @throws GdxRuntimeException if the file could not be opened. */
+	public ChannelOutputStream open (FileHandle file) {
+		return open(file, false);
+	}
+
+	/** Closes the current channel, if any, and opens the file for writing. Parent directories will be created if necessary.
+	 * @param append If false, this file will be overwritten if it exists, otherwise it will be appended.
+	 * @return This stream, for chaining.
+	 * @throws GdxRuntimeException if the file could not be opened. */
+	public ChannelOutputStream open (FileHandle file, boolean append) {
+		try {
+			close();
+		} catch (IOException ex) {
+			throw new GdxRuntimeException("Error closing channel.", ex);
+		}
+		OutputStream output = file.write(append);
+		setChannel(output instanceof FileOutputStream ? ((FileOutputStream)output).getChannel() : Channels.newChannel(output));
+		return this;
+	}
+
+	/** Sets the channel bytes are written to, discarding any buffered bytes. The previous channel is not flushed or closed.
+	 * @param channel May be null.
+	 * @return This stream, for chaining. */
+	public ChannelOutputStream setChannel (@Null WritableByteChannel channel) {
+		this.channel = channel;
+		buffer.clear();
+		total = 0;
+		if (writer != null) writer.highSurrogate = 0;
+		return this;
+	}
+
+	public @Null WritableByteChannel getChannel () {
+		return channel;
+	}
+
+	/** Returns the number of bytes written since the channel was set. */
+	public long getTotal () {
+		return total;
+	}
+
+	/** Returns a writer that encodes characters as UTF-8 into this stream. The same instance is returned each time. Closing the
+	 * writer closes this stream. */
+	public Writer getWriter () {
+		if (writer == null) writer = new Utf8Writer();
+		return writer;
+	}
+
+	public void write (int b) throws IOException {
+		if (!buffer.hasRemaining()) drain();
+		buffer.put((byte)b);
+		total++;
+	}
+
+	public void write (byte[] bytes, int offset, int length) throws IOException {
+		total += length;
+		while (length > 0) {
+			if (!buffer.hasRemaining()) drain();
+			int count = Math.min(length, buffer.remaining());
+			buffer.put(bytes, offset, count);
+			offset += count;
+			length -= count;
+		}
+	}
+
+	/** Writes the characters as UTF-8. Unpaired surrogates are written as '?', as {@link String#getBytes(String)} does. */
+	public void writeUtf8 (CharSequence chars) throws IOException {
+		Utf8Writer writer = (Utf8Writer)getWriter();
+		for (int i = 0, n = chars.length(); i < n; i++)
+			writer.encode(chars.charAt(i));
+		writer.finish();
+	}
+
+	/** Writes the buffered bytes to the channel. Does not force them to the storage device. */
+	public void flush () throws IOException {
+		drain();
+	}
+
+	/** Writes the buffered bytes and closes the channel. The buffer is kept so this stream can be opened again. */
+	public void close () throws IOException {
+		if (channel == null) return;
+		try {
+			if (writer != null) writer.finish();
+			drain();
+		} finally {
+			WritableByteChannel channel = this.channel;
+			this.channel = null;
+			channel.close();
+		}
+	}
+
+	private void drain () throws IOException {
+		if (channel == null) throw new IOException("Stream is not open.");
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	private class Utf8Writer extends Writer {
+		char highSurrogate;
+
+		public void write (int c) throws IOException {
+			encode((char)c);
+		}
+
+		public void write (char[] chars, int offset, int length) throws IOException {
+			for (int n = offset + length; offset < n; offset++)
+				encode(chars[offset]);
+		}
+
+		public void write (String string, int offset, int length) throws IOException {
+			for (int n = offset + length; offset < n; offset++)
+				encode(string.charAt(offset));
+		}
+
+		public Writer append (CharSequence chars) throws IOException {
+			if (chars == null) chars = "null";
+			for (int i = 0, n = chars.length(); i < n; i++)
+				encode(chars.charAt(i));
+			return this;
+		}
+
+		void encode (char c) throws IOException {
+			ByteBuffer buffer = ChannelOutputStream.this.buffer;
+			if (buffer.remaining() < 4) drain();
+			if (highSurrogate != 0) {
+				char high = highSurrogate;
+				highSurrogate = 0;
+				if (Character.isLowSurrogate(c)) {
+					int codePoint = Character.toCodePoint(high, c);
+					buffer.put((byte)(0xf0 | codePoint >> 18));
+					buffer.put((byte)(0x80 | (codePoint >> 12) & 0x3f));
+					buffer.put((byte)(0x80 | (codePoint >> 6) & 0x3f));
+					buffer.put((byte)(0x80 | codePoint & 0x3f));
+					total += 4;
+					return;
+				}
+				buffer.put((byte)'?');
+				total++;
+				if (buffer.remaining() < 4) drain();
+			}
+			if (c < 0x80) {
+				buffer.put((byte)c);
+				total++;
+			} else if (c < 0x800) {
+				buffer.put((byte)(0xc0 | c >> 6));
+				buffer.put((byte)(0x80 | c & 0x3f));
+				total += 2;
+			} else if (Character.isHighSurrogate(c))
+				highSurrogate = c;
+			else if (Character.isLowSurrogate(c)) {
+				buffer.put((byte)'?');
+				total++;
+			} else {
+				buffer.put((byte)(0xe0 | c >> 12));
+				buffer.put((byte)(0x80 | (c >> 6) & 0x3f));
+				buffer.put((byte)(0x80 | c & 0x3f));
+				total += 3;
+			}
+		}
+
+		/** Writes a pending high surrogate that was not followed by a low surrogate. */
+		void finish () throws IOException {
+			if (highSurrogate == 0) return;
+			highSurrogate = 0;
+			ChannelOutputStream.this.write('?');
+		}
+
+		public void flush () throws IOException {
+			ChannelOutputStream.this.flush();
+		}
+
+		public void close () throws IOException {
+			ChannelOutputStream.this.close();
+		}
+	}
+}
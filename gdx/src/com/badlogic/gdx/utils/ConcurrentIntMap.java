@@ -0,0 +1,393 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.IntMap.Entry;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/** A thread safe unordered map where the keys are unboxed ints and values are objects. The map is split into segments, each an
+ * {@link IntMap} guarded by its own lock, so threads accessing keys in different segments do not contend and a writer only
+ * blocks readers of the same segment. No allocation is done except when growing a segment's table size.
+ * <p>
+ * Iteration is weakly consistent: the iterators copy one segment at a time while holding its lock, so they never throw due to
+ * concurrent modification and reflect each segment as it was when the iterator reached it. The copy buffers are reused, so
+ * iterating does not allocate per entry. Unlike {@link IntMap}, each call to {@link #entries()}, {@link #keys()} or
+ * {@link #values()} returns a new iterator, so iteration from multiple threads is safe.
+ * <p>
+ * This class is not available on GWT. */
+public class ConcurrentIntMap<V> implements Iterable<Entry<V>> {
+	final IntMap<V>[] segments;
+	private final int segmentMask;
+
+	/** Creates a new map with an initial capacity of 51, a load factor of 0.8 and 16 segments. */
+	public ConcurrentIntMap () {
+		this(51, 0.8f, 16);
+	}
+
+	/** Creates a new map with a load factor of 0.8 and 16 segments.
+	 * @param initialCapacity The total initial capacity, divided among the segments. */
+	public ConcurrentIntMap (int initialCapacity) {
+		this(initialCapacity, 0.8f, 16);
+	}
+
+	/** @param initialCapacity The total initial capacity, divided among the segments.
+	 * @param concurrencyLevel The number of segments, increased to the next power of two. This is the number of threads that can
+	 *           write to the map without contending, assuming their keys are evenly distributed. */
+	public ConcurrentIntMap (int initialCapacity, float loadFactor, int concurrencyLevel) {
+		if (initialCapacity < 0) throw new IllegalArgumentException("initialCapacity must be >= 0: " + initialCapacity);
+		if (concurrencyLevel <= 0) throw new IllegalArgumentException("concurrencyLevel must be > 0: " + concurrencyLevel);
+		int segmentCount = MathUtils.nextPowerOfTwo(concurrencyLevel);
+		segmentMask = segmentCount - 1;
+		segments = new IntMap[segmentCount];
+		int segmentCapacity = Math.max(1, (initialCapacity + segmentCount - 1) / segmentCount);
+		for (int i = 0; i < segmentCount; i++)
+			segments[i] = new IntMap(segmentCapacity, loadFactor);
+	}
+
+	/** Returns the segment for the key. A different multiplier than {@link IntMap#place(int)} is used, so the keys in a segment
+	 * are still spread over its whole table. */
+	IntMap<V> segment (int key) {
+		return segments[(int)(key * 0xC6BC279692B5C323L >>> 40) & segmentMask];
+	}
+
+	/** Returns the old value associated with the specified key, or null. */
+	public @Null V put (int key, @Null V value) {
+		IntMap<V> segment = segment(key);
+		synchronized (segment) {
+			return segment.put(key, value);
+		}
+	}
+
+	/** Puts the value only if the key is not in the map or is mapped to null, as {@link ConcurrentObjectMap#putIfAbsent(Object,
+	 * Object)} does. The check and the put are atomic.
+	 * @return The value already associated with the key, or null if the value was put. */
+	public @Null V putIfAbsent (int key, @Null V value) {
+		IntMap<V> segment = segment(key);
+		synchronized (segment) {
+			V oldValue = segment.get(key);
+			if (oldValue != null) return oldValue;
+			segment.put(key, value);
+			return null;
+		}
+	}
+
+	public void putAll (IntMap<? extends V> map) {
+		for (IntMap.Entry<? extends V> entry : map.entries())
+			put(entry.key, entry.value);
+	}
+
+	/** Returns the value for the specified key, or null if the key is not in the map. */
+	public @Null V get (int key) {
+		IntMap<V> segment = segment(key);
+		synchronized (segment) {
+			return segment.get(key);
+		}
+	}
+
+	/** Returns the value for the specified key, or the default value if the key is not in the map. */
+	public V get (int key, @Null V defaultValue) {
+		IntMap<V> segment = segment(key);
+		synchronized (segment) {
+			return segment.get(key, defaultValue);
+		}
+	}
+
+	/** Returns the value for the removed key, or null if the key is not in the map. */
+	public @Null V remove (int key) {
+		IntMap<V> segment = segment(key);
+		synchronized (segment) {
+			return segment.remove(key);
+		}
+	}
+
+	public boolean containsKey (int key) {
+		IntMap<V> segment = segment(key);
+		synchronized (segment) {
+			return segment.containsKey(key);
+		}
+	}
+
+	/** Returns true if the specified value is in the map. Note this traverses the entire map and compares every value, which may
+	 * be an expensive operation.
+	 * @param identity If true, uses == to compare the specified value with values in the map. If false, uses
+	 *           {@link #equals(Object)}. */
+	public boolean containsValue (@Null Object value, boolean identity) {
+		for (IntMap<V> segment : segments) {
+			synchronized (segment) {
+				if (segment.containsValue(value, identity)) return true;
+			}
+		}
+		return false;
+	}
+
+	/** Returns the number of entries. Segments are counted one after another, so the result may be stale if the map is modified
+	 * concurrently. */
+	public int size () {
+		int size = 0;
+		for (IntMap<V> segment : segments) {
+			synchronized (segment) {
+				size += segment.size;
+			}
+		}
+		return size;
+	}
+
+	/** Returns true if the map has one or more items. */
+	public boolean notEmpty () {
+		for (IntMap<V> segment : segments) {
+			synchronized (segment) {
+				if (segment.size > 0) return true;
+			}
+		}
+		return false;
+	}
+
+	/** Returns true if the map is empty. */
+	public boolean isEmpty () {
+		return !notEmpty();
+	}
+
+	/** Clears each segment and reduces the size of its backing arrays to be the specified capacity / loadFactor, divided among
+	 * the segments, if they are larger. */
+	public void clear (int maximumCapacity) {
+		int segmentCapacity = (maximumCapacity + segments.length - 1) / segments.length;
+		for (IntMap<V> segment : segments) {
+			synchronized (segment) {
+				segment.clear(segmentCapacity);
+			}
+		}
+	}
+
+	public void clear () {
+		for (IntMap<V> segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	/** Increases the size of each segment's backing arrays to accommodate its share of the specified number of additional
+	 * items. */
+	public void ensureCapacity (int additionalCapacity) {
+		int segmentCapacity = (additionalCapacity + segments.length - 1) / segments.length;
+		for (IntMap<V> segment : segments) {
+			synchronized (segment) {
+				segment.ensureCapacity(segmentCapacity);
+			}
+		}
+	}
+
+	public String toString () {
+		java.lang.StringBuilder buffer = new java.lang.StringBuilder(32);
+		buffer.append('[');
+		boolean first = true;
+		for (Entry<V> entry : entries()) {
+			if (!first) buffer.append(", ");
+			first = false;
+			buffer.append(entry.key);
+			buffer.append('=');
+			buffer.append(entry.value == this ? "(this)" : entry.value);
+		}
+		buffer.append(']');
+		return buffer.toString();
+	}
+
+	public Entries<V> iterator () {
+		return entries();
+	}
+
+	/** Returns a new iterator for the entries in the map. Remove is supported. */
+	public Entries<V> entries () {
+		return new Entries(this);
+	}
+
+	/** Returns a new iterator for the values in the map. Remove is supported. */
+	public Values<V> values () {
+		return new Values(this);
+	}
+
+	/** Returns a new iterator for the keys in the map. Remove is supported. */
+	public Keys keys () {
+		return new Keys(this);
+	}
+
+	static private class MapIterator<V> {
+		public boolean hasNext;
+
+		final ConcurrentIntMap<V> map;
+		int[] keys;
+		V[] values;
+		int segmentIndex, index, count;
+		int currentKey;
+		boolean hasCurrent;
+
+		public MapIterator (ConcurrentIntMap<V> map) {
+			this.map = map;
+			keys = new int[16];
+			values = (V[])new Object[16];
+			reset();
+		}
+
+		public void reset () {
+			segmentIndex = 0;
+			index = 0;
+			count = 0;
+			hasCurrent = false;
+			findNext();
+		}
+
+		/** Copies segments until one with entries is found, or all segments have been copied. */
+		void findNext () {
+			if (index < count) {
+				hasNext = true;
+				return;
+			}
+			V[] values = this.values;
+			for (int i = 0; i < count; i++)
+				values[i] = null;
+			index = 0;
+			count = 0;
+			IntMap<V>[] segments = map.segments;
+			while (segmentIndex < segments.length) {
+				IntMap<V> segment = segments[segmentIndex++];
+				synchronized (segment) {
+					if (segment.size == 0) continue;
+					if (keys.length < segment.size) {
+						keys = new int[segment.size];
+						this.values = values = (V[])new Object[segment.size];
+					}
+					int[] keys = this.keys;
+					int count = 0;
+					if (segment.hasZeroValue) {
+						keys[0] = 0;
+						values[0] = segment.zeroValue;
+						count = 1;
+					}
+					int[] keyTable = segment.keyTable;
+					V[] valueTable = segment.valueTable;
+					for (int i = 0, n = keyTable.length; i < n; i++) {
+						int key = keyTable[i];
+						if (key != 0) {
+							keys[count] = key;
+							values[count++] = valueTable[i];
+						}
+					}
+					this.count = count;
+				}
+				hasNext = true;
+				return;
+			}
+			hasNext = false;
+		}
+
+		/** Removes the key most recently returned by next from the map. */
+		public void remove () {
+			if (!hasCurrent) throw new IllegalStateException("next must be called before remove.");
+			map.remove(currentKey);
+			hasCurrent = false;
+		}
+	}
+
+	static public class Entries<V> extends MapIterator<V> implements Iterable<Entry<V>>, Iterator<Entry<V>> {
+		private final Entry<V> entry = new Entry();
+
+		public Entries (ConcurrentIntMap<V> map) {
+			super(map);
+		}
+
+		/** Note the same entry instance is returned each time this method is called. */
+		public Entry<V> next () {
+			if (!hasNext) throw new NoSuchElementException();
+			entry.key = currentKey = keys[index];
+			entry.value = values[index++];
+			hasCurrent = true;
+			findNext();
+			return entry;
+		}
+
+		public boolean hasNext () {
+			return hasNext;
+		}
+
+		public Iterator<Entry<V>> iterator () {
+			return this;
+		}
+	}
+
+	static public class Values<V> extends MapIterator<V> implements Iterable<V>, Iterator<V> {
+		public Values (ConcurrentIntMap<V> map) {
+			super(map);
+		}
+
+		public boolean hasNext () {
+			return hasNext;
+		}
+
+		public @Null V next () {
+			if (!hasNext) throw new NoSuchElementException();
+			currentKey = keys[index];
+			V value = values[index++];
+			hasCurrent = true;
+			findNext();
+			return value;
+		}
+
+		public Iterator<V> iterator () {
+			return this;
+		}
+
+		/** Returns a new array containing the remaining values. */
+		public Array<V> toArray () {
+			Array array = new Array(true, count - index);
+			while (hasNext)
+				array.add(next());
+			return array;
+		}
+	}
+
+	static public class Keys extends MapIterator {
+		public Keys (ConcurrentIntMap map) {
+			super(map);
+		}
+
+		public int next () {
+			if (!hasNext) throw new NoSuchElementException();
+			int key = currentKey = keys[index++];
+			hasCurrent = true;
+			findNext();
+			return key;
+		}
+
+		/** Returns a new array containing the remaining keys. */
+		public IntArray toArray () {
+			IntArray array = new IntArray(true, count - index);
+			while (hasNext)
+				array.add(next());
+			return array;
+		}
+
+		/** Adds the remaining keys to the specified array. */
+		public IntArray toArray (IntArray array) {
+			while (hasNext)
+				array.add(next());
+			return array;
+		}
+	}
+}
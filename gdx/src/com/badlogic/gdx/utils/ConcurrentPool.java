@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/** A thread safe {@link Pool}. Each thread keeps a small cache of free objects that it obtains from and frees to without
+ * synchronization. When a thread's cache is full, half of it is moved as a batch to a lock-free stack shared by all threads, and
+ * when a thread's cache is empty it takes a batch from the shared stack before creating a new object. Threads that only obtain
+ * (eg the render thread) and threads that only free (eg a worker) therefore exchange objects in batches rather than one at a
+ * time.
+ * <p>
+ * {@link #max}, {@link #peak}, {@link #getFree()}, {@link #reset(Object)} and {@link #discard(Object)} behave as for
+ * {@link Pool}, counting the free objects in all caches and the shared stack. Objects cached by a thread that terminates are lost
+ * to the pool, so worker threads should call {@link #flush()} before they end. {@link #clear()} only reaches the shared stack and
+ * the calling thread's cache.
+ * <p>
+ * On GWT this class is emulated by a plain {@link Pool}.
+ * @see Pools#getConcurrent(Class) */
+abstract public class ConcurrentPool<T> extends Pool<T> {
+	private final int cacheSize;
+	private final AtomicInteger free = new AtomicInteger();
+	private final AtomicReference<Batch> shared = new AtomicReference();
+	private final ThreadLocal<Cache> caches = new ThreadLocal<Cache>() {
+		protected Cache initialValue () {
+			return new Cache(cacheSize);
+		}
+	};
+
+	/** Creates a pool with a per thread cache size of 16 and no maximum. */
+	public ConcurrentPool () {
+		this(16, Integer.MAX_VALUE);
+	}
+
+	/** Creates a pool with the specified per thread cache size and no maximum. */
+	public ConcurrentPool (int cacheSize) {
+		this(cacheSize, Integer.MAX_VALUE);
+	}
+
+	/** @param cacheSize The number of free objects each thread keeps for itself. When exceeded, half of them are moved to the
+	 *           shared stack. Must be at least 2.
+	 * @param max The maximum number of free objects to store in this pool, across all threads. */
+	public ConcurrentPool (int cacheSize, int max) {
+		super(0, max);
+		if (cacheSize < 2) throw new IllegalArgumentException("cacheSize must be >= 2: " + cacheSize);
+		this.cacheSize = cacheSize;
+	}
+
+	/** Returns an object from this pool. The object may be new (from {@link #newObject()}) or reused (previously
+	 * {@link #free(Object) freed}). */
+	public T obtain () {
+		Cache cache = caches.get();
+		if (cache.size == 0 && !takeBatch(cache)) {
+			T object = newObject();
+			if (instrumentation != null) instrumentation.obtained(object, true);
+			return object;
+		}
+		free.decrementAndGet();
+		Object[] items = cache.items;
+		T object = (T)items[--cache.size];
+		items[cache.size] = null;
+		if (instrumentation != null) instrumentation.obtained(object, false);
+		return object;
+	}
+
+	/** Puts the specified object in the pool, making it eligible to be returned by {@link #obtain()} on any thread. If the pool
+	 * already contains {@link #max} free objects, the specified object is {@link #discard(Object) discarded} and not added to the
+	 * pool.
+	 * <p>
+	 * The pool does not check if an object is already freed, so the same object must not be freed multiple times. */
+	public void free (T object) {
+		if (object == null) throw new IllegalArgumentException("object cannot be null.");
+		if (!reserve()) {
+			discard(object);
+			if (instrumentation != null) instrumentation.freed(object, true);
+			return;
+		}
+		reset(object);
+		if (instrumentation != null) instrumentation.freed(object, false);
+		add(caches.get(), object);
+	}
+
+	/** Adds the specified number of new free objects to the calling thread's cache, moving batches to the shared stack as needed.
+	 * @param size the number of objects to be added */
+	public void fill (int size) {
+		Cache cache = caches.get();
+		for (int i = 0; i < size; i++) {
+			if (!reserve()) break;
+			add(cache, newObject());
+		}
+	}
+
+	/** Puts the specified objects in the pool. Null objects within the array are silently ignored.
+	 * <p>
+	 * The pool does not check if an object is already freed, so the same object must not be freed multiple times.
+	 * @see #free(Object) */
+	public void freeAll (Array<T> objects) {
+		if (objects == null) throw new IllegalArgumentException("objects cannot be null.");
+		Cache cache = caches.get();
+		for (int i = 0, n = objects.size; i < n; i++) {
+			T object = objects.get(i);
+			if (object == null) continue;
+			if (reserve()) {
+				reset(object);
+				if (instrumentation != null) instrumentation.freed(object, false);
+				add(cache, object);
+			} else {
+				discard(object);
+				if (instrumentation != null) instrumentation.freed(object, true);
+			}
+		}
+	}
+
+	/** Removes and discards all free objects in the shared stack and the calling thread's cache. Objects cached by other threads
+	 * are kept. */
+	public void clear () {
+		Cache cache = caches.get();
+		Object[] items = cache.items;
+		for (int i = 0, n = cache.size; i < n; i++) {
+			discard((T)items[i]);
+			items[i] = null;
+		}
+		free.addAndGet(-cache.size);
+		cache.size = 0;
+		for (Batch batch = shared.getAndSet(null); batch != null; batch = batch.next) {
+			for (int i = 0, n = batch.items.length; i < n; i++)
+				discard((T)batch.items[i]);
+			free.addAndGet(-batch.items.length);
+		}
+	}
+
+	/** Moves the calling thread's cached free objects to the shared stack, so other threads can obtain them. Should be called by
+	 * threads that free objects to this pool before they terminate. */
+	public void flush () {
+		Cache cache = caches.get();
+		if (cache.size > 0) pushBatch(cache, cache.size);
+	}
+
+	/** The number of objects available to be obtained, across all threads. */
+	public int getFree () {
+		return free.get();
+	}
+
+	/** Counts an object as free, returns false if that would exceed {@link #max}. */
+	private boolean reserve () {
+		int count = free.incrementAndGet();
+		if (count > max) {
+			free.decrementAndGet();
+			return false;
+		}
+		if (count > peak) peak = count; // Racy, peak is a statistic.
+		return true;
+	}
+
+	private void add (Cache cache, Object object) {
+		if (cache.size == cacheSize) pushBatch(cache, cacheSize >> 1);
+		cache.items[cache.size++] = object;
+	}
+
+	/** Moves the specified number of objects from the top of the cache to the shared stack. */
+	private void pushBatch (Cache cache, int count) {
+		Object[] items = cache.items;
+		int start = cache.size - count;
+		Batch batch = new Batch(count);
+		System.arraycopy(items, start, batch.items, 0, count);
+		for (int i = start, n = cache.size; i < n; i++)
+			items[i] = null;
+		cache.size = start;
+		Batch top;
+		do {
+			top = shared.get();
+			batch.next = top;
+		} while (!shared.compareAndSet(top, batch));
+	}
+
+	/** Moves a batch from the shared stack to the empty cache. Returns false if the shared stack is empty. Batches are never
+	 * reused, so the compare and set cannot suffer from ABA. */
+	private boolean takeBatch (Cache cache) {
+		Batch top;
+		do {
+			top = shared.get();
+			if (top == null) return false;
+		} while (!shared.compareAndSet(top, top.next));
+		Object[] items = top.items;
+		System.arraycopy(items, 0, cache.items, 0, items.length);
+		cache.size = items.length;
+		return true;
+	}
+
+	static private class Cache {
+		final Object[] items;
+		int size;
+
+		Cache (int size) {
+			items = new Object[size];
+		}
+	}
+
+	static private class Batch {
+		final Object[] items;
+		Batch next;
+
+		Batch (int size) {
+			items = new Object[size];
+		}
+	}
+}
@@ -183,6 +183,26 @@ public class IntFloatMap implements Iterable<IntFloatMap.Entry> {
 		return defaultValue;
 	}
 
+	/** Puts the value only if the key is not already in the map. This probes the table once, unlike a
+	 * {@link #get(int, float)} followed by a {@link #put(int, float)}.
+	 * @return The value already associated with the key, or the specified default value if the key was added. */
+	public float putIfAbsent (int key, float value, float defaultValue) {
+		if (key == 0) {
+			if (hasZeroValue) return zeroValue;
+			zeroValue = value;
+			hasZeroValue = true;
+			size++;
+			return defaultValue;
+		}
+		int i = locateKey(key);
+		if (i >= 0) return valueTable[i]; // Existing key was found.
+		i = -(i + 1); // Empty space was found.
+		keyTable[i] = key;
+		valueTable[i] = value;
+		if (++size >= threshold) resize(keyTable.length << 1);
+		return defaultValue;
+	}
+
 	public void putAll (IntFloatMap map) {
 		ensureCapacity(map.size);
 		if (map.hasZeroValue) put(0, map.zeroValue);
@@ -180,6 +180,26 @@ public class IntIntMap implements Iterable<IntIntMap.Entry> {
 		return defaultValue;
 	}
 
+	/** Puts the value only if the key is not already in the map. This probes the table once, unlike a
+	 * {@link #get(int, int)} followed by a {@link #put(int, int)}.
+	 * @return The value already associated with the key, or the specified default value if the key was added. */
+	public int putIfAbsent (int key, int value, int defaultValue) {
+		if (key == 0) {
+			if (hasZeroValue) return zeroValue;
+			zeroValue = value;
+			hasZeroValue = true;
+			size++;
+			return defaultValue;
+		}
+		int i = locateKey(key);
+		if (i >= 0) return valueTable[i]; // Existing key was found.
+		i = -(i + 1); // Empty space was found.
+		keyTable[i] = key;
+		valueTable[i] = value;
+		if (++size >= threshold) resize(keyTable.length << 1);
+		return defaultValue;
+	}
+
 	public void putAll (IntIntMap map) {
 		ensureCapacity(map.size);
 		if (map.hasZeroValue) put(0, map.zeroValue);
@@ -18,7 +18,9 @@ package com.badlogic.gdx.utils;
 
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.IntSet.IntSetIterator;
+import com.badlogic.gdx.utils.JsonPullReader.Token;
 import com.badlogic.gdx.utils.JsonValue.PrettyPrintSettings;
+import com.badlogic.gdx.utils.JsonValue.ValueType;
 import com.badlogic.gdx.utils.JsonWriter.OutputType;
 import com.badlogic.gdx.utils.ObjectMap.Entry;
 import com.badlogic.gdx.utils.reflect.ArrayReflection;
@@ -27,6 +29,7 @@ import com.badlogic.gdx.utils.reflect.Constructor;
 import com.badlogic.gdx.utils.reflect.Field;
 import com.badlogic.gdx.utils.reflect.ReflectionException;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
@@ -63,6 +66,8 @@ public class Json {
 	private final ObjectMap<Class, Serializer> classToSerializer = new ObjectMap();
 	private final ObjectMap<Class, Object[]> classToDefaultValues = new ObjectMap();
 	private final Object[] equals1 = {null}, equals2 = {null};
+	/** Not {@link StringBuilder}, which creates a string to append float and double values. */
+	private final java.lang.StringBuilder primitiveBuffer = new java.lang.StringBuilder(32);
 
 	public Json () {
 		outputType = OutputType.minimal;
@@ -253,7 +258,7 @@ public class Json {
 	public void toJson (@Null Object object, @Null Class knownType, @Null Class elementType, FileHandle file) {
 		Writer writer = null;
 		try {
-			writer = file.writer(false, "UTF-8");
+			writer = new BufferedWriter(file.writer(false, "UTF-8"), 8192);
 			toJson(object, knownType, elementType, writer);
 		} catch (Exception ex) {
 			throw new SerializationException("Error writing file: " + file, ex);
@@ -302,6 +307,7 @@ public class Json {
 		Object[] defaultValues = getDefaultValues(type);
 
 		OrderedMap<String, FieldMetadata> fields = getFields(type);
+		boolean writePrimitives = writer.getClass() == JsonWriter.class;
 		int defaultIndex = 0;
 		Array<String> fieldNames = fields.orderedKeys();
 		for (int i = 0, n = fieldNames.size; i < n; i++) {
@@ -309,9 +315,11 @@ public class Json {
 			if (ignoreDeprecated && metadata.deprecated) continue;
 			Field field = metadata.field;
 			try {
+				Object defaultValue = defaultValues != null ? defaultValues[defaultIndex++] : null;
+				if (metadata.primitive && writePrimitives && writePrimitive(object, metadata, defaultValue)) continue;
+
 				Object value = field.get(object);
 				if (defaultValues != null) {
-					Object defaultValue = defaultValues[defaultIndex++];
 					if (value == null && defaultValue == null) continue;
 					if (value != null && defaultValue != null) {
 						if (value.equals(defaultValue)) continue;
@@ -339,6 +347,62 @@ public class Json {
 		}
 	}
 
+	/** Writes a primitive field without boxing, skipping it if it has the default value.
+	 * @param defaultValue May be null if prototypes are not used.
+	 * @return false if the field must be written using {@link #writeValue(Object, Class, Class)}. */
+	private boolean writePrimitive (Object object, FieldMetadata metadata, @Null Object defaultValue)
+		throws ReflectionException, IOException {
+		Class type = metadata.type;
+		Field field = metadata.field;
+		java.lang.StringBuilder buffer = primitiveBuffer;
+		buffer.setLength(0);
+		if (type == int.class) {
+			int value = field.getInt(object);
+			if (defaultValue != null && value == (Integer)defaultValue) return true;
+			buffer.append(value);
+		} else if (type == float.class) {
+			float value = field.getFloat(object);
+			if (defaultValue != null && Float.floatToIntBits(value) == Float.floatToIntBits((Float)defaultValue)) return true;
+			long longValue = (long)value;
+			if ((double)value == longValue)
+				buffer.append(longValue);
+			else
+				buffer.append(value);
+		} else if (type == boolean.class) {
+			boolean value = field.getBoolean(object);
+			if (defaultValue != null && value == (Boolean)defaultValue) return true;
+			buffer.append(value);
+		} else if (type == long.class) {
+			if (quoteLongValues) return false;
+			long value = field.getLong(object);
+			if (defaultValue != null && value == (Long)defaultValue) return true;
+			buffer.append(value);
+		} else if (type == double.class) {
+			if (quoteLongValues) return false;
+			double value = field.getDouble(object);
+			if (defaultValue != null && Double.doubleToLongBits(value) == Double.doubleToLongBits((Double)defaultValue))
+				return true;
+			long longValue = (long)value;
+			if (value == longValue)
+				buffer.append(longValue);
+			else
+				buffer.append(value);
+		} else if (type == short.class) {
+			short value = field.getShort(object);
+			if (defaultValue != null && value == (Short)defaultValue) return true;
+			buffer.append(value);
+		} else if (type == byte.class) {
+			byte value = field.getByte(object);
+			if (defaultValue != null && value == (Byte)defaultValue) return true;
+			buffer.append(value);
+		} else
+			return false;
+		if (debug) System.out.println("Writing field: " + field.getName() + " (" + object.getClass().getName() + ")");
+		writer.name(field.getName());
+		writer.json(buffer);
+		return true;
+	}
+
 	private @Null Object[] getDefaultValues (Class type) {
 		if (!usePrototypes) return null;
 		if (classToDefaultValues.containsKey(type)) return classToDefaultValues.get(type);
@@ -840,6 +904,29 @@ public class Json {
 		return readValue(type, elementType, new JsonReader().parse(json));
 	}
 
+	/** Reads the root value from the pull reader and binds it directly to objects, without building a {@link JsonValue} DOM for
+	 * the whole input. Only the values passed to a {@link Serializer}, a {@link Serializable} or the default serializer are
+	 * materialized as JsonValue. To determine the type of an object from the JSON, its class name or tag must be the first field
+	 * in the object, which is how it is written by {@link #writeType(Class)}. The reader is closed.
+	 * @param type May be null if the type is unknown.
+	 * @return May be null. */
+	public @Null <T> T fromJson (Class<T> type, JsonPullReader reader) {
+		return fromJson(type, null, reader);
+	}
+
+	/** @param type May be null if the type is unknown.
+	 * @param elementType May be null if the type is unknown.
+	 * @return May be null.
+	 * @see #fromJson(Class, JsonPullReader) */
+	public @Null <T> T fromJson (Class<T> type, Class elementType, JsonPullReader reader) {
+		try {
+			if (reader.next() == Token.end) return null;
+			return readValue(type, elementType, reader);
+		} finally {
+			reader.close();
+		}
+	}
+
 	public void readField (Object object, String name, JsonValue jsonData) {
 		readField(object, name, name, null, jsonData);
 	}
@@ -904,6 +991,7 @@ public class Json {
 			}
 			Field field = metadata.field;
 			try {
+				if (metadata.primitive && readPrimitive(object, metadata, child)) continue;
 				field.set(object, readValue(field.getType(), metadata.elementType, child));
 			} catch (ReflectionException ex) {
 				throw new SerializationException("Error accessing field: " + field.getName() + " (" + type.getName() + ")", ex);
@@ -919,6 +1007,38 @@ public class Json {
 		}
 	}
 
+	/** Sets a primitive field from a JSON number or boolean without boxing.
+	 * @return false if the field must be set using {@link #readValue(Class, Class, JsonValue)}. */
+	private boolean readPrimitive (Object object, FieldMetadata metadata, JsonValue jsonData) throws ReflectionException {
+		Class type = metadata.type;
+		if (classToSerializer.size > 0 && classToSerializer.containsKey(type)) return false;
+		Field field = metadata.field;
+		switch (jsonData.type()) {
+		case doubleValue:
+		case longValue:
+			if (type == float.class)
+				field.setFloat(object, jsonData.asFloat());
+			else if (type == int.class)
+				field.setInt(object, jsonData.asInt());
+			else if (type == long.class)
+				field.setLong(object, jsonData.asLong());
+			else if (type == double.class)
+				field.setDouble(object, jsonData.asDouble());
+			else if (type == short.class)
+				field.setShort(object, jsonData.asShort());
+			else if (type == byte.class)
+				field.setByte(object, jsonData.asByte());
+			else
+				return false;
+			return true;
+		case booleanValue:
+			if (type != boolean.class) return false;
+			field.setBoolean(object, jsonData.asBoolean());
+			return true;
+		}
+		return false;
+	}
+
 	/** Called for each unknown field name encountered by {@link #readFields(Object, JsonValue)} when {@link #ignoreUnknownFields}
 	 * is false to determine whether the unknown field name should be ignored.
 	 * @param type The object type being read.
@@ -1098,19 +1218,19 @@ public class Json {
 			if (type == null || type == Object.class) type = (Class<T>)Array.class;
 			if (ClassReflection.isAssignableFrom(Array.class, type)) {
 				Array result = type == Array.class ? new Array() : (Array)newInstance(type);
-				for (JsonValue child = jsonData.child; child != null; child = child.next)
+				for (JsonValue child = jsonData.child(); child != null; child = child.next)
 					result.add(readValue(elementType, null, child));
 				return (T)result;
 			}
 			if (ClassReflection.isAssignableFrom(Queue.class, type)) {
 				Queue result = type == Queue.class ? new Queue() : (Queue)newInstance(type);
-				for (JsonValue child = jsonData.child; child != null; child = child.next)
+				for (JsonValue child = jsonData.child(); child != null; child = child.next)
 					result.addLast(readValue(elementType, null, child));
 				return (T)result;
 			}
 			if (ClassReflection.isAssignableFrom(Collection.class, type)) {
 				Collection result = type.isInterface() ? new ArrayList() : (Collection)newInstance(type);
-				for (JsonValue child = jsonData.child; child != null; child = child.next)
+				for (JsonValue child = jsonData.child(); child != null; child = child.next)
 					result.add(readValue(elementType, null, child));
 				return (T)result;
 			}
@@ -1119,7 +1239,7 @@ public class Json {
 				if (elementType == null) elementType = componentType;
 				Object result = ArrayReflection.newInstance(componentType, jsonData.size);
 				int i = 0;
-				for (JsonValue child = jsonData.child; child != null; child = child.next)
+				for (JsonValue child = jsonData.child(); child != null; child = child.next)
 					ArrayReflection.set(result, i++, readValue(elementType, null, child));
 				return (T)result;
 			}
@@ -1176,6 +1296,323 @@ public class Json {
 		return null;
 	}
 
+	/** Reads the current value of the pull reader, which must be positioned on the first token of the value. When this returns,
+	 * the reader is positioned on the last token of the value.
+	 * @param type May be null if the type is unknown.
+	 * @param elementType May be null if the type is unknown.
+	 * @return May be null.
+	 * @see #fromJson(Class, JsonPullReader) */
+	public @Null <T> T readValue (@Null Class<T> type, @Null Class elementType, JsonPullReader reader) {
+		Token token = reader.getToken();
+		if (token == null) throw new IllegalStateException("JsonPullReader#next must be called first.");
+		if (token == Token.objectStart) return readObject(type, elementType, reader);
+		if (token == Token.nullValue) return null;
+		if (!token.value && token != Token.arrayStart) throw new SerializationException("Expected value: " + token);
+
+		if (type != null) {
+			Serializer serializer = classToSerializer.get(type);
+			if (serializer != null) return (T)serializer.read(this, reader.readValue(), type);
+
+			if (ClassReflection.isAssignableFrom(Serializable.class, type)) {
+				// A Serializable may be read as an array, string, etc, even though it will be written as an object.
+				Object object = newInstance(type);
+				((Serializable)object).read(this, reader.readValue());
+				return (T)object;
+			}
+		}
+
+		switch (token) {
+		case arrayStart:
+			return readArray(type, elementType, reader);
+		case doubleValue:
+		case longValue:
+			if (type == null || type == float.class || type == Float.class) return (T)(Float)reader.getFloat();
+			if (type == int.class || type == Integer.class) return (T)(Integer)reader.getInt();
+			if (type == long.class || type == Long.class) return (T)(Long)reader.getLong();
+			if (type == double.class || type == Double.class) return (T)(Double)reader.getDouble();
+			break;
+		case booleanValue:
+			if (type == null || type == boolean.class || type == Boolean.class) return (T)(Boolean)reader.getBoolean();
+			break;
+		case stringValue:
+			if (type == null || type == String.class) return (T)reader.getString();
+			break;
+		}
+		// Less common conversions are rare enough to go through a single JsonValue.
+		return readValue(type, elementType, reader.readValue());
+	}
+
+	private @Null <T> T readObject (@Null Class<T> type, @Null Class elementType, JsonPullReader reader) {
+		String name = reader.getName();
+		Token token = reader.next();
+		String className = null;
+		if (typeName != null && token == Token.stringValue && typeName.equals(reader.getName())) {
+			className = reader.getString();
+			type = getClass(className);
+			if (type == null) {
+				try {
+					type = ClassReflection.forName(className);
+				} catch (ReflectionException ex) {
+					throw new SerializationException(ex);
+				}
+			}
+			token = reader.next();
+		}
+
+		if (type == null) {
+			JsonValue jsonData = readObjectValue(name, className, token, reader);
+			if (defaultSerializer != null) return (T)defaultSerializer.read(this, jsonData, type);
+			return (T)jsonData;
+		}
+
+		if (typeName != null && ClassReflection.isAssignableFrom(Collection.class, type)) {
+			// JSON object wrapper to specify type.
+			Object result = null;
+			boolean found = false;
+			for (; token != Token.objectEnd; token = reader.next()) {
+				if (reader.getName().equals("items")) {
+					result = readValue(type, elementType, reader);
+					found = true;
+				} else
+					reader.skipValue();
+			}
+			if (!found) throw new SerializationException("Unable to convert object to collection: " + type.getName());
+			return (T)result;
+		}
+
+		Serializer serializer = classToSerializer.get(type);
+		if (serializer != null) return (T)serializer.read(this, readObjectValue(name, className, token, reader), type);
+
+		if (type == String.class || type == Integer.class || type == Boolean.class || type == Float.class || type == Long.class
+			|| type == Double.class || type == Short.class || type == Byte.class || type == Character.class
+			|| ClassReflection.isAssignableFrom(Enum.class, type)) {
+			Object result = null;
+			for (; token != Token.objectEnd; token = reader.next()) {
+				if (reader.getName().equals("value"))
+					result = readValue(type, null, reader);
+				else
+					reader.skipValue();
+			}
+			return (T)result;
+		}
+
+		Object object = newInstance(type);
+
+		if (object instanceof Serializable) {
+			((Serializable)object).read(this, readObjectValue(name, className, token, reader));
+			return (T)object;
+		}
+
+		// JSON object special cases.
+		if (object instanceof ObjectMap) {
+			ObjectMap result = (ObjectMap)object;
+			for (; token != Token.objectEnd; token = reader.next())
+				result.put(reader.getName(), readValue(elementType, null, reader));
+			return (T)result;
+		}
+		if (object instanceof ObjectIntMap) {
+			ObjectIntMap result = (ObjectIntMap)object;
+			for (; token != Token.objectEnd; token = reader.next())
+				result.put(reader.getName(), readValue(Integer.class, null, reader));
+			return (T)result;
+		}
+		if (object instanceof ObjectFloatMap) {
+			ObjectFloatMap result = (ObjectFloatMap)object;
+			for (; token != Token.objectEnd; token = reader.next())
+				result.put(reader.getName(), readValue(Float.class, null, reader));
+			return (T)result;
+		}
+		if (object instanceof ObjectSet) {
+			ObjectSet result = (ObjectSet)object;
+			for (; token != Token.objectEnd; token = reader.next()) {
+				if (token == Token.arrayStart && reader.getName().equals("values")) {
+					while (reader.next() != Token.arrayEnd)
+						result.add(readValue(elementType, null, reader));
+				} else
+					reader.skipValue();
+			}
+			return (T)result;
+		}
+		if (object instanceof IntMap) {
+			IntMap result = (IntMap)object;
+			for (; token != Token.objectEnd; token = reader.next())
+				result.put(Integer.parseInt(reader.getName()), readValue(elementType, null, reader));
+			return (T)result;
+		}
+		if (object instanceof LongMap) {
+			LongMap result = (LongMap)object;
+			for (; token != Token.objectEnd; token = reader.next())
+				result.put(Long.parseLong(reader.getName()), readValue(elementType, null, reader));
+			return (T)result;
+		}
+		if (object instanceof IntSet) {
+			IntSet result = (IntSet)object;
+			for (; token != Token.objectEnd; token = reader.next()) {
+				if (token == Token.arrayStart && reader.getName().equals("values")) {
+					while (reader.next() != Token.arrayEnd)
+						result.add(reader.getInt());
+				} else
+					reader.skipValue();
+			}
+			return (T)result;
+		}
+		if (object instanceof ArrayMap) {
+			ArrayMap result = (ArrayMap)object;
+			for (; token != Token.objectEnd; token = reader.next())
+				result.put(reader.getName(), readValue(elementType, null, reader));
+			return (T)result;
+		}
+		if (object instanceof Map) {
+			Map result = (Map)object;
+			for (; token != Token.objectEnd; token = reader.next()) {
+				if (reader.getName().equals(typeName))
+					reader.skipValue();
+				else
+					result.put(reader.getName(), readValue(elementType, null, reader));
+			}
+			return (T)result;
+		}
+
+		readFields(object, token, reader);
+		return (T)object;
+	}
+
+	/** Reads the fields of the current object, starting with the specified token, up to and including the end of the object. */
+	private void readFields (Object object, Token token, JsonPullReader reader) {
+		Class type = object.getClass();
+		OrderedMap<String, FieldMetadata> fields = getFields(type);
+		for (; token != Token.objectEnd; token = reader.next()) {
+			String name = reader.getName();
+			FieldMetadata metadata = fields.get(name.replace(" ", "_"));
+			if (metadata == null) {
+				if (!name.equals(typeName)) {
+					if (ignoreUnknownFields || ignoreUnknownField(type, name)) {
+						if (debug) System.out.println("Ignoring unknown field: " + name + " (" + type.getName() + ")");
+					} else
+						throw new SerializationException("Field not found: " + name + " (" + type.getName() + ")");
+				}
+				reader.skipValue();
+				continue;
+			} else if (ignoreDeprecated && !readDeprecated && metadata.deprecated) {
+				reader.skipValue();
+				continue;
+			}
+			Field field = metadata.field;
+			try {
+				if (metadata.primitive && readPrimitive(object, metadata, reader)) continue;
+				field.set(object, readValue(field.getType(), metadata.elementType, reader));
+			} catch (ReflectionException ex) {
+				throw new SerializationException("Error accessing field: " + field.getName() + " (" + type.getName() + ")", ex);
+			} catch (SerializationException ex) {
+				ex.addTrace(field.getName() + " (" + type.getName() + ")");
+				throw ex;
+			} catch (RuntimeException runtimeEx) {
+				SerializationException ex = new SerializationException(runtimeEx);
+				ex.addTrace(field.getName() + " (" + type.getName() + ")");
+				throw ex;
+			}
+		}
+	}
+
+	/** Sets a primitive field from a JSON number or boolean without boxing.
+	 * @return false if the field must be set using {@link #readValue(Class, Class, JsonPullReader)}. */
+	private boolean readPrimitive (Object object, FieldMetadata metadata, JsonPullReader reader) throws ReflectionException {
+		Class type = metadata.type;
+		if (classToSerializer.size > 0 && classToSerializer.containsKey(type)) return false;
+		Field field = metadata.field;
+		switch (reader.getToken()) {
+		case doubleValue:
+		case longValue:
+			if (type == float.class)
+				field.setFloat(object, reader.getFloat());
+			else if (type == int.class)
+				field.setInt(object, reader.getInt());
+			else if (type == long.class)
+				field.setLong(object, reader.getLong());
+			else if (type == double.class)
+				field.setDouble(object, reader.getDouble());
+			else if (type == short.class)
+				field.setShort(object, (short)reader.getInt());
+			else if (type == byte.class)
+				field.setByte(object, (byte)reader.getInt());
+			else
+				return false;
+			return true;
+		case booleanValue:
+			if (type != boolean.class) return false;
+			field.setBoolean(object, reader.getBoolean());
+			return true;
+		}
+		return false;
+	}
+
+	private <T> T readArray (@Null Class<T> type, @Null Class elementType, JsonPullReader reader) {
+		if (type == null || type == Object.class) type = (Class<T>)Array.class;
+		if (ClassReflection.isAssignableFrom(Array.class, type)) {
+			Array result = type == Array.class ? new Array() : (Array)newInstance(type);
+			while (reader.next() != Token.arrayEnd)
+				result.add(readValue(elementType, null, reader));
+			return (T)result;
+		}
+		if (ClassReflection.isAssignableFrom(Queue.class, type)) {
+			Queue result = type == Queue.class ? new Queue() : (Queue)newInstance(type);
+			while (reader.next() != Token.arrayEnd)
+				result.addLast(readValue(elementType, null, reader));
+			return (T)result;
+		}
+		if (ClassReflection.isAssignableFrom(Collection.class, type)) {
+			Collection result = type.isInterface() ? new ArrayList() : (Collection)newInstance(type);
+			while (reader.next() != Token.arrayEnd)
+				result.add(readValue(elementType, null, reader));
+			return (T)result;
+		}
+		if (type.isArray()) {
+			Class componentType = type.getComponentType();
+			if (elementType == null) elementType = componentType;
+			// The size is not known up front, so primitive arrays are collected without boxing the common number types.
+			if (elementType == float.class && componentType == float.class && !classToSerializer.containsKey(float.class)) {
+				FloatArray values = new FloatArray();
+				for (Token token; (token = reader.next()) != Token.arrayEnd;) {
+					if (token == Token.doubleValue || token == Token.longValue)
+						values.add(reader.getFloat());
+					else
+						values.add(readValue(float.class, null, reader));
+				}
+				return (T)values.toArray();
+			}
+			if (elementType == int.class && componentType == int.class && !classToSerializer.containsKey(int.class)) {
+				IntArray values = new IntArray();
+				for (Token token; (token = reader.next()) != Token.arrayEnd;) {
+					if (token == Token.doubleValue || token == Token.longValue)
+						values.add(reader.getInt());
+					else
+						values.add(readValue(int.class, null, reader));
+				}
+				return (T)values.toArray();
+			}
+			Array values = new Array();
+			while (reader.next() != Token.arrayEnd)
+				values.add(readValue(elementType, null, reader));
+			Object result = ArrayReflection.newInstance(componentType, values.size);
+			for (int i = 0, n = values.size; i < n; i++)
+				ArrayReflection.set(result, i, values.get(i));
+			return (T)result;
+		}
+		throw new SerializationException("Unable to convert array to required type: " + type.getName());
+	}
+
+	/** Materializes the rest of the current object, starting with the specified token, as a JsonValue. */
+	private JsonValue readObjectValue (@Null String name, @Null String className, Token token, JsonPullReader reader) {
+		JsonValue jsonData = new JsonValue(ValueType.object);
+		jsonData.name = name;
+		if (className != null) jsonData.addChild(typeName, new JsonValue(className));
+		if (token != Token.objectEnd) {
+			jsonData.addChild(reader.readValue());
+			reader.readChildren(jsonData);
+		}
+		return jsonData;
+	}
+
 	/** Each field on the <code>to</code> object is set to the value for the field with the same name on the <code>from</code>
 	 * object. The <code>to</code> object must have at least all the fields of the <code>from</code> object with the same name and
 	 * type. */
@@ -1257,11 +1694,16 @@ public class Json {
 
 	static private class FieldMetadata {
 		final Field field;
+		final Class type;
+		/** True if the field can be read and written without boxing. */
+		final boolean primitive;
 		Class elementType;
 		boolean deprecated;
 
 		public FieldMetadata (Field field) {
 			this.field = field;
+			type = field.getType();
+			primitive = type.isPrimitive();
 			int index = (ClassReflection.isAssignableFrom(ObjectMap.class, field.getType())
 				|| ClassReflection.isAssignableFrom(Map.class, field.getType())) ? 1 : 0;
 			this.elementType = field.getElementType(index);
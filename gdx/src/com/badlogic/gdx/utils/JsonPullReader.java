@@ -0,0 +1,714 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonValue.ValueType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+/** Pull based JSON parser that reads one token at a time from a {@link Reader} without building a {@link JsonValue} DOM. Only
+ * a small buffer of the input is held in memory, so large files can be read with little garbage. Accepts the same relaxed
+ * syntax as {@link JsonReader}: unquoted names and values, comments, and newlines as separators.
+ * <p>
+ * Each call to {@link #next()} advances to the next token. For values inside an object, {@link #getName()} returns the name of
+ * the value. {@link #skipValue()} skips the current value, including all of its children, and {@link #readValue()}
+ * materializes only the current value as a JsonValue.
+ * @see Json#fromJson(Class, JsonPullReader) */
+public class JsonPullReader implements Closeable {
+	private @Null Reader reader;
+	private char[] data;
+	private int offset, limit;
+	private int line = 1;
+
+	private boolean[] stack = new boolean[16];
+	private int depth;
+	private boolean rootRead;
+
+	private @Null Token token;
+	private @Null String name, stringValue;
+	private long longValue;
+	private double doubleValue;
+	private final StringBuilder buffer = new StringBuilder(32);
+
+	public JsonPullReader (Reader reader) {
+		this(reader, 1024);
+	}
+
+	/** @param bufferSize The number of chars read from the reader at once, must be at least 8. */
+	public JsonPullReader (Reader reader, int bufferSize) {
+		if (reader == null) throw new IllegalArgumentException("reader cannot be null.");
+		if (bufferSize < 8) throw new IllegalArgumentException("bufferSize must be >= 8: " + bufferSize);
+		this.reader = reader;
+		data = new char[bufferSize];
+	}
+
+	public JsonPullReader (InputStream input) {
+		this(newReader(input));
+	}
+
+	public JsonPullReader (FileHandle file) {
+		this(newReader(file));
+	}
+
+	public JsonPullReader (String json) {
+		this(json.toCharArray(), 0, json.length());
+	}
+
+	public JsonPullReader (char[] data, int offset, int length) {
+		this.data = data;
+		this.offset = offset;
+		limit = offset + length;
+	}
+
+	static private Reader newReader (InputStream input) {
+		try {
+			return new InputStreamReader(input, "UTF-8");
+		} catch (Exception ex) {
+			throw new SerializationException("Error reading stream.", ex);
+		}
+	}
+
+	static private Reader newReader (FileHandle file) {
+		try {
+			return file.reader("UTF-8");
+		} catch (Exception ex) {
+			throw new SerializationException("Error reading file: " + file, ex);
+		}
+	}
+
+	/** Advances to the next token. Once the root value has been read completely, {@link Token#end} is returned.
+	 * @throws SerializationException if the input is not valid JSON. */
+	public Token next () {
+		name = null;
+		stringValue = null;
+		if (rootRead) return token = Token.end;
+
+		skipSeparators();
+		int c = peek(0);
+		if (c == -1) {
+			if (depth > 0) throw error("Unexpected end of input.");
+			rootRead = true;
+			return token = Token.end;
+		}
+
+		if (depth > 0 && stack[depth - 1]) {
+			if (c == '}') {
+				offset++;
+				pop();
+				return token = Token.objectEnd;
+			}
+			if (c == '"') {
+				offset++;
+				name = readQuoted();
+			} else
+				name = readUnquoted(true);
+			skipWhitespace();
+			if (peek(0) != ':') throw error("Expected ':' after name: " + name);
+			offset++;
+			skipWhitespace();
+			c = peek(0);
+			if (c == -1) throw error("Unexpected end of input.");
+		}
+
+		switch (c) {
+		case '{':
+			offset++;
+			push(true);
+			return token = Token.objectStart;
+		case '[':
+			offset++;
+			push(false);
+			return token = Token.arrayStart;
+		case ']':
+			if (depth == 0 || stack[depth - 1]) throw error("Unexpected: ]");
+			offset++;
+			pop();
+			return token = Token.arrayEnd;
+		case '}':
+			throw error("Unexpected: }");
+		case '"':
+			offset++;
+			stringValue = readQuoted();
+			token = Token.stringValue;
+			break;
+		default:
+			token = readUnquotedValue();
+		}
+		if (depth == 0) rootRead = true;
+		return token;
+	}
+
+	/** Returns the current token, or null if {@link #next()} has not been called. */
+	public @Null Token getToken () {
+		return token;
+	}
+
+	/** Returns the name of the current value if it is inside an object, else null. */
+	public @Null String getName () {
+		return name;
+	}
+
+	/** Returns the number of objects and arrays that enclose the current token. A start token is counted as inside the object or
+	 * array it starts, an end token is not. */
+	public int getDepth () {
+		return depth;
+	}
+
+	/** Returns true if the current token is a string, number, boolean or null. */
+	public boolean isValue () {
+		return token != null && token.value;
+	}
+
+	/** Returns the current value as a string. For numbers and booleans the text from the JSON is returned.
+	 * @return May be null if the current token is {@link Token#nullValue}.
+	 * @throws IllegalStateException if the current token is not a value. */
+	public @Null String getString () {
+		if (!isValue()) throw new IllegalStateException("Value cannot be converted to string: " + token);
+		return stringValue;
+	}
+
+	/** @throws IllegalStateException if the current token is not a value.
+	 * @throws NumberFormatException if the current value is a string that is not a number. */
+	public double getDouble () {
+		switch (token()) {
+		case doubleValue:
+		case longValue:
+			return doubleValue;
+		case stringValue:
+			return Double.parseDouble(stringValue);
+		case booleanValue:
+			return longValue;
+		}
+		throw new IllegalStateException("Value cannot be converted to double: " + token);
+	}
+
+	/** @throws IllegalStateException if the current token is not a value.
+	 * @throws NumberFormatException if the current value is a string that is not a number. */
+	public float getFloat () {
+		switch (token()) {
+		case doubleValue:
+		case longValue:
+			return (float)doubleValue;
+		case stringValue:
+			return Float.parseFloat(stringValue);
+		case booleanValue:
+			return longValue;
+		}
+		throw new IllegalStateException("Value cannot be converted to float: " + token);
+	}
+
+	/** @throws IllegalStateException if the current token is not a value.
+	 * @throws NumberFormatException if the current value is a string that is not a number. */
+	public long getLong () {
+		switch (token()) {
+		case doubleValue:
+		case longValue:
+		case booleanValue:
+			return longValue;
+		case stringValue:
+			return Long.parseLong(stringValue);
+		}
+		throw new IllegalStateException("Value cannot be converted to long: " + token);
+	}
+
+	/** @throws IllegalStateException if the current token is not a value.
+	 * @throws NumberFormatException if the current value is a string that is not a number. */
+	public int getInt () {
+		switch (token()) {
+		case doubleValue:
+			return (int)doubleValue;
+		case longValue:
+		case booleanValue:
+			return (int)longValue;
+		case stringValue:
+			return Integer.parseInt(stringValue);
+		}
+		throw new IllegalStateException("Value cannot be converted to int: " + token);
+	}
+
+	/** @throws IllegalStateException if the current token is not a value. */
+	public boolean getBoolean () {
+		switch (token()) {
+		case doubleValue:
+			return doubleValue != 0;
+		case longValue:
+		case booleanValue:
+			return longValue != 0;
+		case stringValue:
+			return stringValue.equalsIgnoreCase("true");
+		}
+		throw new IllegalStateException("Value cannot be converted to boolean: " + token);
+	}
+
+	/** Skips the current value. If the current token is {@link Token#objectStart} or {@link Token#arrayStart}, all tokens up to
+	 * and including the matching end token are skipped. Otherwise this does nothing. */
+	public void skipValue () {
+		Token token = token();
+		if (token != Token.objectStart && token != Token.arrayStart) return;
+		int end = depth - 1;
+		while (depth > end)
+			skipToken();
+		this.token = token == Token.objectStart ? Token.objectEnd : Token.arrayEnd;
+		name = null;
+	}
+
+	/** Reads the current value and all of its children into a JsonValue. When this returns, the current token is the last
+	 * token of the value. The JsonValue's name is set to {@link #getName()}.
+	 * @throws IllegalStateException if the current token is an end token. */
+	public JsonValue readValue () {
+		JsonValue value;
+		String name = this.name;
+		switch (token()) {
+		case objectStart:
+			value = new JsonValue(ValueType.object);
+			readChildren(value);
+			break;
+		case arrayStart:
+			value = new JsonValue(ValueType.array);
+			readChildren(value);
+			break;
+		case stringValue:
+			value = new JsonValue(stringValue);
+			break;
+		case doubleValue:
+			value = new JsonValue(doubleValue, stringValue);
+			break;
+		case longValue:
+			value = new JsonValue(longValue, stringValue);
+			break;
+		case booleanValue:
+			value = new JsonValue(longValue != 0);
+			break;
+		case nullValue:
+			value = new JsonValue(ValueType.nullValue);
+			break;
+		default:
+			throw new IllegalStateException("Current token is not a value: " + token);
+		}
+		value.name = name;
+		return value;
+	}
+
+	/** Reads all remaining children of the current object or array into the specified value, up to and including the end token.
+	 * This can be used after some children have already been consumed with {@link #next()}.
+	 * @throws IllegalStateException if no object or array is being read. */
+	public void readChildren (JsonValue parent) {
+		if (depth == 0) throw new IllegalStateException("No object or array is being read.");
+		JsonValue last = parent.child;
+		if (last != null) {
+			while (last.next != null)
+				last = last.next;
+		}
+		int end = depth - 1;
+		while (true) {
+			next();
+			if (depth == end) break;
+			JsonValue child = readValue();
+			child.parent = parent;
+			if (last == null)
+				parent.child = child;
+			else {
+				last.next = child;
+				child.prev = last;
+			}
+			last = child;
+			parent.size++;
+		}
+	}
+
+	public void close () {
+		if (reader != null) {
+			StreamUtils.closeQuietly(reader);
+			reader = null;
+		}
+	}
+
+	private Token token () {
+		if (token == null) throw new IllegalStateException("next must be called first.");
+		return token;
+	}
+
+	/** Advances past the next token without creating strings for names or values. */
+	private void skipToken () {
+		skipSeparators();
+		int c = peek(0);
+		if (c == -1) throw error("Unexpected end of input.");
+		if (stack[depth - 1]) {
+			if (c == '}') {
+				offset++;
+				pop();
+				return;
+			}
+			if (c == '"') {
+				offset++;
+				skipQuoted();
+			} else
+				skipUnquoted(true);
+			skipWhitespace();
+			if (peek(0) != ':') throw error("Expected ':' after name.");
+			offset++;
+			skipWhitespace();
+			c = peek(0);
+			if (c == -1) throw error("Unexpected end of input.");
+		}
+		switch (c) {
+		case '{':
+			offset++;
+			push(true);
+			break;
+		case '[':
+			offset++;
+			push(false);
+			break;
+		case ']':
+			if (stack[depth - 1]) throw error("Unexpected: ]");
+			offset++;
+			pop();
+			break;
+		case '}':
+			throw error("Unexpected: }");
+		case '"':
+			offset++;
+			skipQuoted();
+			break;
+		default:
+			skipUnquoted(false);
+		}
+	}
+
+	private void push (boolean object) {
+		if (depth == stack.length) {
+			boolean[] newStack = new boolean[depth << 1];
+			System.arraycopy(stack, 0, newStack, 0, depth);
+			stack = newStack;
+		}
+		stack[depth++] = object;
+	}
+
+	private void pop () {
+		if (--depth == 0) rootRead = true;
+	}
+
+	/** Returns the char at the specified distance from the current offset, or -1 at the end of the input. */
+	private int peek (int ahead) {
+		if (offset + ahead >= limit && !fill(ahead + 1)) return -1;
+		return data[offset + ahead];
+	}
+
+	/** Reads from the reader until at least the specified number of chars are available.
+	 * @return false if the end of the input was reached first. */
+	private boolean fill (int count) {
+		if (reader == null) return false;
+		int remaining = limit - offset;
+		if (offset > 0) {
+			System.arraycopy(data, offset, data, 0, remaining);
+			offset = 0;
+			limit = remaining;
+		}
+		try {
+			while (limit < count) {
+				int length = reader.read(data, limit, data.length - limit);
+				if (length == -1) return false;
+				limit += length;
+			}
+		} catch (IOException ex) {
+			throw new SerializationException("Error reading input.", ex);
+		}
+		return true;
+	}
+
+	private boolean isCommentStart (int c) {
+		if (c != '/') return false;
+		c = peek(1);
+		return c == '/' || c == '*';
+	}
+
+	private void skipWhitespace () {
+		while (true) {
+			int c = peek(0);
+			switch (c) {
+			case '\n':
+				line++;
+				offset++;
+				continue;
+			case ' ':
+			case '\t':
+			case '\r':
+				offset++;
+				continue;
+			case '/':
+				if (!isCommentStart(c)) return;
+				skipComment();
+				continue;
+			}
+			return;
+		}
+	}
+
+	/** Skips whitespace, comments and commas. */
+	private void skipSeparators () {
+		while (true) {
+			skipWhitespace();
+			if (depth == 0 || peek(0) != ',') return;
+			offset++;
+		}
+	}
+
+	private void skipComment () {
+		offset++;
+		if (peek(0) == '/') {
+			while (true) {
+				int c = peek(0);
+				if (c == -1 || c == '\n') return;
+				offset++;
+			}
+		}
+		offset++;
+		while (true) {
+			int c = peek(0);
+			if (c == -1) throw error("Unterminated comment.");
+			offset++;
+			if (c == '\n')
+				line++;
+			else if (c == '*' && peek(0) == '/') {
+				offset++;
+				return;
+			}
+		}
+	}
+
+	/** Reads a quoted string after the opening quote, up to and including the closing quote. */
+	private String readQuoted () {
+		StringBuilder buffer = this.buffer;
+		buffer.setLength(0);
+		while (true) {
+			int c = peek(0);
+			if (c == -1) throw error("Unterminated string.");
+			offset++;
+			if (c == '"') return buffer.toString();
+			if (c == '\\')
+				unescape();
+			else {
+				if (c == '\n') line++;
+				buffer.append((char)c);
+			}
+		}
+	}
+
+	private void skipQuoted () {
+		while (true) {
+			int c = peek(0);
+			if (c == -1) throw error("Unterminated string.");
+			offset++;
+			if (c == '"') return;
+			if (c == '\\') {
+				if (peek(0) == -1) throw error("Unterminated string.");
+				offset++;
+			} else if (c == '\n') line++;
+		}
+	}
+
+	/** Reads an unquoted name or value. Trailing whitespace is trimmed. */
+	private String readUnquoted (boolean name) {
+		StringBuilder buffer = this.buffer;
+		buffer.setLength(0);
+		outer:
+		while (true) {
+			int c = peek(0);
+			switch (c) {
+			case -1:
+			case '\r':
+			case '\n':
+				break outer;
+			case ':':
+				if (name) break outer;
+				break;
+			case '}':
+			case ']':
+			case ',':
+				if (!name) break outer;
+				break;
+			case '/':
+				if (isCommentStart(c)) break outer;
+				break;
+			case '\\':
+				offset++;
+				unescape();
+				continue;
+			}
+			offset++;
+			buffer.append((char)c);
+		}
+		int length = buffer.length();
+		while (length > 0 && buffer.charAt(length - 1) <= ' ')
+			length--;
+		if (length == 0) throw error(name ? "Expected name." : "Expected value.");
+		buffer.setLength(length);
+		return buffer.toString();
+	}
+
+	private void skipUnquoted (boolean name) {
+		while (true) {
+			int c = peek(0);
+			switch (c) {
+			case -1:
+			case '\r':
+			case '\n':
+				return;
+			case ':':
+				if (name) return;
+				break;
+			case '}':
+			case ']':
+			case ',':
+				if (!name) return;
+				break;
+			case '/':
+				if (isCommentStart(c)) return;
+				break;
+			case '\\':
+				offset++;
+				if (peek(0) == -1) return;
+				break;
+			}
+			offset++;
+		}
+	}
+
+	private Token readUnquotedValue () {
+		String value = readUnquoted(false);
+		if (value.equals("true")) {
+			stringValue = value;
+			longValue = 1;
+			return Token.booleanValue;
+		}
+		if (value.equals("false")) {
+			stringValue = value;
+			longValue = 0;
+			return Token.booleanValue;
+		}
+		if (value.equals("null")) return Token.nullValue;
+		stringValue = value;
+
+		boolean couldBeDouble = false, couldBeLong = true;
+		outer:
+		for (int i = 0, n = value.length(); i < n; i++) {
+			switch (value.charAt(i)) {
+			case '0':
+			case '1':
+			case '2':
+			case '3':
+			case '4':
+			case '5':
+			case '6':
+			case '7':
+			case '8':
+			case '9':
+			case '-':
+			case '+':
+				break;
+			case '.':
+			case 'e':
+			case 'E':
+				couldBeDouble = true;
+				couldBeLong = false;
+				break;
+			default:
+				couldBeDouble = false;
+				couldBeLong = false;
+				break outer;
+			}
+		}
+		try {
+			if (couldBeDouble) {
+				doubleValue = Double.parseDouble(value);
+				longValue = (long)doubleValue;
+				return Token.doubleValue;
+			}
+			if (couldBeLong) {
+				longValue = Long.parseLong(value);
+				doubleValue = longValue;
+				return Token.longValue;
+			}
+		} catch (NumberFormatException ignored) {
+		}
+		return Token.stringValue;
+	}
+
+	/** Appends the escaped char following a backslash to the buffer. */
+	private void unescape () {
+		int c = peek(0);
+		if (c == -1) return;
+		offset++;
+		switch (c) {
+		case 'u':
+			if (peek(3) == -1) throw error("Invalid unicode escape.");
+			String hex = new String(data, offset, 4);
+			offset += 4;
+			try {
+				buffer.append(Character.toChars(Integer.parseInt(hex, 16)));
+			} catch (NumberFormatException ex) {
+				throw error("Invalid unicode escape: \\u" + hex);
+			}
+			return;
+		case '"':
+		case '\\':
+		case '/':
+			break;
+		case 'b':
+			c = '\b';
+			break;
+		case 'f':
+			c = '\f';
+			break;
+		case 'n':
+			c = '\n';
+			break;
+		case 'r':
+			c = '\r';
+			break;
+		case 't':
+			c = '\t';
+			break;
+		default:
+			throw error("Illegal escaped character: \\" + (char)c);
+		}
+		buffer.append((char)c);
+	}
+
+	private SerializationException error (String message) {
+		return new SerializationException("Error parsing JSON on line " + line + ": " + message);
+	}
+
+	/** The kinds of tokens returned by {@link JsonPullReader#next()}. */
+	static public enum Token {
+		objectStart(false), objectEnd(false), arrayStart(false), arrayEnd(false), //
+		stringValue(true), doubleValue(true), longValue(true), booleanValue(true), nullValue(true), //
+		end(false);
+
+		final boolean value;
+
+		Token (boolean value) {
+			this.value = value;
+		}
+	}
+}
@@ -611,7 +611,7 @@ public class JsonValue implements Iterable<JsonValue> {
 	 * @return May be null. */
 	public @Null JsonValue getChild (String name) {
 		JsonValue child = get(name);
-		return child == null ? null : child.child;
+		return child == null ? null : child.child();
 	}
 
 	/** Finds the child with the specified name and returns it as a string. Returns defaultValue if not found.
@@ -980,14 +980,14 @@ public class JsonValue implements Iterable<JsonValue> {
 
 	private void json (JsonValue object, StringBuilder buffer, OutputType outputType) {
 		if (object.isObject()) {
-			if (object.child == null)
+			if (object.child() == null)
 				buffer.append("{}");
 			else {
 				int start = buffer.length();
 				while (true) {
 					buffer.append('{');
 					int i = 0;
-					for (JsonValue child = object.child; child != null; child = child.next) {
+					for (JsonValue child = object.child(); child != null; child = child.next) {
 						buffer.append(outputType.quoteName(child.name));
 						buffer.append(':');
 						json(child, buffer, outputType);
@@ -998,13 +998,13 @@ public class JsonValue implements Iterable<JsonValue> {
 				buffer.append('}');
 			}
 		} else if (object.isArray()) {
-			if (object.child == null)
+			if (object.child() == null)
 				buffer.append("[]");
 			else {
 				int start = buffer.length();
 				while (true) {
 					buffer.append('[');
-					for (JsonValue child = object.child; child != null; child = child.next) {
+					for (JsonValue child = object.child(); child != null; child = child.next) {
 						json(child, buffer, outputType);
 						if (child.next != null) buffer.append(',');
 					}
@@ -1077,7 +1077,7 @@ public class JsonValue implements Iterable<JsonValue> {
 	private void prettyPrint (JsonValue object, StringBuilder buffer, int indent, PrettyPrintSettings settings) {
 		OutputType outputType = settings.outputType;
 		if (object.isObject()) {
-			if (object.child == null)
+			if (object.child() == null)
 				buffer.append("{}");
 			else {
 				boolean newLines = !isFlat(object);
@@ -1086,7 +1086,7 @@ public class JsonValue implements Iterable<JsonValue> {
 				while (true) {
 					buffer.append(newLines ? "{\n" : "{ ");
 					int i = 0;
-					for (JsonValue child = object.child; child != null; child = child.next) {
+					for (JsonValue child = object.child(); child != null; child = child.next) {
 						if (newLines) indent(indent, buffer);
 						buffer.append(outputType.quoteName(child.name));
 						buffer.append(": ");
@@ -1105,7 +1105,7 @@ public class JsonValue implements Iterable<JsonValue> {
 				buffer.append('}');
 			}
 		} else if (object.isArray()) {
-			if (object.child == null)
+			if (object.child() == null)
 				buffer.append("[]");
 			else {
 				boolean newLines = !isFlat(object);
@@ -1114,7 +1114,7 @@ public class JsonValue implements Iterable<JsonValue> {
 				outer:
 				while (true) {
 					buffer.append(newLines ? "[\n" : "[ ");
-					for (JsonValue child = object.child; child != null; child = child.next) {
+					for (JsonValue child = object.child(); child != null; child = child.next) {
 						if (newLines) indent(indent, buffer);
 						prettyPrint(child, buffer, indent + 1, settings);
 						if ((!newLines || outputType != OutputType.minimal) && child.next != null) buffer.append(',');
@@ -1157,13 +1157,13 @@ public class JsonValue implements Iterable<JsonValue> {
 	private void prettyPrint (JsonValue object, Writer writer, int indent, PrettyPrintSettings settings) throws IOException {
 		OutputType outputType = settings.outputType;
 		if (object.isObject()) {
-			if (object.child == null)
+			if (object.child() == null)
 				writer.append("{}");
 			else {
 				boolean newLines = !isFlat(object) || object.size > 6;
 				writer.append(newLines ? "{\n" : "{ ");
 				int i = 0;
-				for (JsonValue child = object.child; child != null; child = child.next) {
+				for (JsonValue child = object.child(); child != null; child = child.next) {
 					if (newLines) indent(indent, writer);
 					writer.append(outputType.quoteName(child.name));
 					writer.append(": ");
@@ -1175,13 +1175,13 @@ public class JsonValue implements Iterable<JsonValue> {
 				writer.append('}');
 			}
 		} else if (object.isArray()) {
-			if (object.child == null)
+			if (object.child() == null)
 				writer.append("[]");
 			else {
 				boolean newLines = !isFlat(object);
 				writer.append(newLines ? "[\n" : "[ ");
 				int i = 0;
-				for (JsonValue child = object.child; child != null; child = child.next) {
+				for (JsonValue child = object.child(); child != null; child = child.next) {
 					if (newLines) indent(indent, writer);
 					prettyPrint(child, writer, indent + 1, settings);
 					if ((!newLines || outputType != OutputType.minimal) && child.next != null) writer.append(',');
@@ -1207,13 +1207,13 @@ public class JsonValue implements Iterable<JsonValue> {
 	}
 
 	static private boolean isFlat (JsonValue object) {
-		for (JsonValue child = object.child; child != null; child = child.next)
+		for (JsonValue child = object.child(); child != null; child = child.next)
 			if (child.isObject() || child.isArray()) return false;
 		return true;
 	}
 
 	static private boolean isNumeric (JsonValue object) {
-		for (JsonValue child = object.child; child != null; child = child.next)
+		for (JsonValue child = object.child(); child != null; child = child.next)
 			if (!child.isNumber()) return false;
 		return true;
 	}
@@ -26,11 +26,15 @@ import java.util.regex.Pattern;
  * @author Nathan Sweet */
 public class JsonWriter extends Writer {
 	final Writer writer;
-	private final Array<JsonObject> stack = new Array();
+	private final Array<JsonObject> stack = new Array(), freeObjects = new Array();
 	private JsonObject current;
 	private boolean named;
 	private OutputType outputType = OutputType.json;
 	private boolean quoteLongValues = false;
+	/** Not {@link StringBuilder}, which creates a string to append float and double values. */
+	private final java.lang.StringBuilder buffer = new java.lang.StringBuilder(32);
+	private final char[] chars = new char[256];
+	private int charCount;
 
 	public JsonWriter (Writer writer) {
 		this.writer = writer;
@@ -57,7 +61,7 @@ public class JsonWriter extends Writer {
 			current.needsComma = true;
 		else
 			writer.write(',');
-		writer.write(outputType.quoteName(name));
+		writeName(name);
 		writer.write(':');
 		named = true;
 		return this;
@@ -65,27 +69,49 @@ public class JsonWriter extends Writer {
 
 	public JsonWriter object () throws IOException {
 		requireCommaOrName();
-		stack.add(current = new JsonObject(false));
+		push(false);
 		return this;
 	}
 
 	public JsonWriter array () throws IOException {
 		requireCommaOrName();
-		stack.add(current = new JsonObject(true));
+		push(true);
 		return this;
 	}
 
 	public JsonWriter value (Object value) throws IOException {
-		if (quoteLongValues
-			&& (value instanceof Long || value instanceof Double || value instanceof BigDecimal || value instanceof BigInteger)) {
-			value = value.toString();
-		} else if (value instanceof Number) {
-			Number number = (Number)value;
-			long longValue = number.longValue();
-			if (number.doubleValue() == longValue) value = longValue;
-		}
 		requireCommaOrName();
-		writer.write(outputType.quoteValue(value));
+		if (value == null)
+			writer.write("null");
+		else if (value instanceof Boolean)
+			writer.write((Boolean)value ? "true" : "false");
+		else if (value instanceof Number) {
+			java.lang.StringBuilder buffer = this.buffer;
+			buffer.setLength(0);
+			if (quoteLongValues
+				&& (value instanceof Long || value instanceof Double || value instanceof BigDecimal || value instanceof BigInteger)) {
+				if (value instanceof Long)
+					buffer.append((long)(Long)value);
+				else if (value instanceof Double)
+					buffer.append((double)(Double)value);
+				else
+					buffer.append(value);
+				writeValue(buffer);
+			} else {
+				Number number = (Number)value;
+				long longValue = number.longValue();
+				if (number.doubleValue() == longValue)
+					buffer.append(longValue);
+				else if (value instanceof Float)
+					buffer.append(number.floatValue());
+				else if (value instanceof Double)
+					buffer.append(number.doubleValue());
+				else
+					buffer.append(value);
+				write(buffer);
+			}
+		} else
+			writeValue(value.toString());
 		return this;
 	}
 
@@ -96,6 +122,159 @@ public class JsonWriter extends Writer {
 		return this;
 	}
 
+	/** Writes the specified JSON value, without quoting or escaping. Unlike {@link #json(String)}, no string is created for the
+	 * value. */
+	public JsonWriter json (CharSequence json) throws IOException {
+		requireCommaOrName();
+		write(json);
+		return this;
+	}
+
+	/** Writes the name as {@link OutputType#quoteName(String)} would return it, without creating a string. */
+	private void writeName (String name) throws IOException {
+		boolean quote;
+		switch (outputType) {
+		case minimal:
+			quote = !isMinimalName(name) && !isJavascriptName(name);
+			break;
+		case javascript:
+			quote = !isJavascriptName(name);
+			break;
+		default:
+			quote = true;
+		}
+		writeEscaped(name, quote);
+	}
+
+	/** Writes the string as {@link OutputType#quoteValue(Object)} would return it, without creating a string. */
+	private void writeValue (CharSequence value) throws IOException {
+		writeEscaped(value, outputType != OutputType.minimal || !isMinimalValue(value));
+	}
+
+	private void writeEscaped (CharSequence value, boolean quote) throws IOException {
+		if (quote) put('"');
+		for (int i = 0, n = value.length(); i < n; i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '\\':
+				put('\\');
+				put('\\');
+				break;
+			case '\r':
+				put('\\');
+				put('r');
+				break;
+			case '\n':
+				put('\\');
+				put('n');
+				break;
+			case '\t':
+				put('\\');
+				put('t');
+				break;
+			case '"':
+				if (quote) put('\\');
+				put('"');
+				break;
+			default:
+				put(c);
+			}
+		}
+		if (quote) put('"');
+		flushChars();
+	}
+
+	private void write (CharSequence value) throws IOException {
+		for (int i = 0, n = value.length(); i < n; i++)
+			put(value.charAt(i));
+		flushChars();
+	}
+
+	private void put (char c) throws IOException {
+		if (charCount == chars.length) flushChars();
+		chars[charCount++] = c;
+	}
+
+	private void flushChars () throws IOException {
+		writer.write(chars, 0, charCount);
+		charCount = 0;
+	}
+
+	/** Equivalent to {@link OutputType#minimal} names not containing "//" or "/*" and matching
+	 * <code>^[^":,}/ ][^:]*$</code>. Escaping never changes the result, as escapes only add backslashes and letters. */
+	static private boolean isMinimalName (CharSequence name) {
+		int n = name.length();
+		if (n == 0 || contains(name, '/', '/') || contains(name, '/', '*')) return false;
+		switch (name.charAt(0)) {
+		case '"':
+		case ':':
+		case ',':
+		case '}':
+		case '/':
+		case ' ':
+			return false;
+		}
+		for (int i = 1; i < n; i++)
+			if (name.charAt(i) == ':') return false;
+		return true;
+	}
+
+	/** Equivalent to matching <code>^[a-zA-Z_$][a-zA-Z_$0-9]*$</code>. */
+	static private boolean isJavascriptName (CharSequence name) {
+		int n = name.length();
+		if (n == 0) return false;
+		for (int i = 0; i < n; i++) {
+			char c = name.charAt(i);
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$') continue;
+			if (i > 0 && c >= '0' && c <= '9') continue;
+			return false;
+		}
+		return true;
+	}
+
+	/** Equivalent to the {@link OutputType#minimal} value checks, including matching
+	 * <code>^[^":,{\[\]/ ][^}\],]*$</code>. */
+	static private boolean isMinimalValue (CharSequence value) {
+		int n = value.length();
+		if (n == 0 || value.charAt(n - 1) == ' ') return false;
+		if (equals(value, "true") || equals(value, "false") || equals(value, "null")) return false;
+		if (contains(value, '/', '/') || contains(value, '/', '*')) return false;
+		switch (value.charAt(0)) {
+		case '"':
+		case ':':
+		case ',':
+		case '{':
+		case '[':
+		case ']':
+		case '/':
+		case ' ':
+			return false;
+		}
+		for (int i = 1; i < n; i++) {
+			switch (value.charAt(i)) {
+			case '}':
+			case ']':
+			case ',':
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static private boolean contains (CharSequence value, char first, char second) {
+		for (int i = 1, n = value.length(); i < n; i++)
+			if (value.charAt(i) == second && value.charAt(i - 1) == first) return true;
+		return false;
+	}
+
+	static private boolean equals (CharSequence value, String string) {
+		int n = string.length();
+		if (value.length() != n) return false;
+		for (int i = 0; i < n; i++)
+			if (value.charAt(i) != string.charAt(i)) return false;
+		return true;
+	}
+
 	private void requireCommaOrName () throws IOException {
 		if (current == null) return;
 		if (current.array) {
@@ -128,7 +307,9 @@ public class JsonWriter extends Writer {
 
 	public JsonWriter pop () throws IOException {
 		if (named) throw new IllegalStateException("Expected an object, array, or value since a name was set.");
-		stack.pop().close();
+		JsonObject object = stack.pop();
+		object.close();
+		freeObjects.add(object);
 		current = stack.size == 0 ? null : stack.peek();
 		return this;
 	}
@@ -147,15 +328,19 @@ public class JsonWriter extends Writer {
 		writer.close();
 	}
 
+	/** Reuses popped objects, so writing does not allocate once the deepest nesting has been reached. */
+	private void push (boolean array) throws IOException {
+		JsonObject object = freeObjects.size > 0 ? freeObjects.pop() : new JsonObject();
+		object.array = array;
+		object.needsComma = false;
+		writer.write(array ? '[' : '{');
+		stack.add(current = object);
+	}
+
 	private class JsonObject {
-		final boolean array;
+		boolean array;
 		boolean needsComma;
 
-		JsonObject (boolean array) throws IOException {
-			this.array = array;
-			writer.write(array ? '[' : '{');
-		}
-
 		void close () throws IOException {
 			writer.write(array ? ']' : '}');
 		}
@@ -159,6 +159,26 @@ public class LongMap<V> implements Iterable<LongMap.Entry<V>> {
 		return null;
 	}
 
+	/** Puts the value only if the key is not already in the map. This probes the table once, unlike a {@link #get(long)}
+	 * followed by a {@link #put(long, Object)}.
+	 * @return The value already associated with the key, or null if the key was added. */
+	public @Null V putIfAbsent (long key, @Null V value) {
+		if (key == 0) {
+			if (hasZeroValue) return zeroValue;
+			zeroValue = value;
+			hasZeroValue = true;
+			size++;
+			return null;
+		}
+		int i = locateKey(key);
+		if (i >= 0) return valueTable[i]; // Existing key was found.
+		i = -(i + 1); // Empty space was found.
+		keyTable[i] = key;
+		valueTable[i] = value;
+		if (++size >= threshold) resize(keyTable.length << 1);
+		return null;
+	}
+
 	public void putAll (LongMap<? extends V> map) {
 		ensureCapacity(map.size);
 		if (map.hasZeroValue) put(0, map.zeroValue);
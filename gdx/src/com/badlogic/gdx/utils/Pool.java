@@ -26,6 +26,7 @@ abstract public class Pool<T> {
 	public int peak;
 
 	private final Array<T> freeObjects;
+	@Null PoolInstrumentation instrumentation;
 
 	/** Creates a pool with an initial capacity of 16 and no maximum. */
 	public Pool () {
@@ -50,6 +51,12 @@ abstract public class Pool<T> {
 	/** Returns an object from this pool. The object may be new (from {@link #newObject()}) or reused (previously
 	 * {@link #free(Object) freed}). */
 	public T obtain () {
+		if (instrumentation != null) {
+			boolean created = freeObjects.size == 0;
+			T object = created ? newObject() : freeObjects.pop();
+			instrumentation.obtained(object, created);
+			return object;
+		}
 		return freeObjects.size == 0 ? newObject() : freeObjects.pop();
 	}
 
@@ -63,8 +70,10 @@ abstract public class Pool<T> {
 			freeObjects.add(object);
 			peak = Math.max(peak, freeObjects.size);
 			reset(object);
+			if (instrumentation != null) instrumentation.freed(object, false);
 		} else {
 			discard(object);
+			if (instrumentation != null) instrumentation.freed(object, true);
 		}
 	}
 
@@ -103,8 +112,10 @@ abstract public class Pool<T> {
 			if (freeObjects.size < max) {
 				freeObjects.add(object);
 				reset(object);
+				if (instrumentation != null) instrumentation.freed(object, false);
 			} else {
 				discard(object);
+				if (instrumentation != null) instrumentation.freed(object, true);
 			}
 		}
 		peak = Math.max(peak, freeObjects.size);
@@ -123,6 +134,15 @@ abstract public class Pool<T> {
 		return freeObjects.size;
 	}
 
+	/** Sets the instrumentation that counts the objects obtained and freed, or null to stop counting. */
+	public void setInstrumentation (@Null PoolInstrumentation instrumentation) {
+		this.instrumentation = instrumentation;
+	}
+
+	public @Null PoolInstrumentation getInstrumentation () {
+		return instrumentation;
+	}
+
 	/** Objects implementing this interface will have {@link #reset()} called when passed to {@link Pool#free(Object)}. */
 	static public interface Poolable {
 		/** Resets the object for reuse. Object references should be nulled and fields may be set to default values. */
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import java.io.IOException;
+
+/** Counts what happens to the objects of a {@link Pool}, to find pools that miss (obtain creates new objects because nothing was
+ * freed) and pools that leak (objects are obtained but never freed). Set with {@link Pool#setInstrumentation(PoolInstrumentation)}
+ * or for all pools in {@link Pools} with {@link Pools#setInstrumentation(boolean, boolean)}.
+ * <p>
+ * When {@link #trackObtains} is true, the stack trace of each obtain is kept until the object is freed, so
+ * {@link #getOutstanding()} shows where the objects that were never returned came from. This is expensive and meant for debugging.
+ * <p>
+ * The methods are synchronized so the same instrumentation can be used by a {@link ConcurrentPool}. */
+public class PoolInstrumentation {
+	/** If true, the stack trace of each obtain is recorded until the object is freed. */
+	public final boolean trackObtains;
+
+	int obtained, freed, created, discarded, inUse, peakInUse;
+	private final IdentityMap<Object, Throwable> outstanding = new IdentityMap();
+
+	public PoolInstrumentation (boolean trackObtains) {
+		this.trackObtains = trackObtains;
+	}
+
+	/** Called by the pool each time an object is obtained.
+	 * @param created True if the object was created by {@link Pool#newObject()} because there were no free objects. */
+	public synchronized void obtained (Object object, boolean created) {
+		obtained++;
+		if (created) this.created++;
+		if (++inUse > peakInUse) peakInUse = inUse;
+		if (trackObtains) outstanding.put(object, new Throwable("Obtained"));
+	}
+
+	/** Called by the pool each time an object is freed, whether it is kept or discarded.
+	 * @param discarded True if the object was discarded because the pool already had {@link Pool#max} free objects. */
+	public synchronized void freed (Object object, boolean discarded) {
+		freed++;
+		if (discarded) this.discarded++;
+		inUse--;
+		if (trackObtains) outstanding.remove(object);
+	}
+
+	/** Returns the number of objects obtained. */
+	public int getObtained () {
+		return obtained;
+	}
+
+	/** Returns the number of objects freed, including those that were discarded. */
+	public int getFreed () {
+		return freed;
+	}
+
+	/** Returns the number of obtains that had to create a new object. */
+	public int getCreated () {
+		return created;
+	}
+
+	/** Returns the number of freed objects that were discarded because the pool was full. */
+	public int getDiscarded () {
+		return discarded;
+	}
+
+	/** Returns the number of obtained objects that have not been freed. This can be negative if objects that were not obtained
+	 * from the pool are freed to it. */
+	public int getInUse () {
+		return inUse;
+	}
+
+	/** Returns the highest number of obtained objects that were not freed at the same time. */
+	public int getPeakInUse () {
+		return peakInUse;
+	}
+
+	/** Returns the fraction of obtains that reused a free object, or 1 if nothing was obtained. */
+	public float getHitRate () {
+		return obtained == 0 ? 1 : 1 - created / (float)obtained;
+	}
+
+	/** Returns a new map of the obtained objects that have not been freed, to the stack trace of where they were obtained. Empty
+	 * unless {@link #trackObtains} is true. */
+	public synchronized IdentityMap<Object, Throwable> getOutstanding () {
+		IdentityMap<Object, Throwable> map = new IdentityMap(outstanding.size);
+		map.putAll(outstanding);
+		return map;
+	}
+
+	/** Sets all counters to zero and forgets the outstanding objects. */
+	public synchronized void reset () {
+		obtained = 0;
+		freed = 0;
+		created = 0;
+		discarded = 0;
+		inUse = 0;
+		peakInUse = 0;
+		outstanding.clear();
+	}
+
+	/** Writes the counters and, if {@link #trackObtains} is true, the outstanding objects as a "leaks" array, grouped by the stack
+	 * trace where they were obtained. The current {@link JsonWriter} value must be an object or a name must have been written.
+	 * @param pool May be null. If specified, the pool's free object counts are also written. */
+	public synchronized void toJson (JsonWriter writer, @Null Pool pool) throws IOException {
+		writer.object();
+		writer.set("obtained", obtained);
+		writer.set("freed", freed);
+		writer.set("created", created);
+		writer.set("discarded", discarded);
+		writer.set("inUse", inUse);
+		writer.set("peakInUse", peakInUse);
+		writer.set("hitRate", getHitRate());
+		if (pool != null) {
+			writer.set("free", pool.getFree());
+			writer.set("peakFree", pool.peak);
+			writer.set("max", pool.max);
+		}
+		if (trackObtains) {
+			ObjectIntMap<String> counts = new ObjectIntMap();
+			for (Throwable trace : outstanding.values())
+				counts.getAndIncrement(stackTrace(trace), 0, 1);
+			writer.array("leaks");
+			for (ObjectIntMap.Entry<String> entry : counts) {
+				writer.object();
+				writer.set("count", entry.value);
+				writer.set("trace", entry.key);
+				writer.pop();
+			}
+			writer.pop();
+		}
+		writer.pop();
+	}
+
+	/** Returns the stack trace without the instrumentation and obtain frames, one frame per line. */
+	static String stackTrace (Throwable trace) {
+		java.lang.StringBuilder buffer = new java.lang.StringBuilder(256);
+		StackTraceElement[] elements = trace.getStackTrace();
+		String className = PoolInstrumentation.class.getName();
+		int i = 0, n = elements.length;
+		while (i < n && (elements[i].getClassName().equals(className) || elements[i].getMethodName().equals("obtain")))
+			i++;
+		for (; i < n; i++) {
+			if (buffer.length() > 0) buffer.append('\n');
+			buffer.append(elements[i]);
+		}
+		return buffer.toString();
+	}
+}
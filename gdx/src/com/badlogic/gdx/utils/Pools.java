@@ -16,10 +16,16 @@
 
 package com.badlogic.gdx.utils;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
 /** Stores a map of {@link Pool}s (usually {@link ReflectionPool}s) by type for convenient static access.
  * @author Nathan Sweet */
 public class Pools {
 	static private final ObjectMap<Class, Pool> typePools = new ObjectMap();
+	static private final ObjectMap<Class, ConcurrentPool> concurrentPools = new ObjectMap();
+	static private boolean instrument, trackObtains;
 
 	/** Returns a new or existing pool for the specified type, stored in a Class to {@link Pool} map. Note the max size is ignored
 	 * if this is not the first time this pool has been requested. */
@@ -27,6 +33,7 @@ public class Pools {
 		Pool pool = typePools.get(type);
 		if (pool == null) {
 			pool = new ReflectionPool(type, 4, max);
+			if (instrument) instrument(pool);
 			typePools.put(type, pool);
 		}
 		return pool;
@@ -38,11 +45,114 @@ public class Pools {
 		return get(type, 100);
 	}
 
+	/** Returns a new or existing {@link ConcurrentPool} for the specified type, stored in a Class to {@link ConcurrentPool} map
+	 * separate from the one used by {@link #get(Class)}. Unlike the other methods in this class, this method may be called from
+	 * any thread, and the returned pool can be shared by all threads. Note the max size is ignored if this is not the first time
+	 * this pool has been requested. */
+	static public <T> ConcurrentPool<T> getConcurrent (Class<T> type, int max) {
+		synchronized (concurrentPools) {
+			ConcurrentPool pool = concurrentPools.get(type);
+			if (pool == null) {
+				final ReflectionPool<T> factory = new ReflectionPool(type, 0, 0);
+				pool = new ConcurrentPool<T>(16, max) {
+					protected T newObject () {
+						return factory.newObject();
+					}
+				};
+				if (instrument) instrument(pool);
+				concurrentPools.put(type, pool);
+			}
+			return pool;
+		}
+	}
+
+	/** Returns a new or existing {@link ConcurrentPool} for the specified type. The max size of the pool used is 100.
+	 * @see #getConcurrent(Class, int) */
+	static public <T> ConcurrentPool<T> getConcurrent (Class<T> type) {
+		return getConcurrent(type, 100);
+	}
+
 	/** Sets an existing pool for the specified type, stored in a Class to {@link Pool} map. */
 	static public <T> void set (Class<T> type, Pool<T> pool) {
+		if (instrument) instrument(pool);
 		typePools.put(type, pool);
 	}
 
+	/** Sets a {@link PoolInstrumentation} on every pool in this class, including pools created or set later, or removes it.
+	 * @param trackObtains If true, the stack trace of every obtain is recorded until the object is freed, to find leaks. This is
+	 *           expensive. */
+	static public void setInstrumentation (boolean enabled, boolean trackObtains) {
+		Pools.instrument = enabled;
+		Pools.trackObtains = trackObtains;
+		for (Pool pool : typePools.values())
+			instrument(pool);
+		synchronized (concurrentPools) {
+			for (Pool pool : concurrentPools.values())
+				instrument(pool);
+		}
+	}
+
+	static private void instrument (Pool pool) {
+		if (!instrument)
+			pool.setInstrumentation(null);
+		else if (pool.instrumentation == null || pool.instrumentation.trackObtains != trackObtains)
+			pool.setInstrumentation(new PoolInstrumentation(trackObtains));
+	}
+
+	/** Returns the instrumentation for the pool returned by {@link #get(Class)}, or null if instrumentation is not enabled or
+	 * there is no pool for the type. */
+	static public @Null PoolInstrumentation getInstrumentation (Class type) {
+		Pool pool = typePools.get(type);
+		return pool == null ? null : pool.instrumentation;
+	}
+
+	/** Returns the instrumentation for the pool returned by {@link #getConcurrent(Class)}, or null if instrumentation is not
+	 * enabled or there is no pool for the type. */
+	static public @Null PoolInstrumentation getConcurrentInstrumentation (Class type) {
+		synchronized (concurrentPools) {
+			Pool pool = concurrentPools.get(type);
+			return pool == null ? null : pool.instrumentation;
+		}
+	}
+
+	/** Writes the instrumentation of every instrumented pool as JSON, keyed by the pool's type name.
+	 * @see PoolInstrumentation#toJson(JsonWriter, Pool) */
+	static public void instrumentationToJson (Writer writer) throws IOException {
+		JsonWriter json = new JsonWriter(writer);
+		json.object();
+		json.object("pools");
+		writeInstrumentation(json, typePools);
+		json.pop();
+		json.object("concurrentPools");
+		synchronized (concurrentPools) {
+			writeInstrumentation(json, concurrentPools);
+		}
+		json.pop();
+		json.pop();
+		json.flush();
+	}
+
+	/** Returns the instrumentation of every instrumented pool as JSON.
+	 * @see #instrumentationToJson(Writer) */
+	static public String instrumentationToJson () {
+		StringWriter writer = new StringWriter();
+		try {
+			instrumentationToJson(writer);
+		} catch (IOException ex) {
+			throw new GdxRuntimeException(ex);
+		}
+		return writer.toString();
+	}
+
+	static private void writeInstrumentation (JsonWriter json, ObjectMap<Class, ? extends Pool> pools) throws IOException {
+		for (ObjectMap.Entry<Class, ? extends Pool> entry : pools.entries()) {
+			PoolInstrumentation instrumentation = entry.value.instrumentation;
+			if (instrumentation == null) continue;
+			json.name(entry.key.getName());
+			instrumentation.toJson(json, entry.value);
+		}
+	}
+
 	/** Obtains an object from the {@link #get(Class) pool}. */
 	static public <T> T obtain (Class<T> type) {
 		return get(type).obtain();
@@ -19,7 +19,13 @@ package com.badlogic.gdx.utils;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonValue.ValueType;
 
 /** Lightweight UBJSON parser.<br>
  * <br>
@@ -29,6 +35,15 @@ import com.badlogic.gdx.files.FileHandle;
 public class UBJsonReader implements BaseJsonReader {
 	public boolean oldFormat = true;
 
+	/** When true, {@link #parse(FileHandle)} memory maps the file and parses it with {@link #parse(ByteBuffer)} instead of reading
+	 * it through a stream. If the file can't be mapped, for example a classpath file, it is read into a single buffer. Note the
+	 * protected parse methods are not used in this case. Default is false. */
+	public boolean mapFiles;
+
+	/** When greater than 0, {@link #parse(ByteBuffer)} returns arrays with at least this many numbers of the same type as a
+	 * {@link NumberArray}, which decodes the numbers from the buffer only when they are accessed. Default is 0. */
+	public int lazyArraySize;
+
 	/** Parses the UBJSON from the given stream. <br>
 	 * For best performance you should provide buffered streams to this method! */
 	@Override
@@ -46,6 +61,19 @@ public class UBJsonReader implements BaseJsonReader {
 
 	@Override
 	public JsonValue parse (FileHandle file) {
+		if (mapFiles) {
+			ByteBuffer buffer;
+			try {
+				buffer = file.map();
+			} catch (GdxRuntimeException ex) {
+				buffer = ByteBuffer.wrap(file.readBytes());
+			}
+			try {
+				return parse(buffer);
+			} catch (Exception ex) {
+				throw new SerializationException("Error parsing file: " + file, ex);
+			}
+		}
 		try {
 			return parse(file.read(8192));
 		} catch (Exception ex) {
@@ -244,4 +272,444 @@ public class UBJsonReader implements BaseJsonReader {
 		din.readFully(data);
 		return new String(data, "UTF-8");
 	}
+
+	/** Parses the UBJSON from the remaining bytes of the buffer without copying them, for example from a memory mapped file. The
+	 * position, limit and byte order of the buffer are not changed. If {@link #lazyArraySize} is used, the returned values may
+	 * keep a reference to the buffer. */
+	public JsonValue parse (ByteBuffer buffer) {
+		ByteBuffer input = buffer.duplicate();
+		input.order(ByteOrder.BIG_ENDIAN);
+		try {
+			return parse(input, input.get());
+		} catch (BufferUnderflowException ex) {
+			throw new SerializationException("Unexpected end of UBJSON data.", ex);
+		} catch (IndexOutOfBoundsException ex) {
+			throw new SerializationException("Unexpected end of UBJSON data.", ex);
+		}
+	}
+
+	private JsonValue parse (ByteBuffer input, byte type) {
+		if (type == '[')
+			return parseArray(input);
+		else if (type == '{')
+			return parseObject(input);
+		else if (type == 'Z')
+			return new JsonValue(ValueType.nullValue);
+		else if (type == 'T')
+			return new JsonValue(true);
+		else if (type == 'F')
+			return new JsonValue(false);
+		else if (type == 'B' || type == 'U')
+			return new JsonValue((long)(input.get() & 0xFF));
+		else if (type == 'i')
+			return new JsonValue(oldFormat ? (long)input.getShort() : (long)input.get());
+		else if (type == 'I')
+			return new JsonValue(oldFormat ? (long)input.getInt() : (long)input.getShort());
+		else if (type == 'l')
+			return new JsonValue((long)input.getInt());
+		else if (type == 'L')
+			return new JsonValue(input.getLong());
+		else if (type == 'd')
+			return new JsonValue(input.getFloat());
+		else if (type == 'D')
+			return new JsonValue(input.getDouble());
+		else if (type == 's' || type == 'S')
+			return new JsonValue(parseString(input, false, type));
+		else if (type == 'a' || type == 'A')
+			return parseData(input, type);
+		else if (type == 'C')
+			return new JsonValue(input.getChar());
+		else
+			throw new GdxRuntimeException("Unrecognized data type");
+	}
+
+	private JsonValue parseArray (ByteBuffer input) {
+		JsonValue result = new JsonValue(ValueType.array);
+		byte type = input.get();
+		byte valueType = 0;
+		if (type == '$') {
+			valueType = input.get();
+			type = input.get();
+		}
+		long size = -1;
+		if (type == '#') {
+			size = parseSize(input, false, -1);
+			if (size < 0) throw new GdxRuntimeException("Unrecognized data type");
+			if (size == 0) return result;
+			if (valueType != 0 && lazyArraySize > 0 && size >= lazyArraySize && size <= Integer.MAX_VALUE) {
+				int numberSize = numberSize(valueType);
+				if (numberSize > 0) return new NumberArray(input, valueType, false, (int)size, oldFormat);
+			}
+			type = valueType == 0 ? input.get() : valueType;
+		} else if (valueType == 0 && lazyArraySize > 0) {
+			// Arrays without a type and count, as written by fbx-conv, are lazy if all the values are numbers of the same type.
+			int numberSize = numberSize(type);
+			if (numberSize > 0) {
+				int start = input.position() - 1, position = start, limit = input.limit(), count = 0;
+				while (position < limit && input.get(position) == type) {
+					position += numberSize + 1;
+					count++;
+				}
+				if (count >= lazyArraySize && position < limit && input.get(position) == ']') {
+					input.position(start);
+					NumberArray array = new NumberArray(input, type, true, count, oldFormat);
+					input.get(); // ']'
+					return array;
+				}
+			}
+		}
+		JsonValue prev = null;
+		long c = 0;
+		while (input.hasRemaining() && type != ']') {
+			final JsonValue val = parse(input, type);
+			val.parent = result;
+			if (prev != null) {
+				val.prev = prev;
+				prev.next = val;
+				result.size++;
+			} else {
+				result.child = val;
+				result.size = 1;
+			}
+			prev = val;
+			if (size > 0 && ++c >= size) break;
+			type = valueType == 0 ? input.get() : valueType;
+		}
+		return result;
+	}
+
+	private JsonValue parseObject (ByteBuffer input) {
+		JsonValue result = new JsonValue(ValueType.object);
+		byte type = input.get();
+		byte valueType = 0;
+		if (type == '$') {
+			valueType = input.get();
+			type = input.get();
+		}
+		long size = -1;
+		if (type == '#') {
+			size = parseSize(input, false, -1);
+			if (size < 0) throw new GdxRuntimeException("Unrecognized data type");
+			if (size == 0) return result;
+			type = input.get();
+		}
+		JsonValue prev = null;
+		long c = 0;
+		while (input.hasRemaining() && type != '}') {
+			final String key = parseString(input, true, type);
+			final JsonValue child = parse(input, valueType == 0 ? input.get() : valueType);
+			child.setName(key);
+			child.parent = result;
+			if (prev != null) {
+				child.prev = prev;
+				prev.next = child;
+				result.size++;
+			} else {
+				result.child = child;
+				result.size = 1;
+			}
+			prev = child;
+			if (size > 0 && ++c >= size) break;
+			type = input.get();
+		}
+		return result;
+	}
+
+	private JsonValue parseData (ByteBuffer input, byte blockType) {
+		final byte dataType = input.get();
+		final long size = blockType == 'A' ? input.getInt() & 0xFFFFFFFFL : input.get() & 0xFF;
+		if (lazyArraySize > 0 && size >= lazyArraySize && size <= Integer.MAX_VALUE && numberSize(dataType) > 0)
+			return new NumberArray(input, dataType, false, (int)size, oldFormat);
+		final JsonValue result = new JsonValue(ValueType.array);
+		JsonValue prev = null;
+		for (long i = 0; i < size; i++) {
+			final JsonValue val = parse(input, dataType);
+			val.parent = result;
+			if (prev != null) {
+				prev.next = val;
+				result.size++;
+			} else {
+				result.child = val;
+				result.size = 1;
+			}
+			prev = val;
+		}
+		return result;
+	}
+
+	private String parseString (ByteBuffer input, boolean sOptional, byte type) {
+		long size = -1;
+		if (type == 'S')
+			size = parseSize(input, true, -1);
+		else if (type == 's')
+			size = input.get() & 0xFF;
+		else if (sOptional) size = parseSize(input, type, false, -1);
+		if (size < 0) throw new GdxRuntimeException("Unrecognized data type, string expected");
+		if (size == 0) return "";
+		byte[] bytes = new byte[(int)size];
+		input.get(bytes);
+		try {
+			return new String(bytes, "UTF-8");
+		} catch (UnsupportedEncodingException ex) {
+			throw new SerializationException(ex);
+		}
+	}
+
+	private long parseSize (ByteBuffer input, boolean useIntOnError, long defaultValue) {
+		return parseSize(input, input.get(), useIntOnError, defaultValue);
+	}
+
+	private long parseSize (ByteBuffer input, byte type, boolean useIntOnError, long defaultValue) {
+		if (type == 'i') return input.get() & 0xFF;
+		if (type == 'I') return input.getShort() & 0xFFFF;
+		if (type == 'l') return input.getInt() & 0xFFFFFFFFL;
+		if (type == 'L') return input.getLong();
+		if (useIntOnError) {
+			long result = (long)(type & 0xFF) << 24;
+			result |= (long)(input.get() & 0xFF) << 16;
+			result |= (long)(input.get() & 0xFF) << 8;
+			result |= (long)(input.get() & 0xFF);
+			return result;
+		}
+		return defaultValue;
+	}
+
+	/** Returns the number of bytes for a number of the specified type, or 0 if the type is not a fixed size number. */
+	static int numberSize (byte type, boolean oldFormat) {
+		switch (type) {
+		case 'B':
+		case 'U':
+			return 1;
+		case 'i':
+			return oldFormat ? 2 : 1;
+		case 'I':
+			return oldFormat ? 4 : 2;
+		case 'l':
+		case 'd':
+			return 4;
+		case 'L':
+		case 'D':
+			return 8;
+		}
+		return 0;
+	}
+
+	private int numberSize (byte type) {
+		return numberSize(type, oldFormat);
+	}
+
+	/** An array of numbers of the same type that keeps a view of the UBJSON data and decodes the numbers only when they are
+	 * accessed. The bulk conversions, such as {@link #asFloatArray()}, read directly from the buffer without creating a JsonValue
+	 * for each number. Any other access creates the children once, after which this behaves like any other array.
+	 * <p>
+	 * The {@link #child} field is null until the children are created, use {@link #child()} or iterate to access them.
+	 * @see UBJsonReader#lazyArraySize */
+	static public class NumberArray extends JsonValue {
+		private @Null ByteBuffer data;
+		private final byte numberType;
+		private final boolean oldFormat;
+		private final int offset, stride;
+
+		/** @param typeMarkers True if each number is preceded by its type. */
+		NumberArray (ByteBuffer input, byte numberType, boolean typeMarkers, int size, boolean oldFormat) {
+			super(ValueType.array);
+			this.numberType = numberType;
+			this.oldFormat = oldFormat;
+			this.size = size;
+			offset = typeMarkers ? 1 : 0;
+			stride = numberSize(numberType, oldFormat) + offset;
+			int length = size * stride;
+			data = input.slice();
+			data.limit(length);
+			data.order(ByteOrder.BIG_ENDIAN);
+			input.position(input.position() + length);
+		}
+
+		/** Returns the type of the numbers, for example 'd' for float. */
+		public byte getNumberType () {
+			return numberType;
+		}
+
+		/** Returns true if the children have not been created yet. */
+		public boolean isLazy () {
+			return data != null;
+		}
+
+		private boolean isDecimal () {
+			return numberType == 'd' || numberType == 'D';
+		}
+
+		private double getDouble (ByteBuffer data, int index) {
+			int position = offset + index * stride;
+			if (numberType == 'd') return data.getFloat(position);
+			if (numberType == 'D') return data.getDouble(position);
+			return getLong(data, index);
+		}
+
+		private long getLong (ByteBuffer data, int index) {
+			int position = offset + index * stride;
+			switch (numberType) {
+			case 'B':
+			case 'U':
+				return data.get(position) & 0xFF;
+			case 'i':
+				return oldFormat ? data.getShort(position) : data.get(position);
+			case 'I':
+				return oldFormat ? data.getInt(position) : data.getShort(position);
+			case 'l':
+				return data.getInt(position);
+			case 'L':
+				return data.getLong(position);
+			case 'd':
+				return (long)data.getFloat(position);
+			default:
+				return (long)data.getDouble(position);
+			}
+		}
+
+		private void materialize () {
+			ByteBuffer data = this.data;
+			if (data == null) return;
+			this.data = null;
+			boolean decimal = isDecimal();
+			JsonValue prev = null;
+			for (int i = 0; i < size; i++) {
+				JsonValue value = decimal ? new JsonValue(getDouble(data, i)) : new JsonValue(getLong(data, i));
+				value.parent = this;
+				if (prev == null)
+					child = value;
+				else {
+					prev.next = value;
+					value.prev = prev;
+				}
+				prev = value;
+			}
+		}
+
+		public float[] asFloatArray () {
+			ByteBuffer data = this.data;
+			if (data == null) return super.asFloatArray();
+			float[] array = new float[size];
+			if (numberType == 'd' && offset == 0)
+				data.asFloatBuffer().get(array);
+			else if (isDecimal()) {
+				for (int i = 0, n = size; i < n; i++)
+					array[i] = (float)getDouble(data, i);
+			} else {
+				for (int i = 0, n = size; i < n; i++)
+					array[i] = getLong(data, i);
+			}
+			return array;
+		}
+
+		public double[] asDoubleArray () {
+			ByteBuffer data = this.data;
+			if (data == null) return super.asDoubleArray();
+			double[] array = new double[size];
+			for (int i = 0, n = size; i < n; i++)
+				array[i] = getDouble(data, i);
+			return array;
+		}
+
+		public long[] asLongArray () {
+			ByteBuffer data = this.data;
+			if (data == null) return super.asLongArray();
+			long[] array = new long[size];
+			for (int i = 0, n = size; i < n; i++)
+				array[i] = getLong(data, i);
+			return array;
+		}
+
+		public int[] asIntArray () {
+			ByteBuffer data = this.data;
+			if (data == null) return super.asIntArray();
+			int[] array = new int[size];
+			if (isDecimal()) {
+				for (int i = 0, n = size; i < n; i++)
+					array[i] = (int)getDouble(data, i);
+			} else {
+				for (int i = 0, n = size; i < n; i++)
+					array[i] = (int)getLong(data, i);
+			}
+			return array;
+		}
+
+		public short[] asShortArray () {
+			ByteBuffer data = this.data;
+			if (data == null) return super.asShortArray();
+			short[] array = new short[size];
+			if (isDecimal()) {
+				for (int i = 0, n = size; i < n; i++)
+					array[i] = (short)getDouble(data, i);
+			} else {
+				for (int i = 0, n = size; i < n; i++)
+					array[i] = (short)getLong(data, i);
+			}
+			return array;
+		}
+
+		public byte[] asByteArray () {
+			ByteBuffer data = this.data;
+			if (data == null) return super.asByteArray();
+			byte[] array = new byte[size];
+			if (isDecimal()) {
+				for (int i = 0, n = size; i < n; i++)
+					array[i] = (byte)getDouble(data, i);
+			} else {
+				for (int i = 0, n = size; i < n; i++)
+					array[i] = (byte)getLong(data, i);
+			}
+			return array;
+		}
+
+		public String[] asStringArray () {
+			materialize();
+			return super.asStringArray();
+		}
+
+		public boolean[] asBooleanArray () {
+			materialize();
+			return super.asBooleanArray();
+		}
+
+		public char[] asCharArray () {
+			materialize();
+			return super.asCharArray();
+		}
+
+		public @Null JsonValue get (int index) {
+			materialize();
+			return super.get(index);
+		}
+
+		public @Null JsonValue get (String name) {
+			materialize();
+			return super.get(name);
+		}
+
+		public JsonValue require (int index) {
+			materialize();
+			return super.require(index);
+		}
+
+		public JsonValue require (String name) {
+			materialize();
+			return super.require(name);
+		}
+
+		public @Null JsonValue child () {
+			materialize();
+			return child;
+		}
+
+		public void addChild (JsonValue value) {
+			materialize();
+			super.addChild(value);
+		}
+
+		public JsonIterator iterator () {
+			materialize();
+			return super.iterator();
+		}
+	}
 }
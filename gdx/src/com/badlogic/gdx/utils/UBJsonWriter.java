@@ -30,6 +30,7 @@ public class UBJsonWriter implements Closeable {
 	private JsonObject current;
 	private boolean named;
 	private final Array<JsonObject> stack = new Array();
+	private byte[] bytes = new byte[64];
 
 	public UBJsonWriter (OutputStream out) {
 		if (!(out instanceof DataOutputStream)) out = new DataOutputStream(out);
@@ -80,18 +81,7 @@ public class UBJsonWriter implements Closeable {
 	 * @return this writer, for chaining */
 	public UBJsonWriter name (String name) throws IOException {
 		if (current == null || current.array) throw new IllegalStateException("Current item must be an object.");
-		byte[] bytes = name.getBytes("UTF-8");
-		if (bytes.length <= Byte.MAX_VALUE) {
-			out.writeByte('i');
-			out.writeByte(bytes.length);
-		} else if (bytes.length <= Short.MAX_VALUE) {
-			out.writeByte('I');
-			out.writeShort(bytes.length);
-		} else {
-			out.writeByte('l');
-			out.writeInt(bytes.length);
-		}
-		out.write(bytes);
+		writeString(name);
 		named = true;
 		return this;
 	}
@@ -176,20 +166,49 @@ public class UBJsonWriter implements Closeable {
 	 * @return this writer, for chaining */
 	public UBJsonWriter value (String value) throws IOException {
 		checkName();
-		byte[] bytes = value.getBytes("UTF-8");
 		out.writeByte('S');
-		if (bytes.length <= Byte.MAX_VALUE) {
+		writeString(value);
+		return this;
+	}
+
+	/** Writes the length and UTF-8 bytes of the string. The bytes are encoded into a reused buffer, so no garbage is created. */
+	private void writeString (String value) throws IOException {
+		int length = value.length();
+		if (bytes.length < length * 3) bytes = new byte[Math.max(length * 3, bytes.length * 2)];
+		byte[] bytes = this.bytes;
+		int count = 0;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c < 0x80)
+				bytes[count++] = (byte)c;
+			else if (c < 0x800) {
+				bytes[count++] = (byte)(0xc0 | c >> 6);
+				bytes[count++] = (byte)(0x80 | c & 0x3f);
+			} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, value.charAt(++i));
+				bytes[count++] = (byte)(0xf0 | codePoint >> 18);
+				bytes[count++] = (byte)(0x80 | (codePoint >> 12) & 0x3f);
+				bytes[count++] = (byte)(0x80 | (codePoint >> 6) & 0x3f);
+				bytes[count++] = (byte)(0x80 | codePoint & 0x3f);
+			} else if (Character.isHighSurrogate(c) || Character.isLowSurrogate(c))
+				bytes[count++] = '?'; // Unpaired, as String#getBytes writes it.
+			else {
+				bytes[count++] = (byte)(0xe0 | c >> 12);
+				bytes[count++] = (byte)(0x80 | (c >> 6) & 0x3f);
+				bytes[count++] = (byte)(0x80 | c & 0x3f);
+			}
+		}
+		if (count <= Byte.MAX_VALUE) {
 			out.writeByte('i');
-			out.writeByte(bytes.length);
-		} else if (bytes.length <= Short.MAX_VALUE) {
+			out.writeByte(count);
+		} else if (count <= Short.MAX_VALUE) {
 			out.writeByte('I');
-			out.writeShort(bytes.length);
+			out.writeShort(count);
 		} else {
 			out.writeByte('l');
-			out.writeInt(bytes.length);
+			out.writeInt(count);
 		}
-		out.write(bytes);
-		return this;
+		out.write(bytes, 0, count);
 	}
 
 	/** Appends an optimized {@code byte array} value to the stream. As an optimized array, the {@code int8} value type marker and
@@ -351,7 +370,7 @@ public class UBJsonWriter implements Closeable {
 				object(value.name);
 			else
 				object();
-			for (JsonValue child = value.child; child != null; child = child.next)
+			for (JsonValue child = value.child(); child != null; child = child.next)
 				value(child);
 			pop();
 		} else if (value.isArray()) {
@@ -359,7 +378,7 @@ public class UBJsonWriter implements Closeable {
 				array(value.name);
 			else
 				array();
-			for (JsonValue child = value.child; child != null; child = child.next)
+			for (JsonValue child = value.child(); child != null; child = child.next)
 				value(child);
 			pop();
 		} else if (value.isBoolean()) {
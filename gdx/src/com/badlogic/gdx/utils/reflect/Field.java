@@ -173,4 +173,188 @@ public final class Field {
 		}
 	}
 
+	/** Returns the value of the {@code boolean} field on the supplied object, without boxing. */
+	public boolean getBoolean (Object obj) throws ReflectionException {
+		try {
+			return field.getBoolean(obj);
+		} catch (IllegalArgumentException e) {
+			throw new ReflectionException(
+				"Field is not boolean or object is not an instance of " + getDeclaringClass() + ": " + getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException("Illegal access to field: " + getName(), e);
+		}
+	}
+
+	/** Sets the value of the {@code boolean} field on the supplied object, without boxing. */
+	public void setBoolean (Object obj, boolean value) throws ReflectionException {
+		try {
+			field.setBoolean(obj, value);
+		} catch (IllegalArgumentException e) {
+			throw new ReflectionException("Argument not valid for field: " + getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException("Illegal access to field: " + getName(), e);
+		}
+	}
+
+	/** Returns the value of the {@code byte} field on the supplied object, without boxing. */
+	public byte getByte (Object obj) throws ReflectionException {
+		try {
+			return field.getByte(obj);
+		} catch (IllegalArgumentException e) {
+			throw new ReflectionException(
+				"Field is not byte or object is not an instance of " + getDeclaringClass() + ": " + getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException("Illegal access to field: " + getName(), e);
+		}
+	}
+
+	/** Sets the value of the {@code byte} field on the supplied object, without boxing. */
+	public void setByte (Object obj, byte value) throws ReflectionException {
+		try {
+			field.setByte(obj, value);
+		} catch (IllegalArgumentException e) {
+			throw new ReflectionException("Argument not valid for field: " + getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException("Illegal access to field: " + getName(), e);
+		}
+	}
+
+	/** Returns the value of the {@code char} field on the supplied object, without boxing. */
+	public char getChar (Object obj) throws ReflectionException {
+		try {
+			return field.getChar(obj);
+		} catch (IllegalArgumentException e) {
+			throw new ReflectionException(
+				"Field is not char or object is not an instance of " + getDeclaringClass() + ": " + getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException("Illegal access to field: " + getName(), e);
+		}
+	}
+
+	/** Sets the value of the {@code char} field on the supplied object, without boxing. */
+	public void setChar (Object obj, char value) throws ReflectionException {
+		try {
+			field.setChar(obj, value);
+		} catch (IllegalArgumentException e) {
+			throw new ReflectionException("Argument not valid for field: " + getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException("Illegal access to field: " + getName(), e);
+		}
+	}
+
+	/** Returns the value of the {@code short} field on the supplied object, without boxing. */
+	public short getShort (Object obj) throws ReflectionException {
+		try {
+			return field.getShort(obj);
+		} catch (IllegalArgumentException e) {
+			throw new ReflectionException(
+				"Field is not short or object is not an instance of " + getDeclaringClass() + ": " + getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException("Illegal access to field: " + getName(), e);
+		}
+	}
+
+	/** Sets the value of the {@code short} field on the supplied object, without boxing. */
+	public void setShort (Object obj, short value) throws ReflectionException {
+		try {
+			field.setShort(obj, value);
+		} catch (IllegalArgumentException e) {
+			throw new ReflectionException("Argument not valid for field: " + getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException("Illegal access to field: " + getName(), e);
+		}
+	}
+
+	/** Returns the value of the {@code int} field on the supplied object, without boxing. */
+	public int getInt (Object obj) throws ReflectionException {
+		try {
+			return field.getInt(obj);
+		} catch (IllegalArgumentException e) {
+			throw new ReflectionException(
+				"Field is not int or object is not an instance of " + getDeclaringClass() + ": " + getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException("Illegal access to field: " + getName(), e);
+		}
+	}
+
+	/** Sets the value of the {@code int} field on the supplied object, without boxing. */
+	public void setInt (Object obj, int value) throws ReflectionException {
+		try {
+			field.setInt(obj, value);
+		} catch (IllegalArgumentException e) {
+			throw new ReflectionException("Argument not valid for field: " + getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException("Illegal access to field: " + getName(), e);
+		}
+	}
+
+	/** Returns the value of the {@code long} field on the supplied object, without boxing. */
+	public long getLong (Object obj) throws ReflectionException {
+		try {
+			return field.getLong(obj);
+		} catch (IllegalArgumentException e) {
+			throw new ReflectionException(
+				"Field is not long or object is not an instance of " + getDeclaringClass() + ": " + getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException("Illegal access to field: " + getName(), e);
+		}
+	}
+
+	/** Sets the value of the {@code long} field on the supplied object, without boxing. */
+	public void setLong (Object obj, long value) throws ReflectionException {
+		try {
+			field.setLong(obj, value);
+		} catch (IllegalArgumentException e) {
+			throw new ReflectionException("Argument not valid for field: " + getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException("Illegal access to field: " + getName(), e);
+		}
+	}
+
+	/** Returns the value of the {@code float} field on the supplied object, without boxing. */
+	public float getFloat (Object obj) throws ReflectionException {
+		try {
+			return field.getFloat(obj);
+		} catch (IllegalArgumentException e) {
+			throw new ReflectionException(
+				"Field is not float or object is not an instance of " + getDeclaringClass() + ": " + getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException("Illegal access to field: " + getName(), e);
+		}
+	}
+
+	/** Sets the value of the {@code float} field on the supplied object, without boxing. */
+	public void setFloat (Object obj, float value) throws ReflectionException {
+		try {
+			field.setFloat(obj, value);
+		} catch (IllegalArgumentException e) {
+			throw new ReflectionException("Argument not valid for field: " + getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException("Illegal access to field: " + getName(), e);
+		}
+	}
+
+	/** Returns the value of the {@code double} field on the supplied object, without boxing. */
+	public double getDouble (Object obj) throws ReflectionException {
+		try {
+			return field.getDouble(obj);
+		} catch (IllegalArgumentException e) {
+			throw new ReflectionException(
+				"Field is not double or object is not an instance of " + getDeclaringClass() + ": " + getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException("Illegal access to field: " + getName(), e);
+		}
+	}
+
+	/** Sets the value of the {@code double} field on the supplied object, without boxing. */
+	public void setDouble (Object obj, double value) throws ReflectionException {
+		try {
+			field.setDouble(obj, value);
+		} catch (IllegalArgumentException e) {
+			throw new ReflectionException("Argument not valid for field: " + getName(), e);
+		} catch (IllegalAccessException e) {
+			throw new ReflectionException("Illegal access to field: " + getName(), e);
+		}
+	}
+
 }
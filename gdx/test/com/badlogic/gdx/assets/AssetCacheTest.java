@@ -0,0 +1,97 @@
+package com.badlogic.gdx.assets;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.UBJsonReader.NumberArray;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AssetCacheTest {
+	private FileHandle root;
+	private AssetCache cache;
+
+	@Before
+	public void setup () throws IOException {
+		File dir = File.createTempFile("cache", "");
+		dir.delete();
+		root = new FileHandle(dir);
+		cache = new AssetCache(root.child("cache"));
+	}
+
+	@After
+	public void tearDown () {
+		root.deleteDirectory();
+	}
+
+	static private String json (int count, String number) {
+		StringBuilder buffer = new StringBuilder("{name:model,vertices:[");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) buffer.append(',');
+			buffer.append(i).append(number);
+		}
+		buffer.append("],indices:[");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) buffer.append(',');
+			buffer.append(i);
+		}
+		return buffer.append("],mixed:[1,true]}").toString();
+	}
+
+	@Test
+	public void json () {
+		FileHandle file = root.child("model.g3dj");
+		file.writeString(json(100, ".5"), false);
+		assertNull(cache.getJson(file, ""));
+
+		JsonValue parsed = new JsonReader().parse(file);
+		cache.putJson(file, "", parsed);
+		assertEquals(1, cache.getDirectory().list().length);
+		JsonValue cached = cache.getJson(file, "");
+		assertNotNull(cached);
+		assertEquals("model", cached.getString("name"));
+		assertTrue(cached.get("vertices") instanceof NumberArray);
+		assertEquals('d', ((NumberArray)cached.get("vertices")).getNumberType());
+		assertArrayEquals(parsed.get("vertices").asFloatArray(), cached.get("vertices").asFloatArray(), 0);
+		assertEquals('l', ((NumberArray)cached.get("indices")).getNumberType());
+		assertArrayEquals(parsed.get("indices").asShortArray(), cached.get("indices").asShortArray());
+		assertTrue(cached.get("mixed").get(1).asBoolean());
+		assertNull(cache.getJson(file, "other"));
+
+		// Values that don't fit in a float are stored as doubles.
+		file.writeString(json(100, ".123456789"), false);
+		assertNull(cache.getJson(file, ""));
+		parsed = new JsonReader().parse(file);
+		cache.putJson(file, "", parsed);
+		cached = cache.getJson(file, "");
+		assertEquals('D', ((NumberArray)cached.get("vertices")).getNumberType());
+		assertArrayEquals(parsed.get("vertices").asDoubleArray(), cached.get("vertices").asDoubleArray(), 0);
+
+		// So are integers that don't fit in a float in an array with decimals.
+		file.writeString(json(100, ".5").replace("vertices:[0.5", "vertices:[16777217"), false);
+		assertNull(cache.getJson(file, ""));
+		parsed = new JsonReader().parse(file);
+		cache.putJson(file, "", parsed);
+		cached = cache.getJson(file, "");
+		assertEquals('D', ((NumberArray)cached.get("vertices")).getNumberType());
+		assertEquals(16777217, cached.get("vertices").get(0).asDouble(), 0);
+	}
+
+	@Test
+	public void invalid () {
+		FileHandle file = root.child("model.g3dj");
+		file.writeString(json(10, ".5"), false);
+		cache.putJson(file, "", new JsonReader().parse(file));
+		FileHandle entry = cache.getDirectory().child(cache.getKey(file, ""));
+		entry.writeString("garbage that is not an entry", false);
+		assertNull(cache.getJson(file, ""));
+		assertFalse(entry.exists());
+	}
+}
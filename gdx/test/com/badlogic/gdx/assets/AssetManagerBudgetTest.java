@@ -0,0 +1,85 @@
+package com.badlogic.gdx.assets;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import org.junit.Test;
+
+public class AssetManagerBudgetTest {
+	static private final FileHandleResolver resolver = new FileHandleResolver() {
+		public FileHandle resolve (String fileName) {
+			return new FileHandle(fileName);
+		}
+	};
+
+	/** Loads an asset in 10 steps on the rendering thread, each taking about 2ms. */
+	static private class StepLoader extends AsynchronousAssetLoader<Object, AssetLoaderParameters<Object>> {
+		final ObjectIntMap<String> steps = new ObjectIntMap<String>();
+		int totalSteps;
+
+		StepLoader () {
+			super(resolver);
+		}
+
+		public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, AssetLoaderParameters<Object> parameter) {
+			return null;
+		}
+
+		public void loadAsync (AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<Object> parameter) {
+		}
+
+		public Object loadSync (AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<Object> parameter) {
+			try {
+				Thread.sleep(2);
+			} catch (InterruptedException ignored) {
+			}
+			totalSteps++;
+			return steps.getAndIncrement(fileName, 0, 1) == 9 ? fileName : null;
+		}
+	}
+
+	@Test
+	public void budget () {
+		AssetManager manager = new AssetManager(resolver, false);
+		StepLoader loader = new StepLoader();
+		manager.setLoader(Object.class, loader);
+		manager.load("a", Object.class);
+		manager.load("b", Object.class);
+
+		// Once the cost of a step is known, a second step doesn't fit in 3ms.
+		int calls = 0;
+		while (!manager.updateMicros(3000)) {
+			assertTrue(loader.totalSteps <= calls + 1);
+			calls++;
+		}
+		assertEquals(20, loader.totalSteps);
+		assertEquals(10, loader.steps.get("a", 0));
+		assertTrue(manager.getSyncCost(StepLoader.class) >= 2000000L);
+		assertEquals(0, manager.getSyncCost(AsynchronousAssetLoader.class));
+
+		// With enough time, all steps are done in a single call.
+		manager.clear();
+		loader.steps.clear();
+		manager.load("c", Object.class);
+		assertTrue(manager.updateMicros(1000000));
+		assertEquals(10, loader.steps.get("c", 0));
+		manager.dispose();
+	}
+
+	@Test
+	public void unbudgeted () {
+		AssetManager manager = new AssetManager(resolver, false);
+		StepLoader loader = new StepLoader();
+		manager.setLoader(Object.class, loader);
+		manager.load("a", Object.class);
+		manager.finishLoading();
+		assertEquals("a", manager.get("a", Object.class));
+		assertEquals(10, loader.totalSteps);
+		manager.dispose();
+	}
+}
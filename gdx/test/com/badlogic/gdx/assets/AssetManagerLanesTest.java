@@ -0,0 +1,265 @@
+package com.badlogic.gdx.assets;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class AssetManagerLanesTest {
+	static private final FileHandleResolver resolver = new FileHandleResolver() {
+		public FileHandle resolve (String fileName) {
+			return new FileHandle(fileName);
+		}
+	};
+
+	static public class Asset {
+		final String name;
+
+		Asset (String name) {
+			this.name = name;
+		}
+	}
+
+	static public class Other {
+	}
+
+	/** Loads an asset named by its file name, with dependencies from a map. Tracks how many assets it loads at the same time, from
+	 * getDependencies until loadSync, and how many it is working on at the same time, in getDependencies or from loadAsync until
+	 * loadSync. */
+	static private class TestLoader extends AsynchronousAssetLoader<Asset, AssetLoaderParameters<Asset>> {
+		final ObjectMap<String, String[]> dependencies;
+		final boolean concurrent;
+		final AtomicInteger loading = new AtomicInteger(), maxLoading = new AtomicInteger();
+		final AtomicInteger active = new AtomicInteger(), maxActive = new AtomicInteger();
+		String fail;
+
+		TestLoader (ObjectMap<String, String[]> dependencies, boolean concurrent) {
+			super(resolver);
+			this.dependencies = dependencies;
+			this.concurrent = concurrent;
+		}
+
+		public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, AssetLoaderParameters<Asset> parameter) {
+			max(maxLoading, loading.incrementAndGet());
+			max(maxActive, active.incrementAndGet());
+			sleep();
+			active.decrementAndGet();
+			String[] names = dependencies.get(fileName);
+			if (names == null) return null;
+			Array<AssetDescriptor> descriptors = new Array<AssetDescriptor>();
+			for (String name : names)
+				descriptors.add(new AssetDescriptor<Asset>(name, Asset.class));
+			return descriptors;
+		}
+
+		public void loadAsync (AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<Asset> parameter) {
+			max(maxActive, active.incrementAndGet());
+			sleep();
+			if (fileName.equals(fail)) {
+				active.decrementAndGet();
+				throw new GdxRuntimeException("Failed: " + fileName);
+			}
+		}
+
+		public Asset loadSync (AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<Asset> parameter) {
+			String[] names = dependencies.get(fileName);
+			if (names != null) {
+				for (String name : names)
+					assertEquals(name, manager.get(name, Asset.class).name);
+			}
+			loading.decrementAndGet();
+			active.decrementAndGet();
+			return new Asset(fileName);
+		}
+
+		public boolean canLoadConcurrently () {
+			return concurrent;
+		}
+
+		static private void max (AtomicInteger max, int count) {
+			while (true) {
+				int value = max.get();
+				if (count <= value || max.compareAndSet(value, count)) break;
+			}
+		}
+
+		static private void sleep () {
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException ignored) {
+			}
+		}
+	}
+
+	static private ObjectMap<String, String[]> graph () {
+		ObjectMap<String, String[]> dependencies = new ObjectMap<String, String[]>();
+		dependencies.put("a", new String[] {"shared", "a1"});
+		dependencies.put("b", new String[] {"shared", "b1"});
+		dependencies.put("c", new String[] {"b1"});
+		dependencies.put("shared", new String[] {"leaf"});
+		dependencies.put("b1", new String[] {"leaf"});
+		return dependencies;
+	}
+
+	static private final String[] roots = {"a", "b", "c", "d", "e", "f", "g", "h", "leaf"};
+
+	static private AssetManager load (int threads, TestLoader loader) {
+		AssetManager manager = new AssetManager(resolver, false, threads);
+		manager.setLoader(Asset.class, loader);
+		for (String root : roots)
+			manager.load(root, Asset.class);
+		manager.finishLoading();
+		return manager;
+	}
+
+	@Test
+	public void matchesSingleLane () {
+		TestLoader serialLoader = new TestLoader(graph(), true);
+		AssetManager serial = load(1, serialLoader);
+		TestLoader parallelLoader = new TestLoader(graph(), true);
+		AssetManager parallel = load(4, parallelLoader);
+
+		assertEquals(3, serialLoader.maxLoading.get());
+		assertTrue(parallelLoader.maxLoading.get() > 1);
+		assertEquals(1f, parallel.getProgress(), 0);
+		assertEquals(serial.getLoadedAssets(), parallel.getLoadedAssets());
+		for (String name : serial.getAssetNames()) {
+			assertEquals(name, serial.getReferenceCount(name), parallel.getReferenceCount(name));
+			assertEquals(name, parallel.get(name, Asset.class).name);
+		}
+		assertEquals(5, parallel.getReferenceCount("leaf"));
+
+		for (String root : roots)
+			parallel.unload(root);
+		assertEquals(0, parallel.getLoadedAssets());
+		parallel.dispose();
+		serial.dispose();
+	}
+
+	@Test
+	public void loaderNotConcurrent () {
+		TestLoader loader = new TestLoader(graph(), false);
+		AssetManager manager = load(4, loader);
+		// Other lanes use the loader while a task waits for its dependencies, but never at the same time.
+		assertEquals(1, loader.maxActive.get());
+		assertTrue(loader.maxLoading.get() > 1);
+		assertEquals(5, manager.getReferenceCount("leaf"));
+		manager.dispose();
+	}
+
+	@Test
+	public void dependenciesAcrossLanes () {
+		// Each asset depends on an asset of the other loader, which can only be loaded while the other lane waits for it.
+		AssetManager manager = new AssetManager(resolver, false, 2);
+		manager.setLoader(Asset.class, new TestLoader(new ObjectMap<String, String[]>(), false) {
+			public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, AssetLoaderParameters<Asset> parameter) {
+				super.getDependencies(fileName, file, parameter);
+				if (!fileName.equals("a")) return null;
+				Array<AssetDescriptor> descriptors = new Array<AssetDescriptor>();
+				descriptors.add(new AssetDescriptor<Other>("other", Other.class));
+				return descriptors;
+			}
+		});
+		manager.setLoader(Other.class, new AsynchronousAssetLoader<Other, AssetLoaderParameters<Other>>(resolver) {
+			public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, AssetLoaderParameters<Other> parameter) {
+				if (!fileName.equals("b")) return null;
+				Array<AssetDescriptor> descriptors = new Array<AssetDescriptor>();
+				descriptors.add(new AssetDescriptor<Asset>("leaf", Asset.class));
+				return descriptors;
+			}
+
+			public void loadAsync (AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<Other> parameter) {
+			}
+
+			public Other loadSync (AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<Other> parameter) {
+				return new Other();
+			}
+		});
+		manager.load("a", Asset.class);
+		manager.load("b", Other.class);
+		for (int i = 0; i < 1000 && !manager.update(); i++)
+			TestLoader.sleep();
+		assertTrue(manager.isLoaded("a"));
+		assertTrue(manager.isLoaded("b"));
+		manager.dispose();
+	}
+
+	@Test
+	public void skipsAssetLoadingInOtherLane () {
+		TestLoader loader = new TestLoader(graph(), true);
+		AssetManager manager = new AssetManager(resolver, false, 3);
+		manager.setLoader(Asset.class, loader);
+		manager.load("a", Asset.class);
+		manager.load("a", Asset.class);
+		manager.load("d", Asset.class);
+		manager.load("e", Asset.class);
+		manager.update();
+		// The second "a" waits for the first, the assets after it are started.
+		assertEquals(1, manager.loadQueue.size);
+		assertEquals("a", manager.loadQueue.first().fileName);
+		manager.finishLoading();
+		assertEquals(2, manager.getReferenceCount("a"));
+		assertTrue(manager.isLoaded("e"));
+		manager.dispose();
+	}
+
+	@Test
+	public void independentLoaders () {
+		final AtomicInteger otherLoads = new AtomicInteger();
+		AssetManager manager = new AssetManager(resolver, false, 2);
+		TestLoader loader = new TestLoader(graph(), false);
+		manager.setLoader(Asset.class, loader);
+		manager.setLoader(Other.class, new AsynchronousAssetLoader<Other, AssetLoaderParameters<Other>>(resolver) {
+			public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, AssetLoaderParameters<Other> parameter) {
+				return null;
+			}
+
+			public void loadAsync (AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<Other> parameter) {
+				otherLoads.incrementAndGet();
+			}
+
+			public Other loadSync (AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<Other> parameter) {
+				return new Other();
+			}
+		});
+		manager.load("a", Asset.class);
+		manager.load("b", Asset.class);
+		manager.load("other", Other.class);
+		manager.finishLoading();
+		assertEquals(1, otherLoads.get());
+		assertTrue(manager.isLoaded("other", Other.class));
+		assertEquals(2, manager.getReferenceCount("shared"));
+		manager.dispose();
+	}
+
+	@Test
+	public void errorOnlyStopsLane () {
+		TestLoader loader = new TestLoader(graph(), true);
+		loader.fail = "a1";
+		final Array<String> errors = new Array<String>();
+		AssetManager manager = new AssetManager(resolver, false, 4);
+		manager.setLoader(Asset.class, loader);
+		manager.setErrorListener(new AssetErrorListener() {
+			public void error (AssetDescriptor asset, Throwable throwable) {
+				errors.add(asset.fileName);
+			}
+		});
+		for (String root : roots)
+			manager.load(root, Asset.class);
+		manager.finishLoading();
+		assertEquals(1, errors.size);
+		assertEquals("a1", errors.first());
+		assertFalse(manager.isLoaded("a"));
+		for (String root : roots)
+			if (!root.equals("a")) assertTrue(root, manager.isLoaded(root));
+		manager.dispose();
+	}
+}
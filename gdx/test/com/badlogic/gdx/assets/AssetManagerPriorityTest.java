@@ -0,0 +1,120 @@
+package com.badlogic.gdx.assets;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.SynchronousAssetLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Test;
+
+public class AssetManagerPriorityTest {
+	static private final FileHandleResolver resolver = new FileHandleResolver() {
+		public FileHandle resolve (String fileName) {
+			return new FileHandle(fileName);
+		}
+	};
+
+	/** Records the order assets are loaded in. "ui" depends on "font". */
+	static private class OrderLoader extends SynchronousAssetLoader<String, AssetLoaderParameters<String>> {
+		final Array<String> order = new Array<String>();
+
+		OrderLoader () {
+			super(resolver);
+		}
+
+		public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, AssetLoaderParameters<String> parameter) {
+			if (!fileName.equals("ui")) return null;
+			Array<AssetDescriptor> dependencies = new Array<AssetDescriptor>();
+			dependencies.add(new AssetDescriptor<String>("font", String.class));
+			return dependencies;
+		}
+
+		public String load (AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<String> parameter) {
+			order.add(fileName);
+			return fileName;
+		}
+	}
+
+	static private Array<String> array (String... names) {
+		return new Array<String>(names);
+	}
+
+	@Test
+	public void priorities () {
+		AssetManager manager = new AssetManager(resolver, false);
+		OrderLoader loader = new OrderLoader();
+		manager.setLoader(String.class, loader);
+		manager.load("level1", String.class);
+		manager.load("level2", String.class);
+		manager.load("level3", String.class, null, -1);
+		manager.load("ui", String.class, null, 10);
+		AssetDescriptor<String> music = new AssetDescriptor<String>("music", String.class);
+		music.priority = 5;
+		manager.load(music);
+		assertEquals(10, manager.getPriority("ui", 0));
+		assertEquals(-1, manager.getPriority("missing", -1));
+
+		// level3 jumps ahead of level1, but not ahead of music.
+		assertTrue(manager.setPriority("level3", 1));
+		assertFalse(manager.setPriority("missing", 1));
+		manager.finishLoading();
+		assertEquals(array("font", "ui", "music", "level3", "level1", "level2"), loader.order);
+		manager.dispose();
+	}
+
+	@Test
+	public void cancel () {
+		AssetManager manager = new AssetManager(resolver, false);
+		OrderLoader loader = new OrderLoader();
+		manager.setLoader(String.class, loader);
+		manager.load("a", String.class);
+		manager.finishLoading();
+
+		manager.load("a", String.class, null, -1);
+		manager.load("b", String.class, null, -1);
+		manager.load("b", String.class, null, -1);
+		manager.load("c", String.class, null, -2);
+		manager.load("d", String.class);
+		assertEquals(5, manager.getQueuedAssets());
+
+		// Cancelling doesn't unload a loaded asset, and removes all queued loads.
+		assertTrue(manager.cancel("a"));
+		assertTrue(manager.isLoaded("a"));
+		assertEquals(1, manager.getReferenceCount("a"));
+		assertTrue(manager.cancel("b"));
+		assertFalse(manager.cancel("b"));
+		assertEquals(1, manager.cancelBelow(0));
+		assertEquals(1, manager.getQueuedAssets());
+		manager.finishLoading();
+		assertEquals(array("a", "d"), loader.order);
+		assertEquals(1f, manager.getProgress(), 0);
+		manager.dispose();
+	}
+
+	@Test
+	public void cancelLoadingRoot () {
+		cancelLoadingRoot(1);
+		cancelLoadingRoot(2);
+	}
+
+	private void cancelLoadingRoot (int threads) {
+		AssetManager manager = new AssetManager(resolver, false, threads);
+		OrderLoader loader = new OrderLoader();
+		manager.setLoader(String.class, loader);
+		manager.load("ui", String.class);
+		while (!manager.isLoaded("font"))
+			manager.update();
+		assertEquals(array("font"), manager.getDependencies("ui"));
+
+		// The dependency loaded for the cancelled asset is released with it.
+		assertTrue(manager.cancel("ui"));
+		manager.finishLoading();
+		assertFalse(manager.isLoaded("ui"));
+		assertFalse(manager.isLoaded("font"));
+		assertNull(manager.getDependencies("ui"));
+		assertEquals(array("font"), loader.order);
+		manager.dispose();
+	}
+}
@@ -0,0 +1,157 @@
+package com.badlogic.gdx.assets;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.assets.AssetProfiler.AssetTiming;
+import com.badlogic.gdx.assets.AssetProfiler.Phase;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.SynchronousAssetLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import org.junit.Test;
+
+public class AssetProfilerTest {
+	static private final FileHandleResolver resolver = new FileHandleResolver() {
+		public FileHandle resolve (String fileName) {
+			return new FileHandle(fileName);
+		}
+	};
+
+	static private final ObjectMap<String, String[]> dependencies = new ObjectMap<String, String[]>();
+	static {
+		dependencies.put("a", new String[] {"slow", "b"});
+		dependencies.put("b", new String[] {"c"});
+	}
+
+	/** Returns the dependencies of the asset. "b" is loaded with a synchronous loader if sync is true. */
+	static private Array<AssetDescriptor> dependencies (String fileName, boolean sync) {
+		String[] names = dependencies.get(fileName);
+		if (names == null) return null;
+		Array<AssetDescriptor> descriptors = new Array<AssetDescriptor>();
+		for (String name : names)
+			descriptors.add(new AssetDescriptor(name, sync && name.equals("b") ? Sync.class : Async.class));
+		return descriptors;
+	}
+
+	static private void sleep (String fileName) {
+		try {
+			Thread.sleep(fileName.equals("slow") ? 30 : 2);
+		} catch (InterruptedException ignored) {
+		}
+	}
+
+	static public class Async {
+	}
+
+	static public class Sync {
+	}
+
+	@Test
+	public void timings () {
+		AssetManager manager = new AssetManager(resolver, false);
+		manager.setLoader(Async.class, new AsynchronousAssetLoader<Async, AssetLoaderParameters<Async>>(resolver) {
+			public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, AssetLoaderParameters<Async> parameter) {
+				return dependencies(fileName, true);
+			}
+
+			public void loadAsync (AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<Async> parameter) {
+				sleep(fileName);
+			}
+
+			public Async loadSync (AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<Async> parameter) {
+				return new Async();
+			}
+		});
+		manager.setLoader(Sync.class, new SynchronousAssetLoader<Sync, AssetLoaderParameters<Sync>>(resolver) {
+			public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, AssetLoaderParameters<Sync> parameter) {
+				return dependencies(fileName, false);
+			}
+
+			public Sync load (AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<Sync> parameter) {
+				sleep(fileName);
+				return new Sync();
+			}
+		});
+		AssetProfiler profiler = new AssetProfiler();
+		manager.setProfiler(profiler);
+		manager.load("a", Async.class);
+		manager.load("d", Async.class);
+		manager.finishLoading();
+
+		assertEquals(5, profiler.getTimings().size);
+		AssetTiming a = profiler.getTiming("a"), b = profiler.getTiming("b"), slow = profiler.getTiming("slow");
+		assertFalse(a.dependency);
+		assertTrue(b.dependency);
+		assertTrue(a.async);
+		assertFalse(b.async);
+		assertEquals(new Array<String>(new String[] {"slow", "b"}), a.getDependencies());
+		assertEquals(new Array<String>(new String[] {"c"}), b.getDependencies());
+		assertTrue(slow.getTime(Phase.loadAsync) >= 30000000L);
+		assertTrue(b.getTime(Phase.loadSync) > 0);
+		assertEquals(0, b.getTime(Phase.loadAsync));
+		assertTrue(a.getDependencyWaitTime() >= slow.getTime(Phase.loadAsync));
+		assertTrue(a.getTotalTime() >= a.getDependencyWaitTime());
+		assertTrue(profiler.getTiming("d").getQueueTime() >= slow.getTime(Phase.loadAsync));
+
+		// a is loaded last before d, d waited for it in the queue, and slow finished after b.
+		Array<String> path = new Array<String>();
+		for (AssetTiming timing : profiler.getCriticalPath())
+			path.add(timing.fileName);
+		assertEquals(new Array<String>(new String[] {"slow", "a", "d"}), path);
+
+		JsonValue trace = new JsonReader().parse(profiler.toChromeTrace());
+		int spans = 0, renderSpans = 0;
+		for (JsonValue event = trace.get("traceEvents").child; event != null; event = event.next) {
+			if (event.getString("ph").equals("X") && event.getString("cat").equals("asset")) spans++;
+			if (event.getInt("tid") == 2 && !event.getString("ph").equals("M")) renderSpans++;
+		}
+		assertEquals(5, spans);
+		// loadSync for the 4 async assets, getDependencies and load for the sync asset.
+		assertEquals(6, renderSpans);
+
+		JsonValue json = new JsonReader().parse(profiler.toJson());
+		assertEquals(5, json.get("assets").size);
+		assertEquals("slow", json.get("criticalPath").getString(0));
+
+		manager.clear();
+		manager.load("a", Async.class);
+		manager.finishLoading();
+		assertEquals(9, profiler.getTimings().size);
+		manager.dispose();
+	}
+
+	@Test
+	public void failed () {
+		AssetManager manager = new AssetManager(resolver, false);
+		manager.setLoader(Async.class, new AsynchronousAssetLoader<Async, AssetLoaderParameters<Async>>(resolver) {
+			public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, AssetLoaderParameters<Async> parameter) {
+				return dependencies(fileName, false);
+			}
+
+			public void loadAsync (AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<Async> parameter) {
+				if (fileName.equals("c")) throw new RuntimeException();
+			}
+
+			public Async loadSync (AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<Async> parameter) {
+				return new Async();
+			}
+		});
+		manager.setErrorListener(new AssetErrorListener() {
+			public void error (AssetDescriptor asset, Throwable throwable) {
+			}
+		});
+		AssetProfiler profiler = new AssetProfiler();
+		manager.setProfiler(profiler);
+		manager.load("b", Async.class);
+		manager.finishLoading();
+		assertTrue(profiler.getTiming("b").isFailed());
+		assertTrue(profiler.getTiming("c").isFailed());
+		assertTrue(profiler.getTiming("b").getEndTime() != 0);
+		manager.dispose();
+	}
+}
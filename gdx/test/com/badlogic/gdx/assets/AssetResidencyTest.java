@@ -0,0 +1,128 @@
+package com.badlogic.gdx.assets;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.assets.AssetResidency.SizeEstimator;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.SynchronousAssetLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Test;
+
+public class AssetResidencyTest {
+	static private final FileHandleResolver resolver = new FileHandleResolver() {
+		public FileHandle resolve (String fileName) {
+			return new FileHandle(fileName);
+		}
+	};
+
+	/** An asset with the size in its name, for example "a100" has 100 bytes. Assets starting with "x" depend on "s50". */
+	static public class Blob {
+		final int size;
+
+		Blob (String fileName) {
+			size = Integer.parseInt(fileName.substring(1));
+		}
+	}
+
+	static private AssetManager manager () {
+		AssetManager manager = new AssetManager(resolver, false);
+		manager.setLoader(Blob.class, new SynchronousAssetLoader<Blob, AssetLoaderParameters<Blob>>(resolver) {
+			public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, AssetLoaderParameters<Blob> parameter) {
+				if (!fileName.startsWith("x")) return null;
+				Array<AssetDescriptor> dependencies = new Array<AssetDescriptor>();
+				dependencies.add(new AssetDescriptor<Blob>("s50", Blob.class));
+				return dependencies;
+			}
+
+			public Blob load (AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<Blob> parameter) {
+				return new Blob(fileName);
+			}
+		});
+		return manager;
+	}
+
+	static private AssetResidency residency (AssetManager manager, long budget) {
+		AssetResidency residency = new AssetResidency(manager, budget);
+		residency.setEstimator(Blob.class, new SizeEstimator<Blob>() {
+			public long estimate (Blob blob) {
+				return blob.size;
+			}
+		});
+		return residency;
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed () {
+		AssetManager manager = manager();
+		AssetResidency residency = residency(manager, 250);
+		residency.acquire("a100", Blob.class);
+		residency.acquire("b100", Blob.class);
+		residency.acquire("c100", Blob.class);
+		manager.finishLoading();
+		// Over budget, but nothing is released.
+		assertEquals(0, residency.update());
+		assertEquals(300, residency.getResidentBytes());
+		assertEquals(100, residency.getSize("a100"));
+
+		residency.release("b100");
+		residency.release("a100");
+		residency.touch("b100");
+		assertEquals(1, residency.update());
+		assertFalse(residency.isResident("a100"));
+		assertFalse(manager.isLoaded("a100"));
+		assertTrue(residency.isResident("b100"));
+		assertEquals(200, residency.getResidentBytes());
+
+		// Getting an evicted asset loads it again.
+		assertEquals(100, residency.get("a100", Blob.class).size);
+		assertTrue(residency.isResident("a100"));
+		assertEquals(300, residency.getResidentBytes());
+		assertEquals(1, residency.update());
+		assertFalse(residency.isResident("b100"));
+
+		residency.setBudget(0);
+		assertEquals(1, residency.update());
+		assertEquals(100, residency.getResidentBytes());
+		assertEquals(1, manager.getLoadedAssets());
+		manager.dispose();
+	}
+
+	@Test
+	public void dependencies () {
+		AssetManager manager = manager();
+		AssetResidency residency = residency(manager, 1000);
+		residency.acquire("x100", Blob.class);
+		residency.acquire("y100", Blob.class);
+		residency.acquire("x200", Blob.class);
+		residency.acquire("x200", Blob.class);
+		residency.update();
+		assertEquals(0, residency.getResidentBytes());
+		manager.finishLoading();
+		residency.update();
+		// The shared dependency is counted once.
+		assertEquals(450, residency.getResidentBytes());
+
+		residency.release("x100");
+		assertEquals(1, residency.evict(300));
+		assertEquals(350, residency.getResidentBytes());
+		assertTrue(manager.isLoaded("s50"));
+
+		residency.release("x200");
+		assertEquals(0, residency.evict(0));
+		residency.release("x200");
+		assertEquals(1, residency.evict(0));
+		assertEquals(100, residency.getResidentBytes());
+		assertFalse(manager.isLoaded("s50"));
+
+		residency.clear();
+		assertTrue(residency.isResident("y100"));
+		try {
+			residency.get("x100", Blob.class);
+			fail();
+		} catch (RuntimeException expected) {
+		}
+		manager.dispose();
+	}
+}
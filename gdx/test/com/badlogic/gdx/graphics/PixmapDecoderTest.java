@@ -0,0 +1,177 @@
+package com.badlogic.gdx.graphics;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import org.junit.Test;
+
+public class PixmapDecoderTest {
+	/** Returns an image with gradients and some noise. */
+	static private BufferedImage image (int width, int height, int type) {
+		BufferedImage image = new BufferedImage(width, height, type);
+		Random random = new Random(42);
+		for (int y = 0; y < height; y++)
+			for (int x = 0; x < width; x++)
+				image.setRGB(x, y, (x * 255 / width) << 24 | (y * 2) << 16 | (x + y) << 8 | random.nextInt(16));
+		return image;
+	}
+
+	static private byte[] write (BufferedImage image, String format, boolean progressive, float quality) throws IOException {
+		ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+		ImageWriteParam param = writer.getDefaultWriteParam();
+		if (progressive) param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+		if (quality > 0) {
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			param.setCompressionQuality(quality);
+		}
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		MemoryCacheImageOutputStream stream = new MemoryCacheImageOutputStream(output);
+		writer.setOutput(stream);
+		writer.write(null, new IIOImage(image, null, null), param);
+		stream.close();
+		writer.dispose();
+		return output.toByteArray();
+	}
+
+	/** Decodes into the middle of a larger buffer, checking the pixels around the image are not changed. */
+	static private ByteBuffer decode (byte[] file, Format format, int width, int height) {
+		PixmapDecoder decoder = PixmapDecoder.create(new ByteArrayInputStream(file));
+		assertEquals(width, decoder.getWidth());
+		assertEquals(height, decoder.getHeight());
+		int bytesPerPixel = format == Format.RGBA8888 ? 4 : 3, stride = (width + 3) * bytesPerPixel;
+		ByteBuffer pixels = ByteBuffer.allocateDirect(stride * (height + 2));
+		for (int i = 0, n = pixels.capacity(); i < n; i++)
+			pixels.put(i, (byte)7);
+		decoder.decode(pixels, stride + bytesPerPixel, stride, format);
+		decoder.dispose();
+		assertEquals(0, pixels.position());
+		for (int x = 0; x < stride; x++) {
+			assertEquals(7, pixels.get(x));
+			assertEquals(7, pixels.get(pixels.capacity() - 1 - x));
+		}
+		for (int y = 1; y <= height; y++) {
+			assertEquals(7, pixels.get(y * stride));
+			assertEquals(7, pixels.get(y * stride + (width + 1) * bytesPerPixel));
+		}
+		return pixels;
+	}
+
+	/** Returns the ARGB pixel. Gray images use their samples, getRGB converts them from linear gray to sRGB. */
+	static private int argb (BufferedImage image, int x, int y) {
+		int type = image.getType();
+		if (type != BufferedImage.TYPE_BYTE_GRAY && type != BufferedImage.TYPE_USHORT_GRAY) return image.getRGB(x, y);
+		int gray = image.getRaster().getSample(x, y, 0) >> (type == BufferedImage.TYPE_USHORT_GRAY ? 8 : 0);
+		return 0xff000000 | gray << 16 | gray << 8 | gray;
+	}
+
+	/** Returns the largest difference of a channel between the decoded pixels and the image. */
+	static private int compare (BufferedImage image, byte[] file, Format format) {
+		int width = image.getWidth(), height = image.getHeight();
+		ByteBuffer pixels = decode(file, format, width, height);
+		int bytesPerPixel = format == Format.RGBA8888 ? 4 : 3, stride = (width + 3) * bytesPerPixel;
+		int max = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int argb = argb(image, x, y), i = (y + 1) * stride + (x + 1) * bytesPerPixel;
+				for (int c = 0; c < bytesPerPixel; c++) {
+					int expected = c == 3 ? argb >>> 24 : (argb >> (16 - c * 8)) & 0xff;
+					max = Math.max(max, Math.abs(expected - (pixels.get(i + c) & 0xff)));
+				}
+			}
+		}
+		return max;
+	}
+
+	@Test
+	public void png () throws IOException {
+		int[] types = {BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_BYTE_GRAY,
+			BufferedImage.TYPE_USHORT_GRAY, BufferedImage.TYPE_BYTE_INDEXED, BufferedImage.TYPE_BYTE_BINARY,
+			BufferedImage.TYPE_4BYTE_ABGR};
+		for (int type : types) {
+			BufferedImage image = image(37, 29, type);
+			for (boolean interlaced : new boolean[] {false, true}) {
+				byte[] png = write(image, "png", interlaced, 0);
+				assertEquals("type " + type, 0, compare(image, png, Format.RGBA8888));
+				assertEquals("type " + type, 0, compare(image, png, Format.RGB888));
+			}
+		}
+	}
+
+	@Test
+	public void pngFilters () throws IOException {
+		// PixmapIO uses the Paeth filter, ImageIO chooses a filter for each row.
+		int width = 53, height = 41;
+		BufferedImage image = image(width, height, BufferedImage.TYPE_INT_ARGB);
+		ByteBuffer pixels = ByteBuffer.allocate(width * height * 4);
+		for (int y = 0; y < height; y++)
+			for (int x = 0; x < width; x++) {
+				int argb = image.getRGB(x, y);
+				pixels.putInt((argb << 8) | (argb >>> 24));
+			}
+		pixels.flip();
+		PixmapIO.PNG encoder = new PixmapIO.PNG();
+		encoder.setFlipY(false);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		encoder.write(output, pixels, width, height);
+		encoder.dispose();
+		assertEquals(0, compare(image, output.toByteArray(), Format.RGBA8888));
+	}
+
+	@Test
+	public void jpeg () throws IOException {
+		BufferedImage color = image(67, 45, BufferedImage.TYPE_3BYTE_BGR);
+		// Chroma is subsampled, so allow for the noise and upsampling.
+		assertTrue(compare(color, write(color, "jpeg", false, 1), Format.RGB888) < 24);
+		int max = compare(ImageIO.read(new ByteArrayInputStream(write(color, "jpeg", false, 0.75f))),
+			write(color, "jpeg", false, 0.75f), Format.RGBA8888);
+		assertTrue("max difference from ImageIO: " + max, max <= 8);
+
+		BufferedImage gray = image(35, 19, BufferedImage.TYPE_BYTE_GRAY);
+		byte[] jpeg = write(gray, "jpeg", false, 0.9f);
+		// Without subsampling, the IDCT matches libjpeg within rounding.
+		assertTrue(compare(ImageIO.read(new ByteArrayInputStream(jpeg)), jpeg, Format.RGB888) <= 1);
+
+		try {
+			PixmapDecoder.create(new ByteArrayInputStream(write(color, "jpeg", true, 0.9f)));
+			fail();
+		} catch (GdxRuntimeException expected) {
+		}
+	}
+
+	@Test
+	public void invalid () throws IOException {
+		try {
+			PixmapDecoder.create(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+			fail();
+		} catch (GdxRuntimeException expected) {
+		}
+		byte[] png = write(image(8, 8, BufferedImage.TYPE_INT_ARGB), "png", false, 0);
+		PixmapDecoder decoder = PixmapDecoder.create(new ByteArrayInputStream(png));
+		try {
+			decoder.decode(ByteBuffer.allocate(8 * 8 * 4 - 1), Format.RGBA8888);
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+		decoder.decode(ByteBuffer.allocate(8 * 8 * 4), Format.RGBA8888);
+		try {
+			decoder.decode(ByteBuffer.allocate(8 * 8 * 4), Format.RGBA8888);
+			fail();
+		} catch (GdxRuntimeException expected) {
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.badlogic.gdx.graphics;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.PixmapIO.PNG;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.zip.InflaterInputStream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Test;
+
+public class PixmapIOTest {
+	/** Returns RGBA8888 pixels with gradients, which compress well, and some noise. */
+	static private ByteBuffer pixels (int width, int height) {
+		ByteBuffer pixels = ByteBuffer.allocate(width * height * 4);
+		Random random = new Random(42);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				pixels.put((byte)x);
+				pixels.put((byte)y);
+				pixels.put((byte)(x * y + random.nextInt(8)));
+				pixels.put((byte)(255 - random.nextInt(2)));
+			}
+		}
+		pixels.flip();
+		return pixels;
+	}
+
+	/** Checks the decoded image has the pixels, flipped vertically if flipY is true. */
+	static private void assertImage (BufferedImage image, ByteBuffer pixels, int width, int height, boolean flipY) {
+		assertEquals(width, image.getWidth());
+		assertEquals(height, image.getHeight());
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int i = ((flipY ? height - y - 1 : y) * width + x) * 4;
+				int rgba = pixels.getInt(i);
+				int argb = image.getRGB(x, y);
+				assertEquals("pixel " + x + "," + y, rgba, (argb << 8) | (argb >>> 24));
+			}
+		}
+	}
+
+	/** Returns the decompressed IDAT data, which fails if the checksum is wrong. */
+	static private byte[] inflate (byte[] png) throws IOException {
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(png));
+		input.skipBytes(8);
+		ByteArrayOutputStream idat = new ByteArrayOutputStream();
+		while (true) {
+			int length = input.readInt(), type = input.readInt();
+			byte[] data = new byte[length];
+			input.readFully(data);
+			input.readInt(); // CRC
+			if (type == 0x49444154) idat.write(data);
+			if (type == 0x49454E44) break;
+		}
+		InflaterInputStream inflater = new InflaterInputStream(new ByteArrayInputStream(idat.toByteArray()));
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		for (int count; (count = inflater.read(buffer)) != -1;)
+			output.write(buffer, 0, count);
+		return output.toByteArray();
+	}
+
+	@Test
+	public void parallel () throws IOException {
+		int width = 301, height = 203;
+		ByteBuffer pixels = pixels(width, height);
+
+		PNG serial = new PNG();
+		serial.setFlipY(false);
+		ByteArrayOutputStream serialOutput = new ByteArrayOutputStream();
+		serial.write(serialOutput, pixels, width, height);
+		serial.dispose();
+		assertEquals(0, pixels.position());
+
+		AsyncExecutor executor = new AsyncExecutor(3, "PNG test");
+		PNG parallel = new PNG();
+		parallel.setFlipY(false);
+		parallel.setExecutor(executor);
+		for (int level : new int[] {-1, 0, 1, 9}) {
+			parallel.setCompression(level);
+			// Blocks of about 10 rows, so most use part of the previous block as the dictionary.
+			parallel.setBlockSize(width * 4 * 10);
+			ByteArrayOutputStream parallelOutput = new ByteArrayOutputStream();
+			parallel.write(parallelOutput, pixels, width, height);
+			byte[] png = parallelOutput.toByteArray();
+
+			assertArrayEquals(inflate(serialOutput.toByteArray()), inflate(png));
+			assertImage(ImageIO.read(new ByteArrayInputStream(png)), pixels, width, height, false);
+		}
+
+		// A single block.
+		parallel.setBlockSize(Integer.MAX_VALUE);
+		ByteArrayOutputStream parallelOutput = new ByteArrayOutputStream();
+		parallel.write(parallelOutput, pixels, width, height);
+		assertArrayEquals(inflate(serialOutput.toByteArray()), inflate(parallelOutput.toByteArray()));
+		parallel.dispose();
+		executor.dispose();
+	}
+
+	@Test
+	public void async () throws IOException {
+		int width = 64, height = 48;
+		ByteBuffer pixels = pixels(width, height);
+		File dir = File.createTempFile("png", "");
+		dir.delete();
+		FileHandle root = new FileHandle(dir);
+		AsyncExecutor executor = new AsyncExecutor(2, "PNG test");
+		try {
+			PNG png = new PNG();
+			FileHandle serialFile = root.child("serial.png"), parallelFile = root.child("parallel.png");
+			png.writeAsync(serialFile, pixels, width, height);
+			png.setExecutor(executor);
+			png.setBlockSize(width * 4 * 7);
+			png.writeAsync(parallelFile, pixels, width, height).get();
+			// The pixels can be changed as soon as writeAsync returns.
+			ByteBuffer changed = pixels(width, height);
+			png.writeAsync(root.child("changed.png"), changed, width, height);
+			changed.put(0, (byte)1);
+			png.dispose();
+
+			assertImage(ImageIO.read(serialFile.file()), pixels, width, height, true);
+			assertImage(ImageIO.read(parallelFile.file()), pixels, width, height, true);
+			assertImage(ImageIO.read(root.child("changed.png").file()), pixels, width, height, true);
+		} finally {
+			executor.dispose();
+			root.deleteDirectory();
+		}
+	}
+}
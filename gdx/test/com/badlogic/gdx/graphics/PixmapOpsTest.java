@@ -0,0 +1,156 @@
+package com.badlogic.gdx.graphics;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.PixmapOps.Filter;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PixmapOpsTest {
+	static private ByteBuffer random (int size) {
+		byte[] bytes = new byte[size];
+		new Random(42).nextBytes(bytes);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+		buffer.put(bytes);
+		buffer.flip();
+		return buffer;
+	}
+
+	static private byte[] bytes (ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.capacity()];
+		buffer.duplicate().get(bytes);
+		return bytes;
+	}
+
+	/** Returns an RGBA8888 buffer with the pixels. */
+	static private ByteBuffer rgba (int... pixels) {
+		ByteBuffer buffer = ByteBuffer.allocate(pixels.length * 4);
+		for (int pixel : pixels)
+			buffer.putInt(pixel);
+		buffer.flip();
+		return buffer;
+	}
+
+	@Test
+	public void convert () {
+		PixmapOps ops = new PixmapOps();
+		ByteBuffer source = rgba(0xff8040c0, 0x00000000, 0xffffffff);
+		// Values computed the same way as gdx2d.
+		ByteBuffer target = ByteBuffer.allocate(3 * 2);
+		ops.convert(source, Format.RGBA8888, target, Format.LuminanceAlpha, 3, 1);
+		assertArrayEquals(new byte[] {(byte)150, (byte)0xc0, 0, 0, (byte)254, (byte)255}, bytes(target));
+		target = ByteBuffer.allocate(3);
+		ops.convert(source, Format.RGBA8888, target, Format.Alpha, 3, 1);
+		assertArrayEquals(new byte[] {(byte)0xc0, 0, (byte)255}, bytes(target));
+
+		ByteBuffer back = ByteBuffer.allocate(3 * 4);
+		ops.convert(target, Format.Alpha, back, Format.RGBA8888, 3, 1);
+		assertEquals(0xffffffc0, back.getInt(0));
+
+		target = ByteBuffer.allocate(3 * 2);
+		ops.convert(source, Format.RGBA8888, target, Format.RGB565, 3, 1);
+		ops.convert(target, Format.RGB565, back, Format.RGBA8888, 3, 1);
+		assertEquals(0xff8141ff, back.getInt(0));
+		assertEquals(0x000000ff, back.getInt(4));
+		assertEquals(0xffffffff, back.getInt(8));
+
+		ops.convert(source, Format.RGBA8888, target, Format.RGBA4444, 3, 1);
+		ops.convert(target, Format.RGBA4444, back, Format.RGBA8888, 3, 1);
+		assertEquals(0xff8844cc, back.getInt(0));
+	}
+
+	@Test
+	public void premultiplyAlpha () {
+		ByteBuffer pixels = rgba(0xff804080, 0xffffff00, 0x102030ff);
+		new PixmapOps().premultiplyAlpha(pixels, 3, 1);
+		assertEquals(0x80402080, pixels.getInt(0));
+		assertEquals(0x00000000, pixels.getInt(4));
+		assertEquals(0x102030ff, pixels.getInt(8));
+	}
+
+	@Test
+	public void downscale () {
+		PixmapOps ops = new PixmapOps();
+		ByteBuffer source = rgba(0x00000000, 0x04040404, 0x10101010, //
+			0x08080808, 0x0c0c0c0c, 0x10101010);
+		ByteBuffer target = ByteBuffer.allocate(4);
+		ops.downscale(source, 3, 2, target, 1, 1, Format.RGBA8888, Filter.Box);
+		assertEquals(0x09090909, target.getInt(0));
+
+		// Scaling by 2 samples between 4 pixels, so bilinear matches box.
+		int width = 64, height = 38;
+		source = random(width * height * 3);
+		ByteBuffer box = ByteBuffer.allocate(width / 2 * height / 2 * 3), bilinear = ByteBuffer.allocate(box.capacity());
+		ops.downscale(source, width, height, box, width / 2, height / 2, Format.RGB888, Filter.Box);
+		ops.downscale(source, width, height, bilinear, width / 2, height / 2, Format.RGB888, Filter.Bilinear);
+		byte[] boxBytes = bytes(box), bilinearBytes = bytes(bilinear);
+		for (int i = 0; i < boxBytes.length; i++)
+			assertEquals(boxBytes[i] & 0xff, bilinearBytes[i] & 0xff, 1);
+
+		try {
+			ops.downscale(source, width, height, box, width / 2, height / 2, Format.RGB565, Filter.Box);
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+
+	@Test
+	public void blend () {
+		PixmapOps ops = new PixmapOps();
+		ByteBuffer source = rgba(0xff000080, 0x00ff00ff, 0x0000ff00, 0xffffffff);
+		ByteBuffer target = rgba(0x0000ffff, 0x0000ffff, 0x0000ffff, 0x0000ffff);
+		// The bottom right source pixel is outside the target.
+		ops.blend(source, Format.RGBA8888, 2, 2, target, Format.RGBA8888, 2, 2, -1, 0);
+		assertEquals(0x00ff00ff, target.getInt(0));
+		assertEquals(0x0000ffff, target.getInt(4));
+		assertEquals(0xffffffff, target.getInt(8));
+		assertEquals(0x0000ffff, target.getInt(12));
+		ops.blend(source, Format.RGBA8888, 2, 2, target, Format.RGBA8888, 2, 2, 0, 0);
+		assertEquals(0x807f00ff, target.getInt(0));
+
+		ByteBuffer rgb = ByteBuffer.allocate(3);
+		ops.blend(rgba(0xff000080), Format.RGBA8888, 1, 1, rgb, Format.RGB888, 1, 1, 0, 0);
+		assertArrayEquals(new byte[] {(byte)0x80, 0, 0}, bytes(rgb));
+	}
+
+	@Test
+	public void parallel () {
+		int width = 301, height = 203;
+		ByteBuffer source = random(width * height * 4);
+		PixmapOps serial = new PixmapOps(), parallel = new PixmapOps();
+		AsyncExecutor executor = new AsyncExecutor(3, "PixmapOps test");
+		parallel.setExecutor(executor);
+		parallel.setBandSize(width * 7);
+
+		ByteBuffer expected = ByteBuffer.allocate(width * height * 2), actual = ByteBuffer.allocate(width * height * 2);
+		serial.convert(source, Format.RGBA8888, expected, Format.RGB565, width, height);
+		parallel.convert(source, Format.RGBA8888, actual, Format.RGB565, width, height);
+		assertArrayEquals(bytes(expected), bytes(actual));
+
+		for (Filter filter : Filter.values()) {
+			expected = ByteBuffer.allocate(100 * 70 * 4);
+			actual = ByteBuffer.allocate(100 * 70 * 4);
+			serial.downscale(source, width, height, expected, 100, 70, Format.RGBA8888, filter);
+			parallel.downscale(source, width, height, actual, 100, 70, Format.RGBA8888, filter);
+			assertArrayEquals(bytes(expected), bytes(actual));
+		}
+
+		expected = random(width * height * 3);
+		actual = random(width * height * 3);
+		serial.blend(source, Format.RGBA8888, width, height, expected, Format.RGB888, width, height, 10, -5);
+		parallel.blend(source, Format.RGBA8888, width, height, actual, Format.RGB888, width, height, 10, -5);
+		assertArrayEquals(bytes(expected), bytes(actual));
+
+		expected = random(width * height * 4);
+		actual = random(width * height * 4);
+		serial.premultiplyAlpha(expected, width, height);
+		parallel.premultiplyAlpha(actual, width, height);
+		assertArrayEquals(bytes(expected), bytes(actual));
+		executor.dispose();
+	}
+}
@@ -0,0 +1,224 @@
+package com.badlogic.gdx.graphics.g2d;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.MultiTextureSpriteBatchTest.RecordingGL;
+import com.badlogic.gdx.graphics.g2d.MultiTextureSpriteBatchTest.SizeTextureData;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchRecorderTest {
+	/** A batch that records the calls made to it and keeps the state a recording changes. */
+	static class TargetBatch implements InvocationHandler {
+		final Array<String> calls = new Array<String>();
+		final Array<float[]> vertices = new Array<float[]>();
+		final Matrix4 transform = new Matrix4();
+		ShaderProgram shader;
+		boolean blending = true;
+		int[] blendFunction = {GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA};
+
+		public Object invoke (Object proxy, Method method, Object[] args) {
+			String name = method.getName();
+			if (name.equals("isDrawing")) return true;
+			if (name.equals("getPackedColor")) return Color.WHITE_FLOAT_BITS;
+			if (name.equals("getShader")) return shader;
+			if (name.equals("isBlendingEnabled")) return blending;
+			if (name.equals("getBlendSrcFunc")) return blendFunction[0];
+			if (name.equals("getBlendDstFunc")) return blendFunction[1];
+			if (name.equals("getBlendSrcFuncAlpha")) return blendFunction[2];
+			if (name.equals("getBlendDstFuncAlpha")) return blendFunction[3];
+			if (name.equals("getTransformMatrix")) return transform;
+			if (name.equals("draw")) {
+				float[] sprites = (float[])args[1];
+				int offset = (Integer)args[2], count = (Integer)args[3];
+				vertices.add(Arrays.copyOfRange(sprites, offset, offset + count));
+				calls.add("draw " + ((Texture)args[0]).getTextureObjectHandle() + " " + count / Sprite.SPRITE_SIZE);
+			} else if (name.equals("setShader")) {
+				shader = (ShaderProgram)args[0];
+				calls.add("shader " + (shader == null ? "null" : shader.getHandle()));
+			} else if (name.equals("enableBlending") || name.equals("disableBlending")) {
+				blending = name.equals("enableBlending");
+				calls.add(name);
+			} else if (name.equals("setBlendFunctionSeparate")) {
+				for (int i = 0; i < 4; i++)
+					blendFunction[i] = (Integer)args[i];
+				calls.add("blend " + args[0] + " " + args[1]);
+			} else if (name.equals("setTransformMatrix")) {
+				transform.set((Matrix4)args[0]);
+				calls.add("transform " + transform.val[Matrix4.M03] + " " + transform.val[Matrix4.M13]);
+			}
+			return null;
+		}
+	}
+
+	RecordingGL gl;
+	Texture texture1, texture2;
+	TargetBatch target;
+	Batch batch;
+
+	@Before
+	public void setup () {
+		gl = new RecordingGL();
+		Gdx.gl = Gdx.gl20 = proxy(GL20.class, gl);
+		Gdx.graphics = proxy(Graphics.class, gl);
+		Gdx.app = proxy(Application.class, gl);
+		texture1 = new Texture(new SizeTextureData());
+		texture2 = new Texture(new SizeTextureData());
+		target = new TargetBatch();
+		batch = proxy(Batch.class, target);
+	}
+
+	@After
+	public void tearDown () {
+		Gdx.gl = Gdx.gl20 = null;
+		Gdx.graphics = null;
+		Gdx.app = null;
+	}
+
+	static private <T> T proxy (Class<T> type, InvocationHandler handler) {
+		return (T)Proxy.newProxyInstance(type.getClassLoader(), new Class[] {type}, handler);
+	}
+
+	@Test
+	public void runsOfTextures () {
+		BatchRecorder recorder = new BatchRecorder();
+		recorder.begin();
+		recorder.draw(texture1, 0, 0);
+		recorder.draw(texture1, 10, 0, 5, 5);
+		recorder.draw(new TextureRegion(texture2, 0, 0, 16, 16), 0, 0);
+		recorder.draw(texture1, new float[Sprite.SPRITE_SIZE * 3], 0, Sprite.SPRITE_SIZE * 3);
+		recorder.end();
+		assertEquals(6, recorder.getSpriteCount(0));
+
+		recorder.draw(batch);
+		assertEquals("[draw 1 2, draw 2 1, draw 1 3]", target.calls.toString());
+		assertArrayEquals(new float[] {10, 0, Color.WHITE_FLOAT_BITS, 0, 1, 10, 5, Color.WHITE_FLOAT_BITS, 0, 0, //
+			15, 5, Color.WHITE_FLOAT_BITS, 1, 0, 15, 0, Color.WHITE_FLOAT_BITS, 1, 1},
+			Arrays.copyOfRange(target.vertices.first(), Sprite.SPRITE_SIZE, Sprite.SPRITE_SIZE * 2), 0);
+	}
+
+	@Test
+	public void sameVerticesAsSprite () {
+		Sprite sprite = new Sprite(new TextureRegion(texture1, 8, 4, 32, 16));
+		sprite.setBounds(100, 50, 40, 20);
+		sprite.setOrigin(10, 5);
+		sprite.setScale(1.5f, 0.5f);
+		sprite.setRotation(30);
+		sprite.setColor(Color.ORANGE);
+
+		BatchRecorder recorder = new BatchRecorder();
+		recorder.begin();
+		recorder.setColor(Color.ORANGE);
+		recorder.draw(sprite, 100, 50, 10, 5, 40, 20, 1.5f, 0.5f, 30);
+		sprite.draw(recorder);
+		recorder.end();
+		recorder.draw(batch);
+		float[] vertices = target.vertices.first();
+		for (int i = 0; i < Sprite.SPRITE_SIZE; i++)
+			assertEquals(vertices[i], vertices[i + Sprite.SPRITE_SIZE], 0.001f);
+	}
+
+	@Test
+	public void stateIsRestored () {
+		ShaderProgram shader = new ShaderProgram("", "");
+		BatchRecorder recorder = new BatchRecorder();
+		recorder.begin();
+		recorder.draw(texture1, 0, 0);
+		recorder.setShader(shader);
+		recorder.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE);
+		recorder.draw(texture1, 0, 0);
+		recorder.setShader(null);
+		recorder.disableBlending();
+		recorder.draw(texture1, 0, 0);
+		recorder.end();
+
+		recorder.draw(batch);
+		assertEquals("[draw 1 1, shader " + shader.getHandle() + ", blend 1 1, draw 1 1, shader null, disableBlending, draw 1 1, "
+			+ "enableBlending, blend 770 771]", target.calls.toString());
+		assertNull(target.shader);
+		assertTrue(target.blending);
+		assertEquals(GL20.GL_SRC_ALPHA, target.blendFunction[0]);
+
+		// Setting the same state again is recorded once.
+		recorder.begin(1);
+		recorder.setShader(shader);
+		recorder.setShader(shader);
+		recorder.draw(texture2, 0, 0);
+		recorder.end();
+		target.calls.clear();
+		recorder.draw(batch, 1, 2, null, null);
+		assertEquals("[shader " + shader.getHandle() + ", draw 2 1, shader null]", target.calls.toString());
+	}
+
+	@Test
+	public void transformAndTint () {
+		BatchRecorder recorder = new BatchRecorder();
+		recorder.begin();
+		recorder.setColor(1, 1, 1, 0.5f);
+		recorder.draw(texture1, 0, 0);
+		recorder.setTransformMatrix(new Matrix4().setToTranslation(1, 2, 0));
+		recorder.draw(texture1, 0, 0);
+		recorder.end();
+
+		target.transform.setToTranslation(100, 0, 0);
+		recorder.draw(batch, new Matrix4().setToTranslation(10, 20, 0), Color.RED);
+		assertEquals("[transform 110.0 20.0, draw 1 1, transform 111.0 22.0, draw 1 1, transform 110.0 20.0, transform 100.0 0.0]",
+			target.calls.toString());
+		float tinted = new Color(1, 0, 0, 0.5f).toFloatBits();
+		for (int i = Batch.C1; i < Sprite.SPRITE_SIZE; i += Sprite.VERTEX_SIZE)
+			assertEquals(tinted, target.vertices.first()[i], 0);
+
+		// The recorded colors are kept.
+		target.vertices.clear();
+		recorder.draw(batch);
+		assertEquals(new Color(1, 1, 1, 0.5f).toFloatBits(), target.vertices.first()[Batch.C1], 0);
+	}
+
+	@Test
+	public void regions () {
+		BatchRecorder recorder = new BatchRecorder();
+		recorder.begin(1);
+		recorder.draw(texture2, 0, 0);
+		recorder.end();
+		assertFalse(recorder.isValid(0));
+		assertTrue(recorder.isValid(1));
+		recorder.begin(0);
+		recorder.draw(texture1, 0, 0);
+		recorder.end();
+
+		recorder.draw(batch);
+		assertEquals("[draw 1 1, draw 2 1]", target.calls.toString());
+
+		recorder.invalidate(0);
+		assertFalse(recorder.isValid(0));
+		assertEquals(0, recorder.getSpriteCount(0));
+		target.calls.clear();
+		recorder.draw(batch);
+		assertEquals("[draw 2 1]", target.calls.toString());
+
+		// Recording a region again replaces it.
+		recorder.begin(1);
+		recorder.draw(texture1, 0, 0);
+		recorder.draw(texture1, 0, 0);
+		recorder.end();
+		target.calls.clear();
+		recorder.draw(batch);
+		assertEquals("[draw 1 2]", target.calls.toString());
+	}
+}
@@ -0,0 +1,150 @@
+package com.badlogic.gdx.graphics.g2d;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BatchRecorderTest.TargetBatch;
+import com.badlogic.gdx.graphics.g2d.MultiTextureSpriteBatchTest.RecordingGL;
+import com.badlogic.gdx.graphics.g2d.MultiTextureSpriteBatchTest.SizeTextureData;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class InstancedSpriteBatchTest {
+	RecordingGL gl;
+	Texture texture;
+
+	@BeforeClass
+	static public void loadNatives () {
+		GdxNativesLoader.load();
+	}
+
+	@Before
+	public void setup () {
+		gl = new RecordingGL();
+		Gdx.gl = Gdx.gl20 = Gdx.gl30 = proxy(GL30.class, gl);
+		Gdx.graphics = proxy(Graphics.class, gl);
+		Gdx.app = proxy(Application.class, gl);
+		texture = new Texture(new SizeTextureData());
+	}
+
+	@After
+	public void tearDown () {
+		Gdx.gl = Gdx.gl20 = Gdx.gl30 = null;
+		Gdx.graphics = null;
+		Gdx.app = null;
+	}
+
+	static private <T> T proxy (Class<T> type, InvocationHandler handler) {
+		return (T)Proxy.newProxyInstance(type.getClassLoader(), new Class[] {type}, handler);
+	}
+
+	/** Draws the same sprites the ways the batches compute vertices differently. */
+	void draw (Batch batch) {
+		TextureRegion region = new TextureRegion(texture, 8, 4, 32, 16);
+		batch.setColor(Color.ORANGE);
+		batch.draw(texture, 10, 20);
+		batch.draw(texture, 10, 20, 30, 40, 4, 2, 16, 8, true, false);
+		batch.draw(texture, 10, 20, 5, 6, 30, 40, 1.5f, -2, 33, 4, 2, 16, 8, false, true);
+		batch.draw(region, 100, 50, 10, 5, 40, 20, 1.5f, 0.5f, 30);
+		batch.setColor(Color.WHITE);
+		batch.draw(region, 100, 50, 10, 5, 40, 20, 1.5f, 0.5f, 30, true);
+		batch.draw(region, 100, 50, 10, 5, 40, 20, 0.5f, 2, -70, false);
+		batch.draw(region, 40, 20, new Affine2().setToTrnRotScl(7, 8, 120, 2, -3));
+
+		Sprite sprite = new Sprite(region);
+		sprite.setBounds(100, 50, 40, 20);
+		sprite.setOrigin(10, 5);
+		sprite.setRotation(200);
+		sprite.setColor(Color.CYAN);
+		sprite.draw(batch);
+		sprite.flip(true, false);
+		sprite.rotate90(true);
+		sprite.draw(batch);
+	}
+
+	@Test
+	public void sameAsSpriteBatch () {
+		BatchRecorder recorder = new BatchRecorder();
+		recorder.begin();
+		draw(recorder);
+		recorder.end();
+		TargetBatch target = new TargetBatch();
+		recorder.draw(proxy(Batch.class, target));
+		float[] vertices = target.vertices.first();
+
+		InstancedSpriteBatch batch = new InstancedSpriteBatch(100);
+		batch.begin();
+		draw(batch);
+		float[] instances = batch.instances;
+		assertEquals(vertices.length / Sprite.SPRITE_SIZE * InstancedSpriteBatch.INSTANCE_SIZE, batch.idx);
+
+		// Expands the instances like the vertex shader. When the texture is rotated on the quad the corners are in another order.
+		float[] corners = {0, 0, 0, 1, 1, 1, 1, 0}, expanded = new float[Sprite.SPRITE_SIZE];
+		for (int i = 0, v = 0; i < batch.idx; i += InstancedSpriteBatch.INSTANCE_SIZE, v += Sprite.SPRITE_SIZE) {
+			double angle = Math.toRadians(instances[i + 6]);
+			float cos = (float)Math.cos(angle), sin = (float)Math.sin(angle);
+			for (int c = 0, e = 0; c < 8; c += 2, e += Sprite.VERTEX_SIZE) {
+				float localX = corners[c] * instances[i + 2] - instances[i + 4];
+				float localY = corners[c + 1] * instances[i + 3] - instances[i + 5];
+				expanded[e] = instances[i] + cos * localX - sin * localY;
+				expanded[e + 1] = instances[i + 1] + sin * localX + cos * localY;
+				expanded[e + 2] = instances[i + 11];
+				expanded[e + 3] = instances[i + 7] + (instances[i + 9] - instances[i + 7]) * corners[c];
+				expanded[e + 4] = instances[i + 8] + (instances[i + 10] - instances[i + 8]) * corners[c + 1];
+			}
+			for (int c = 0; c < Sprite.SPRITE_SIZE; c += Sprite.VERTEX_SIZE)
+				assertTrue("sprite " + v / Sprite.SPRITE_SIZE + ", vertex " + c / Sprite.VERTEX_SIZE,
+					contains(expanded, vertices, v + c));
+		}
+
+		batch.end();
+		assertEquals(1, batch.renderCalls);
+		batch.dispose();
+	}
+
+	/** Returns true if one of the vertices is the same as the vertex at the offset. */
+	static private boolean contains (float[] vertices, float[] vertex, int offset) {
+		outer:
+		for (int v = 0; v < vertices.length; v += Sprite.VERTEX_SIZE) {
+			for (int i = 0; i < Sprite.VERTEX_SIZE; i++)
+				if (Math.abs(vertices[v + i] - vertex[offset + i]) > (i < 2 ? 0.01f : 0.0001f)) continue outer;
+			return true;
+		}
+		return false;
+	}
+
+	@Test
+	public void flushesWhenFull () {
+		InstancedSpriteBatch batch = new InstancedSpriteBatch(2);
+		batch.begin();
+		for (int i = 0; i < 5; i++)
+			batch.draw(texture, i, 0);
+		batch.end();
+		assertEquals(3, batch.renderCalls);
+		assertEquals(2, batch.maxSpritesInBatch);
+		batch.dispose();
+	}
+
+	@Test(expected = GdxRuntimeException.class)
+	public void requiresGL30 () {
+		Gdx.gl30 = null;
+		Gdx.gl = Gdx.gl20 = proxy(GL20.class, gl);
+		new InstancedSpriteBatch();
+	}
+}
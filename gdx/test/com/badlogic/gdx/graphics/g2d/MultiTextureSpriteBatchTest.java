@@ -0,0 +1,265 @@
+package com.badlogic.gdx.graphics.g2d;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class MultiTextureSpriteBatchTest {
+	/** Records texture binds and draw calls. Shaders always compile and uniforms always exist. */
+	static class RecordingGL implements InvocationHandler {
+		final Array<String> calls = new Array<String>();
+		int maxTextureUnits = 8, handles;
+
+		public Object invoke (Object proxy, Method method, Object[] args) {
+			String name = method.getName();
+			if (name.equals("hashCode")) return System.identityHashCode(proxy);
+			if (name.equals("equals")) return proxy == args[0];
+			if (name.equals("glActiveTexture"))
+				calls.add("unit " + ((Integer)args[0] - GL20.GL_TEXTURE0));
+			else if (name.equals("glBindTexture"))
+				calls.add("bind " + args[1]);
+			else if (name.equals("glDrawElements")) //
+				calls.add("draw " + args[1]);
+			else if (name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) {
+				int pname = (Integer)args[1];
+				((IntBuffer)args[2]).put(0, pname == GL20.GL_COMPILE_STATUS || pname == GL20.GL_LINK_STATUS ? 1 : 0);
+			} else if (name.equals("glGetIntegerv")) {
+				if ((Integer)args[0] == GL20.GL_MAX_TEXTURE_IMAGE_UNITS) ((IntBuffer)args[1]).put(0, maxTextureUnits);
+			} else if (name.equals("glCreateShader") || name.equals("glCreateProgram") || name.equals("glGenTexture")
+				|| name.equals("glGenBuffer"))
+				return ++handles;
+			Class type = method.getReturnType();
+			if (type == int.class) return 0;
+			if (type == boolean.class) return false;
+			if (type == float.class) return 0f;
+			if (type == String.class) return "";
+			return null;
+		}
+
+		int count (String prefix) {
+			int count = 0;
+			for (String call : calls)
+				if (call.startsWith(prefix)) count++;
+			return count;
+		}
+	}
+
+	static class SizeTextureData implements TextureData {
+		public TextureDataType getType () {
+			return TextureDataType.Custom;
+		}
+
+		public boolean isPrepared () {
+			return true;
+		}
+
+		public void prepare () {
+		}
+
+		public Pixmap consumePixmap () {
+			throw new UnsupportedOperationException();
+		}
+
+		public boolean disposePixmap () {
+			return false;
+		}
+
+		public void consumeCustomData (int target) {
+		}
+
+		public int getWidth () {
+			return 64;
+		}
+
+		public int getHeight () {
+			return 32;
+		}
+
+		public Format getFormat () {
+			return Format.RGBA8888;
+		}
+
+		public boolean useMipMaps () {
+			return false;
+		}
+
+		public boolean isManaged () {
+			return false;
+		}
+	}
+
+	RecordingGL gl;
+	Texture[] textures;
+
+	@BeforeClass
+	static public void loadNatives () {
+		GdxNativesLoader.load();
+	}
+
+	@Before
+	public void setup () {
+		gl = new RecordingGL();
+		Gdx.gl = Gdx.gl20 = proxy(GL20.class, gl);
+		Gdx.gl30 = null;
+		Gdx.graphics = proxy(Graphics.class, gl);
+		Gdx.app = proxy(Application.class, gl);
+		textures = new Texture[10];
+		for (int i = 0; i < textures.length; i++)
+			textures[i] = new Texture(new SizeTextureData());
+	}
+
+	@After
+	public void tearDown () {
+		Gdx.gl = Gdx.gl20 = null;
+		Gdx.graphics = null;
+		Gdx.app = null;
+	}
+
+	static private <T> T proxy (Class<T> type, InvocationHandler handler) {
+		return (T)Proxy.newProxyInstance(type.getClassLoader(), new Class[] {type}, handler);
+	}
+
+	@Test
+	public void batchesAcrossTextures () {
+		MultiTextureSpriteBatch batch = new MultiTextureSpriteBatch(100, 4, null);
+		assertEquals(4, batch.getMaxTextures());
+		batch.begin();
+		for (int i = 0; i < 40; i++)
+			batch.draw(textures[i % 4], i, 0, 1, 1);
+		// Each vertex samples from the unit its texture was added to.
+		assertEquals(0, batch.vertices[MultiTextureSpriteBatch.VERTEX_SIZE - 1], 0);
+		assertEquals(1, batch.vertices[MultiTextureSpriteBatch.SPRITE_SIZE + MultiTextureSpriteBatch.VERTEX_SIZE - 1], 0);
+		assertEquals(3, batch.vertices[MultiTextureSpriteBatch.SPRITE_SIZE * 8 - 1], 0);
+		gl.calls.clear();
+		batch.end();
+
+		assertEquals(1, batch.renderCalls);
+		assertEquals(0, batch.textureFlushes);
+		assertEquals(4, batch.maxTexturesInBatch);
+		assertEquals(1, gl.count("draw"));
+		assertEquals("draw " + 40 * 6, gl.calls.peek());
+		// Bound in reverse, so unit 0 is left active.
+		assertEquals("unit 3", gl.calls.get(0));
+		assertEquals("bind " + textures[3].getTextureObjectHandle(), gl.calls.get(1));
+		assertEquals("unit 0", gl.calls.get(6));
+		assertEquals("bind " + textures[0].getTextureObjectHandle(), gl.calls.get(7));
+		batch.dispose();
+	}
+
+	@Test
+	public void flushesWhenUnitsAreFull () {
+		MultiTextureSpriteBatch batch = new MultiTextureSpriteBatch(100, 4, null);
+		batch.begin();
+		for (int i = 0; i < 5; i++)
+			batch.draw(textures[i], i, 0, 1, 1);
+		assertEquals(1, batch.renderCalls);
+		assertEquals(1, batch.textureFlushes);
+		// The fifth texture starts the next batch in the first unit.
+		assertEquals(0, batch.vertices[MultiTextureSpriteBatch.VERTEX_SIZE - 1], 0);
+		batch.draw(textures[0], 0, 0, 1, 1);
+		assertEquals(1, batch.vertices[MultiTextureSpriteBatch.SPRITE_SIZE + MultiTextureSpriteBatch.VERTEX_SIZE - 1], 0);
+		batch.end();
+		assertEquals(2, batch.renderCalls);
+		assertEquals(2, gl.count("draw"));
+
+		// A SpriteBatch would have needed 8 render calls.
+		batch.begin();
+		for (int i = 0; i < 8; i++)
+			batch.draw(textures[i], i, 0, 1, 1);
+		batch.end();
+		assertEquals(2, batch.renderCalls);
+		assertEquals(1, batch.textureFlushes);
+		batch.dispose();
+	}
+
+	@Test
+	public void fullBufferKeepsTexture () {
+		MultiTextureSpriteBatch batch = new MultiTextureSpriteBatch(2, 4, null);
+		batch.begin();
+		batch.draw(textures[0], 0, 0, 1, 1);
+		batch.draw(textures[1], 0, 0, 1, 1);
+		batch.draw(textures[1], 0, 0, 1, 1);
+		assertEquals(1, batch.renderCalls);
+		assertEquals(0, batch.textureFlushes);
+		assertEquals(0, batch.vertices[MultiTextureSpriteBatch.VERTEX_SIZE - 1], 0);
+		batch.end();
+		assertEquals(2, batch.renderCalls);
+		batch.dispose();
+	}
+
+	@Test
+	public void fullBufferWithOtherTexture () {
+		MultiTextureSpriteBatch batch = new MultiTextureSpriteBatch(2, 4, null);
+		TextureRegion region = new TextureRegion(textures[1]);
+		batch.begin();
+		batch.draw(textures[0], 0, 0, 1, 1);
+		batch.draw(textures[0], 0, 0, 1, 1);
+		batch.draw(region, 0, 0, 1, 1);
+		assertEquals(1, batch.renderCalls);
+		assertEquals(0, batch.textureFlushes);
+		assertEquals(MultiTextureSpriteBatch.SPRITE_SIZE, batch.idx);
+		assertEquals(0, batch.vertices[MultiTextureSpriteBatch.VERTEX_SIZE - 1], 0);
+
+		batch.draw(textures[2], 0, 0, 1, 1);
+		batch.draw(textures[3], new float[Sprite.SPRITE_SIZE], 0, Sprite.SPRITE_SIZE);
+		assertEquals(2, batch.renderCalls);
+		assertEquals(MultiTextureSpriteBatch.SPRITE_SIZE, batch.idx);
+		assertEquals(0, batch.vertices[MultiTextureSpriteBatch.VERTEX_SIZE - 1], 0);
+		batch.end();
+		assertEquals(3, batch.renderCalls);
+		batch.dispose();
+	}
+
+	@Test
+	public void spriteVertices () {
+		MultiTextureSpriteBatch batch = new MultiTextureSpriteBatch(10, 4, null);
+		float[] sprite = new float[Sprite.SPRITE_SIZE * 2];
+		for (int i = 0; i < sprite.length; i++)
+			sprite[i] = i;
+		batch.begin();
+		batch.draw(textures[0], 0, 0, 1, 1);
+		batch.draw(textures[1], sprite, 0, sprite.length);
+		assertEquals(MultiTextureSpriteBatch.SPRITE_SIZE * 3, batch.idx);
+		for (int i = 0; i < sprite.length; i++) {
+			int vertex = i / Sprite.VERTEX_SIZE, offset = MultiTextureSpriteBatch.SPRITE_SIZE
+				+ vertex * MultiTextureSpriteBatch.VERTEX_SIZE;
+			assertEquals(i, batch.vertices[offset + i % Sprite.VERTEX_SIZE], 0);
+			assertEquals(1, batch.vertices[offset + Sprite.VERTEX_SIZE], 0);
+		}
+		batch.end();
+		assertEquals(1, batch.renderCalls);
+		batch.dispose();
+	}
+
+	@Test
+	public void maxTextureUnits () {
+		gl.maxTextureUnits = 2;
+		MultiTextureSpriteBatch batch = new MultiTextureSpriteBatch(10, 8, null);
+		assertEquals(2, batch.getMaxTextures());
+		batch.dispose();
+
+		gl.maxTextureUnits = 32;
+		batch = new MultiTextureSpriteBatch(10);
+		assertEquals(MultiTextureSpriteBatch.DEFAULT_MAX_TEXTURES, batch.getMaxTextures());
+		batch.dispose();
+	}
+}
@@ -0,0 +1,121 @@
+package com.badlogic.gdx.graphics.g2d;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BatchRecorderTest.TargetBatch;
+import com.badlogic.gdx.graphics.g2d.MultiTextureSpriteBatchTest.RecordingGL;
+import com.badlogic.gdx.graphics.g2d.MultiTextureSpriteBatchTest.SizeTextureData;
+import com.badlogic.gdx.graphics.g2d.ParallelBatchRecorder.SegmentDrawer;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+import java.lang.reflect.Proxy;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelBatchRecorderTest {
+	static final int sprites = 1000, segments = 7;
+
+	TextureRegion region1, region2;
+	AsyncExecutor executor;
+
+	@Before
+	public void setup () {
+		RecordingGL gl = new RecordingGL();
+		Gdx.gl = Gdx.gl20 = (GL20)Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class[] {GL20.class}, gl);
+		Gdx.graphics = (Graphics)Proxy.newProxyInstance(Graphics.class.getClassLoader(), new Class[] {Graphics.class}, gl);
+		Gdx.app = (Application)Proxy.newProxyInstance(Application.class.getClassLoader(), new Class[] {Application.class}, gl);
+		region1 = new TextureRegion(new Texture(new SizeTextureData()), 0, 0, 8, 8);
+		region2 = new TextureRegion(new Texture(new SizeTextureData()), 8, 8, 16, 16);
+		executor = new AsyncExecutor(3, "ParallelBatchRecorder test");
+	}
+
+	@After
+	public void tearDown () {
+		executor.dispose();
+		Gdx.gl = Gdx.gl20 = null;
+		Gdx.graphics = null;
+		Gdx.app = null;
+	}
+
+	/** Draws sprites from start to end, changing textures every 10 sprites. */
+	void draw (Batch batch, int start, int end) {
+		for (int i = start; i < end; i++) {
+			batch.setColor(i / (float)sprites, 1, 1, 1);
+			batch.draw(i / 10 % 2 == 0 ? region1 : region2, i, -i, 4, 4, 8, 8, 1.5f, 1.5f, i * 7);
+		}
+	}
+
+	static Batch proxy (TargetBatch target) {
+		return (Batch)Proxy.newProxyInstance(Batch.class.getClassLoader(), new Class[] {Batch.class}, target);
+	}
+
+	@Test
+	public void sameAsSerial () {
+		BatchRecorder serial = new BatchRecorder();
+		serial.begin();
+		draw(serial, 0, sprites);
+		serial.end();
+		TargetBatch expected = new TargetBatch();
+		serial.draw(proxy(expected));
+
+		ParallelBatchRecorder parallel = new ParallelBatchRecorder(executor);
+		for (int frame = 0; frame < 3; frame++) {
+			TargetBatch actual = new TargetBatch();
+			parallel.draw(proxy(actual), segments, new SegmentDrawer() {
+				public void draw (Batch batch, int segment) {
+					ParallelBatchRecorderTest.this.draw(batch, sprites * segment / segments, sprites * (segment + 1) / segments);
+				}
+			});
+			assertEquals(sprites, parallel.getSpriteCount());
+
+			// Runs of a texture can be split at segment boundaries, but the vertices are the same.
+			float[] expectedVertices = concat(expected), actualVertices = concat(actual);
+			assertArrayEquals(expectedVertices, actualVertices, 0);
+			assertTrue(actual.calls.size <= expected.calls.size + segments - 1);
+		}
+	}
+
+	static private float[] concat (TargetBatch target) {
+		int size = 0;
+		for (float[] vertices : target.vertices)
+			size += vertices.length;
+		float[] all = new float[size];
+		int offset = 0;
+		for (float[] vertices : target.vertices) {
+			System.arraycopy(vertices, 0, all, offset, vertices.length);
+			offset += vertices.length;
+		}
+		return all;
+	}
+
+	@Test
+	public void failure () {
+		ParallelBatchRecorder parallel = new ParallelBatchRecorder(executor);
+		try {
+			parallel.record(segments, new SegmentDrawer() {
+				public void draw (Batch batch, int segment) {
+					if (segment == 3) throw new IllegalStateException();
+					ParallelBatchRecorderTest.this.draw(batch, 0, 10);
+				}
+			});
+			fail();
+		} catch (GdxRuntimeException expected) {
+		}
+
+		// The recorders can be used again.
+		parallel.record(2, new SegmentDrawer() {
+			public void draw (Batch batch, int segment) {
+				ParallelBatchRecorderTest.this.draw(batch, 0, 10);
+			}
+		});
+		assertEquals(20, parallel.getSpriteCount());
+	}
+}
@@ -0,0 +1,235 @@
+package com.badlogic.gdx.graphics.g2d;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Application.ApplicationType;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker.Page;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.Buffer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PixmapPackerTest {
+	/** Records texture uploads and the pixel store state. */
+	static class UploadGL implements InvocationHandler {
+		final Array<String> calls = new Array<String>();
+		ApplicationType type = ApplicationType.Desktop;
+		int handles;
+
+		public Object invoke (Object proxy, Method method, Object[] args) {
+			String name = method.getName();
+			if (name.equals("hashCode")) return System.identityHashCode(proxy);
+			if (name.equals("equals")) return proxy == args[0];
+			if (name.equals("getType")) return type;
+			if (name.equals("glPixelStorei"))
+				calls.add(parameter((Integer)args[0]) + " " + args[1]);
+			else if (name.equals("glTexSubImage2D"))
+				calls.add("sub " + args[2] + " " + args[3] + " " + args[4] + " " + args[5] + " " + ((Buffer)args[8]).position());
+			else if (name.equals("glTexImage2D"))
+				calls.add("image " + args[1] + " " + args[3] + " " + args[4]);
+			else if (name.equals("glGenTexture")) //
+				return ++handles;
+			Class type = method.getReturnType();
+			if (type == int.class) return 0;
+			if (type == boolean.class) return false;
+			if (type == float.class) return 0f;
+			if (type == String.class) return "";
+			return null;
+		}
+
+		static private String parameter (int pname) {
+			switch (pname) {
+			case GL20.GL_UNPACK_ALIGNMENT:
+				return "alignment";
+			case GL30.GL_UNPACK_ROW_LENGTH:
+				return "rowLength";
+			case GL30.GL_UNPACK_SKIP_PIXELS:
+				return "skipPixels";
+			case GL30.GL_UNPACK_SKIP_ROWS:
+				return "skipRows";
+			}
+			return String.valueOf(pname);
+		}
+	}
+
+	UploadGL gl;
+
+	@BeforeClass
+	static public void loadNatives () {
+		GdxNativesLoader.load();
+	}
+
+	@Before
+	public void setup () {
+		gl = new UploadGL();
+		Gdx.gl = Gdx.gl20 = Gdx.gl30 = proxy(GL30.class, gl);
+		Gdx.graphics = proxy(Graphics.class, gl);
+		Gdx.app = proxy(Application.class, gl);
+	}
+
+	@After
+	public void tearDown () {
+		Gdx.gl = Gdx.gl20 = Gdx.gl30 = null;
+		Gdx.graphics = null;
+		Gdx.app = null;
+	}
+
+	static private <T> T proxy (Class<T> type, InvocationHandler handler) {
+		return (T)Proxy.newProxyInstance(type.getClassLoader(), new Class[] {type}, handler);
+	}
+
+	/** Returns a 64x64 packer with a page texture, which has been uploaded once. */
+	static private PixmapPacker packer (boolean useMipMaps) {
+		PixmapPacker packer = new PixmapPacker(64, 64, Format.RGBA8888, 0, false);
+		pack(packer, "first", 16, 16);
+		packer.updatePageTextures(TextureFilter.Nearest, TextureFilter.Nearest, useMipMaps);
+		assertEquals(1, packer.getUploads());
+		assertEquals(64 * 64 * 4, packer.getUploadedBytes());
+		packer.resetUploadCounters();
+		assertEquals(0, packer.getUploads());
+		assertEquals(0, packer.getUploadedBytes());
+		return packer;
+	}
+
+	static private Rectangle pack (PixmapPacker packer, String name, int width, int height) {
+		Pixmap pixmap = new Pixmap(width, height, Format.RGBA8888);
+		Rectangle rect = packer.pack(name, pixmap);
+		pixmap.dispose();
+		return rect;
+	}
+
+	static private boolean update (Page page) {
+		return page.updateTexture(TextureFilter.Nearest, TextureFilter.Nearest, false);
+	}
+
+	@Test
+	public void uploadRectsWithGL30 () {
+		PixmapPacker packer = packer(false);
+		Page page = packer.getPages().first();
+		Rectangle rect = pack(packer, "rect", 8, 4);
+		int x = (int)rect.x, y = (int)rect.y;
+		gl.calls.clear();
+		assertTrue(update(page));
+		// The rectangle is read from the page pixmap with the unpack state, which is reset afterward.
+		assertEquals("[alignment 1, rowLength 64, skipPixels " + x + ", skipRows " + y + ", sub " + x + " " + y
+			+ " 8 4 0, rowLength 0, skipPixels 0, skipRows 0]", gl.calls.toString());
+		assertEquals(1, packer.getUploads());
+		assertEquals(8 * 4 * 4, packer.getUploadedBytes());
+
+		gl.calls.clear();
+		assertFalse(update(page));
+		assertEquals(0, gl.calls.size);
+		packer.dispose();
+	}
+
+	@Test
+	public void uploadRowsWithoutGL30 () {
+		Gdx.gl30 = null;
+		Gdx.gl = Gdx.gl20 = proxy(GL20.class, gl);
+		PixmapPacker packer = packer(false);
+		Page page = packer.getPages().first();
+		Rectangle rect = pack(packer, "rect", 8, 4);
+		int y = (int)rect.y;
+		gl.calls.clear();
+		assertTrue(update(page));
+		// Whole rows are uploaded, starting at an offset in the page pixmap.
+		assertEquals("[alignment 1, sub 0 " + y + " 64 4 " + y * 64 * 4 + "]", gl.calls.toString());
+		assertEquals(0, page.getPixmap().getPixels().position());
+		assertEquals(1, packer.getUploads());
+		assertEquals(64 * 4 * 4, packer.getUploadedBytes());
+		packer.dispose();
+	}
+
+	@Test
+	public void reloadLargeArea () {
+		PixmapPacker packer = packer(false);
+		Page page = packer.getPages().first();
+		pack(packer, "large", 48, 48);
+		gl.calls.clear();
+		assertTrue(update(page));
+		assertTrue(gl.calls.contains("image 0 64 64", false));
+		assertEquals(0, countSub());
+		assertEquals(1, packer.getUploads());
+		assertEquals(64 * 64 * 4, packer.getUploadedBytes());
+		packer.dispose();
+	}
+
+	@Test
+	public void reloadWebGL () {
+		gl.type = ApplicationType.WebGL;
+		PixmapPacker packer = packer(false);
+		pack(packer, "rect", 8, 4);
+		gl.calls.clear();
+		assertTrue(update(packer.getPages().first()));
+		assertTrue(gl.calls.contains("image 0 64 64", false));
+		assertEquals(0, countSub());
+		assertEquals(64 * 64 * 4, packer.getUploadedBytes());
+		packer.dispose();
+	}
+
+	@Test
+	public void reloadMipMaps () {
+		PixmapPacker packer = packer(true);
+		pack(packer, "rect", 8, 4);
+		gl.calls.clear();
+		packer.updatePageTextures(TextureFilter.Nearest, TextureFilter.Nearest, true);
+		assertTrue(gl.calls.contains("image 0 64 64", false));
+		assertEquals(0, countSub());
+		assertEquals(1, packer.getUploads());
+		assertEquals(64 * 64 * 4, packer.getUploadedBytes());
+		packer.dispose();
+	}
+
+	private int countSub () {
+		int count = 0;
+		for (String call : gl.calls)
+			if (call.startsWith("sub")) count++;
+		return count;
+	}
+
+	@Test
+	public void coalesce () {
+		IntArray rects = new IntArray();
+		// Glyphs next to each other on a row are merged.
+		rects.addAll(0, 0, 10, 12);
+		rects.addAll(11, 0, 9, 12);
+		rects.addAll(21, 1, 8, 11);
+		// A rectangle far away is not.
+		rects.addAll(500, 500, 16, 16);
+		PixmapPacker.coalesce(rects, 64);
+		assertArrayEquals(new int[] {0, 0, 29, 12, 500, 500, 16, 16}, rects.toArray());
+
+		// A contained rectangle is always merged.
+		rects.clear();
+		rects.addAll(0, 0, 100, 100);
+		rects.addAll(10, 10, 20, 20);
+		PixmapPacker.coalesce(rects, 0);
+		assertArrayEquals(new int[] {0, 0, 100, 100}, rects.toArray());
+
+		// Full rows, as uploaded without GL30, merge when they touch.
+		rects.clear();
+		rects.addAll(0, 0, 256, 10);
+		rects.addAll(0, 20, 256, 10);
+		rects.addAll(0, 10, 256, 10);
+		PixmapPacker.coalesce(rects, 0);
+		assertArrayEquals(new int[] {0, 0, 256, 30}, rects.toArray());
+	}
+}
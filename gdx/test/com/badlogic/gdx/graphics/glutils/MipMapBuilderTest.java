@@ -0,0 +1,109 @@
+package com.badlogic.gdx.graphics.glutils;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.glutils.MipMapBuilder.Filter;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MipMapBuilderTest {
+	static private ByteBuffer bytes (int... values) {
+		ByteBuffer buffer = ByteBuffer.allocate(values.length);
+		for (int value : values)
+			buffer.put((byte)value);
+		buffer.flip();
+		return buffer;
+	}
+
+	static private byte[] array (ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.capacity()];
+		buffer.duplicate().get(bytes);
+		return bytes;
+	}
+
+	@Test
+	public void levels () {
+		MipMapBuilder builder = new MipMapBuilder();
+		builder.setGammaCorrect(false);
+		ByteBuffer pixels = bytes( //
+			0, 4, 8, 12, //
+			16, 20, 24, 28, //
+			32, 36, 40, 44, //
+			48, 52, 56, 60);
+		assertEquals(2, builder.build(pixels, 4, 4, Format.Alpha));
+		assertArrayEquals(new byte[] {10, 18, 42, 50}, array(builder.getLevel(1)));
+		assertArrayEquals(new byte[] {30}, array(builder.getLevel(2)));
+
+		// Odd and non-square sizes go down to 1x1.
+		assertEquals(2, builder.build(ByteBuffer.allocate(5 * 3 * 4), 5, 3, Format.RGBA8888));
+		assertEquals(2, builder.getLevelWidth(1));
+		assertEquals(1, builder.getLevelHeight(1));
+		assertEquals(1, builder.getLevelWidth(2));
+		assertEquals(2 * 4, builder.getLevel(1).capacity());
+		assertEquals(0, builder.build(ByteBuffer.allocate(4), 1, 1, Format.RGBA8888));
+	}
+
+	@Test
+	public void gammaCorrect () {
+		MipMapBuilder builder = new MipMapBuilder();
+		// Black and white average to middle gray in linear space, which is 188 in sRGB. Alpha is averaged linearly.
+		ByteBuffer pixels = bytes(0, 0, 0, 0, 255, 255, 255, 255);
+		builder.build(pixels, 2, 1, Format.RGBA8888);
+		assertArrayEquals(new byte[] {(byte)188, (byte)188, (byte)188, (byte)128}, array(builder.getLevel(1)));
+		builder.build(bytes(0, 255), 2, 1, Format.Alpha);
+		assertEquals(128, builder.getLevel(1).get(0) & 0xff);
+
+		builder.setGammaCorrect(false);
+		builder.build(pixels, 2, 1, Format.RGBA8888);
+		assertArrayEquals(new byte[] {(byte)128, (byte)128, (byte)128, (byte)128}, array(builder.getLevel(1)));
+	}
+
+	@Test
+	public void kaiser () {
+		MipMapBuilder builder = new MipMapBuilder();
+		builder.setFilter(Filter.Kaiser);
+		int width = 37, height = 20;
+		ByteBuffer pixels = ByteBuffer.allocate(width * height * 3);
+		for (int i = 0; i < pixels.capacity(); i += 3) {
+			pixels.put(i, (byte)200);
+			pixels.put(i + 1, (byte)10);
+			pixels.put(i + 2, (byte)77);
+		}
+		// A flat color stays the same.
+		assertEquals(5, builder.build(pixels, width, height, Format.RGB888));
+		for (int level = 1; level <= 5; level++) {
+			ByteBuffer pixelsOfLevel = builder.getLevel(level);
+			for (int i = 0; i < pixelsOfLevel.capacity(); i += 3) {
+				assertEquals(200, pixelsOfLevel.get(i) & 0xff);
+				assertEquals(10, pixelsOfLevel.get(i + 1) & 0xff);
+				assertEquals(77, pixelsOfLevel.get(i + 2) & 0xff);
+			}
+		}
+	}
+
+	@Test
+	public void parallel () {
+		int width = 256, height = 160;
+		byte[] bytes = new byte[width * height * 4];
+		new Random(42).nextBytes(bytes);
+		ByteBuffer pixels = ByteBuffer.wrap(bytes);
+		AsyncExecutor executor = new AsyncExecutor(3, "MipMapBuilder test");
+		for (Filter filter : Filter.values()) {
+			MipMapBuilder serial = new MipMapBuilder(), parallel = new MipMapBuilder();
+			serial.setFilter(filter);
+			parallel.setFilter(filter);
+			parallel.setExecutor(executor);
+			parallel.setBandSize(width * 3);
+			assertEquals(8, serial.build(pixels, width, height, Format.RGBA8888));
+			assertEquals(8, parallel.build(pixels, width, height, Format.RGBA8888));
+			for (int level = 1; level <= 8; level++)
+				assertArrayEquals(array(serial.getLevel(level)), array(parallel.getLevel(level)));
+		}
+		executor.dispose();
+	}
+}
@@ -0,0 +1,169 @@
+package com.badlogic.gdx.graphics.glutils;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Application.ApplicationType;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.utils.Array;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class VertexBufferObjectStreamingTest {
+	/** Records buffer uploads, attribute offsets and enabled arrays. */
+	static class BufferGL implements InvocationHandler {
+		final Array<String> calls = new Array<String>();
+		final Array<String> arrays = new Array<String>();
+		ByteBuffer mapped;
+		int handles;
+
+		public Object invoke (Object proxy, Method method, Object[] args) {
+			String name = method.getName();
+			if (name.equals("hashCode")) return System.identityHashCode(proxy);
+			if (name.equals("equals")) return proxy == args[0];
+			if (name.equals("getType")) return ApplicationType.Desktop;
+			if (name.equals("glBufferData"))
+				calls.add("data " + args[1] + (args[2] == null ? " null" : ""));
+			else if (name.equals("glBufferSubData"))
+				calls.add("sub " + args[1] + " " + args[2]);
+			else if (name.equals("glMapBufferRange")) {
+				calls.add("map " + args[1] + " " + args[2] + " " + (((Integer)args[3] & GL30.GL_MAP_UNSYNCHRONIZED_BIT) != 0));
+				return mapped = ByteBuffer.allocateDirect((Integer)args[2]).order(ByteOrder.nativeOrder());
+			} else if (name.equals("glVertexAttribPointer"))
+				calls.add("pointer " + args[5]);
+			else if (name.equals("glEnableVertexAttribArray"))
+				arrays.add("enable " + args[0]);
+			else if (name.equals("glDisableVertexAttribArray"))
+				arrays.add("disable " + args[0]);
+			else if (name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) {
+				int pname = (Integer)args[1];
+				((IntBuffer)args[2]).put(0, pname == GL20.GL_COMPILE_STATUS || pname == GL20.GL_LINK_STATUS ? 1 : 0);
+			} else if (name.equals("glCreateShader") || name.equals("glCreateProgram") || name.equals("glGenBuffer"))
+				return ++handles;
+			Class type = method.getReturnType();
+			if (type == int.class) return 0;
+			if (type == boolean.class) return true;
+			if (type == float.class) return 0f;
+			if (type == String.class) return "";
+			return null;
+		}
+	}
+
+	static final int[] locations = {0};
+
+	BufferGL gl;
+	ShaderProgram shader;
+
+	@Before
+	public void setup () {
+		VertexBufferObjectStreaming.resetCounters();
+		gl = new BufferGL();
+		Gdx.gl = Gdx.gl20 = (GL20)Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class[] {GL20.class}, gl);
+		Gdx.gl30 = null;
+		Gdx.app = (Application)Proxy.newProxyInstance(Application.class.getClassLoader(), new Class[] {Application.class}, gl);
+		shader = new ShaderProgram("", "");
+	}
+
+	@After
+	public void tearDown () {
+		Gdx.gl = Gdx.gl20 = null;
+		Gdx.gl30 = null;
+		Gdx.app = null;
+	}
+
+	/** 4 vertices of 8 bytes, with 2 ranges the buffer is 64 bytes. */
+	static VertexBufferObjectStreaming create () {
+		return new VertexBufferObjectStreaming(4, 2, new VertexAttributes(new VertexAttribute(Usage.Position, 2, "a_position")));
+	}
+
+	void draw (VertexBufferObjectStreaming vertices, int count) {
+		vertices.setVertices(new float[count], 0, count);
+		vertices.bind(shader, locations);
+		vertices.unbind(shader, locations);
+	}
+
+	@Test
+	public void ringWithOrphaning () {
+		VertexBufferObjectStreaming vertices = create();
+		assertEquals("[data 64 null]", gl.calls.toString());
+		gl.calls.clear();
+
+		draw(vertices, 8);
+		draw(vertices, 4);
+		draw(vertices, 4);
+		assertEquals("[sub 0 32, pointer 0, sub 32 16, pointer 32, sub 48 16, pointer 48]", gl.calls.toString());
+
+		// The ring is full, the buffer is orphaned.
+		gl.calls.clear();
+		draw(vertices, 2);
+		assertEquals("[data 64 null, sub 0 8, pointer 0]", gl.calls.toString());
+
+		// Unchanged vertices are not uploaded again.
+		gl.calls.clear();
+		vertices.bind(shader, locations);
+		assertEquals("[pointer 0]", gl.calls.toString());
+
+		// Changing the vertices while bound writes them to the next range.
+		gl.calls.clear();
+		vertices.setVertices(new float[4], 0, 4);
+		assertEquals("[sub 8 16, pointer 8]", gl.calls.toString());
+		vertices.unbind(shader, locations);
+
+		assertEquals(5, VertexBufferObjectStreaming.getUploads());
+		assertEquals(32 + 16 + 16 + 8 + 16, VertexBufferObjectStreaming.getUploadedBytes());
+		assertEquals(3, VertexBufferObjectStreaming.getStallsAvoided());
+		assertEquals(1, VertexBufferObjectStreaming.getOrphans());
+		vertices.dispose();
+	}
+
+	@Test
+	public void mappedWithGL30 () {
+		Gdx.gl = Gdx.gl20 = Gdx.gl30 = (GL30)Proxy.newProxyInstance(GL30.class.getClassLoader(), new Class[] {GL30.class}, gl);
+		VertexBufferObjectStreaming vertices = create();
+		gl.calls.clear();
+
+		vertices.setVertices(new float[] {1, 2, 3, 4}, 0, 4);
+		vertices.bind(shader, locations);
+		vertices.unbind(shader, locations);
+		draw(vertices, 2);
+		assertEquals("[map 0 16 true, pointer 0, map 16 8 true, pointer 16]", gl.calls.toString());
+
+		vertices.setVertices(new float[] {5, 6, 7, 8, 9, 10, 11, 12}, 0, 8);
+		vertices.bind(shader, locations);
+		assertEquals(8, gl.mapped.getFloat(3 * 4), 0);
+		assertEquals(12, gl.mapped.getFloat(7 * 4), 0);
+		vertices.dispose();
+	}
+
+	@Test
+	public void vaoDisablesStaleArrays () {
+		Gdx.gl = Gdx.gl20 = Gdx.gl30 = (GL30)Proxy.newProxyInstance(GL30.class.getClassLoader(), new Class[] {GL30.class}, gl);
+		VertexBufferObjectStreaming vertices = create();
+		draw(vertices, 2);
+		draw(vertices, 2);
+		// The enabled array is stored in the VAO.
+		assertEquals("[enable 0]", gl.arrays.toString());
+
+		// Another location disables the array of the previous one.
+		gl.arrays.clear();
+		vertices.setVertices(new float[2], 0, 2);
+		vertices.bind(shader, new int[] {3});
+		vertices.unbind(shader, new int[] {3});
+		assertEquals("[disable 0, enable 3]", gl.arrays.toString());
+		vertices.dispose();
+	}
+}
@@ -0,0 +1,150 @@
+package com.badlogic.gdx.utils;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonWriter.OutputType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+import org.junit.Test;
+
+public class ChannelOutputStreamTest {
+	static private final String[] strings = {"", " ", "a", "a ", " a", "abc_$1", "1abc", "true", "false", "null", "truex", "a//b",
+		"a/*b", "/a", "a/b", "a:b", ":a", "a,b", ",a", "a}", "}a", "a]", "[a", "{a", "a{", "\"a", "a\"b", "a\\b", "\\", "a\nb",
+		"\r\t", "é", "€", "😀", "x\ud83dy", "\ude00"};
+
+	static private class Values {
+		public String name = "wörld 😀";
+		public int count = 3;
+		public float scale = 1.5f;
+		public double big = 1e300;
+		public long id = Long.MIN_VALUE;
+		public boolean visible = true;
+		public String[] tags = {"a b", "c\"d", "\\", null};
+		public Array<Values> children;
+	}
+
+	static private String write (OutputType outputType, boolean quoteLongValues, Object... values) throws IOException {
+		StringWriter buffer = new StringWriter();
+		JsonWriter writer = new JsonWriter(buffer);
+		writer.setOutputType(outputType);
+		writer.setQuoteLongValues(quoteLongValues);
+		writer.array();
+		for (Object value : values)
+			writer.value(value);
+		writer.pop();
+		return buffer.toString();
+	}
+
+	@Test
+	public void quoting () throws IOException {
+		for (OutputType outputType : OutputType.values()) {
+			for (String string : strings) {
+				StringWriter buffer = new StringWriter();
+				JsonWriter writer = new JsonWriter(buffer);
+				writer.setOutputType(outputType);
+				writer.object().set(string, string).pop();
+				assertEquals(outputType + ": " + string,
+					"{" + outputType.quoteName(string) + ":" + outputType.quoteValue(string) + "}", buffer.toString());
+			}
+		}
+	}
+
+	@Test
+	public void numbers () throws IOException {
+		Object[] numbers = {1, -2L, 1.5f, 2f, 0.1, 3.0, Float.NaN, Double.POSITIVE_INFINITY, Long.MAX_VALUE, (short)4, (byte)-5,
+			new BigDecimal("2.50"), new BigDecimal("3.0"), true, null, 'c'};
+		for (OutputType outputType : OutputType.values()) {
+			for (boolean quoteLongValues : new boolean[] {false, true}) {
+				StringBuilder expected = new StringBuilder("[");
+				for (int i = 0; i < numbers.length; i++) {
+					Object value = numbers[i];
+					if (quoteLongValues && (value instanceof Long || value instanceof Double || value instanceof BigDecimal))
+						value = value.toString();
+					else if (value instanceof Number) {
+						Number number = (Number)value;
+						if (number.doubleValue() == number.longValue()) value = number.longValue();
+					}
+					if (i > 0) expected.append(',');
+					expected.append(outputType.quoteValue(value));
+				}
+				expected.append(']');
+				assertEquals(expected.toString(), write(outputType, quoteLongValues, numbers));
+			}
+		}
+	}
+
+	@Test
+	public void json () throws IOException {
+		Values values = new Values();
+		values.children = new Array<Values>();
+		for (int i = 0; i < 100; i++)
+			values.children.add(new Values());
+		Json json = new Json();
+		String expected = json.toJson(values);
+
+		File file = File.createTempFile("json", ".json");
+		file.deleteOnExit();
+		FileHandle handle = new FileHandle(file);
+		// A small buffer forces characters to be split across flushes.
+		ChannelOutputStream output = new ChannelOutputStream(ByteBuffer.allocate(7));
+		for (int i = 0; i < 2; i++) {
+			json.toJson(values, output.open(handle).getWriter());
+			assertNull(output.getChannel());
+			assertEquals(expected, handle.readString("UTF-8"));
+			assertEquals(expected.getBytes("UTF-8").length, output.getTotal());
+		}
+	}
+
+	@Test
+	public void ubjson () throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		writeUBJson(new UBJsonWriter(bytes));
+
+		File file = File.createTempFile("ubjson", ".ubj");
+		file.deleteOnExit();
+		FileHandle handle = new FileHandle(file);
+		writeUBJson(new UBJsonWriter(new ChannelOutputStream(16).open(handle)));
+		assertArrayEquals(bytes.toByteArray(), handle.readBytes());
+
+		UBJsonReader reader = new UBJsonReader();
+		reader.oldFormat = false;
+		JsonValue value = reader.parse(handle);
+		for (String string : strings) {
+			String decoded = new String(string.getBytes("UTF-8"), "UTF-8");
+			assertEquals(decoded, value.getString(decoded));
+		}
+		assertEquals(500, value.get("floats").asFloatArray().length);
+	}
+
+	static private void writeUBJson (UBJsonWriter writer) throws IOException {
+		writer.object();
+		for (String string : strings)
+			writer.set(string, string);
+		StringBuilder buffer = new StringBuilder();
+		for (int i = 0; i < 100; i++)
+			buffer.append("long é");
+		writer.set("long", buffer.toString());
+		writer.set("floats", new float[500]);
+		writer.close();
+	}
+
+	@Test
+	public void utf8 () throws IOException {
+		for (String string : strings) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			ChannelOutputStream output = new ChannelOutputStream(4);
+			output.setChannel(Channels.newChannel(bytes));
+			output.writeUtf8(string);
+			output.close();
+			assertArrayEquals(string, string.getBytes("UTF-8"), bytes.toByteArray());
+		}
+	}
+}
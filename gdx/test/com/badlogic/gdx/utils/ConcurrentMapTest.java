@@ -0,0 +1,157 @@
+package com.badlogic.gdx.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class ConcurrentMapTest {
+	static private final int threadCount = 4, perThread = 20000;
+
+	/** Runs the runnable on several threads at once and rethrows the first failure. */
+	static void runThreads (final Runnable runnable) throws InterruptedException {
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			threads[i] = new Thread(new Runnable() {
+				public void run () {
+					try {
+						start.await();
+						runnable.run();
+					} catch (Throwable ex) {
+						failure.compareAndSet(null, ex);
+					}
+				}
+			}, "ConcurrentMapTest" + i);
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads)
+			thread.join();
+		if (failure.get() != null) throw new RuntimeException(failure.get());
+	}
+
+	@Test
+	public void concurrentIntMapPutRemove () throws InterruptedException {
+		final ConcurrentIntMap<Integer> map = new ConcurrentIntMap<Integer>();
+		final AtomicInteger nextThread = new AtomicInteger();
+		runThreads(new Runnable() {
+			public void run () {
+				int base = nextThread.getAndIncrement() * perThread;
+				for (int i = 0; i < perThread; i++)
+					map.put(base + i, base + i);
+				for (int i = 0; i < perThread; i += 2)
+					assertEquals(base + i, (int)map.remove(base + i));
+			}
+		});
+		assertEquals(threadCount * perThread / 2, map.size());
+		for (int i = 0; i < threadCount * perThread; i++)
+			assertEquals(i % 2 == 0 ? null : Integer.valueOf(i), map.get(i));
+
+		int count = 0;
+		long sum = 0;
+		for (IntMap.Entry<Integer> entry : map) {
+			assertEquals(entry.key, (int)entry.value);
+			sum += entry.key;
+			count++;
+		}
+		assertEquals(map.size(), count);
+		long expected = 0;
+		for (int i = 1; i < threadCount * perThread; i += 2)
+			expected += i;
+		assertEquals(expected, sum);
+	}
+
+	@Test
+	public void concurrentObjectMapPutIfAbsent () throws InterruptedException {
+		final ConcurrentObjectMap<String, Thread> map = new ConcurrentObjectMap<String, Thread>(0, 0.8f, 4);
+		final ConcurrentIntMap<Thread> intMap = new ConcurrentIntMap<Thread>();
+		final AtomicInteger wins = new AtomicInteger();
+		runThreads(new Runnable() {
+			public void run () {
+				Thread thread = Thread.currentThread();
+				for (int i = 0; i < perThread; i++) {
+					if (map.putIfAbsent("key" + i, thread) == null) wins.incrementAndGet();
+					intMap.putIfAbsent(i, thread);
+				}
+			}
+		});
+		// Every key was won by exactly one thread.
+		assertEquals(perThread, wins.get());
+		assertEquals(perThread, map.size());
+		assertEquals(perThread, intMap.size());
+	}
+
+	@Test
+	public void putIfAbsentReplacesNull () {
+		ConcurrentObjectMap<String, String> map = new ConcurrentObjectMap<String, String>();
+		ConcurrentIntMap<String> intMap = new ConcurrentIntMap<String>();
+		map.put("key", null);
+		intMap.put(1, null);
+		// A key mapped to null is absent for both maps.
+		assertNull(map.putIfAbsent("key", "a"));
+		assertNull(intMap.putIfAbsent(1, "a"));
+		assertEquals("a", map.putIfAbsent("key", "b"));
+		assertEquals("a", intMap.putIfAbsent(1, "b"));
+		assertEquals("a", map.get("key"));
+		assertEquals("a", intMap.get(1));
+	}
+
+	@Test
+	public void iterateWhileModifying () throws InterruptedException {
+		final ConcurrentObjectMap<Integer, Integer> map = new ConcurrentObjectMap<Integer, Integer>();
+		for (int i = 0; i < perThread; i++)
+			map.put(i, i);
+		final AtomicInteger nextThread = new AtomicInteger();
+		runThreads(new Runnable() {
+			public void run () {
+				if (nextThread.getAndIncrement() % 2 == 0) {
+					for (int i = perThread; i < perThread * 2; i++)
+						map.put(i, i);
+				} else {
+					for (int n = 0; n < 10; n++)
+						for (ObjectMap.Entry<Integer, Integer> entry : map.entries())
+							assertEquals(entry.key, entry.value);
+				}
+			}
+		});
+		assertEquals(perThread * 2, map.size());
+	}
+
+	@Test
+	public void iteratorRemove () {
+		ConcurrentObjectMap<String, Integer> map = new ConcurrentObjectMap<String, Integer>();
+		for (int i = 0; i < 100; i++)
+			map.put("key" + i, i);
+		ConcurrentObjectMap.Values<Integer> values = map.values();
+		while (values.hasNext())
+			if (values.next() % 2 == 0) values.remove();
+		assertEquals(50, map.size());
+		assertEquals(50, map.keys().toArray().size);
+		for (String key : map.keys())
+			assertEquals(1, map.get(key) % 2);
+
+		ConcurrentIntMap<Integer> intMap = new ConcurrentIntMap<Integer>();
+		for (int i = 0; i < 100; i++)
+			intMap.put(i, i);
+		ConcurrentIntMap.Keys keys = intMap.keys();
+		while (keys.hasNext)
+			if (keys.next() < 10) keys.remove();
+		assertEquals(90, intMap.size());
+		assertFalse(intMap.containsKey(0));
+		assertTrue(intMap.containsKey(10));
+		assertEquals(90, intMap.keys().toArray().size);
+		intMap.clear();
+		assertTrue(intMap.isEmpty());
+		assertFalse(intMap.entries().hasNext());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullKey () {
+		new ConcurrentObjectMap<String, String>().put(null, "value");
+	}
+}
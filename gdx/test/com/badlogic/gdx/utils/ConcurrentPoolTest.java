@@ -0,0 +1,152 @@
+package com.badlogic.gdx.utils;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.utils.Pool.Poolable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class ConcurrentPoolTest {
+	static public class Item implements Poolable {
+		static final AtomicInteger created = new AtomicInteger();
+		boolean reset, inUse;
+
+		public Item () {
+			created.incrementAndGet();
+		}
+
+		public void reset () {
+			reset = true;
+		}
+	}
+
+	static class ItemPool extends ConcurrentPool<Item> {
+		final AtomicInteger discarded = new AtomicInteger();
+
+		ItemPool (int cacheSize, int max) {
+			super(cacheSize, max);
+		}
+
+		protected Item newObject () {
+			return new Item();
+		}
+
+		protected void discard (Item object) {
+			discarded.incrementAndGet();
+		}
+	}
+
+	@Test
+	public void singleThread () {
+		ItemPool pool = new ItemPool(4, 10);
+		Array<Item> items = new Array<Item>();
+		for (int i = 0; i < 12; i++)
+			items.add(pool.obtain());
+		assertEquals(0, pool.getFree());
+		pool.freeAll(items);
+		// Two objects exceed max.
+		assertEquals(10, pool.getFree());
+		assertEquals(10, pool.peak);
+		assertEquals(2, pool.discarded.get());
+		assertTrue(items.first().reset);
+
+		// Obtaining drains the cache then the batches moved to the shared stack, without creating objects.
+		int created = Item.created.get();
+		for (int i = 0; i < 10; i++)
+			assertNotNull(pool.obtain());
+		assertEquals(created, Item.created.get());
+		assertEquals(0, pool.getFree());
+		pool.obtain();
+		assertEquals(created + 1, Item.created.get());
+
+		pool.fill(6);
+		assertEquals(6, pool.getFree());
+		pool.clear();
+		assertEquals(0, pool.getFree());
+		assertEquals(8, pool.discarded.get());
+	}
+
+	@Test
+	public void freeOnWorkerObtainOnMain () throws InterruptedException {
+		final ItemPool pool = new ItemPool(8, Integer.MAX_VALUE);
+		final Array<Item> items = new Array<Item>();
+		for (int i = 0; i < 100; i++)
+			items.add(pool.obtain());
+		Thread worker = new Thread(new Runnable() {
+			public void run () {
+				for (Item item : items)
+					pool.free(item);
+				pool.flush();
+			}
+		});
+		worker.start();
+		worker.join();
+		assertEquals(100, pool.getFree());
+		int created = Item.created.get();
+		for (int i = 0; i < 100; i++)
+			assertTrue(pool.obtain().reset);
+		assertEquals(created, Item.created.get());
+	}
+
+	@Test
+	public void objectsAreNeverSharedBetweenThreads () throws InterruptedException {
+		final ItemPool pool = new ItemPool(16, 200);
+		final ConcurrentHashMap<Item, Boolean> all = new ConcurrentHashMap<Item, Boolean>();
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(new Runnable() {
+				public void run () {
+					try {
+						start.await();
+						Array<Item> held = new Array<Item>();
+						for (int i = 0; i < 20000; i++) {
+							Item item = pool.obtain();
+							all.put(item, true);
+							synchronized (item) {
+								if (item.inUse) throw new IllegalStateException("Item obtained twice.");
+								item.inUse = true;
+							}
+							held.add(item);
+							if (held.size > 40 || (i & 7) == 0) {
+								while (held.size > 0) {
+									Item free = held.pop();
+									synchronized (free) {
+										free.inUse = false;
+									}
+									pool.free(free);
+								}
+							}
+						}
+						pool.flush();
+					} catch (Throwable ex) {
+						failure.compareAndSet(null, ex);
+					}
+				}
+			});
+			threads[t].start();
+		}
+		start.countDown();
+		for (Thread thread : threads)
+			thread.join();
+		if (failure.get() != null) throw new RuntimeException(failure.get());
+		assertTrue(pool.getFree() <= 200);
+		assertTrue(pool.peak <= 200);
+	}
+
+	@Test
+	public void poolsGetConcurrent () {
+		ConcurrentPool<Item> pool = Pools.getConcurrent(Item.class);
+		assertSame(pool, Pools.getConcurrent(Item.class, 5));
+		assertEquals(100, pool.max);
+		Item item = pool.obtain();
+		pool.free(item);
+		assertSame(item, pool.obtain());
+	}
+}
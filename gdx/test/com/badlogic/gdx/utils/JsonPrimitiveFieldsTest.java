@@ -0,0 +1,101 @@
+package com.badlogic.gdx.utils;
+
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+public class JsonPrimitiveFieldsTest {
+	static public class Primitives {
+		public int i = 1;
+		public float f = 1.5f;
+		public long l = 2;
+		public double d = 2.5;
+		public boolean b = true;
+		public short s = 3;
+		public byte by = 4;
+		public char c = 'c';
+		public Integer boxed;
+	}
+
+	static private Primitives values () {
+		Primitives p = new Primitives();
+		p.i = Integer.MIN_VALUE;
+		p.f = 3e10f;
+		p.l = Long.MAX_VALUE;
+		p.d = -0.1;
+		p.b = false;
+		p.s = -7;
+		p.by = 127;
+		p.c = 'x';
+		p.boxed = 5;
+		return p;
+	}
+
+	/** Writes using a JsonWriter subclass, which disables the primitive fast path. */
+	static private String toJsonBoxed (Json json, Object object) {
+		StringWriter buffer = new StringWriter();
+		json.toJson(object, new JsonWriter(buffer) {
+		});
+		return buffer.toString();
+	}
+
+	@Test
+	public void writeMatchesBoxed () {
+		Json json = new Json();
+		assertEquals(toJsonBoxed(json, values()), json.toJson(values()));
+		assertEquals("{}", json.toJson(new Primitives()));
+
+		Primitives special = new Primitives();
+		special.f = Float.NaN;
+		special.d = Double.NEGATIVE_INFINITY;
+		special.i = 0;
+		assertEquals(toJsonBoxed(json, special), json.toJson(special));
+
+		json.setUsePrototypes(false);
+		assertEquals(toJsonBoxed(json, new Primitives()), json.toJson(new Primitives()));
+
+		json.setQuoteLongValues(true);
+		json.setOutputType(JsonWriter.OutputType.json);
+		assertEquals(toJsonBoxed(json, values()), json.toJson(values()));
+	}
+
+	@Test
+	public void read () {
+		Json json = new Json();
+		String text = json.toJson(values());
+		Primitives tree = json.fromJson(Primitives.class, text);
+		Primitives stream = json.fromJson(Primitives.class, new JsonPullReader(text));
+		for (Primitives p : new Primitives[] {tree, stream}) {
+			assertEquals(Integer.MIN_VALUE, p.i);
+			assertEquals(3e10f, p.f, 0);
+			assertEquals(Long.MAX_VALUE, p.l);
+			assertEquals(-0.1, p.d, 0);
+			assertFalse(p.b);
+			assertEquals(-7, p.s);
+			assertEquals(127, p.by);
+			assertEquals('x', p.c);
+			assertEquals(Integer.valueOf(5), p.boxed);
+		}
+
+		// Numbers written as strings and doubles read into integer fields still convert.
+		Primitives converted = json.fromJson(Primitives.class, "{i:\"12\",l:2.9,b:\"true\",f:1}");
+		assertEquals(12, converted.i);
+		assertEquals(2, converted.l);
+		assertTrue(converted.b);
+		assertEquals(1, converted.f, 0);
+	}
+
+	@Test
+	public void serializerForPrimitive () {
+		Json json = new Json();
+		json.setSerializer(int.class, new Json.ReadOnlySerializer<Integer>() {
+			public Integer read (Json json, JsonValue jsonData, Class type) {
+				return jsonData.asInt() * 2;
+			}
+		});
+		assertEquals(10, json.fromJson(Primitives.class, "{i:5}").i);
+		assertEquals(10, json.fromJson(Primitives.class, new JsonPullReader("{i:5}")).i);
+	}
+}
@@ -0,0 +1,240 @@
+package com.badlogic.gdx.utils;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.utils.JsonPullReader.Token;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.junit.Test;
+
+public class JsonPullReaderTest {
+	static public class Data {
+		public int integer;
+		public float floatValue;
+		public long longValue;
+		public boolean bool;
+		public String string;
+		public Kind kind;
+		public int[] ints;
+		public float[] floats;
+		public String[] strings;
+		public Array<Item> items;
+		public ObjectMap<String, Item> map;
+		public IntMap<String> intMap;
+		public ArrayList<String> list;
+		public HashMap<String, Integer> hashMap;
+		public Object unknown;
+		public Item child;
+		public Custom custom;
+	}
+
+	static public class Item {
+		public String name;
+		public int count;
+
+		public Item () {
+		}
+
+		public Item (String name, int count) {
+			this.name = name;
+			this.count = count;
+		}
+
+		public boolean equals (Object object) {
+			if (!(object instanceof Item)) return false;
+			Item other = (Item)object;
+			return count == other.count && (name == null ? other.name == null : name.equals(other.name));
+		}
+	}
+
+	static public class SubItem extends Item {
+		public float extra;
+	}
+
+	static public class Custom implements Json.Serializable {
+		public int a, b;
+
+		public void write (Json json) {
+			json.writeValue("sum", a + b);
+			json.writeValue("a", a);
+		}
+
+		public void read (Json json, JsonValue jsonData) {
+			a = jsonData.getInt("a");
+			b = jsonData.getInt("sum") - a;
+		}
+	}
+
+	static public enum Kind {
+		first, second
+	}
+
+	@Test
+	public void tokens () {
+		JsonPullReader reader = new JsonPullReader("{a:1,\"b c\":[2.5,true,null,\"x\\ny\"],d:{}, e : some text }");
+		assertEquals(Token.objectStart, reader.next());
+		assertEquals(Token.longValue, reader.next());
+		assertEquals("a", reader.getName());
+		assertEquals(1, reader.getLong());
+		assertEquals("1", reader.getString());
+		assertEquals(Token.arrayStart, reader.next());
+		assertEquals("b c", reader.getName());
+		assertEquals(Token.doubleValue, reader.next());
+		assertNull(reader.getName());
+		assertEquals(2.5, reader.getDouble(), 0);
+		assertEquals(2, reader.getInt());
+		assertEquals(Token.booleanValue, reader.next());
+		assertTrue(reader.getBoolean());
+		assertEquals(Token.nullValue, reader.next());
+		assertNull(reader.getString());
+		assertEquals(Token.stringValue, reader.next());
+		assertEquals("x\ny", reader.getString());
+		assertEquals(Token.arrayEnd, reader.next());
+		assertEquals(Token.objectStart, reader.next());
+		assertEquals("d", reader.getName());
+		assertEquals(2, reader.getDepth());
+		assertEquals(Token.objectEnd, reader.next());
+		assertEquals(Token.stringValue, reader.next());
+		assertEquals("e", reader.getName());
+		assertEquals("some text", reader.getString());
+		assertEquals(Token.objectEnd, reader.next());
+		assertEquals(Token.end, reader.next());
+		assertEquals(Token.end, reader.next());
+	}
+
+	@Test
+	public void relaxedSyntax () {
+		String json = "// comment\n{\n\ta: 1 // trailing\n\tb: /* inline */ two\n\tc: [ 1\n 2, 3 ]\n\t\"d\": -4e2\n}";
+		JsonValue expected = new JsonReader().parse(json);
+		JsonPullReader reader = new JsonPullReader(new StringReader(json), 8);
+		reader.next();
+		JsonValue actual = reader.readValue();
+		assertEquals(expected.toJson(JsonWriter.OutputType.json), actual.toJson(JsonWriter.OutputType.json));
+	}
+
+	@Test
+	public void skipEscapesWithSmallBuffer () {
+		// Escapes are split across the buffer at some buffer size.
+		String json = "{skip:{a:\"\\\"\\\\\\\"\",b:\"x\\\\\",c:[u\\\\v,\"\\u0041\"]},after:3}";
+		for (int bufferSize = 8; bufferSize < 16; bufferSize++) {
+			JsonPullReader reader = new JsonPullReader(new StringReader(json), bufferSize);
+			reader.next();
+			assertEquals(Token.objectStart, reader.next());
+			reader.skipValue();
+			assertEquals(Token.longValue, reader.next());
+			assertEquals("after", reader.getName());
+			assertEquals(3, reader.getLong());
+			assertEquals(Token.objectEnd, reader.next());
+		}
+	}
+
+	@Test
+	public void skipAndMaterialize () {
+		JsonPullReader reader = new JsonPullReader("{skip:{a:[1,{b:\"]}\"}],c:2},keep:{x:1,y:[true]},after:3}");
+		reader.next();
+		assertEquals(Token.objectStart, reader.next());
+		reader.skipValue();
+		assertEquals(Token.objectEnd, reader.getToken());
+		assertEquals(1, reader.getDepth());
+		assertEquals(Token.objectStart, reader.next());
+		JsonValue keep = reader.readValue();
+		assertEquals("keep", keep.name);
+		assertEquals(1, keep.getInt("x"));
+		assertTrue(keep.get("y").getBoolean(0));
+		assertEquals(Token.longValue, reader.next());
+		assertEquals("after", reader.getName());
+		assertEquals(Token.objectEnd, reader.next());
+	}
+
+	@Test
+	public void rootValues () {
+		JsonPullReader reader = new JsonPullReader("  42 ");
+		assertEquals(Token.longValue, reader.next());
+		assertEquals(42, reader.getInt());
+		assertEquals(Token.end, reader.next());
+
+		assertEquals(Token.end, new JsonPullReader("  ").next());
+	}
+
+	@Test(expected = SerializationException.class)
+	public void unterminated () {
+		JsonPullReader reader = new JsonPullReader("{a:[1,2");
+		while (reader.next() != Token.end) {
+		}
+	}
+
+	@Test
+	public void bindMatchesTree () {
+		Data data = new Data();
+		data.integer = -7;
+		data.floatValue = 1.25f;
+		data.longValue = Long.MAX_VALUE;
+		data.bool = true;
+		data.string = "with \"quotes\", commas\nand newlines";
+		data.kind = Kind.second;
+		data.ints = new int[] {1, 2, 3};
+		data.floats = new float[] {0.5f, -1, 3e10f};
+		data.strings = new String[] {"a", null, "c"};
+		data.items = new Array<Item>();
+		data.items.add(new Item("one", 1));
+		SubItem sub = new SubItem();
+		sub.name = "sub";
+		sub.extra = 2.5f;
+		data.items.add(sub);
+		data.map = new ObjectMap<String, Item>();
+		data.map.put("key", new Item("value", 3));
+		data.intMap = new IntMap<String>();
+		data.intMap.put(12, "twelve");
+		data.list = new ArrayList<String>();
+		data.list.add("listed");
+		data.hashMap = new HashMap<String, Integer>();
+		data.hashMap.put("h", 5);
+		data.unknown = new Item("untyped", 4);
+		data.child = new Item(null, 9);
+		data.custom = new Custom();
+		data.custom.a = 3;
+		data.custom.b = 4;
+
+		Json json = new Json();
+		String text = json.toJson(data);
+		Data tree = json.fromJson(Data.class, text);
+		Data stream = json.fromJson(Data.class, new JsonPullReader(new StringReader(text), 16));
+
+		assertEquals(json.toJson(tree), json.toJson(stream));
+		assertEquals(data.string, stream.string);
+		assertEquals(Kind.second, stream.kind);
+		assertArrayEquals(data.floats, stream.floats, 0);
+		assertEquals(SubItem.class, stream.items.get(1).getClass());
+		assertEquals(2.5f, ((SubItem)stream.items.get(1)).extra, 0);
+		assertEquals(new Item("untyped", 4), stream.unknown);
+		assertEquals("twelve", stream.intMap.get(12));
+		assertEquals(4, stream.custom.b);
+	}
+
+	@Test
+	public void serializer () {
+		Json json = new Json();
+		json.setSerializer(Item.class, new Json.ReadOnlySerializer<Item>() {
+			public Item read (Json json, JsonValue jsonData, Class type) {
+				return new Item(jsonData.asString(), -1);
+			}
+		});
+		Array<Item> items = json.fromJson(Array.class, Item.class, new JsonPullReader("[a,b]"));
+		assertEquals(new Item("b", -1), items.get(1));
+	}
+
+	@Test
+	public void unknownFields () {
+		Json json = new Json();
+		try {
+			json.fromJson(Item.class, new JsonPullReader("{name:x,missing:{a:[1]},count:2}"));
+			fail();
+		} catch (SerializationException expected) {
+		}
+		json.setIgnoreUnknownFields(true);
+		assertEquals(new Item("x", 2), json.fromJson(Item.class, new JsonPullReader("{name:x,missing:{a:[1]},count:2}")));
+	}
+}
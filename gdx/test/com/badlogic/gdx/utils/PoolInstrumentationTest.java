@@ -0,0 +1,76 @@
+package com.badlogic.gdx.utils;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class PoolInstrumentationTest {
+	static public class Item {
+	}
+
+	static public class Leaked {
+	}
+
+	@Test
+	public void counters () {
+		Pool<Item> pool = new Pool<Item>(4, 2) {
+			protected Item newObject () {
+				return new Item();
+			}
+		};
+		PoolInstrumentation instrumentation = new PoolInstrumentation(false);
+		pool.setInstrumentation(instrumentation);
+
+		Array<Item> items = new Array<Item>();
+		for (int i = 0; i < 3; i++)
+			items.add(pool.obtain());
+		assertEquals(3, instrumentation.getObtained());
+		assertEquals(3, instrumentation.getCreated());
+		assertEquals(3, instrumentation.getInUse());
+		pool.freeAll(items);
+		assertEquals(3, instrumentation.getFreed());
+		assertEquals(1, instrumentation.getDiscarded());
+		assertEquals(0, instrumentation.getInUse());
+
+		pool.free(pool.obtain());
+		pool.obtain();
+		assertEquals(5, instrumentation.getObtained());
+		assertEquals(3, instrumentation.getCreated());
+		assertEquals(3, instrumentation.getPeakInUse());
+		assertEquals(0.4f, instrumentation.getHitRate(), 0.0001f);
+		assertTrue(instrumentation.getOutstanding().size == 0);
+
+		instrumentation.reset();
+		assertEquals(0, instrumentation.getObtained());
+		assertEquals(1, instrumentation.getHitRate(), 0);
+	}
+
+	@Test
+	public void trackObtains () {
+		Pools.setInstrumentation(true, true);
+		try {
+			Leaked kept = Pools.obtain(Leaked.class);
+			Pools.free(Pools.obtain(Leaked.class));
+			PoolInstrumentation instrumentation = Pools.getInstrumentation(Leaked.class);
+			assertNotNull(instrumentation);
+			IdentityMap<Object, Throwable> outstanding = instrumentation.getOutstanding();
+			assertEquals(1, outstanding.size);
+			assertTrue(outstanding.containsKey(kept));
+			String trace = PoolInstrumentation.stackTrace(outstanding.get(kept));
+			assertTrue(trace, trace.startsWith(PoolInstrumentationTest.class.getName() + ".trackObtains"));
+
+			JsonValue json = new JsonReader().parse(Pools.instrumentationToJson());
+			JsonValue leaked = json.get("pools").get(Leaked.class.getName());
+			assertEquals(2, leaked.getInt("obtained"));
+			assertEquals(1, leaked.getInt("inUse"));
+			assertEquals(1, leaked.get("leaks").size);
+			assertEquals(1, leaked.get("leaks").get(0).getInt("count"));
+
+			Pools.getConcurrent(Leaked.class).obtain();
+			assertEquals(1, Pools.getConcurrentInstrumentation(Leaked.class).getInUse());
+		} finally {
+			Pools.setInstrumentation(false, false);
+		}
+		assertNull(Pools.getInstrumentation(Leaked.class));
+	}
+}
@@ -0,0 +1,141 @@
+package com.badlogic.gdx.utils;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import org.junit.Test;
+
+/** Feeds the int and long keyed maps key patterns that cluster badly in tables that mask the low bits of the key: sequential
+ * ids, multiples of the table size and keys that differ only in their upper bits. */
+public class PrimitiveMapKeysTest {
+	static private final int count = 50000;
+
+	static int[] sequential () {
+		int[] keys = new int[count];
+		for (int i = 0; i < count; i++)
+			keys[i] = i;
+		return keys;
+	}
+
+	static int[] multiplesOfCapacity () {
+		int capacity = MathUtils.nextPowerOfTwo((int)Math.ceil(count / 0.8f)), keys[] = new int[count];
+		for (int i = 0; i < count; i++)
+			keys[i] = (i + 1) * capacity;
+		return keys;
+	}
+
+	static int[] upperBits () {
+		int[] keys = new int[count];
+		for (int i = 0; i < count; i++)
+			keys[i] = Integer.reverse(i + 1);
+		return keys;
+	}
+
+	/** Returns the longest distance of a key from its ideal index. */
+	static int maxProbeLength (IntIntMap map) {
+		int max = 0;
+		for (int i = 0, n = map.keyTable.length; i < n; i++) {
+			int key = map.keyTable[i];
+			if (key != 0) max = Math.max(max, i - map.place(key) & map.mask);
+		}
+		return max;
+	}
+
+	void checkKeys (int[] keys) {
+		IntIntMap intIntMap = new IntIntMap();
+		IntFloatMap intFloatMap = new IntFloatMap();
+		IntMap<Integer> intMap = new IntMap<Integer>();
+		LongMap<Integer> longMap = new LongMap<Integer>();
+		IntSet intSet = new IntSet();
+		for (int i = 0; i < keys.length; i++) {
+			int key = keys[i];
+			intIntMap.put(key, i);
+			intFloatMap.put(key, i);
+			intMap.put(key, i);
+			longMap.put((long)key << 32, i);
+			intSet.add(key);
+		}
+		assertEquals(keys.length, intIntMap.size);
+		assertEquals(keys.length, intFloatMap.size);
+		assertEquals(keys.length, intMap.size);
+		assertEquals(keys.length, longMap.size);
+		assertEquals(keys.length, intSet.size);
+		assertTrue("Probe length: " + maxProbeLength(intIntMap), maxProbeLength(intIntMap) < 64);
+
+		// Remove every other key, the backward shift must leave the rest reachable.
+		for (int i = 0; i < keys.length; i += 2) {
+			int key = keys[i];
+			assertEquals(i, intIntMap.remove(key, -1));
+			assertEquals(i, intFloatMap.remove(key, -1), 0);
+			assertEquals(i, (int)intMap.remove(key));
+			assertEquals(i, (int)longMap.remove((long)key << 32));
+			assertTrue(intSet.remove(key));
+		}
+		for (int i = 0; i < keys.length; i++) {
+			int key = keys[i], expected = i % 2 == 0 ? -1 : i;
+			assertEquals(expected, intIntMap.get(key, -1));
+			assertEquals(expected, intFloatMap.get(key, -1), 0);
+			assertEquals(expected, (int)intMap.get(key, -1));
+			assertEquals(expected, (int)longMap.get((long)key << 32, -1));
+			assertEquals(i % 2 != 0, intSet.contains(key));
+		}
+		assertEquals(keys.length / 2, intIntMap.size);
+		assertEquals(keys.length / 2, intSet.size);
+	}
+
+	@Test
+	public void sequentialKeys () {
+		checkKeys(sequential());
+	}
+
+	@Test
+	public void multiplesOfCapacityKeys () {
+		checkKeys(multiplesOfCapacity());
+	}
+
+	@Test
+	public void upperBitKeys () {
+		checkKeys(upperBits());
+	}
+
+	@Test
+	public void putIfAbsent () {
+		IntIntMap intIntMap = new IntIntMap();
+		assertEquals(-1, intIntMap.putIfAbsent(0, 1, -1));
+		assertEquals(1, intIntMap.putIfAbsent(0, 2, -1));
+		assertEquals(-1, intIntMap.putIfAbsent(5, 3, -1));
+		assertEquals(3, intIntMap.putIfAbsent(5, 4, -1));
+		assertEquals(2, intIntMap.size);
+		assertEquals(1, intIntMap.get(0, -1));
+		assertEquals(3, intIntMap.get(5, -1));
+
+		IntFloatMap intFloatMap = new IntFloatMap();
+		assertEquals(-1, intFloatMap.putIfAbsent(0, 1, -1), 0);
+		assertEquals(1, intFloatMap.putIfAbsent(0, 2, -1), 0);
+		assertEquals(-1, intFloatMap.putIfAbsent(5, 3, -1), 0);
+		assertEquals(3, intFloatMap.putIfAbsent(5, 4, -1), 0);
+		assertEquals(2, intFloatMap.size);
+
+		IntMap<String> intMap = new IntMap<String>();
+		assertNull(intMap.putIfAbsent(0, "a"));
+		assertEquals("a", intMap.putIfAbsent(0, "b"));
+		assertNull(intMap.putIfAbsent(5, "c"));
+		assertEquals("c", intMap.putIfAbsent(5, "d"));
+		assertEquals(2, intMap.size);
+		assertEquals("c", intMap.get(5));
+
+		LongMap<String> longMap = new LongMap<String>();
+		assertNull(longMap.putIfAbsent(0, "a"));
+		assertEquals("a", longMap.putIfAbsent(0, "b"));
+		assertNull(longMap.putIfAbsent(5L << 40, "c"));
+		assertEquals("c", longMap.putIfAbsent(5L << 40, "d"));
+		assertEquals(2, longMap.size);
+
+		// Inserting through putIfAbsent must resize like put.
+		for (int i = 1; i <= count; i++)
+			intIntMap.putIfAbsent(i * 1024, i, -1);
+		for (int i = 1; i <= count; i++)
+			assertEquals(i, intIntMap.get(i * 1024, -1));
+	}
+}
@@ -0,0 +1,173 @@
+package com.badlogic.gdx.utils;
+
+import static org.junit.Assert.*;
+
+import com.badlogic.gdx.utils.JsonWriter.OutputType;
+import com.badlogic.gdx.utils.UBJsonReader.NumberArray;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class UBJsonReaderTest {
+	static private byte[] typed () throws IOException {
+		float[] floats = new float[100];
+		for (int i = 0; i < floats.length; i++)
+			floats[i] = i * 0.5f - 10;
+		short[] shorts = new short[40];
+		for (int i = 0; i < shorts.length; i++)
+			shorts[i] = (short)(i * 3 - 20);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		UBJsonWriter writer = new UBJsonWriter(bytes);
+		writer.object();
+		writer.set("id", "typed");
+		writer.name("floats").value(floats);
+		writer.name("shorts").value(shorts);
+		writer.name("small").value(new float[] {1, 2, 3});
+		writer.object("nested").set("x", 1.5f).set("flag", true).pop();
+		writer.pop();
+		writer.close();
+		return bytes.toByteArray();
+	}
+
+	/** Writes arrays the way fbx-conv does, with a type marker before every value and no count. */
+	static private byte[] untyped (int count, boolean mixed) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeByte('{');
+		out.writeByte('s');
+		out.writeByte(8);
+		out.writeBytes("vertices");
+		out.writeByte('[');
+		for (int i = 0; i < count; i++) {
+			if (mixed && i == count / 2) {
+				out.writeByte('D');
+				out.writeDouble(i);
+			} else {
+				out.writeByte('d');
+				out.writeFloat(i * 0.25f);
+			}
+		}
+		out.writeByte(']');
+		out.writeByte('s');
+		out.writeByte(7);
+		out.writeBytes("indices");
+		out.writeByte('[');
+		for (int i = 0; i < count; i++) {
+			out.writeByte('i');
+			out.writeShort(count - i);
+		}
+		out.writeByte(']');
+		out.writeByte('}');
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	@Test
+	public void bufferMatchesStream () throws IOException {
+		UBJsonReader reader = new UBJsonReader();
+		reader.oldFormat = false;
+		byte[] data = typed();
+		JsonValue expected = reader.parse(new ByteArrayInputStream(data));
+		assertEquals(expected.toJson(OutputType.json), reader.parse(ByteBuffer.wrap(data)).toJson(OutputType.json));
+
+		reader.lazyArraySize = 32;
+		JsonValue lazy = reader.parse(ByteBuffer.wrap(data));
+		assertTrue(lazy.get("floats") instanceof NumberArray);
+		assertTrue(lazy.get("shorts") instanceof NumberArray);
+		assertFalse(lazy.get("small") instanceof NumberArray);
+		assertArrayEquals(expected.get("floats").asFloatArray(), lazy.get("floats").asFloatArray(), 0);
+		assertArrayEquals(expected.get("shorts").asShortArray(), lazy.get("shorts").asShortArray());
+		assertArrayEquals(expected.get("shorts").asIntArray(), lazy.get("shorts").asIntArray());
+		assertEquals(expected.toJson(OutputType.json), lazy.toJson(OutputType.json));
+		assertEquals(1.5f, lazy.get("nested").getFloat("x"), 0);
+	}
+
+	@Test
+	public void rewriteLazy () throws IOException {
+		UBJsonReader reader = new UBJsonReader();
+		reader.oldFormat = false;
+		byte[] data = typed();
+		JsonValue expected = reader.parse(new ByteArrayInputStream(data));
+
+		reader.lazyArraySize = 32;
+		JsonValue lazy = reader.parse(ByteBuffer.wrap(data));
+		assertTrue(((NumberArray)lazy.get("floats")).isLazy());
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		UBJsonWriter writer = new UBJsonWriter(bytes);
+		writer.value(lazy);
+		writer.close();
+
+		reader.lazyArraySize = 0;
+		JsonValue rewritten = reader.parse(new ByteArrayInputStream(bytes.toByteArray()));
+		assertEquals(100, rewritten.get("floats").size);
+		assertEquals(expected.toJson(OutputType.json), rewritten.toJson(OutputType.json));
+	}
+
+	@Test
+	public void untypedArrays () throws IOException {
+		UBJsonReader reader = new UBJsonReader();
+		byte[] data = untyped(100, false);
+		JsonValue expected = reader.parse(new ByteArrayInputStream(data));
+
+		reader.lazyArraySize = 32;
+		JsonValue lazy = reader.parse(ByteBuffer.wrap(data));
+		NumberArray vertices = (NumberArray)lazy.get("vertices");
+		assertTrue(vertices.isLazy());
+		assertEquals(100, vertices.size);
+		assertArrayEquals(expected.get("vertices").asFloatArray(), vertices.asFloatArray(), 0);
+		assertArrayEquals(expected.get("indices").asShortArray(), lazy.get("indices").asShortArray());
+		assertTrue(vertices.isLazy());
+
+		// Any other access creates the children.
+		assertEquals(0.25f, vertices.getFloat(1), 0);
+		assertFalse(vertices.isLazy());
+		assertEquals(vertices, vertices.child.parent);
+		assertEquals(expected.toJson(OutputType.json), lazy.toJson(OutputType.json));
+
+		// Arrays below the size or with mixed types are parsed as usual.
+		assertFalse(reader.parse(ByteBuffer.wrap(untyped(10, false))).get("vertices") instanceof NumberArray);
+		JsonValue mixed = reader.parse(ByteBuffer.wrap(untyped(100, true)));
+		assertFalse(mixed.get("vertices") instanceof NumberArray);
+		assertEquals(50, mixed.get("vertices").getInt(50));
+		assertTrue(mixed.get("indices") instanceof NumberArray);
+	}
+
+	@Test
+	public void bufferIsNotModified () throws IOException {
+		byte[] data = untyped(64, false);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(data.length + 4);
+		buffer.order(java.nio.ByteOrder.LITTLE_ENDIAN);
+		buffer.position(4);
+		buffer.put(data);
+		buffer.position(4);
+		UBJsonReader reader = new UBJsonReader();
+		reader.lazyArraySize = 32;
+		JsonValue value = reader.parse(buffer);
+		assertEquals(4, buffer.position());
+		assertEquals(java.nio.ByteOrder.LITTLE_ENDIAN, buffer.order());
+		assertEquals(15.75f, value.get("vertices").asFloatArray()[63], 0);
+	}
+
+	@Test
+	public void json () throws IOException {
+		UBJsonReader reader = new UBJsonReader();
+		reader.lazyArraySize = 32;
+		JsonValue value = reader.parse(ByteBuffer.wrap(untyped(40, false)));
+		float[] vertices = new Json().readValue("vertices", float[].class, value);
+		assertEquals(40, vertices.length);
+		assertEquals(9.75f, vertices[39], 0);
+	}
+
+	@Test(expected = SerializationException.class)
+	public void truncated () throws IOException {
+		byte[] data = untyped(64, false);
+		byte[] truncated = new byte[data.length - 20];
+		System.arraycopy(data, 0, truncated, 0, truncated.length);
+		new UBJsonReader().parse(ByteBuffer.wrap(truncated));
+	}
+}
@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares {@link Array} with java.util.ArrayList and fastutil's ObjectArrayList. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayBenchmark {
+	@Param({"Array", "ArrayList", "ObjectArrayList"}) public String impl;
+	@Param({"100", "10000", "1000000"}) public int size;
+
+	Integer[] values;
+	int[] order;
+	ArrayAdapter list;
+	int index;
+
+	@Setup
+	public void setup () {
+		values = new Integer[size];
+		for (int i = 0; i < size; i++)
+			values[i] = i;
+		order = BenchmarkData.lookupOrder(size);
+		list = create();
+		for (int i = 0; i < size; i++)
+			list.add(values[i]);
+	}
+
+	int nextIndex () {
+		int i = index;
+		index = i + 1 == size ? 0 : i + 1;
+		return order[i];
+	}
+
+	@Benchmark
+	public int get () {
+		return list.get(nextIndex());
+	}
+
+	/** Adds an item to the end and removes it again, so the size stays constant. */
+	@Benchmark
+	public int addAndPop () {
+		list.add(values[nextIndex()]);
+		return list.pop();
+	}
+
+	@Benchmark
+	public long iterate () {
+		return list.iterate();
+	}
+
+	/** Fills an empty list with the default capacity, so the time includes every resize. */
+	@Benchmark
+	public ArrayAdapter resize () {
+		ArrayAdapter list = create();
+		Integer[] values = this.values;
+		for (int i = 0, n = size; i < n; i++)
+			list.add(values[i]);
+		return list;
+	}
+
+	ArrayAdapter create () {
+		if (impl.equals("Array")) return new GdxArray();
+		if (impl.equals("ArrayList")) return new JavaArrayList();
+		if (impl.equals("ObjectArrayList")) return new FastutilObjectArrayList();
+		throw new IllegalArgumentException("Unknown implementation: " + impl);
+	}
+
+	/** Minimal common interface over the measured lists. */
+	static abstract class ArrayAdapter {
+		abstract void add (Integer value);
+
+		abstract int get (int index);
+
+		abstract int pop ();
+
+		abstract long iterate ();
+	}
+
+	static class GdxArray extends ArrayAdapter {
+		final Array<Integer> list = new Array<Integer>(Integer.class);
+
+		void add (Integer value) {
+			list.add(value);
+		}
+
+		int get (int index) {
+			return list.get(index);
+		}
+
+		int pop () {
+			return list.pop();
+		}
+
+		long iterate () {
+			long sum = 0;
+			Integer[] items = list.items;
+			for (int i = 0, n = list.size; i < n; i++)
+				sum += items[i];
+			return sum;
+		}
+	}
+
+	static class JavaArrayList extends ArrayAdapter {
+		final ArrayList<Integer> list = new ArrayList<Integer>();
+
+		void add (Integer value) {
+			list.add(value);
+		}
+
+		int get (int index) {
+			return list.get(index);
+		}
+
+		int pop () {
+			return list.remove(list.size() - 1);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (int i = 0, n = list.size(); i < n; i++)
+				sum += list.get(i);
+			return sum;
+		}
+	}
+
+	static class FastutilObjectArrayList extends ArrayAdapter {
+		final ObjectArrayList<Integer> list = ObjectArrayList.wrap(new Integer[0], 0);
+
+		void add (Integer value) {
+			list.add(value);
+		}
+
+		int get (int index) {
+			return list.get(index);
+		}
+
+		int pop () {
+			return list.pop();
+		}
+
+		long iterate () {
+			long sum = 0;
+			Integer[] items = list.elements();
+			for (int i = 0, n = list.size(); i < n; i++)
+				sum += items[i];
+			return sum;
+		}
+	}
+}
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares loading a set of files with a single lane, as AssetManager always did, to loading them with several lanes. Each
+ * file is parsed as JSON on the executor and about every fourth file depends on a file shared with the others. {@link #load()}
+ * measures throughput, which depends on the number of cores. {@link #frames()} measures a loading screen, where a single lane
+ * leaves the executor idle between the update calls that advance each asset. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssetManagerBenchmark {
+	@Param({"1", "2", "4", "8"}) public int threads;
+	@Param({"64"}) public int files;
+
+	File dir;
+	String[] names;
+	AssetManager manager;
+
+	@Setup
+	public void setup () throws IOException {
+		dir = File.createTempFile("assets", "");
+		dir.delete();
+		final FileHandle root = new FileHandle(dir);
+		names = new String[files];
+		for (int i = 0; i < files; i++) {
+			names[i] = "file" + i + ".json";
+			write(root.child(names[i]), 2000);
+		}
+		write(root.child("shared.json"), 2000);
+
+		manager = new AssetManager(new FileHandleResolver() {
+			public FileHandle resolve (String fileName) {
+				return root.child(fileName);
+			}
+		}, false, threads);
+		manager.setLoader(JsonValue.class, new JsonLoader(manager.getFileHandleResolver()));
+	}
+
+	static private void write (FileHandle file, int count) {
+		StringBuilder buffer = new StringBuilder("[");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) buffer.append(',');
+			buffer.append("{\"name\":\"item").append(i).append("\",\"x\":").append(i * 0.5f).append(",\"tags\":[1,2,3]}");
+		}
+		buffer.append(']');
+		file.writeString(buffer.toString(), false, "UTF-8");
+	}
+
+	@TearDown
+	public void tearDown () {
+		manager.dispose();
+		new FileHandle(dir).deleteDirectory();
+	}
+
+	@Benchmark
+	public int load () {
+		for (String name : names)
+			manager.load(name, JsonValue.class);
+		manager.finishLoading();
+		int loaded = manager.getLoadedAssets();
+		manager.clear();
+		return loaded;
+	}
+
+	/** Calls {@link AssetManager#update()} once per simulated 1ms frame, as a loading screen would. Returns the number of frames
+	 * it took to load. */
+	@Benchmark
+	public int frames () throws InterruptedException {
+		for (String name : names)
+			manager.load(name, JsonValue.class);
+		int frames = 1;
+		for (; !manager.update(); frames++)
+			Thread.sleep(1);
+		manager.clear();
+		return frames;
+	}
+
+	static private class JsonLoader extends AsynchronousAssetLoader<JsonValue, AssetLoaderParameters<JsonValue>> {
+		private final ObjectMap<String, JsonValue> values = new ObjectMap<String, JsonValue>();
+
+		JsonLoader (FileHandleResolver resolver) {
+			super(resolver);
+		}
+
+		public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file,
+			AssetLoaderParameters<JsonValue> parameter) {
+			if (fileName.equals("shared.json") || fileName.hashCode() % 4 != 0) return null;
+			Array<AssetDescriptor> dependencies = new Array<AssetDescriptor>();
+			dependencies.add(new AssetDescriptor<JsonValue>("shared.json", JsonValue.class));
+			return dependencies;
+		}
+
+		public void loadAsync (AssetManager manager, String fileName, FileHandle file, AssetLoaderParameters<JsonValue> parameter) {
+			JsonValue value = new JsonReader().parse(file);
+			synchronized (values) {
+				values.put(fileName, value);
+			}
+		}
+
+		public JsonValue loadSync (AssetManager manager, String fileName, FileHandle file,
+			AssetLoaderParameters<JsonValue> parameter) {
+			synchronized (values) {
+				return values.remove(fileName);
+			}
+		}
+
+		public boolean canLoadConcurrently () {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+import java.util.HashSet;
+
+/** Deterministic key sets shared by the collection benchmarks, so every implementation is fed exactly the same data. */
+class BenchmarkData {
+	static private final long seed = 0x9E3779B97F4A7C15L;
+
+	/** @param distribution "sequential" for 0..size-1 (typical entity ids), "random" for uniformly distributed unique keys or
+	 *           "strided" for multiples of 4096, which clusters badly in tables that only mask the low bits. */
+	static int[] intKeys (int size, String distribution) {
+		int[] keys = new int[size];
+		if (distribution.equals("sequential")) {
+			for (int i = 0; i < size; i++)
+				keys[i] = i;
+		} else if (distribution.equals("strided")) {
+			for (int i = 0; i < size; i++)
+				keys[i] = i << 12;
+		} else if (distribution.equals("random")) {
+			RandomXS128 random = new RandomXS128(seed);
+			HashSet<Integer> seen = new HashSet<Integer>(size * 2);
+			for (int i = 0; i < size;) {
+				int key = random.nextInt();
+				if (seen.add(key)) keys[i++] = key;
+			}
+		} else
+			throw new IllegalArgumentException("Unknown key distribution: " + distribution);
+		return keys;
+	}
+
+	static long[] longKeys (int size, String distribution) {
+		int[] intKeys = intKeys(size, distribution);
+		long[] keys = new long[size];
+		for (int i = 0; i < size; i++)
+			keys[i] = (long)intKeys[i] << 16 ^ intKeys[i];
+		return keys;
+	}
+
+	/** Returns distinct strings whose hashcodes follow the int key distribution. */
+	static String[] stringKeys (int size, String distribution) {
+		int[] intKeys = intKeys(size, distribution);
+		String[] keys = new String[size];
+		for (int i = 0; i < size; i++)
+			keys[i] = "key" + intKeys[i];
+		return keys;
+	}
+
+	/** Returns a shuffled copy of the indices 0..size-1, used so lookups don't walk the keys in insertion order. */
+	static int[] lookupOrder (int size) {
+		int[] order = new int[size];
+		for (int i = 0; i < size; i++)
+			order[i] = i;
+		RandomXS128 random = new RandomXS128(~seed);
+		for (int i = size - 1; i > 0; i--) {
+			int ii = random.nextInt(i + 1);
+			int temp = order[i];
+			order[i] = order[ii];
+			order[ii] = temp;
+		}
+		return order;
+	}
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.utils.ConcurrentIntMap;
+import com.badlogic.gdx.utils.ConcurrentObjectMap;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares {@link ConcurrentObjectMap} and {@link ConcurrentIntMap} with java.util.concurrent.ConcurrentHashMap and with an
+ * {@link ObjectMap} or {@link IntMap} guarded by a single lock, with 4 threads sharing one map. The get benchmark is read only,
+ * the mixed benchmark puts one key for every 4 gets. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentMapBenchmark {
+	@Param({"ConcurrentObjectMap", "ConcurrentIntMap", "ConcurrentHashMap", "synchronized ObjectMap", "synchronized IntMap"})
+	public String impl;
+	@Param({"1000", "100000"}) public int size;
+
+	int[] keyArray;
+	Integer[] boxedKeys;
+	SharedMap map;
+
+	@Setup
+	public void setup () {
+		keyArray = BenchmarkData.intKeys(size, "random");
+		boxedKeys = new Integer[size];
+		for (int i = 0; i < size; i++)
+			boxedKeys[i] = keyArray[i];
+		if (impl.equals("ConcurrentObjectMap"))
+			map = new GdxConcurrentObjectMap();
+		else if (impl.equals("ConcurrentIntMap"))
+			map = new GdxConcurrentIntMap();
+		else if (impl.equals("ConcurrentHashMap"))
+			map = new JavaConcurrentHashMap();
+		else if (impl.equals("synchronized ObjectMap"))
+			map = new SynchronizedObjectMap();
+		else if (impl.equals("synchronized IntMap"))
+			map = new SynchronizedIntMap();
+		else
+			throw new IllegalArgumentException("Unknown implementation: " + impl);
+		for (int i = 0; i < size; i++)
+			map.put(keyArray[i], boxedKeys[i]);
+	}
+
+	/** Each thread walks the keys from its own position. */
+	@State(Scope.Thread)
+	static public class Cursor {
+		int index;
+
+		int next (int size) {
+			int i = index;
+			index = i + 1 == size ? 0 : i + 1;
+			return i;
+		}
+	}
+
+	@Benchmark
+	public Integer get (Cursor cursor) {
+		int i = cursor.next(size);
+		return map.get(keyArray[i], boxedKeys[i]);
+	}
+
+	@Benchmark
+	public Integer mixed (Cursor cursor) {
+		int i = cursor.next(size);
+		if ((i & 3) == 0) {
+			map.put(keyArray[i], boxedKeys[i]);
+			return null;
+		}
+		return map.get(keyArray[i], boxedKeys[i]);
+	}
+
+	/** Minimal common interface over the measured maps. Implementations use whichever of the int and boxed key they take. */
+	static abstract class SharedMap {
+		abstract void put (int key, Integer boxedKey);
+
+		abstract Integer get (int key, Integer boxedKey);
+	}
+
+	static class GdxConcurrentObjectMap extends SharedMap {
+		final ConcurrentObjectMap<Integer, Integer> map = new ConcurrentObjectMap<Integer, Integer>();
+
+		void put (int key, Integer boxedKey) {
+			map.put(boxedKey, boxedKey);
+		}
+
+		Integer get (int key, Integer boxedKey) {
+			return map.get(boxedKey);
+		}
+	}
+
+	static class GdxConcurrentIntMap extends SharedMap {
+		final ConcurrentIntMap<Integer> map = new ConcurrentIntMap<Integer>();
+
+		void put (int key, Integer boxedKey) {
+			map.put(key, boxedKey);
+		}
+
+		Integer get (int key, Integer boxedKey) {
+			return map.get(key);
+		}
+	}
+
+	static class JavaConcurrentHashMap extends SharedMap {
+		final ConcurrentHashMap<Integer, Integer> map = new ConcurrentHashMap<Integer, Integer>();
+
+		void put (int key, Integer boxedKey) {
+			map.put(boxedKey, boxedKey);
+		}
+
+		Integer get (int key, Integer boxedKey) {
+			return map.get(boxedKey);
+		}
+	}
+
+	static class SynchronizedObjectMap extends SharedMap {
+		final ObjectMap<Integer, Integer> map = new ObjectMap<Integer, Integer>();
+
+		synchronized void put (int key, Integer boxedKey) {
+			map.put(boxedKey, boxedKey);
+		}
+
+		synchronized Integer get (int key, Integer boxedKey) {
+			return map.get(boxedKey);
+		}
+	}
+
+	static class SynchronizedIntMap extends SharedMap {
+		final IntMap<Integer> map = new IntMap<Integer>();
+
+		synchronized void put (int key, Integer boxedKey) {
+			map.put(key, boxedKey);
+		}
+
+		synchronized Integer get (int key, Integer boxedKey) {
+			return map.get(key);
+		}
+	}
+}
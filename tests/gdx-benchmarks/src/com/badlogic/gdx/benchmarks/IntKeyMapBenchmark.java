@@ -0,0 +1,287 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.utils.IntFloatMap;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares {@link IntMap}, {@link IntIntMap} and {@link IntFloatMap} with java.util.HashMap and the fastutil open addressing
+ * maps. The single key benchmarks cycle through the keys in a shuffled order, the bulk benchmarks report the time for all keys. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntKeyMapBenchmark {
+	@Param({"IntMap", "IntIntMap", "IntFloatMap", "HashMap", "Int2ObjectOpenHashMap", "Int2IntOpenHashMap"}) public String impl;
+	@Param({"100", "10000", "1000000"}) public int size;
+	@Param({"sequential", "random", "strided"}) public String keys;
+
+	int[] keyArray, order;
+	Integer[] boxedValues;
+	IntKeyMap map;
+	int index;
+
+	@Setup
+	public void setup () {
+		keyArray = BenchmarkData.intKeys(size, keys);
+		order = BenchmarkData.lookupOrder(size);
+		boxedValues = new Integer[size];
+		for (int i = 0; i < size; i++)
+			boxedValues[i] = i;
+		map = create();
+		for (int i = 0; i < size; i++)
+			map.put(keyArray[i], boxedValues[i]);
+	}
+
+	int nextKey () {
+		int i = index;
+		index = i + 1 == size ? 0 : i + 1;
+		return keyArray[order[i]];
+	}
+
+	@Benchmark
+	public int get () {
+		return map.get(nextKey());
+	}
+
+	@Benchmark
+	public int getMissing () {
+		return map.get(~nextKey());
+	}
+
+	@Benchmark
+	public int put () {
+		int i = index;
+		map.put(nextKey(), boxedValues[i]);
+		return i;
+	}
+
+	/** Removes a key and puts it back, so the map size stays constant. */
+	@Benchmark
+	public int removeAndPut () {
+		int key = nextKey();
+		int value = map.remove(key);
+		map.put(key, boxedValues[value]);
+		return value;
+	}
+
+	@Benchmark
+	public long iterate () {
+		return map.iterate();
+	}
+
+	/** Fills an empty map with the default capacity, so the time includes every resize. */
+	@Benchmark
+	public IntKeyMap resize () {
+		IntKeyMap map = create();
+		int[] keyArray = this.keyArray;
+		Integer[] boxedValues = this.boxedValues;
+		for (int i = 0, n = size; i < n; i++)
+			map.put(keyArray[i], boxedValues[i]);
+		return map;
+	}
+
+	IntKeyMap create () {
+		if (impl.equals("IntMap")) return new GdxIntMap();
+		if (impl.equals("IntIntMap")) return new GdxIntIntMap();
+		if (impl.equals("IntFloatMap")) return new GdxIntFloatMap();
+		if (impl.equals("HashMap")) return new JavaHashMap();
+		if (impl.equals("Int2ObjectOpenHashMap")) return new FastutilInt2ObjectMap();
+		if (impl.equals("Int2IntOpenHashMap")) return new FastutilInt2IntMap();
+		throw new IllegalArgumentException("Unknown implementation: " + impl);
+	}
+
+	/** Minimal common interface over the measured maps. Values are the index of the key in the key array. */
+	static abstract class IntKeyMap {
+		abstract void put (int key, Integer value);
+
+		abstract int get (int key);
+
+		abstract int remove (int key);
+
+		abstract long iterate ();
+	}
+
+	static class GdxIntMap extends IntKeyMap {
+		final IntMap<Integer> map = new IntMap<Integer>();
+
+		void put (int key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (int key) {
+			Integer value = map.get(key);
+			return value == null ? -1 : value;
+		}
+
+		int remove (int key) {
+			return map.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (IntMap.Entry<Integer> entry : map.entries())
+				sum += entry.key + entry.value;
+			return sum;
+		}
+	}
+
+	static class GdxIntIntMap extends IntKeyMap {
+		final IntIntMap map = new IntIntMap();
+
+		void put (int key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (int key) {
+			return map.get(key, -1);
+		}
+
+		int remove (int key) {
+			return map.remove(key, -1);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (IntIntMap.Entry entry : map.entries())
+				sum += entry.key + entry.value;
+			return sum;
+		}
+	}
+
+	static class GdxIntFloatMap extends IntKeyMap {
+		final IntFloatMap map = new IntFloatMap();
+
+		void put (int key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (int key) {
+			return (int)map.get(key, -1);
+		}
+
+		int remove (int key) {
+			return (int)map.remove(key, -1);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (IntFloatMap.Entry entry : map.entries())
+				sum += entry.key + (int)entry.value;
+			return sum;
+		}
+	}
+
+	static class JavaHashMap extends IntKeyMap {
+		final HashMap<Integer, Integer> map = new HashMap<Integer, Integer>();
+
+		void put (int key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (int key) {
+			Integer value = map.get(key);
+			return value == null ? -1 : value;
+		}
+
+		int remove (int key) {
+			return map.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (Map.Entry<Integer, Integer> entry : map.entrySet())
+				sum += entry.getKey() + entry.getValue();
+			return sum;
+		}
+	}
+
+	static class FastutilInt2ObjectMap extends IntKeyMap {
+		final Int2ObjectOpenHashMap<Integer> map = new Int2ObjectOpenHashMap<Integer>();
+
+		void put (int key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (int key) {
+			Integer value = map.get(key);
+			return value == null ? -1 : value;
+		}
+
+		int remove (int key) {
+			return map.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (Int2ObjectMap.Entry<Integer> entry : map.int2ObjectEntrySet())
+				sum += entry.getIntKey() + entry.getValue();
+			return sum;
+		}
+	}
+
+	static class FastutilInt2IntMap extends IntKeyMap {
+		final Int2IntOpenHashMap map = new Int2IntOpenHashMap();
+
+		{
+			map.defaultReturnValue(-1);
+		}
+
+		void put (int key, Integer value) {
+			map.put(key, value.intValue());
+		}
+
+		int get (int key) {
+			return map.get(key);
+		}
+
+		int remove (int key) {
+			return map.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (Int2IntMap.Entry entry : map.int2IntEntrySet())
+				sum += entry.getIntKey() + entry.getIntValue();
+			return sum;
+		}
+	}
+}
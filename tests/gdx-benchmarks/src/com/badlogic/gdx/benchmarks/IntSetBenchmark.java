@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.utils.IntSet;
+
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares {@link IntSet} with java.util.HashSet and fastutil's IntOpenHashSet. The single key benchmarks cycle through the
+ * keys in a shuffled order, the bulk benchmarks report the time for all keys. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntSetBenchmark {
+	@Param({"IntSet", "HashSet", "IntOpenHashSet"}) public String impl;
+	@Param({"100", "10000", "1000000"}) public int size;
+	@Param({"sequential", "random", "strided"}) public String keys;
+
+	int[] keyArray, missingKeyArray;
+	int[] order;
+	IntSetAdapter set;
+	int index;
+
+	@Setup
+	public void setup () {
+		keyArray = BenchmarkData.intKeys(size, keys);
+		missingKeyArray = new int[size];
+		for (int i = 0; i < size; i++)
+			missingKeyArray[i] = ~keyArray[i];
+		order = BenchmarkData.lookupOrder(size);
+		set = create();
+		for (int i = 0; i < size; i++)
+			set.add(keyArray[i]);
+	}
+
+	int nextIndex () {
+		int i = index;
+		index = i + 1 == size ? 0 : i + 1;
+		return order[i];
+	}
+
+	@Benchmark
+	public boolean contains () {
+		return set.contains(keyArray[nextIndex()]);
+	}
+
+	@Benchmark
+	public boolean containsMissing () {
+		return set.contains(missingKeyArray[nextIndex()]);
+	}
+
+	@Benchmark
+	public boolean add () {
+		return set.add(keyArray[nextIndex()]);
+	}
+
+	/** Removes a key and adds it back, so the set size stays constant. */
+	@Benchmark
+	public boolean removeAndAdd () {
+		int key = keyArray[nextIndex()];
+		set.remove(key);
+		return set.add(key);
+	}
+
+	@Benchmark
+	public long iterate () {
+		return set.iterate();
+	}
+
+	/** Fills an empty set with the default capacity, so the time includes every resize. */
+	@Benchmark
+	public IntSetAdapter resize () {
+		IntSetAdapter set = create();
+		int[] keyArray = this.keyArray;
+		for (int i = 0, n = size; i < n; i++)
+			set.add(keyArray[i]);
+		return set;
+	}
+
+	IntSetAdapter create () {
+		if (impl.equals("IntSet")) return new GdxIntSet();
+		if (impl.equals("HashSet")) return new JavaHashSet();
+		if (impl.equals("IntOpenHashSet")) return new FastutilIntSet();
+		throw new IllegalArgumentException("Unknown implementation: " + impl);
+	}
+
+	/** Minimal common interface over the measured sets. */
+	static abstract class IntSetAdapter {
+		abstract boolean add (int key);
+
+		abstract boolean contains (int key);
+
+		abstract boolean remove (int key);
+
+		abstract long iterate ();
+	}
+
+	static class GdxIntSet extends IntSetAdapter {
+		final IntSet set = new IntSet();
+
+		boolean add (int key) {
+			return set.add(key);
+		}
+
+		boolean contains (int key) {
+			return set.contains(key);
+		}
+
+		boolean remove (int key) {
+			return set.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (IntSet.IntSetIterator iter = set.iterator(); iter.hasNext;)
+				sum += iter.next();
+			return sum;
+		}
+	}
+
+	static class JavaHashSet extends IntSetAdapter {
+		final HashSet<Integer> set = new HashSet<Integer>();
+
+		boolean add (int key) {
+			return set.add(key);
+		}
+
+		boolean contains (int key) {
+			return set.contains(key);
+		}
+
+		boolean remove (int key) {
+			return set.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (Integer key : set)
+				sum += key;
+			return sum;
+		}
+	}
+
+	static class FastutilIntSet extends IntSetAdapter {
+		final IntOpenHashSet set = new IntOpenHashSet();
+
+		boolean add (int key) {
+			return set.add(key);
+		}
+
+		boolean contains (int key) {
+			return set.contains(key);
+		}
+
+		boolean remove (int key) {
+			return set.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (IntIterator iter = set.iterator(); iter.hasNext();)
+				sum += iter.nextInt();
+			return sum;
+		}
+	}
+}
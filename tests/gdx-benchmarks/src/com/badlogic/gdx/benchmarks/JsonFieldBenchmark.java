@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+
+import java.io.StringWriter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares reading and writing primitive fields through {@link Field#get(Object)} and {@link Field#set(Object, Object)}, which
+ * box every value, with the primitive accessors such as {@link Field#getFloat(Object)} that Json uses for primitive fields.
+ * The write benchmark serializes entities with Json. For "boxed" a JsonWriter subclass is used, which makes Json write
+ * primitive fields through the boxing path. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonFieldBenchmark {
+	@Param({"boxed", "primitive"}) public String accessor;
+	@Param({"1000"}) public int size;
+
+	Entity[] entities;
+	Field[] fields;
+	Json writeJson;
+	StringWriter buffer;
+
+	static public class Entity {
+		public long id;
+		public int type;
+		public float x, y, rotation;
+		public double health;
+		public short level;
+		public boolean active;
+	}
+
+	@Setup
+	public void setup () throws ReflectionException {
+		Random random = new Random(1234);
+		entities = new Entity[size];
+		for (int i = 0; i < size; i++) {
+			Entity entity = new Entity();
+			entity.id = random.nextLong();
+			entity.type = random.nextInt(16);
+			entity.x = random.nextFloat() * 1000;
+			entity.y = random.nextFloat() * 1000;
+			entity.rotation = random.nextFloat() * 360;
+			entity.health = random.nextDouble();
+			entity.level = (short)random.nextInt(100);
+			entity.active = random.nextBoolean();
+			entities[i] = entity;
+		}
+		fields = new Field[] {ClassReflection.getField(Entity.class, "id"), ClassReflection.getField(Entity.class, "type"),
+			ClassReflection.getField(Entity.class, "x"), ClassReflection.getField(Entity.class, "y"),
+			ClassReflection.getField(Entity.class, "rotation"), ClassReflection.getField(Entity.class, "health"),
+			ClassReflection.getField(Entity.class, "level"), ClassReflection.getField(Entity.class, "active")};
+
+		writeJson = new Json();
+		buffer = new StringWriter(size * 128);
+	}
+
+	/** Sums every field of every entity. */
+	@Benchmark
+	public double get () throws ReflectionException {
+		Field id = fields[0], type = fields[1], x = fields[2], y = fields[3], rotation = fields[4], health = fields[5],
+			level = fields[6], active = fields[7];
+		double sum = 0;
+		if (accessor.equals("boxed")) {
+			for (Entity entity : entities) {
+				sum += (Long)id.get(entity) + (Integer)type.get(entity) + (Float)x.get(entity) + (Float)y.get(entity)
+					+ (Float)rotation.get(entity) + (Double)health.get(entity) + (Short)level.get(entity);
+				if ((Boolean)active.get(entity)) sum++;
+			}
+		} else {
+			for (Entity entity : entities) {
+				sum += id.getLong(entity) + type.getInt(entity) + x.getFloat(entity) + y.getFloat(entity)
+					+ rotation.getFloat(entity) + health.getDouble(entity) + level.getShort(entity);
+				if (active.getBoolean(entity)) sum++;
+			}
+		}
+		return sum;
+	}
+
+	/** Sets every field of every entity. */
+	@Benchmark
+	public Entity[] set () throws ReflectionException {
+		Field id = fields[0], type = fields[1], x = fields[2], y = fields[3], rotation = fields[4], health = fields[5],
+			level = fields[6], active = fields[7];
+		if (accessor.equals("boxed")) {
+			for (int i = 0, n = entities.length; i < n; i++) {
+				Entity entity = entities[i];
+				id.set(entity, (long)i);
+				type.set(entity, i & 15);
+				x.set(entity, i * 0.5f);
+				y.set(entity, i * 0.25f);
+				rotation.set(entity, (float)(i % 360));
+				health.set(entity, i / (double)n);
+				level.set(entity, (short)(i & 127));
+				active.set(entity, (i & 1) == 0);
+			}
+		} else {
+			for (int i = 0, n = entities.length; i < n; i++) {
+				Entity entity = entities[i];
+				id.setLong(entity, i);
+				type.setInt(entity, i & 15);
+				x.setFloat(entity, i * 0.5f);
+				y.setFloat(entity, i * 0.25f);
+				rotation.setFloat(entity, i % 360);
+				health.setDouble(entity, i / (double)n);
+				level.setShort(entity, (short)(i & 127));
+				active.setBoolean(entity, (i & 1) == 0);
+			}
+		}
+		return entities;
+	}
+
+	@Benchmark
+	public int write () {
+		buffer.getBuffer().setLength(0);
+		JsonWriter writer = accessor.equals("boxed") ? new JsonWriter(buffer) {
+		} : new JsonWriter(buffer);
+		writeJson.toJson(entities, Entity[].class, writer);
+		return buffer.getBuffer().length();
+	}
+}
@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.utils.LongMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares {@link LongMap} with java.util.HashMap and the fastutil open addressing map. The single key benchmarks cycle
+ * through the keys in a shuffled order, the bulk benchmarks report the time for all keys. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongKeyMapBenchmark {
+	@Param({"LongMap", "HashMap", "Long2ObjectOpenHashMap"}) public String impl;
+	@Param({"100", "10000", "1000000"}) public int size;
+	@Param({"sequential", "random", "strided"}) public String keys;
+
+	long[] keyArray;
+	int[] order;
+	Integer[] boxedValues;
+	LongKeyMap map;
+	int index;
+
+	@Setup
+	public void setup () {
+		keyArray = BenchmarkData.longKeys(size, keys);
+		order = BenchmarkData.lookupOrder(size);
+		boxedValues = new Integer[size];
+		for (int i = 0; i < size; i++)
+			boxedValues[i] = i;
+		map = create();
+		for (int i = 0; i < size; i++)
+			map.put(keyArray[i], boxedValues[i]);
+	}
+
+	long nextKey () {
+		int i = index;
+		index = i + 1 == size ? 0 : i + 1;
+		return keyArray[order[i]];
+	}
+
+	@Benchmark
+	public int get () {
+		return map.get(nextKey());
+	}
+
+	@Benchmark
+	public int getMissing () {
+		return map.get(~nextKey());
+	}
+
+	@Benchmark
+	public int put () {
+		int i = index;
+		map.put(nextKey(), boxedValues[i]);
+		return i;
+	}
+
+	/** Removes a key and puts it back, so the map size stays constant. */
+	@Benchmark
+	public int removeAndPut () {
+		long key = nextKey();
+		int value = map.remove(key);
+		map.put(key, boxedValues[value]);
+		return value;
+	}
+
+	@Benchmark
+	public long iterate () {
+		return map.iterate();
+	}
+
+	/** Fills an empty map with the default capacity, so the time includes every resize. */
+	@Benchmark
+	public LongKeyMap resize () {
+		LongKeyMap map = create();
+		long[] keyArray = this.keyArray;
+		Integer[] boxedValues = this.boxedValues;
+		for (int i = 0, n = size; i < n; i++)
+			map.put(keyArray[i], boxedValues[i]);
+		return map;
+	}
+
+	LongKeyMap create () {
+		if (impl.equals("LongMap")) return new GdxLongMap();
+		if (impl.equals("HashMap")) return new JavaHashMap();
+		if (impl.equals("Long2ObjectOpenHashMap")) return new FastutilLong2ObjectMap();
+		throw new IllegalArgumentException("Unknown implementation: " + impl);
+	}
+
+	/** Minimal common interface over the measured maps. Values are the index of the key in the key array. */
+	static abstract class LongKeyMap {
+		abstract void put (long key, Integer value);
+
+		abstract int get (long key);
+
+		abstract int remove (long key);
+
+		abstract long iterate ();
+	}
+
+	static class GdxLongMap extends LongKeyMap {
+		final LongMap<Integer> map = new LongMap<Integer>();
+
+		void put (long key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (long key) {
+			Integer value = map.get(key);
+			return value == null ? -1 : value;
+		}
+
+		int remove (long key) {
+			return map.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (LongMap.Entry<Integer> entry : map.entries())
+				sum += entry.key + entry.value;
+			return sum;
+		}
+	}
+
+	static class JavaHashMap extends LongKeyMap {
+		final HashMap<Long, Integer> map = new HashMap<Long, Integer>();
+
+		void put (long key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (long key) {
+			Integer value = map.get(key);
+			return value == null ? -1 : value;
+		}
+
+		int remove (long key) {
+			return map.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (Map.Entry<Long, Integer> entry : map.entrySet())
+				sum += entry.getKey() + entry.getValue();
+			return sum;
+		}
+	}
+
+	static class FastutilLong2ObjectMap extends LongKeyMap {
+		final Long2ObjectOpenHashMap<Integer> map = new Long2ObjectOpenHashMap<Integer>();
+
+		void put (long key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (long key) {
+			Integer value = map.get(key);
+			return value == null ? -1 : value;
+		}
+
+		int remove (long key) {
+			return map.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (Long2ObjectMap.Entry<Integer> entry : map.long2ObjectEntrySet())
+				sum += entry.getLongKey() + entry.getValue();
+			return sum;
+		}
+	}
+}
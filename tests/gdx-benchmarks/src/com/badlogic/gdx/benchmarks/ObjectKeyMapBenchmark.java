@@ -0,0 +1,396 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.ObjectFloatMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectLongMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.OrderedMap;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares the object keyed maps ({@link ObjectMap}, {@link OrderedMap}, {@link IdentityMap}, {@link ObjectIntMap},
+ * {@link ObjectFloatMap} and {@link ObjectLongMap}) with their java.util counterparts and fastutil's Object2IntOpenHashMap, using
+ * string keys. The single key benchmarks cycle through the keys in a shuffled order, the bulk benchmarks report the time for all
+ * keys. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectKeyMapBenchmark {
+	@Param({"ObjectMap", "OrderedMap", "IdentityMap", "ObjectIntMap", "ObjectFloatMap", "ObjectLongMap", "HashMap", "LinkedHashMap",
+		"IdentityHashMap", "Object2IntOpenHashMap"}) public String impl;
+	@Param({"100", "10000", "1000000"}) public int size;
+	@Param({"sequential", "random"}) public String keys;
+
+	String[] keyArray, missingKeyArray;
+	int[] order;
+	Integer[] boxedValues;
+	ObjectKeyMap map;
+	int index;
+
+	@Setup
+	public void setup () {
+		keyArray = BenchmarkData.stringKeys(size, keys);
+		missingKeyArray = new String[size];
+		for (int i = 0; i < size; i++)
+			missingKeyArray[i] = keyArray[i] + "?";
+		order = BenchmarkData.lookupOrder(size);
+		boxedValues = new Integer[size];
+		for (int i = 0; i < size; i++)
+			boxedValues[i] = i;
+		map = create();
+		for (int i = 0; i < size; i++)
+			map.put(keyArray[i], boxedValues[i]);
+	}
+
+	int nextIndex () {
+		int i = index;
+		index = i + 1 == size ? 0 : i + 1;
+		return order[i];
+	}
+
+	@Benchmark
+	public int get () {
+		return map.get(keyArray[nextIndex()]);
+	}
+
+	@Benchmark
+	public int getMissing () {
+		return map.get(missingKeyArray[nextIndex()]);
+	}
+
+	@Benchmark
+	public int put () {
+		int i = nextIndex();
+		map.put(keyArray[i], boxedValues[i]);
+		return i;
+	}
+
+	/** Removes a key and puts it back, so the map size stays constant. */
+	@Benchmark
+	public int removeAndPut () {
+		String key = keyArray[nextIndex()];
+		int value = map.remove(key);
+		map.put(key, boxedValues[value]);
+		return value;
+	}
+
+	@Benchmark
+	public long iterate () {
+		return map.iterate();
+	}
+
+	/** Fills an empty map with the default capacity, so the time includes every resize. */
+	@Benchmark
+	public ObjectKeyMap resize () {
+		ObjectKeyMap map = create();
+		String[] keyArray = this.keyArray;
+		Integer[] boxedValues = this.boxedValues;
+		for (int i = 0, n = size; i < n; i++)
+			map.put(keyArray[i], boxedValues[i]);
+		return map;
+	}
+
+	ObjectKeyMap create () {
+		if (impl.equals("ObjectMap")) return new GdxObjectMap();
+		if (impl.equals("OrderedMap")) return new GdxOrderedMap();
+		if (impl.equals("IdentityMap")) return new GdxIdentityMap();
+		if (impl.equals("ObjectIntMap")) return new GdxObjectIntMap();
+		if (impl.equals("ObjectFloatMap")) return new GdxObjectFloatMap();
+		if (impl.equals("ObjectLongMap")) return new GdxObjectLongMap();
+		if (impl.equals("HashMap")) return new JavaHashMap();
+		if (impl.equals("LinkedHashMap")) return new JavaLinkedHashMap();
+		if (impl.equals("IdentityHashMap")) return new JavaIdentityHashMap();
+		if (impl.equals("Object2IntOpenHashMap")) return new FastutilObject2IntMap();
+		throw new IllegalArgumentException("Unknown implementation: " + impl);
+	}
+
+	/** Minimal common interface over the measured maps. Values are the index of the key in the key array. */
+	static abstract class ObjectKeyMap {
+		abstract void put (String key, Integer value);
+
+		abstract int get (String key);
+
+		abstract int remove (String key);
+
+		abstract long iterate ();
+	}
+
+	static class GdxObjectMap extends ObjectKeyMap {
+		final ObjectMap<String, Integer> map = new ObjectMap<String, Integer>();
+
+		void put (String key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (String key) {
+			Integer value = map.get(key);
+			return value == null ? -1 : value;
+		}
+
+		int remove (String key) {
+			return map.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (ObjectMap.Entry<String, Integer> entry : map.entries())
+				sum += entry.key.length() + entry.value;
+			return sum;
+		}
+	}
+
+	static class GdxOrderedMap extends ObjectKeyMap {
+		final OrderedMap<String, Integer> map = new OrderedMap<String, Integer>();
+
+		void put (String key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (String key) {
+			Integer value = map.get(key);
+			return value == null ? -1 : value;
+		}
+
+		int remove (String key) {
+			return map.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (ObjectMap.Entry<String, Integer> entry : map.entries())
+				sum += entry.key.length() + entry.value;
+			return sum;
+		}
+	}
+
+	static class GdxIdentityMap extends ObjectKeyMap {
+		final IdentityMap<String, Integer> map = new IdentityMap<String, Integer>();
+
+		void put (String key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (String key) {
+			Integer value = map.get(key);
+			return value == null ? -1 : value;
+		}
+
+		int remove (String key) {
+			return map.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (ObjectMap.Entry<String, Integer> entry : map.entries())
+				sum += entry.key.length() + entry.value;
+			return sum;
+		}
+	}
+
+	static class GdxObjectIntMap extends ObjectKeyMap {
+		final ObjectIntMap<String> map = new ObjectIntMap<String>();
+
+		void put (String key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (String key) {
+			return map.get(key, -1);
+		}
+
+		int remove (String key) {
+			return map.remove(key, -1);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (ObjectIntMap.Entry<String> entry : map.entries())
+				sum += entry.key.length() + entry.value;
+			return sum;
+		}
+	}
+
+	static class GdxObjectFloatMap extends ObjectKeyMap {
+		final ObjectFloatMap<String> map = new ObjectFloatMap<String>();
+
+		void put (String key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (String key) {
+			return (int)map.get(key, -1);
+		}
+
+		int remove (String key) {
+			return (int)map.remove(key, -1);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (ObjectFloatMap.Entry<String> entry : map.entries())
+				sum += entry.key.length() + (int)entry.value;
+			return sum;
+		}
+	}
+
+	static class GdxObjectLongMap extends ObjectKeyMap {
+		final ObjectLongMap<String> map = new ObjectLongMap<String>();
+
+		void put (String key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (String key) {
+			return (int)map.get(key, -1);
+		}
+
+		int remove (String key) {
+			return (int)map.remove(key, -1);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (ObjectLongMap.Entry<String> entry : map.entries())
+				sum += entry.key.length() + entry.value;
+			return sum;
+		}
+	}
+
+	static class JavaHashMap extends ObjectKeyMap {
+		final HashMap<String, Integer> map = new HashMap<String, Integer>();
+
+		void put (String key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (String key) {
+			Integer value = map.get(key);
+			return value == null ? -1 : value;
+		}
+
+		int remove (String key) {
+			return map.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (Map.Entry<String, Integer> entry : map.entrySet())
+				sum += entry.getKey().length() + entry.getValue();
+			return sum;
+		}
+	}
+
+	static class JavaLinkedHashMap extends ObjectKeyMap {
+		final LinkedHashMap<String, Integer> map = new LinkedHashMap<String, Integer>();
+
+		void put (String key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (String key) {
+			Integer value = map.get(key);
+			return value == null ? -1 : value;
+		}
+
+		int remove (String key) {
+			return map.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (Map.Entry<String, Integer> entry : map.entrySet())
+				sum += entry.getKey().length() + entry.getValue();
+			return sum;
+		}
+	}
+
+	static class JavaIdentityHashMap extends ObjectKeyMap {
+		final IdentityHashMap<String, Integer> map = new IdentityHashMap<String, Integer>();
+
+		void put (String key, Integer value) {
+			map.put(key, value);
+		}
+
+		int get (String key) {
+			Integer value = map.get(key);
+			return value == null ? -1 : value;
+		}
+
+		int remove (String key) {
+			return map.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (Map.Entry<String, Integer> entry : map.entrySet())
+				sum += entry.getKey().length() + entry.getValue();
+			return sum;
+		}
+	}
+
+	static class FastutilObject2IntMap extends ObjectKeyMap {
+		final Object2IntOpenHashMap<String> map = new Object2IntOpenHashMap<String>();
+
+		{
+			map.defaultReturnValue(-1);
+		}
+
+		void put (String key, Integer value) {
+			map.put(key, value.intValue());
+		}
+
+		int get (String key) {
+			return map.getInt(key);
+		}
+
+		int remove (String key) {
+			return map.removeInt(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (Object2IntMap.Entry<String> entry : map.object2IntEntrySet())
+				sum += entry.getKey().length() + entry.getIntValue();
+			return sum;
+		}
+	}
+}
@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.OrderedSet;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.concurrent.TimeUnit;
+
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares {@link ObjectSet} and {@link OrderedSet} with java.util.HashSet, java.util.LinkedHashSet and fastutil's
+ * ObjectOpenHashSet, using string keys. The single key benchmarks cycle through the keys in a shuffled order, the bulk benchmarks
+ * report the time for all keys. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectSetBenchmark {
+	@Param({"ObjectSet", "OrderedSet", "HashSet", "LinkedHashSet", "ObjectOpenHashSet"}) public String impl;
+	@Param({"100", "10000", "1000000"}) public int size;
+	@Param({"sequential", "random"}) public String keys;
+
+	String[] keyArray, missingKeyArray;
+	int[] order;
+	ObjectSetAdapter set;
+	int index;
+
+	@Setup
+	public void setup () {
+		keyArray = BenchmarkData.stringKeys(size, keys);
+		missingKeyArray = new String[size];
+		for (int i = 0; i < size; i++)
+			missingKeyArray[i] = keyArray[i] + "?";
+		order = BenchmarkData.lookupOrder(size);
+		set = create();
+		for (int i = 0; i < size; i++)
+			set.add(keyArray[i]);
+	}
+
+	int nextIndex () {
+		int i = index;
+		index = i + 1 == size ? 0 : i + 1;
+		return order[i];
+	}
+
+	@Benchmark
+	public boolean contains () {
+		return set.contains(keyArray[nextIndex()]);
+	}
+
+	@Benchmark
+	public boolean containsMissing () {
+		return set.contains(missingKeyArray[nextIndex()]);
+	}
+
+	@Benchmark
+	public boolean add () {
+		return set.add(keyArray[nextIndex()]);
+	}
+
+	/** Removes a key and adds it back, so the set size stays constant. */
+	@Benchmark
+	public boolean removeAndAdd () {
+		String key = keyArray[nextIndex()];
+		set.remove(key);
+		return set.add(key);
+	}
+
+	@Benchmark
+	public long iterate () {
+		return set.iterate();
+	}
+
+	/** Fills an empty set with the default capacity, so the time includes every resize. */
+	@Benchmark
+	public ObjectSetAdapter resize () {
+		ObjectSetAdapter set = create();
+		String[] keyArray = this.keyArray;
+		for (int i = 0, n = size; i < n; i++)
+			set.add(keyArray[i]);
+		return set;
+	}
+
+	ObjectSetAdapter create () {
+		if (impl.equals("ObjectSet")) return new GdxObjectSet();
+		if (impl.equals("OrderedSet")) return new GdxOrderedSet();
+		if (impl.equals("HashSet")) return new JavaHashSet();
+		if (impl.equals("LinkedHashSet")) return new JavaLinkedHashSet();
+		if (impl.equals("ObjectOpenHashSet")) return new FastutilObjectSet();
+		throw new IllegalArgumentException("Unknown implementation: " + impl);
+	}
+
+	/** Minimal common interface over the measured sets. */
+	static abstract class ObjectSetAdapter {
+		abstract boolean add (String key);
+
+		abstract boolean contains (String key);
+
+		abstract boolean remove (String key);
+
+		abstract long iterate ();
+	}
+
+	static class GdxObjectSet extends ObjectSetAdapter {
+		final ObjectSet<String> set = new ObjectSet<String>();
+
+		boolean add (String key) {
+			return set.add(key);
+		}
+
+		boolean contains (String key) {
+			return set.contains(key);
+		}
+
+		boolean remove (String key) {
+			return set.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (String key : set)
+				sum += key.length();
+			return sum;
+		}
+	}
+
+	static class GdxOrderedSet extends ObjectSetAdapter {
+		final OrderedSet<String> set = new OrderedSet<String>();
+
+		boolean add (String key) {
+			return set.add(key);
+		}
+
+		boolean contains (String key) {
+			return set.contains(key);
+		}
+
+		boolean remove (String key) {
+			return set.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (String key : set)
+				sum += key.length();
+			return sum;
+		}
+	}
+
+	static class JavaHashSet extends ObjectSetAdapter {
+		final HashSet<String> set = new HashSet<String>();
+
+		boolean add (String key) {
+			return set.add(key);
+		}
+
+		boolean contains (String key) {
+			return set.contains(key);
+		}
+
+		boolean remove (String key) {
+			return set.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (String key : set)
+				sum += key.length();
+			return sum;
+		}
+	}
+
+	static class JavaLinkedHashSet extends ObjectSetAdapter {
+		final LinkedHashSet<String> set = new LinkedHashSet<String>();
+
+		boolean add (String key) {
+			return set.add(key);
+		}
+
+		boolean contains (String key) {
+			return set.contains(key);
+		}
+
+		boolean remove (String key) {
+			return set.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (String key : set)
+				sum += key.length();
+			return sum;
+		}
+	}
+
+	static class FastutilObjectSet extends ObjectSetAdapter {
+		final ObjectOpenHashSet<String> set = new ObjectOpenHashSet<String>();
+
+		boolean add (String key) {
+			return set.add(key);
+		}
+
+		boolean contains (String key) {
+			return set.contains(key);
+		}
+
+		boolean remove (String key) {
+			return set.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (String key : set)
+				sum += key.length();
+			return sum;
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Blending;
+import com.badlogic.gdx.graphics.Pixmap.Filter;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.PixmapOps;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares {@link PixmapOps} to the native gdx2d path, {@link Pixmap#drawPixmap(Pixmap, int, int)}, for converting, blending
+ * and scaling down a large RGBA8888 image. With 1 thread PixmapOps runs on the calling thread, otherwise bands of rows are
+ * processed on an executor with that many threads. The native methods always use 1 thread. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PixmapOpsBenchmark {
+	@Param({"1", "4"}) public int threads;
+	@Param({"2048"}) public int size;
+
+	Pixmap source, rgb565, target, half;
+	PixmapOps ops;
+	AsyncExecutor executor;
+
+	@Setup
+	public void setup () {
+		GdxNativesLoader.load();
+		source = new Pixmap(size, size, Format.RGBA8888);
+		ByteBuffer pixels = source.getPixels();
+		byte[] bytes = new byte[size * size * 4];
+		new Random(42).nextBytes(bytes);
+		pixels.put(bytes);
+		pixels.clear();
+		rgb565 = new Pixmap(size, size, Format.RGB565);
+		target = new Pixmap(size, size, Format.RGBA8888);
+		half = new Pixmap(size / 2, size / 2, Format.RGBA8888);
+		ops = new PixmapOps();
+		if (threads > 1) {
+			executor = new AsyncExecutor(threads, "PixmapOps");
+			ops.setExecutor(executor);
+		}
+	}
+
+	@TearDown
+	public void tearDown () {
+		source.dispose();
+		rgb565.dispose();
+		target.dispose();
+		half.dispose();
+		if (executor != null) executor.dispose();
+	}
+
+	@Benchmark
+	public Pixmap convertNative () {
+		rgb565.setBlending(Blending.None);
+		rgb565.drawPixmap(source, 0, 0);
+		return rgb565;
+	}
+
+	@Benchmark
+	public Pixmap convert () {
+		ops.convert(source.getPixels(), Format.RGBA8888, rgb565.getPixels(), Format.RGB565, size, size);
+		return rgb565;
+	}
+
+	@Benchmark
+	public Pixmap blendNative () {
+		target.setBlending(Blending.SourceOver);
+		target.drawPixmap(source, 0, 0);
+		return target;
+	}
+
+	@Benchmark
+	public Pixmap blend () {
+		ops.blend(source, target, 0, 0);
+		return target;
+	}
+
+	@Benchmark
+	public Pixmap downscaleNative () {
+		half.setBlending(Blending.None);
+		half.setFilter(Filter.BiLinear);
+		half.drawPixmap(source, 0, 0, size, size, 0, 0, size / 2, size / 2);
+		return half;
+	}
+
+	@Benchmark
+	public Pixmap downscaleBilinear () {
+		ops.downscale(source, half, PixmapOps.Filter.Bilinear);
+		return half;
+	}
+
+	@Benchmark
+	public Pixmap downscaleBox () {
+		ops.downscale(source, half, PixmapOps.Filter.Box);
+		return half;
+	}
+
+	@Benchmark
+	public Pixmap premultiplyAlpha () {
+		ops.premultiplyAlpha(target);
+		return target;
+	}
+}
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.utils.Queue;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayFIFOQueue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares {@link Queue} with java.util.ArrayDeque and fastutil's ObjectArrayFIFOQueue. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueBenchmark {
+	@Param({"Queue", "ArrayDeque", "ObjectArrayFIFOQueue"}) public String impl;
+	@Param({"100", "10000", "1000000"}) public int size;
+
+	Integer[] values;
+	QueueAdapter queue;
+	int index;
+
+	@Setup
+	public void setup () {
+		values = new Integer[size];
+		for (int i = 0; i < size; i++)
+			values[i] = i;
+		queue = create();
+		for (int i = 0; i < size; i++)
+			queue.addLast(values[i]);
+	}
+
+	/** Adds an item to the tail and removes one from the head, so the size stays constant and the head wraps around. */
+	@Benchmark
+	public int addLastRemoveFirst () {
+		int i = index;
+		index = i + 1 == size ? 0 : i + 1;
+		queue.addLast(values[i]);
+		return queue.removeFirst();
+	}
+
+	@Benchmark
+	public long iterate () {
+		return queue.iterate();
+	}
+
+	/** Fills an empty queue with the default capacity, so the time includes every resize. */
+	@Benchmark
+	public QueueAdapter resize () {
+		QueueAdapter queue = create();
+		Integer[] values = this.values;
+		for (int i = 0, n = size; i < n; i++)
+			queue.addLast(values[i]);
+		return queue;
+	}
+
+	QueueAdapter create () {
+		if (impl.equals("Queue")) return new GdxQueue();
+		if (impl.equals("ArrayDeque")) return new JavaArrayDeque();
+		if (impl.equals("ObjectArrayFIFOQueue")) return new FastutilFIFOQueue();
+		throw new IllegalArgumentException("Unknown implementation: " + impl);
+	}
+
+	/** Minimal common interface over the measured queues. */
+	static abstract class QueueAdapter {
+		abstract void addLast (Integer value);
+
+		abstract int removeFirst ();
+
+		abstract long iterate ();
+	}
+
+	static class GdxQueue extends QueueAdapter {
+		final Queue<Integer> queue = new Queue<Integer>();
+
+		void addLast (Integer value) {
+			queue.addLast(value);
+		}
+
+		int removeFirst () {
+			return queue.removeFirst();
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (int i = 0, n = queue.size; i < n; i++)
+				sum += queue.get(i);
+			return sum;
+		}
+	}
+
+	static class JavaArrayDeque extends QueueAdapter {
+		final ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+
+		void addLast (Integer value) {
+			queue.addLast(value);
+		}
+
+		int removeFirst () {
+			return queue.removeFirst();
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (Integer value : queue)
+				sum += value;
+			return sum;
+		}
+	}
+
+	/** ObjectArrayFIFOQueue has no iteration, so iterate drains and refills it. */
+	static class FastutilFIFOQueue extends QueueAdapter {
+		final ObjectArrayFIFOQueue<Integer> queue = new ObjectArrayFIFOQueue<Integer>();
+
+		void addLast (Integer value) {
+			queue.enqueue(value);
+		}
+
+		int removeFirst () {
+			return queue.dequeue();
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (int i = 0, n = queue.size(); i < n; i++) {
+				Integer value = queue.dequeue();
+				sum += value;
+				queue.enqueue(value);
+			}
+			return sum;
+		}
+	}
+}
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.utils.ArrayMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares {@link ArrayMap}, which does linear searches and is meant for a handful of entries, with the hashed maps at the
+ * sizes where it is typically used. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmallMapBenchmark {
+	@Param({"ArrayMap", "ObjectMap", "HashMap"}) public String impl;
+	@Param({"4", "16", "64"}) public int size;
+
+	String[] keyArray;
+	int[] order;
+	Integer[] boxedValues;
+	SmallMap map;
+	int index;
+
+	@Setup
+	public void setup () {
+		keyArray = BenchmarkData.stringKeys(size, "random");
+		order = BenchmarkData.lookupOrder(size);
+		boxedValues = new Integer[size];
+		for (int i = 0; i < size; i++)
+			boxedValues[i] = i;
+		map = create();
+		for (int i = 0; i < size; i++)
+			map.put(keyArray[i], boxedValues[i]);
+	}
+
+	int nextIndex () {
+		int i = index;
+		index = i + 1 == size ? 0 : i + 1;
+		return order[i];
+	}
+
+	@Benchmark
+	public Integer get () {
+		return map.get(keyArray[nextIndex()]);
+	}
+
+	@Benchmark
+	public int put () {
+		int i = nextIndex();
+		map.put(keyArray[i], boxedValues[i]);
+		return i;
+	}
+
+	/** Removes a key and puts it back, so the map size stays constant. */
+	@Benchmark
+	public Integer removeAndPut () {
+		String key = keyArray[nextIndex()];
+		Integer value = map.remove(key);
+		map.put(key, value);
+		return value;
+	}
+
+	@Benchmark
+	public long iterate () {
+		return map.iterate();
+	}
+
+	/** Fills an empty map with the default capacity, so the time includes every resize. */
+	@Benchmark
+	public SmallMap resize () {
+		SmallMap map = create();
+		String[] keyArray = this.keyArray;
+		Integer[] boxedValues = this.boxedValues;
+		for (int i = 0, n = size; i < n; i++)
+			map.put(keyArray[i], boxedValues[i]);
+		return map;
+	}
+
+	SmallMap create () {
+		if (impl.equals("ArrayMap")) return new GdxArrayMap();
+		if (impl.equals("ObjectMap")) return new GdxObjectMap();
+		if (impl.equals("HashMap")) return new JavaHashMap();
+		throw new IllegalArgumentException("Unknown implementation: " + impl);
+	}
+
+	/** Minimal common interface over the measured maps. */
+	static abstract class SmallMap {
+		abstract void put (String key, Integer value);
+
+		abstract Integer get (String key);
+
+		abstract Integer remove (String key);
+
+		abstract long iterate ();
+	}
+
+	static class GdxArrayMap extends SmallMap {
+		final ArrayMap<String, Integer> map = new ArrayMap<String, Integer>();
+
+		void put (String key, Integer value) {
+			map.put(key, value);
+		}
+
+		Integer get (String key) {
+			return map.get(key);
+		}
+
+		Integer remove (String key) {
+			return map.removeKey(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (ObjectMap.Entry<String, Integer> entry : map.entries())
+				sum += entry.key.length() + entry.value;
+			return sum;
+		}
+	}
+
+	static class GdxObjectMap extends SmallMap {
+		final ObjectMap<String, Integer> map = new ObjectMap<String, Integer>();
+
+		void put (String key, Integer value) {
+			map.put(key, value);
+		}
+
+		Integer get (String key) {
+			return map.get(key);
+		}
+
+		Integer remove (String key) {
+			return map.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (ObjectMap.Entry<String, Integer> entry : map.entries())
+				sum += entry.key.length() + entry.value;
+			return sum;
+		}
+	}
+
+	static class JavaHashMap extends SmallMap {
+		final HashMap<String, Integer> map = new HashMap<String, Integer>();
+
+		void put (String key, Integer value) {
+			map.put(key, value);
+		}
+
+		Integer get (String key) {
+			return map.get(key);
+		}
+
+		Integer remove (String key) {
+			return map.remove(key);
+		}
+
+		long iterate () {
+			long sum = 0;
+			for (Map.Entry<String, Integer> entry : map.entrySet())
+				sum += entry.getKey().length() + entry.getValue();
+			return sum;
+		}
+	}
+}
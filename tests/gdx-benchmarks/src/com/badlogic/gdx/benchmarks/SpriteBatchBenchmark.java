@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.benchmarks;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.ParallelBatchRecorder;
+import com.badlogic.gdx.graphics.g2d.ParallelBatchRecorder.SegmentDrawer;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures the time to draw rotated and scaled sprites, like particles, from 2 textures with a {@link SpriteBatch}. Runs in a
+ * {@link HeadlessApplication} with a GL20 that does nothing, so it measures computing the vertices and copying them to the
+ * vertex buffer. {@link #spriteBatch()} draws every sprite on the calling thread. {@link #parallel()} draws segments of the
+ * sprites on an executor with {@link ParallelBatchRecorder} and then submits them to the SpriteBatch in order. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpriteBatchBenchmark {
+	@Param({"1", "4"}) public int threads;
+	@Param({"50000"}) public int sprites;
+
+	HeadlessApplication app;
+	Texture texture1, texture2;
+	TextureRegion[] regions;
+	float[] particles;
+	SpriteBatch batch;
+	AsyncExecutor executor;
+	ParallelBatchRecorder recorder;
+	SegmentDrawer drawer;
+
+	@Setup
+	public void setup () {
+		app = new HeadlessApplication(new ApplicationAdapter() {});
+		Gdx.gl = Gdx.gl20 = (GL20)Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class[] {GL20.class},
+			new InvocationHandler() {
+				public Object invoke (Object proxy, Method method, Object[] args) {
+					String name = method.getName();
+					if (name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) ((IntBuffer)args[2]).put(0, 1);
+					Class type = method.getReturnType();
+					if (type == int.class) return name.startsWith("glCreate") || name.startsWith("glGen") ? 1 : 0;
+					if (type == boolean.class) return false;
+					if (type == float.class) return 0f;
+					if (type == String.class) return "";
+					return null;
+				}
+			});
+
+		Pixmap pixmap = new Pixmap(64, 64, Format.RGBA8888);
+		texture1 = new Texture(pixmap);
+		texture2 = new Texture(pixmap);
+		pixmap.dispose();
+		regions = new TextureRegion[] {new TextureRegion(texture1, 0, 0, 32, 32), new TextureRegion(texture2, 16, 16, 16, 16)};
+
+		// x, y, scale and rotation of each sprite.
+		particles = new float[sprites * 4];
+		Random random = new Random(42);
+		for (int i = 0; i < particles.length; i += 4) {
+			particles[i] = random.nextFloat() * 1000;
+			particles[i + 1] = random.nextFloat() * 1000;
+			particles[i + 2] = 0.5f + random.nextFloat();
+			particles[i + 3] = random.nextFloat() * 360;
+		}
+
+		batch = new SpriteBatch(8191);
+		recorder = new ParallelBatchRecorder();
+		if (threads > 1) {
+			executor = new AsyncExecutor(threads, "SpriteBatchBenchmark");
+			recorder.setExecutor(executor);
+		}
+		drawer = new SegmentDrawer() {
+			public void draw (Batch batch, int segment) {
+				int segments = threads * 4;
+				drawSprites(batch, sprites * segment / segments, sprites * (segment + 1) / segments);
+			}
+		};
+	}
+
+	@TearDown
+	public void tearDown () {
+		batch.dispose();
+		texture1.dispose();
+		texture2.dispose();
+		if (executor != null) executor.dispose();
+		app.exit();
+	}
+
+	/** Draws the sprites from start to end, changing textures every 100 sprites. */
+	void drawSprites (Batch batch, int start, int end) {
+		float[] particles = this.particles;
+		TextureRegion[] regions = this.regions;
+		for (int i = start; i < end; i++) {
+			int p = i * 4;
+			float scale = particles[p + 2];
+			batch.draw(regions[i / 100 & 1], particles[p], particles[p + 1], 8, 8, 16, 16, scale, scale, particles[p + 3]);
+		}
+	}
+
+	@Benchmark
+	public SpriteBatch spriteBatch () {
+		batch.begin();
+		drawSprites(batch, 0, sprites);
+		batch.end();
+		return batch;
+	}
+
+	@Benchmark
+	public SpriteBatch parallel () {
+		batch.begin();
+		recorder.draw(batch, threads * 4, drawer);
+		batch.end();
+		return batch;
+	}
+}